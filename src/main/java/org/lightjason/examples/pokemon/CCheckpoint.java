@@ -0,0 +1,309 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon;
+
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.agent.pokemon.CPokemonGenerator;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+
+/**
+ * binary checkpoint of the simulation, the file stores the
+ * step, the environment size and the agents grouped by their
+ * configuration name, each agent is stored as a record with
+ * its length, so the records are written and restored in parallel
+ * and the file is memory-mapped on restoring
+ */
+final class CCheckpoint
+{
+    /**
+     * file identifier
+     */
+    private static final int MAGIC = 0x504b4350;
+    /**
+     * format version
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * ctor
+     */
+    private CCheckpoint()
+    {
+    }
+
+    /**
+     * writes a checkpoint, the file is written to a temporary
+     * file first, so an existing checkpoint is replaced atomically
+     *
+     * @param p_path file
+     * @param p_step next simulation step
+     * @param p_environment environment
+     * @param p_agents agents of each configuration name
+     * @throws IOException on writing error
+     */
+    static void write( final Path p_path, final int p_step, final IEnvironment p_environment, final Map<String, List<IAgent>> p_agents ) throws IOException
+    {
+        final Path l_temporary = p_path.resolveSibling( p_path.getFileName() + ".tmp" );
+        try (
+            final DataOutputStream l_output = new DataOutputStream( new BufferedOutputStream( Files.newOutputStream( l_temporary ) ) );
+        )
+        {
+            l_output.writeInt( MAGIC );
+            l_output.writeInt( VERSION );
+            l_output.writeInt( p_step );
+            l_output.writeInt( p_environment.row() );
+            l_output.writeInt( p_environment.column() );
+
+            l_output.writeInt( p_agents.size() );
+            for ( final Map.Entry<String, List<IAgent>> i : p_agents.entrySet() )
+            {
+                l_output.writeUTF( i.getKey() );
+                l_output.writeInt( i.getValue().size() );
+                for ( final byte[] j : CCheckpoint.records( i.getValue() ) )
+                {
+                    l_output.writeInt( j.length );
+                    l_output.write( j );
+                }
+            }
+        }
+
+        Files.move( l_temporary, p_path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    /**
+     * restores the agents of a checkpoint
+     *
+     * @param p_path file
+     * @param p_environment environment
+     * @param p_generators agent generator of each configuration name
+     * @param p_agents map which is filled with the agents of each configuration name
+     * @return next simulation step
+     * @throws IOException on reading error
+     */
+    static int restore( final Path p_path, final IEnvironment p_environment, final Map<String, CPokemonGenerator> p_generators,
+                        final Map<String, List<IAgent>> p_agents ) throws IOException
+    {
+        return CCheckpoint.restore( p_path, p_environment, p_generators, p_agents, i -> true );
+    }
+
+    /**
+     * restores the agents of a checkpoint, which match a filter,
+     * e.g. the agents within the stripe of a shard
+     *
+     * @param p_path file
+     * @param p_environment environment
+     * @param p_generators agent generator of each configuration name
+     * @param p_agents map which is filled with the agents of each configuration name
+     * @param p_filter filter of the restored agents
+     * @return next simulation step
+     * @throws IOException on reading error
+     */
+    static int restore( final Path p_path, final IEnvironment p_environment, final Map<String, CPokemonGenerator> p_generators,
+                        final Map<String, List<IAgent>> p_agents, final Predicate<IAgent> p_filter ) throws IOException
+    {
+        try (
+            final FileChannel l_channel = FileChannel.open( p_path, StandardOpenOption.READ );
+        )
+        {
+            final ByteBuffer l_buffer = l_channel.map( FileChannel.MapMode.READ_ONLY, 0, l_channel.size() );
+            final DataInputStream l_input = new DataInputStream( new CBufferInput( l_buffer ) );
+
+            if ( ( l_input.readInt() != MAGIC ) || ( l_input.readInt() != VERSION ) )
+                throw new IOException( MessageFormat.format( "file [{0}] is not a checkpoint", p_path ) );
+
+            final int l_step = l_input.readInt();
+            final int l_rows = l_input.readInt();
+            final int l_columns = l_input.readInt();
+            if ( ( l_rows != p_environment.row() ) || ( l_columns != p_environment.column() ) )
+                throw new IOException(
+                    MessageFormat.format(
+                        "checkpoint environment [{0}x{1}] does not match the environment [{2}x{3}]",
+                        l_rows, l_columns, p_environment.row(), p_environment.column()
+                    )
+                );
+
+            final int l_groups = l_input.readInt();
+            for ( int i = 0; i < l_groups; i++ )
+            {
+                final String l_name = l_input.readUTF();
+                final CPokemonGenerator l_generator = p_generators.get( l_name );
+                if ( l_generator == null )
+                    throw new IOException( MessageFormat.format( "agent [{0}] of the checkpoint is not configured", l_name ) );
+
+                p_agents.put( l_name, CCheckpoint.agents( l_generator, CCheckpoint.records( l_buffer, l_input.readInt() ), p_filter ) );
+            }
+
+            return l_step;
+        }
+    }
+
+    /**
+     * serializes the agents in parallel
+     *
+     * @param p_agents agents
+     * @return list of records in the order of the agents
+     * @throws IOException on writing error
+     */
+    private static List<byte[]> records( final List<IAgent> p_agents ) throws IOException
+    {
+        try
+        {
+            return p_agents.parallelStream().map( i ->
+            {
+                try
+                {
+                    final ByteArrayOutputStream l_record = new ByteArrayOutputStream();
+                    i.checkpoint( new DataOutputStream( l_record ) );
+                    return l_record.toByteArray();
+                }
+                catch ( final IOException l_exception )
+                {
+                    throw new UncheckedIOException( l_exception );
+                }
+            } ).collect( Collectors.toList() );
+        }
+        catch ( final UncheckedIOException l_exception )
+        {
+            throw l_exception.getCause();
+        }
+    }
+
+    /**
+     * splits the records of the mapped file without copying
+     *
+     * @param p_buffer mapped file on the position of the first record
+     * @param p_number number of records
+     * @return list of record buffers
+     */
+    private static List<ByteBuffer> records( final ByteBuffer p_buffer, final int p_number )
+    {
+        final List<ByteBuffer> l_records = new ArrayList<>( p_number );
+        for ( int i = 0; i < p_number; i++ )
+        {
+            final int l_length = p_buffer.getInt();
+            final ByteBuffer l_record = p_buffer.slice();
+            l_record.limit( l_length );
+            l_records.add( l_record );
+            p_buffer.position( p_buffer.position() + l_length );
+        }
+        return l_records;
+    }
+
+    /**
+     * restores the agents of the records in parallel
+     *
+     * @param p_generator agent generator
+     * @param p_records records
+     * @param p_filter filter of the restored agents
+     * @return list of the matching agents in the order of the records
+     * @throws IOException on reading error
+     */
+    private static List<IAgent> agents( final CPokemonGenerator p_generator, final List<ByteBuffer> p_records, final Predicate<IAgent> p_filter ) throws IOException
+    {
+        try
+        {
+            return p_records.parallelStream().map( i ->
+            {
+                try
+                {
+                    return p_generator.restore( new DataInputStream( new CBufferInput( i ) ) );
+                }
+                catch ( final IOException l_exception )
+                {
+                    throw new UncheckedIOException( l_exception );
+                }
+            } ).filter( p_filter ).collect( Collectors.toList() );
+        }
+        catch ( final UncheckedIOException l_exception )
+        {
+            throw l_exception.getCause();
+        }
+    }
+
+
+    /**
+     * input stream of a byte buffer
+     */
+    private static final class CBufferInput extends InputStream
+    {
+        /**
+         * buffer
+         */
+        private final ByteBuffer m_buffer;
+
+        /**
+         * ctor
+         *
+         * @param p_buffer buffer
+         */
+        CBufferInput( final ByteBuffer p_buffer )
+        {
+            m_buffer = p_buffer;
+        }
+
+        @Override
+        public final int read()
+        {
+            return m_buffer.hasRemaining() ? m_buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public final int read( final byte[] p_bytes, final int p_offset, final int p_length )
+        {
+            if ( !m_buffer.hasRemaining() )
+                return -1;
+
+            final int l_length = Math.min( p_length, m_buffer.remaining() );
+            m_buffer.get( p_bytes, p_offset, l_length );
+            return l_length;
+        }
+
+        @Override
+        public final int available()
+        {
+            return m_buffer.remaining();
+        }
+    }
+
+}
@@ -23,20 +23,14 @@
 
 package org.lightjason.examples.pokemon;
 
-import org.lightjason.examples.pokemon.simulation.IElement;
 import org.lightjason.examples.pokemon.simulation.agent.IAgent;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.text.MessageFormat;
-import java.util.function.Supplier;
 import java.util.logging.Logger;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 
 /**
@@ -61,36 +55,6 @@ public final class CCommon
     }
 
 
-    /**
-     * creates an int-pair-stream of an element
-     *
-     * @param p_element element but position must be return a vector with 4 elements
-     * @return int-pair-stream
-     */
-    public static Stream<Pair<Integer, Integer>> inttupelstream( final IElement p_element )
-    {
-        return CCommon.inttupelstream(
-            (int) p_element.position().get( 0 ), (int) ( p_element.position().get( 0 ) + p_element.position().get( 2 ) ),
-            (int) p_element.position().get( 1 ), (int) ( p_element.position().get( 1 ) + p_element.position().get( 3 ) )
-        );
-    }
-
-
-    /**
-     * creates an int-pair-stream
-     *
-     * @param p_firststart start value of first component
-     * @param p_firstend end (inclusive) of first component
-     * @param p_secondstart start value of second component
-     * @param p_secondend end (inclusive) of second component
-     * @return int-pair-sream
-     */
-    public static Stream<Pair<Integer, Integer>> inttupelstream( final int p_firststart, final int p_firstend, final int p_secondstart, final int p_secondend )
-    {
-        final Supplier<IntStream> l_inner = () -> IntStream.rangeClosed( p_secondstart, p_secondend );
-        return IntStream.rangeClosed( p_firststart, p_firstend ).boxed().flatMap( i -> l_inner.get().mapToObj( j -> new ImmutablePair<>( i, j ) ) );
-    }
-
     /**
      * returns a file from a resource e.g. Jar file
      *
@@ -31,6 +31,9 @@ import org.lightjason.examples.pokemon.simulation.environment.CEnvironment;
 import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
 import org.lightjason.examples.pokemon.simulation.agent.CEvaluation;
 import org.lightjason.examples.pokemon.simulation.item.CStatic;
+import org.lightjason.examples.pokemon.simulation.shard.CShard;
+import org.lightjason.examples.pokemon.simulation.shard.CSocketTransport;
+import org.lightjason.examples.pokemon.simulation.shard.CStripe;
 import org.lightjason.examples.pokemon.simulation.item.IItem;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.tuple.ImmutableTriple;
@@ -39,7 +42,6 @@ import org.lightjason.agentspeak.action.IAction;
 import org.lightjason.agentspeak.action.IBaseAction;
 import org.lightjason.agentspeak.common.CPath;
 import org.lightjason.agentspeak.common.IPath;
-import org.lightjason.agentspeak.generator.IAgentGenerator;
 import org.lightjason.agentspeak.language.ITerm;
 import org.lightjason.agentspeak.language.execution.IContext;
 import org.lightjason.agentspeak.language.execution.fuzzy.CFuzzyValue;
@@ -49,11 +51,16 @@ import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -90,10 +97,22 @@ public final class CConfiguration
      * simulation steps
      */
     private int m_simulationstep;
+    /**
+     * first simulation step
+     */
+    private int m_simulationstart;
     /**
      * simulation dynamic elements
      */
     private List<IAgent> m_agents;
+    /**
+     * simulation dynamic elements of each agent configuration
+     */
+    private Map<String, List<IAgent>> m_agentgroups;
+    /**
+     * shard of a sharded simulation
+     */
+    private CShard m_shard;
     /**
      * simulation static elements
      */
@@ -107,6 +126,11 @@ public final class CConfiguration
      * (file name, number format, iteration)
      */
     private Triple<String, String, Integer> m_screenshot;
+    /**
+     * checkpoint information
+     * (file name, number format, iteration)
+     */
+    private Triple<String, String, Integer> m_checkpoint;
     /**
      * zoom speed
      */
@@ -116,9 +140,17 @@ public final class CConfiguration
      */
     private float m_dragspeed = 1f;
     /**
-     * thread-sleep time in milliseconds
+     * target number of simulation steps per second
      */
-    private int m_threadsleeptime;
+    private double m_tickrate;
+    /**
+     * boolean flag to run each agent as virtual thread
+     */
+    private boolean m_virtualthreads;
+    /**
+     * radius of the neighbourhood in which idle agents are woken
+     */
+    private int m_activity;
     /**
      * boolean flag to show stack trace
      */
@@ -146,8 +178,25 @@ public final class CConfiguration
      * @throws IOException on io errors
      * @throws URISyntaxException on URI syntax error
      */
-    @SuppressWarnings( "unchecked" )
     public final CConfiguration load( final String p_input ) throws IOException, URISyntaxException
+    {
+        return this.load( p_input, "", 0 );
+    }
+
+    /**
+     * loads the configuration from a file and
+     * restores the agents of a checkpoint
+     *
+     * @param p_input YAML configuration file
+     * @param p_checkpoint checkpoint file, on an empty value the agents are generated
+     * @param p_shard shard index, it is used if the configuration defines more than one shard
+     * @return instance
+     *
+     * @throws IOException on io errors
+     * @throws URISyntaxException on URI syntax error
+     */
+    @SuppressWarnings( "unchecked" )
+    public final CConfiguration load( final String p_input, final String p_checkpoint, final int p_shard ) throws IOException, URISyntaxException
     {
         final URL l_path = CCommon.getResourceURL( p_input );
 
@@ -157,7 +206,9 @@ public final class CConfiguration
 
         // get initial values
         m_stacktrace = (boolean) l_data.getOrDefault( "stacktrace", false );
-        m_threadsleeptime = (int) l_data.getOrDefault( "threadsleeptime", 0 );
+        m_tickrate = CConfiguration.tickrate( l_data );
+        m_virtualthreads = (boolean) l_data.getOrDefault( "virtualthreads", false );
+        m_activity = (int) l_data.getOrDefault( "activity", 0 );
         m_simulationstep = (int) l_data.getOrDefault( "steps", Integer.MAX_VALUE );
         if ( !(boolean) l_data.getOrDefault( "logging", false ) )
             LogManager.getLogManager().reset();
@@ -176,6 +227,12 @@ public final class CConfiguration
             (Integer) ( (Map<String, Object>) l_data.getOrDefault( "screenshot", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "step", -1 )
         );
 
+        m_checkpoint = new ImmutableTriple<>(
+            (String) ( (Map<String, Object>) l_data.getOrDefault( "checkpoint", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "file", "" ),
+            (String) ( (Map<String, Object>) l_data.getOrDefault( "checkpoint", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "format", "" ),
+            (Integer) ( (Map<String, Object>) l_data.getOrDefault( "checkpoint", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "step", -1 )
+        );
+
         // create static objects - static object are needed by the environment
         final List<IItem> l_static = new LinkedList<>();
         this.createStatic( (List<Map<String, Object>>) l_data.getOrDefault( "element", Collections.<Map<String, Object>>emptyList() ), l_static );
@@ -189,17 +246,29 @@ public final class CConfiguration
                 .getOrDefault( "cellsize", -1 ),
             ERoutingFactory.valueOf( ( (String) ( (Map<String, Object>) l_data.getOrDefault( "environment", Collections.<String, Integer>emptyMap() ) )
                 .getOrDefault( "routing", "" ) ).trim().toUpperCase() ).get(),
+            (boolean) ( (Map<String, Object>) l_data.getOrDefault( "environment", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "synchronous", false ),
+            (boolean) ( (Map<String, Object>) l_data.getOrDefault( "environment", Collections.<String, Integer>emptyMap() ) ).getOrDefault( "chunked", false ),
             m_staticelements
         );
 
+        // the agents of a sharded simulation are generated within the stripe of the shard only
+        final Map<String, Object> l_shard = (Map<String, Object>) l_data.getOrDefault( "shard", Collections.<String, Object>emptyMap() );
+        final CStripe l_stripe = new CStripe( m_environment.row(), (int) l_shard.getOrDefault( "count", 1 ), p_shard );
+
         // create executable object list and check number of elements - environment must be exists
-        final List<IAgent> l_agents = new LinkedList<>();
-        this.createAgent(
+        final Map<String, List<IAgent>> l_agents = new LinkedHashMap<>();
+        final Map<String, CPokemonGenerator> l_generators = this.createAgent(
             (Map<String, Object>) l_data.getOrDefault( "agent", Collections.<String, Object>emptyMap() ),
             l_agents,
+            l_stripe,
+            p_checkpoint.trim(),
             (boolean) l_data.getOrDefault( "agentprint", true )
         );
-        m_agents = Collections.unmodifiableList( l_agents );
+        m_agentgroups = Collections.unmodifiableMap( l_agents );
+        m_agents = Collections.unmodifiableList( l_agents.values().stream().flatMap( List::stream ).collect( Collectors.toList() ) );
+        m_shard = l_stripe.shards() > 1
+                  ? this.createShard( l_shard, l_stripe, l_generators )
+                  : null;
 
         if ( m_agents.size() + m_staticelements.size() > m_environment.column() * m_environment.row() / 2 )
             throw new IllegalArgumentException(
@@ -216,8 +285,10 @@ public final class CConfiguration
         m_evaluation = new CEvaluation( m_agents.parallelStream() );
 
 
-        // run initialization processes
+        // run initialization processes, restored agents are placed on their positions
         m_environment.initialize();
+        if ( !p_checkpoint.trim().isEmpty() )
+            m_agents.forEach( i -> m_environment.move( i, (int) i.position().getQuick( 0 ), (int) i.position().getQuick( 1 ) ) );
 
         return this;
     }
@@ -253,6 +324,17 @@ public final class CConfiguration
         return m_simulationstep;
     }
 
+    /**
+     * first simulation step, it is greater than
+     * zero if the agents are restored
+     *
+     * @return step
+     */
+    final int simulationstart()
+    {
+        return m_simulationstart;
+    }
+
     /**
      * returns the evaluation object
      *
@@ -274,13 +356,24 @@ public final class CConfiguration
     }
 
     /**
-     * return all executable objects
+     * return all executable objects, on a sharded
+     * simulation the current agents of the shard
      *
-     * @return object list
+     * @return object collection
      */
-    final List<IAgent> agents()
+    final Collection<IAgent> agents()
     {
-        return m_agents;
+        return m_shard == null ? m_agents : m_shard.agents();
+    }
+
+    /**
+     * returns the shard
+     *
+     * @return shard or null if the simulation is not sharded
+     */
+    final CShard shard()
+    {
+        return m_shard;
     }
 
     /**
@@ -303,6 +396,36 @@ public final class CConfiguration
         return m_screenshot;
     }
 
+    /**
+     * get checkpoint information
+     *
+     * @return triple of checkpoint information
+     */
+    final Triple<String, String, Integer> checkpoint()
+    {
+        return m_checkpoint;
+    }
+
+    /**
+     * writes a checkpoint of the environment and the agents,
+     * it must be called between two simulation steps, each
+     * shard writes its own file with the shard index
+     *
+     * @param p_step next simulation step
+     * @return file of the checkpoint
+     * @throws IOException on writing error
+     */
+    final Path checkpoint( final int p_step ) throws IOException
+    {
+        final Path l_path = Paths.get(
+            MessageFormat.format( m_checkpoint.getLeft(), String.format( m_checkpoint.getMiddle(), p_step ) )
+            + ( m_shard == null ? "" : "-" + m_shard.stripe().shard() )
+            + ".bin"
+        );
+        CCheckpoint.write( l_path, p_step, m_environment, m_shard == null ? m_agentgroups : m_shard.groups() );
+        return l_path;
+    }
+
     /**
      * returns the zoom speed
      *
@@ -324,13 +447,34 @@ public final class CConfiguration
     }
 
     /**
-     * returns the thread-sleep time
+     * returns the target number of simulation steps per second
+     *
+     * @return ticks per second, zero runs the steps without pacing
+     */
+    final double tickrate()
+    {
+        return m_tickrate;
+    }
+
+    /**
+     * returns the flag that each agent runs as virtual thread
+     *
+     * @return virtual thread flag
+     */
+    final boolean virtualthreads()
+    {
+        return m_virtualthreads;
+    }
+
+    /**
+     * returns the radius of the neighbourhood in
+     * which idle agents are woken
      *
-     * @return sleep time
+     * @return radius, zero executes all agents
      */
-    final int threadsleeptime()
+    final int activity()
     {
-        return m_threadsleeptime;
+        return m_activity;
     }
 
     /**
@@ -349,14 +493,19 @@ public final class CConfiguration
      * creates the moving agent based on the configuration
      *
      * @param p_agentconfiguration subsection for agent configuration
-     * @param p_elements element list
+     * @param p_elements element map with the configuration name
+     * @param p_stripe stripe of the generated positions
+     * @param p_checkpoint checkpoint file, on an empty value the agents are generated
      * @param p_agentprint disables / enables agent printing
-     * @throws IOException thrown on ASL reading error
+     * @return agent generator of each configuration name
+     * @throws IOException thrown on ASL or checkpoint reading error
      */
     @SuppressWarnings( "unchecked" )
-    private void createAgent( final Map<String, Object> p_agentconfiguration, final List<IAgent> p_elements, final boolean p_agentprint ) throws IOException
+    private Map<String, CPokemonGenerator> createAgent( final Map<String, Object> p_agentconfiguration, final Map<String, List<IAgent>> p_elements,
+                                                        final CStripe p_stripe, final String p_checkpoint, final boolean p_agentprint ) throws IOException
     {
-        final Map<String, IAgentGenerator<IAgent>> l_agentgenerator = new HashMap<>();
+        final Map<String, CPokemonGenerator> l_agentgenerator = new HashMap<>();
+        final Map<String, CPokemonGenerator> l_namegenerator = new HashMap<>();
         final Set<IAction> l_action = Collections.unmodifiableSet(
             Stream.concat(
                 p_agentprint ? Stream.of() : Stream.of( new CEmptyPrint() ),
@@ -382,26 +531,31 @@ public final class CConfiguration
                 {
                     // get existing agent generator or create a new one based on the ASL
                     // and push it back if generator does not exists
-                    final IAgentGenerator<IAgent> l_generator = l_agentgenerator.getOrDefault(
+                    final CPokemonGenerator l_generator = l_agentgenerator.getOrDefault(
                         l_asl,
                         new CPokemonGenerator(
                             m_environment,
                             l_stream,
                             l_action,
-                            IAggregation.EMPTY
+                            IAggregation.EMPTY,
+                            p_stripe.rowfrom(),
+                            p_stripe.rowto()
                         )
                     );
                     l_agentgenerator.putIfAbsent( l_asl, l_generator );
+                    l_namegenerator.put( i.getKey(), l_generator );
+                    if ( !p_checkpoint.isEmpty() )
+                        return;
 
                     // generate agents and put it to the list
-                    l_generator.generatemultiple(
-                        (int) l_parameter.getOrDefault( "number", 0 ),
+                    p_elements.put( i.getKey(), l_generator.generatemultiple(
+                        p_stripe.share( (int) l_parameter.getOrDefault( "number", 0 ) ),
 
                         //EForceFactory.valueOf( ( (String) l_parameter.getOrDefault( "force", "" ) ).trim().toUpperCase() ).get(),
 
                         (String) l_parameter.getOrDefault( "pokemon", "" )
 
-                    ).sequential().forEach( p_elements::add );
+                    ).sequential().collect( Collectors.toList() ) );
                 }
                 catch ( final Exception l_exception )
                 {
@@ -409,6 +563,50 @@ public final class CConfiguration
                 }
 
             } );
+
+        // restores the agents with the generator of their configuration name, a shard restores the agents of its stripe only,
+        // so each agent exists once within the sharded simulation
+        m_simulationstart = p_checkpoint.isEmpty()
+                            ? 0
+                            : CCheckpoint.restore(
+                                Paths.get( p_checkpoint ), m_environment, l_namegenerator, p_elements,
+                                i -> p_stripe.inside( (int) i.position().getQuick( 0 ) )
+                            );
+        return l_namegenerator;
+    }
+
+    /**
+     * creates the shard, the call blocks until all shards are connected
+     *
+     * @param p_shardconfiguration subsection for shard configuration
+     * @param p_stripe stripe of the shard
+     * @param p_generators agent generator of each configuration name
+     * @return shard
+     * @throws IOException thrown on connection error
+     */
+    private CShard createShard( final Map<String, Object> p_shardconfiguration, final CStripe p_stripe, final Map<String, CPokemonGenerator> p_generators )
+        throws IOException
+    {
+        final CShard l_shard = new CShard(
+            m_environment,
+            p_stripe,
+            new CSocketTransport( p_stripe.shard(), p_stripe.shards(), (int) p_shardconfiguration.getOrDefault( "port", 7100 ) ),
+            (int) p_shardconfiguration.getOrDefault( "halo", 2 ),
+            ( i, j ) ->
+            {
+                try
+                {
+                    return p_generators.get( i ).restore( j );
+                }
+                catch ( final IOException l_exception )
+                {
+                    throw new UncheckedIOException( l_exception );
+                }
+            }
+        );
+
+        m_agentgroups.forEach( ( i, j ) -> j.forEach( k -> l_shard.add( i, k ) ) );
+        return l_shard;
     }
 
     /**
@@ -433,6 +631,22 @@ public final class CConfiguration
 
     }
 
+    /**
+     * reads the tick rate, configurations with a thread-sleep
+     * time use the rate of a step without costs
+     *
+     * @param p_data configuration data
+     * @return ticks per second
+     */
+    private static double tickrate( final Map<String, Object> p_data )
+    {
+        if ( p_data.containsKey( "tickrate" ) )
+            return ( (Number) p_data.get( "tickrate" ) ).doubleValue();
+
+        final int l_sleeptime = (int) p_data.getOrDefault( "threadsleeptime", 0 );
+        return l_sleeptime > 0 ? 1000.0 / l_sleeptime : 0;
+    }
+
     /**
      * creates an empty print action to supress output
      */
@@ -24,6 +24,7 @@
 package org.lightjason.examples.pokemon;
 
 
+import org.lightjason.examples.pokemon.ui.CParticleSystem;
 import org.lightjason.examples.pokemon.ui.CScreen;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
@@ -32,11 +33,13 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Triple;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -76,6 +79,9 @@ public final class CMain
         l_clioptions.addOption( "help", false, "shows this information" );
         l_clioptions.addOption( "generate", true, "generates an example configuration within the current directory" );
         l_clioptions.addOption( "configuration", true, "defines the simulation configuration" );
+        l_clioptions.addOption( "restore", true, "restores the agents of a checkpoint file" );
+        l_clioptions.addOption( "shard", true, "index of the shard, which is run by the process on a sharded simulation" );
+        l_clioptions.addOption( "headless", false, "runs the simulation without window as fast as possible and reports the steps per second" );
 
         final CommandLine l_cli;
         try
@@ -138,9 +144,26 @@ public final class CMain
         CConfiguration.INSTANCE.load(
             l_cli.hasOption( "configuration" )
             ? l_cli.getOptionValue( "configuration" )
-            : CCommon.PACKAGEPATH + "configuration.yaml"
+            : CCommon.PACKAGEPATH + "configuration.yaml",
+            l_cli.getOptionValue( "restore", "" ),
+            Integer.parseInt( l_cli.getOptionValue( "shard", "0" ) )
         );
 
+        // headless execution does not create any ui object, so particle systems are disabled,
+        // it cannot be closed by a window, so it needs a finite number of steps
+        if ( l_cli.hasOption( "headless" ) )
+        {
+            if ( CConfiguration.INSTANCE.simulationsteps() == Integer.MAX_VALUE )
+            {
+                System.err.println( "headless execution needs a finite number of steps within the configuration" );
+                System.exit( -1 );
+                return;
+            }
+
+            CParticleSystem.INSTANCE.disable();
+            CMain.execute( new CScheduler( CMain::call, CConfiguration.INSTANCE.virtualthreads(), CConfiguration.INSTANCE.activity() ) );
+            return;
+        }
 
         // force-exit must be disabled for avoid error exiting
         final LwjglApplicationConfiguration l_config = new LwjglApplicationConfiguration();
@@ -160,63 +183,119 @@ public final class CMain
             CConfiguration.INSTANCE.screenshot()
         );
         new LwjglApplication( l_screen, l_config );
-        CMain.execute( l_screen );
+        CMain.execute( l_screen, new CScheduler( CMain::call, CConfiguration.INSTANCE.virtualthreads(), CConfiguration.INSTANCE.activity() ) );
     }
 
     /**
      * execute simulation
      *
      * @param p_screen screen reference
+     * @param p_scheduler scheduler
      */
-    private static void execute( final CScreen p_screen )
+    private static void execute( final CScreen p_screen, final CScheduler p_scheduler )
     {
+        final CPacer l_pacer = new CPacer( CConfiguration.INSTANCE.tickrate() );
         IntStream
-            .range( 0, CConfiguration.INSTANCE.simulationsteps() )
+            .range( CConfiguration.INSTANCE.simulationstart(), CConfiguration.INSTANCE.simulationsteps() )
             .mapToObj( i ->
             {
                 // update screen take screenshot and run object execution
                 p_screen.iteration( i );
-                Stream.concat(
-                    Stream.of(
-                        //CConfiguration.INSTANCE.evaluation(),
-                        CConfiguration.INSTANCE.environment()
-                    ),
-                    Stream.concat(
-                        CConfiguration.INSTANCE.staticelements().parallelStream(),
-                        CConfiguration.INSTANCE.agents().parallelStream()
-                    )
-                )
-                    .parallel()
-                    .forEach( j ->
-                    {
-                        try
-                        {
-                            j.call();
-                        }
-                        catch ( final Exception l_exception )
-                        {
-                            LOGGER.warning( l_exception.toString() );
-                            if ( CConfiguration.INSTANCE.stackstrace() )
-                                l_exception.printStackTrace( System.err );
-                        }
-                    } );
-
-                // thread sleep for slowing down
-                if ( CConfiguration.INSTANCE.threadsleeptime() > 0 )
-                    try
-                    {
-                        Thread.sleep( CConfiguration.INSTANCE.threadsleeptime() );
-                    }
-                    catch ( final InterruptedException l_exception )
-                    {
-                        LOGGER.warning( l_exception.toString() );
-                    }
+                CMain.step( p_scheduler, i, p_screen.checkpoint() );
+
+                // the screen renders the committed positions and the step waits for its deadline
+                p_screen.commit();
+                l_pacer.pace();
 
                 // checks that the simulation is closed
                 return p_screen.isDisposed();
             } )
             .filter( i -> i )
             .findFirst();
+
+        LOGGER.info( MessageFormat.format( "phase times {0}", p_scheduler ) );
+        LOGGER.info( MessageFormat.format( "pacing {0}", l_pacer ) );
+        p_scheduler.close();
+        CConfiguration.INSTANCE.environment().close();
+    }
+
+    /**
+     * execute simulation without window, the steps
+     * are run without sleeping and the steps per
+     * second are written independent of the logging
+     *
+     * @param p_scheduler scheduler
+     */
+    private static void execute( final CScheduler p_scheduler )
+    {
+        final int l_steps = CConfiguration.INSTANCE.simulationsteps() - CConfiguration.INSTANCE.simulationstart();
+        final long l_start = System.nanoTime();
+
+        IntStream
+            .range( CConfiguration.INSTANCE.simulationstart(), CConfiguration.INSTANCE.simulationsteps() )
+            .forEach( i -> CMain.step( p_scheduler, i, false ) );
+
+        final double l_time = Math.max( 1, System.nanoTime() - l_start ) / 1e9;
+        System.out.println( MessageFormat.format( "{0} steps in {1,number,0.000} seconds, {2,number,0.00} steps per second", l_steps, l_time, l_steps / l_time ) );
+        LOGGER.info( MessageFormat.format( "phase times {0}", p_scheduler ) );
+        p_scheduler.close();
+        CConfiguration.INSTANCE.environment().close();
+    }
+
+    /**
+     * executes one simulation step
+     *
+     * @param p_scheduler scheduler
+     * @param p_step step
+     * @param p_checkpoint checkpoint is requested
+     */
+    private static void step( final CScheduler p_scheduler, final int p_step, final boolean p_checkpoint )
+    {
+        // the environment is executed after the agents, so the moves of a step are applied together, the
+        // shard of a sharded simulation executes the environment and exchanges the border rows
+        p_scheduler.execute(
+            CConfiguration.INSTANCE.agents(),
+            CConfiguration.INSTANCE.environment(),
+            CConfiguration.INSTANCE.shard() == null ? CConfiguration.INSTANCE.environment() : CConfiguration.INSTANCE.shard(),
+            CConfiguration.INSTANCE.evaluation()
+        );
+
+        // write checkpoint on request or on the defined step, the next step is stored
+        if ( CMain.checkpoint( p_checkpoint, p_step + 1 ) )
+            CMain.call( () -> CConfiguration.INSTANCE.checkpoint( p_step + 1 ) );
+    }
+
+    /**
+     * checks if a checkpoint is written
+     *
+     * @param p_request checkpoint is requested by the screen
+     * @param p_step next step
+     * @return checkpoint is configured and requested or defined for the step
+     */
+    private static boolean checkpoint( final boolean p_request, final int p_step )
+    {
+        final Triple<String, String, Integer> l_checkpoint = CConfiguration.INSTANCE.checkpoint();
+        return ( !l_checkpoint.getLeft().isEmpty() ) && ( !l_checkpoint.getMiddle().isEmpty() )
+               && ( ( p_request ) || ( ( l_checkpoint.getRight() > 0 ) && ( p_step % l_checkpoint.getRight() == 0 ) ) );
+    }
+
+    /**
+     * executes a simulation object
+     *
+     * @param p_object object
+     */
+    private static void call( final Callable<?> p_object )
+    {
+        try
+        {
+            p_object.call();
+        }
+        catch ( final Exception l_exception )
+        {
+            LOGGER.warning( l_exception.toString() );
+            if ( CConfiguration.INSTANCE.stackstrace() )
+                l_exception.printStackTrace( System.err );
+        }
     }
 
 }
@@ -0,0 +1,130 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+
+/**
+ * pacing of the simulation steps, each step has a deadline, which is the
+ * deadline of the previous step plus the tick period, so the costs of a step
+ * do not change the tick rate, a step which ends behind its deadline is an
+ * overrun, the overruns are counted and the next deadline starts at the end
+ * of the step, so the simulation does not run faster to catch up
+ */
+final class CPacer
+{
+    /**
+     * logger
+     */
+    private static final Logger LOGGER = Logger.getLogger( CPacer.class.getName() );
+    /**
+     * tick period in nanoseconds, zero disables the pacing
+     */
+    private final long m_period;
+    /**
+     * deadline of the current step in nanoseconds
+     */
+    private long m_deadline;
+    /**
+     * number of steps
+     */
+    private long m_ticks;
+    /**
+     * number of overruns
+     */
+    private long m_overruns;
+    /**
+     * time of all overruns in nanoseconds
+     */
+    private long m_overruntime;
+
+
+    /**
+     * ctor
+     *
+     * @param p_tickrate target number of steps per second, zero disables the pacing
+     */
+    CPacer( final double p_tickrate )
+    {
+        m_period = p_tickrate > 0 ? (long) ( 1e9 / p_tickrate ) : 0;
+        m_deadline = System.nanoTime() + m_period;
+    }
+
+    @Override
+    public final String toString()
+    {
+        return MessageFormat.format(
+            "{0} steps with period {1,number,0.000} ms, {2} overruns with {3,number,0.000} ms",
+            m_ticks, m_period / 1e6, m_overruns, m_overruntime / 1e6
+        );
+    }
+
+    /**
+     * returns the number of overruns
+     *
+     * @return number of steps which end behind their deadline
+     */
+    final long overruns()
+    {
+        return m_overruns;
+    }
+
+    /**
+     * waits for the deadline of the step, it
+     * must be called at the end of each step
+     *
+     * @return self reference
+     */
+    final CPacer pace()
+    {
+        m_ticks++;
+        if ( m_period == 0 )
+            return this;
+
+        final long l_time = System.nanoTime();
+        if ( l_time > m_deadline )
+        {
+            m_overruns++;
+            m_overruntime += l_time - m_deadline;
+            m_deadline = l_time + m_period;
+            return this;
+        }
+
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep( m_deadline - l_time );
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            LOGGER.warning( l_exception.toString() );
+        }
+
+        m_deadline += m_period;
+        return this;
+    }
+
+}
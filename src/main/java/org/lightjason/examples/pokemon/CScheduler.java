@@ -0,0 +1,440 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * tick scheduler, a simulation step is executed in phases which are separated
+ * by barriers, the agents perceive the environment, the agents run their cycle,
+ * the environment resolves the moves, the environment is updated and the metrics
+ * are calculated, the agent phases run on a persistent pool and the agents are
+ * split recursively into chunks with equal estimated costs, the costs of an agent
+ * are the smoothed execution times of the previous steps, static items are not
+ * executed, because their execution is empty, on the virtual execution each agent
+ * runs as own virtual thread within each agent phase, so an agent which blocks does
+ * not block a worker of the pool, virtual threads need a JVM with version 21 or newer,
+ * on older JVMs each agent runs as own task of a work-stealing pool, on the activity
+ * execution idle agents are skipped, the agents near the changed cells of the previous
+ * step are woken, so the costs of the agent phases grow with the number of active agents
+ */
+final class CScheduler implements AutoCloseable
+{
+    /**
+     * logger
+     */
+    private static final Logger LOGGER = Logger.getLogger( CScheduler.class.getName() );
+    /**
+     * number of chunks of each worker
+     */
+    private static final int CHUNKS = 4;
+    /**
+     * initial costs of an element
+     */
+    private static final long INITIALCOSTS = 1;
+    /**
+     * pool of the agent phases
+     */
+    private final ForkJoinPool m_pool = new ForkJoinPool( Runtime.getRuntime().availableProcessors() );
+    /**
+     * executor of the virtual execution or null
+     */
+    private final ExecutorService m_virtual;
+    /**
+     * execution function of a task, which handles the errors
+     */
+    private final Consumer<Callable<?>> m_call;
+    /**
+     * costs of each element of each phase of the previous step
+     */
+    private final Map<EPhase, Map<Object, Long>> m_costs = new EnumMap<>( EPhase.class );
+    /**
+     * time of each phase of the last step in nanoseconds
+     */
+    private final long[] m_last = new long[EPhase.values().length];
+    /**
+     * time of each phase of all steps in nanoseconds
+     */
+    private final long[] m_total = new long[EPhase.values().length];
+    /**
+     * number of executed steps
+     */
+    private int m_steps;
+    /**
+     * radius of the neighbourhood of a changed cell in which agents
+     * are woken, on zero all agents are executed on each step
+     */
+    private final int m_activity;
+    /**
+     * number of executed agents of the last step
+     */
+    private int m_active;
+
+
+    /**
+     * ctor
+     *
+     * @param p_call execution function of a task, which handles the errors
+     * @param p_virtual virtual execution, each agent runs as own virtual thread
+     * @param p_activity radius of the neighbourhood in which agents are woken, zero executes all agents
+     */
+    CScheduler( final Consumer<Callable<?>> p_call, final boolean p_virtual, final int p_activity )
+    {
+        m_call = p_call;
+        m_activity = Math.max( 0, p_activity );
+        m_virtual = p_virtual ? CScheduler.virtual() : null;
+        Arrays.stream( EPhase.values() ).forEach( i -> m_costs.put( i, Collections.emptyMap() ) );
+    }
+
+    @Override
+    public final String toString()
+    {
+        return Arrays.stream( EPhase.values() )
+                     .map( i -> MessageFormat.format(
+                         "{0} [{1,number,0.000} ms, mean {2,number,0.000} ms]",
+                         i.toString().toLowerCase(), m_last[i.ordinal()] / 1e6, m_steps == 0 ? 0 : m_total[i.ordinal()] / 1e6 / m_steps
+                     ) )
+                     .collect( Collectors.joining( ", " ) )
+               + MessageFormat.format( ", active agents {0}", m_active );
+    }
+
+    /**
+     * executes a simulation step, the scheduler must not be
+     * executed concurrently
+     *
+     * @param p_agents agents
+     * @param p_environment environment
+     * @param p_update execution of the environment update, e.g. the environment or the shard
+     * @param p_metric execution of the metrics
+     * @return self reference
+     */
+    final CScheduler execute( final Collection<IAgent> p_agents, final IEnvironment p_environment, final Callable<?> p_update, final Callable<?> p_metric )
+    {
+        final Collection<IAgent> l_agents = m_activity > 0 ? this.active( p_agents, p_environment ) : p_agents;
+        m_active = l_agents.size();
+
+        this.phase( EPhase.PERCEIVE, l_agents, i -> i::perceive );
+        this.phase( EPhase.CYCLE, l_agents, i -> i );
+        this.phase( EPhase.MOVE, p_environment::commit );
+        this.phase( EPhase.ENVIRONMENT, p_update );
+        this.phase( EPhase.METRIC, p_metric );
+
+        m_steps++;
+        return this;
+    }
+
+    /**
+     * shuts down the pool and the executor of the virtual execution,
+     * the scheduler cannot execute any further step
+     */
+    @Override
+    public final void close()
+    {
+        m_pool.shutdown();
+        if ( m_virtual != null )
+            m_virtual.shutdown();
+    }
+
+    /**
+     * returns the time of each phase of the last step
+     *
+     * @return map with phase and time in nanoseconds
+     */
+    final Map<EPhase, Long> time()
+    {
+        return Collections.unmodifiableMap(
+            Arrays.stream( EPhase.values() ).collect( Collectors.toMap( i -> i, i -> m_last[i.ordinal()], ( i, j ) -> i, () -> new EnumMap<>( EPhase.class ) ) )
+        );
+    }
+
+    /**
+     * returns the active agents of a step, the agents near the changed cells
+     * of the previous step are woken, an idle agent costs a flag check only
+     *
+     * @param p_agents agents
+     * @param p_environment environment
+     * @return active agents
+     */
+    private Collection<IAgent> active( final Collection<IAgent> p_agents, final IEnvironment p_environment )
+    {
+        return m_pool.submit( () ->
+        {
+            p_environment.changes()
+                         .parallel()
+                         .forEach( i -> p_environment.within( i / p_environment.column(), i % p_environment.column(), m_activity )
+                                                     .map( Pair::getLeft )
+                                                     .filter( j -> j instanceof IAgent )
+                                                     .forEach( j -> ( (IAgent) j ).activate() ) );
+
+            return p_agents.parallelStream().filter( IAgent::active ).collect( Collectors.toList() );
+        } ).join();
+    }
+
+    /**
+     * runs a sequential phase
+     *
+     * @param p_phase phase
+     * @param p_task task
+     */
+    private void phase( final EPhase p_phase, final Callable<?> p_task )
+    {
+        final long l_start = System.nanoTime();
+        m_call.accept( p_task );
+        this.time( p_phase, System.nanoTime() - l_start );
+    }
+
+    /**
+     * runs a parallel phase, the elements are split into chunks of
+     * equal costs and the costs are updated by the execution times,
+     * on the virtual execution each element runs as own thread
+     *
+     * @param p_phase phase
+     * @param p_elements elements
+     * @param p_task function to create the task of an element
+     * @tparam T element type
+     */
+    final <T> void phase( final EPhase p_phase, final Collection<T> p_elements, final Function<T, Callable<?>> p_task )
+    {
+        final long l_start = System.nanoTime();
+        if ( m_virtual != null )
+        {
+            final List<Future<?>> l_futures = p_elements.stream()
+                                                        .map( i -> m_virtual.submit( () -> m_call.accept( p_task.apply( i ) ) ) )
+                                                        .collect( Collectors.toList() );
+            l_futures.forEach( CScheduler::join );
+            this.time( p_phase, System.nanoTime() - l_start );
+            return;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        final T[] l_elements = (T[]) p_elements.toArray();
+        final Map<Object, Long> l_previous = m_costs.get( p_phase );
+        final long[] l_costs = Arrays.stream( l_elements ).mapToLong( i -> l_previous.getOrDefault( i, INITIALCOSTS ) ).toArray();
+
+        final long[] l_prefix = new long[l_elements.length + 1];
+        IntStream.range( 0, l_elements.length ).forEach( i -> l_prefix[i + 1] = l_prefix[i] + l_costs[i] );
+        m_pool.invoke( new CChunk<>( l_elements, l_costs, l_prefix, 0, l_elements.length,
+                                     Math.max( 1, l_prefix[l_elements.length] / ( CHUNKS * m_pool.getParallelism() ) ), p_task, m_call ) );
+
+        // the costs are stored for the current elements only, so removed elements are dropped
+        final Map<Object, Long> l_current = new IdentityHashMap<>( l_elements.length );
+        IntStream.range( 0, l_elements.length ).forEach( i -> l_current.put( l_elements[i], l_costs[i] ) );
+        m_costs.put( p_phase, l_current );
+
+        this.time( p_phase, System.nanoTime() - l_start );
+    }
+
+    /**
+     * waits for the end of a task
+     *
+     * @param p_future future of the task
+     */
+    private static void join( final Future<?> p_future )
+    {
+        try
+        {
+            p_future.get();
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            Thread.currentThread().interrupt();
+            LOGGER.warning( l_exception.toString() );
+        }
+        catch ( final ExecutionException l_exception )
+        {
+            LOGGER.warning( l_exception.toString() );
+        }
+    }
+
+    /**
+     * creates the executor of the virtual execution, the executor
+     * is created by reflection, so the code runs on older JVMs
+     *
+     * @return executor with a virtual thread for each task or a work-stealing pool
+     */
+    private static ExecutorService virtual()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        }
+        catch ( final ReflectiveOperationException l_exception )
+        {
+            LOGGER.warning( "virtual threads are not supported by the JVM, so each agent runs as task of a work-stealing pool" );
+            return Executors.newWorkStealingPool();
+        }
+    }
+
+    /**
+     * stores the time of a phase
+     *
+     * @param p_phase phase
+     * @param p_time time in nanoseconds
+     */
+    private void time( final EPhase p_phase, final long p_time )
+    {
+        m_last[p_phase.ordinal()] = p_time;
+        m_total[p_phase.ordinal()] += p_time;
+    }
+
+
+    /**
+     * phases of a step
+     */
+    enum EPhase
+    {
+        PERCEIVE,
+        CYCLE,
+        MOVE,
+        ENVIRONMENT,
+        METRIC;
+    }
+
+
+    /**
+     * chunk of elements, a chunk is split at the middle
+     * of its costs until the costs are below the threshold
+     *
+     * @tparam T element type
+     */
+    private static final class CChunk<T> extends RecursiveAction
+    {
+        /**
+         * serial id
+         */
+        private static final long serialVersionUID = 2370118297470617932L;
+        /**
+         * elements
+         */
+        private final transient T[] m_elements;
+        /**
+         * costs of the elements, which are updated by the execution
+         */
+        private final long[] m_costs;
+        /**
+         * prefix sums of the costs
+         */
+        private final long[] m_prefix;
+        /**
+         * first index (inclusive)
+         */
+        private final int m_from;
+        /**
+         * last index (exclusive)
+         */
+        private final int m_to;
+        /**
+         * cost threshold of a chunk which is not split
+         */
+        private final long m_threshold;
+        /**
+         * function to create the task of an element
+         */
+        private final transient Function<T, Callable<?>> m_task;
+        /**
+         * execution function of a task
+         */
+        private final transient Consumer<Callable<?>> m_call;
+
+        /**
+         * ctor
+         *
+         * @param p_elements elements
+         * @param p_costs costs of the elements
+         * @param p_prefix prefix sums of the costs
+         * @param p_from first index (inclusive)
+         * @param p_to last index (exclusive)
+         * @param p_threshold cost threshold of a chunk which is not split
+         * @param p_task function to create the task of an element
+         * @param p_call execution function of a task
+         */
+        CChunk( final T[] p_elements, final long[] p_costs, final long[] p_prefix, final int p_from, final int p_to, final long p_threshold,
+                final Function<T, Callable<?>> p_task, final Consumer<Callable<?>> p_call )
+        {
+            m_elements = p_elements;
+            m_costs = p_costs;
+            m_prefix = p_prefix;
+            m_from = p_from;
+            m_to = p_to;
+            m_threshold = p_threshold;
+            m_task = p_task;
+            m_call = p_call;
+        }
+
+        @Override
+        protected final void compute()
+        {
+            if ( ( m_to - m_from < 2 ) || ( m_prefix[m_to] - m_prefix[m_from] <= m_threshold ) )
+            {
+                IntStream.range( m_from, m_to ).forEach( this::execute );
+                return;
+            }
+
+            // the split index is the first element which ends behind the middle of the costs
+            final int l_search = Arrays.binarySearch( m_prefix, m_from + 1, m_to, ( m_prefix[m_from] + m_prefix[m_to] ) / 2 );
+            final int l_split = Math.max( m_from + 1, Math.min( m_to - 1, l_search < 0 ? -l_search - 1 : l_search ) );
+            RecursiveAction.invokeAll(
+                new CChunk<>( m_elements, m_costs, m_prefix, m_from, l_split, m_threshold, m_task, m_call ),
+                new CChunk<>( m_elements, m_costs, m_prefix, l_split, m_to, m_threshold, m_task, m_call )
+            );
+        }
+
+        /**
+         * executes an element and smooths its costs with the execution time
+         *
+         * @param p_index index of the element
+         */
+        private void execute( final int p_index )
+        {
+            final long l_start = System.nanoTime();
+            m_call.accept( m_task.apply( m_elements[p_index] ) );
+            m_costs[p_index] = Math.max( INITIALCOSTS, ( m_costs[p_index] + System.nanoTime() - l_start ) / 2 );
+        }
+    }
+
+}
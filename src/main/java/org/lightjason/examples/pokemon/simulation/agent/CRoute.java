@@ -0,0 +1,299 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.agent;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * route of an agent, the landmarks are stored as packed cell indices
+ * (row * columns + column) with a cursor on the current landmark and
+ * the cumulative landmark distances, so moving the cursor and the
+ * time estimation run in constant time without any allocation
+ */
+final class CRoute
+{
+    /**
+     * number of columns of the environment
+     */
+    private final int m_columns;
+    /**
+     * landmark cells
+     */
+    private int[] m_cells = {};
+    /**
+     * cumulative distance from the first landmark to each landmark
+     */
+    private double[] m_distance = {};
+    /**
+     * index of the current landmark
+     */
+    private int m_cursor;
+    /**
+     * current landmark as vector
+     */
+    private DoubleMatrix1D m_landmark;
+    /**
+     * flag that the current landmark is refined
+     */
+    private boolean m_refined;
+
+
+    /**
+     * ctor
+     *
+     * @param p_columns number of columns of the environment
+     */
+    CRoute( final int p_columns )
+    {
+        m_columns = p_columns;
+    }
+
+    /**
+     * checks if the route is empty
+     *
+     * @return empty flag
+     */
+    synchronized boolean isEmpty()
+    {
+        return m_cursor >= m_cells.length;
+    }
+
+    /**
+     * returns the number of landmarks
+     *
+     * @return number of landmarks
+     */
+    synchronized int size()
+    {
+        return m_cells.length - m_cursor;
+    }
+
+    /**
+     * returns the current landmark
+     *
+     * @return landmark or null if the route is empty
+     */
+    synchronized DoubleMatrix1D landmark()
+    {
+        if ( ( m_landmark == null ) && ( !this.isEmpty() ) )
+            m_landmark = new DenseDoubleMatrix1D( new double[]{m_cells[m_cursor] / m_columns, m_cells[m_cursor] % m_columns} );
+        return m_landmark;
+    }
+
+    /**
+     * checks if the current landmark is refined
+     *
+     * @return refined flag
+     */
+    synchronized boolean refined()
+    {
+        return m_refined;
+    }
+
+    /**
+     * replaces the current landmark with the refined landmarks
+     *
+     * @param p_landmarks refined landmarks
+     * @return self reference
+     */
+    synchronized CRoute refine( final List<DoubleMatrix1D> p_landmarks )
+    {
+        if ( this.isEmpty() )
+            return this;
+
+        // most routings return the landmark itself, so the route is not changed
+        if ( ( p_landmarks.size() == 1 ) && ( this.cell( p_landmarks.get( 0 ) ) == m_cells[m_cursor] ) )
+        {
+            m_refined = true;
+            return this;
+        }
+
+        m_cursor++;
+        this.moved();
+        this.add( 0, p_landmarks );
+        m_refined = !p_landmarks.isEmpty();
+        return this;
+    }
+
+    /**
+     * adds landmarks to the route
+     *
+     * @param p_index index of the first landmark relative to the current landmark, on negative values the landmarks are added at the end
+     * @param p_landmarks landmarks
+     * @return self reference
+     */
+    synchronized CRoute add( final int p_index, final List<DoubleMatrix1D> p_landmarks )
+    {
+        if ( p_landmarks.isEmpty() )
+            return this;
+
+        // passed landmarks are dropped, so the cursor is reset
+        final int l_index = p_index < 0 ? this.size() : Math.min( p_index, this.size() );
+        final int[] l_cells = new int[this.size() + p_landmarks.size()];
+        System.arraycopy( m_cells, m_cursor, l_cells, 0, l_index );
+        IntStream.range( 0, p_landmarks.size() ).forEach( i -> l_cells[l_index + i] = this.cell( p_landmarks.get( i ) ) );
+        System.arraycopy( m_cells, m_cursor + l_index, l_cells, l_index + p_landmarks.size(), this.size() - l_index );
+
+        this.cells( l_cells );
+        if ( l_index == 0 )
+            this.moved();
+        return this;
+    }
+
+    /**
+     * writes the remaining landmarks
+     *
+     * @param p_output output
+     * @return self reference
+     * @throws IOException on writing error
+     */
+    synchronized CRoute checkpoint( final DataOutput p_output ) throws IOException
+    {
+        p_output.writeInt( this.size() );
+        for ( int i = m_cursor; i < m_cells.length; i++ )
+            p_output.writeInt( m_cells[i] );
+        return this;
+    }
+
+    /**
+     * replaces the route with the landmarks of a checkpoint
+     *
+     * @param p_input input
+     * @return self reference
+     * @throws IOException on reading error
+     */
+    synchronized CRoute restore( final DataInput p_input ) throws IOException
+    {
+        final int[] l_cells = new int[p_input.readInt()];
+        for ( int i = 0; i < l_cells.length; i++ )
+            l_cells[i] = p_input.readInt();
+
+        this.cells( l_cells );
+        this.moved();
+        return this;
+    }
+
+    /**
+     * skips landmarks
+     *
+     * @param p_number number of landmarks
+     * @return self reference
+     */
+    synchronized CRoute skip( final int p_number )
+    {
+        if ( ( p_number < 1 ) || ( this.isEmpty() ) )
+            return this;
+
+        m_cursor = Math.min( m_cells.length, m_cursor + p_number );
+        this.moved();
+        return this;
+    }
+
+    /**
+     * calculates the estimated time to move along the route
+     *
+     * @param p_position current position
+     * @param p_speed speed
+     * @return estimated time
+     */
+    synchronized double estimatedtime( final DoubleMatrix1D p_position, final double p_speed )
+    {
+        return this.isEmpty()
+               ? 0
+               : ( this.distance( p_position.getQuick( 0 ), p_position.getQuick( 1 ), m_cells[m_cursor] ) + m_distance[m_cells.length - 1] - m_distance[m_cursor] )
+                 / p_speed;
+    }
+
+    /**
+     * returns the landmarks
+     *
+     * @return landmark stream
+     */
+    synchronized Stream<DoubleMatrix1D> stream()
+    {
+        return Arrays.stream( m_cells, m_cursor, m_cells.length )
+                     .mapToObj( i -> new DenseDoubleMatrix1D( new double[]{i / m_columns, i % m_columns} ) );
+    }
+
+    /**
+     * sets the landmark cells with the cursor on the first
+     * landmark and calculates the cumulative distances
+     *
+     * @param p_cells landmark cells
+     */
+    private void cells( final int[] p_cells )
+    {
+        m_cells = p_cells;
+        m_cursor = 0;
+        m_distance = new double[p_cells.length];
+        for ( int i = 1; i < p_cells.length; i++ )
+            m_distance[i] = m_distance[i - 1] + this.distance( p_cells[i - 1] / m_columns, p_cells[i - 1] % m_columns, p_cells[i] );
+    }
+
+    /**
+     * resets the current landmark
+     */
+    private void moved()
+    {
+        m_landmark = null;
+        m_refined = false;
+    }
+
+    /**
+     * returns the cell index of a position
+     *
+     * @param p_position position
+     * @return cell index
+     */
+    private int cell( final DoubleMatrix1D p_position )
+    {
+        return (int) p_position.getQuick( 0 ) * m_columns + (int) p_position.getQuick( 1 );
+    }
+
+    /**
+     * returns the euclidean distance between a position and a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_cell cell index
+     * @return distance
+     */
+    private double distance( final double p_row, final double p_column, final int p_cell )
+    {
+        final double l_row = p_cell / m_columns - p_row;
+        final double l_column = p_cell % m_columns - p_column;
+        return Math.sqrt( l_row * l_row + l_column * l_column );
+    }
+
+}
@@ -25,6 +25,10 @@ package org.lightjason.examples.pokemon.simulation.agent;
 
 import org.lightjason.examples.pokemon.simulation.IElement;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 
 /**
  * interface for the agentrouting,
@@ -33,4 +37,51 @@ import org.lightjason.examples.pokemon.simulation.IElement;
 public interface IAgent extends IElement, org.lightjason.agentspeak.agent.IAgent<IAgent>
 {
 
+    /**
+     * perceives the environment before the agent cycle, so
+     * the perception of all agents can run as own phase, if
+     * it is not called, the cycle perceives the environment
+     *
+     * @return self reference
+     */
+    IAgent perceive();
+
+    /**
+     * returns if the agent must be executed within the next step,
+     * an agent is active if it has got a route or a queued trigger,
+     * it is moved or it is stopped within the previous step, it sleeps
+     * or it is woken
+     *
+     * @return activity flag
+     */
+    boolean active();
+
+    /**
+     * wakes the agent, e.g. on a change of its neighbourhood,
+     * so it is executed within the next step
+     *
+     * @return self reference
+     */
+    IAgent activate();
+
+    /**
+     * writes the state of the agent to a checkpoint,
+     * the agent must not be executed during writing
+     *
+     * @param p_output output
+     * @return self reference
+     * @throws IOException on writing error
+     */
+    IAgent checkpoint( final DataOutput p_output ) throws IOException;
+
+    /**
+     * restores the state of the agent from a checkpoint,
+     * the data is read in the order of the writing
+     *
+     * @param p_input input
+     * @return self reference
+     * @throws IOException on reading error
+     */
+    IAgent restore( final DataInput p_input ) throws IOException;
+
 }
@@ -37,15 +37,17 @@ import org.lightjason.agentspeak.action.binding.IAgentActionName;
 import org.lightjason.agentspeak.configuration.IAgentConfiguration;
 import org.lightjason.agentspeak.language.CLiteral;
 import org.lightjason.agentspeak.language.CRawTerm;
+import org.lightjason.agentspeak.language.execution.fuzzy.IFuzzyValue;
 import org.lightjason.agentspeak.language.instantiable.plan.trigger.CTrigger;
 import org.lightjason.agentspeak.language.instantiable.plan.trigger.ITrigger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
@@ -71,7 +73,28 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     /**
      * route
      */
-    private final List<DoubleMatrix1D> m_route = Collections.synchronizedList( new LinkedList<>() );
+    private final CRoute m_route;
+    /**
+     * position after the previous cycle, null before the first cycle
+     */
+    private DoubleMatrix1D m_previous;
+    /**
+     * cell of the move intent of the previous cycle, negative if the agent is not moved
+     */
+    private int m_intent = -1;
+    /**
+     * flag that the move intent of the previous cycle is lost against the intent of another element
+     */
+    private boolean m_lost;
+    /**
+     * flag that the agent must be executed within the next step, it is set
+     * on each queued trigger, the initial goals are executed on the first step
+     */
+    private volatile boolean m_active = true;
+    /**
+     * number of steps without movement
+     */
+    private int m_standstill;
 
 
 
@@ -88,6 +111,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
 
         m_position = p_position;
         m_environment = p_environment;
+        m_route = new CRoute( p_environment.column() );
     }
 
     @Override
@@ -100,6 +124,24 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
         );
     }
 
+    @Override
+    public IAgent checkpoint( final DataOutput p_output ) throws IOException
+    {
+        p_output.writeInt( (int) m_position.getQuick( 0 ) );
+        p_output.writeInt( (int) m_position.getQuick( 1 ) );
+        m_route.checkpoint( p_output );
+        return this;
+    }
+
+    @Override
+    public IAgent restore( final DataInput p_input ) throws IOException
+    {
+        m_position.setQuick( 0, p_input.readInt() );
+        m_position.setQuick( 1, p_input.readInt() );
+        m_route.restore( p_input );
+        return this;
+    }
+
     @Override
     public final Sprite sprite()
     {
@@ -107,37 +149,78 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     }
 
     @Override
-    public IAgent call() throws Exception
+    public IAgent perceive()
+    {
+        // the landmark of the route is refined within the perception, so the cycle reads the refined goal-position
+        this.goal();
+        return this;
+    }
+
+    @Override
+    public final boolean active()
     {
-        // cache current position to generate non-moving and targte-beyond trigger
-        final DenseDoubleMatrix1D l_position = new DenseDoubleMatrix1D( m_position.toArray() );
-        final EQuadrant l_quadrant = EQuadrant.quadrant( this.goal(), l_position );
+        if ( ( m_active ) || ( this.sleeping() ) )
+            return true;
 
-        // --- visualization -----------------------------------------------------------------------
+        synchronized ( m_route )
+        {
+            return !m_route.isEmpty();
+        }
+    }
 
-        // update sprite for painting (sprit position is x/y position, but position storing is row / column)
-        if ( m_sprite != null )
-            m_sprite.setPosition( (float) l_position.get( 1 ), (float) l_position.get( 0 ) );
+    @Override
+    public final IAgent activate()
+    {
+        m_active = true;
+        return this;
+    }
+
+    @Override
+    public final IFuzzyValue<Boolean> trigger( final ITrigger p_trigger, final boolean... p_immediately )
+    {
+        // a queued trigger is executed within the next cycle, so the agent is active, e.g. on an
+        // attack, on a route arrival or on the plans, which add their own goal within the cycle
+        m_active = true;
+        return super.trigger( p_trigger, p_immediately );
+    }
+
+    @Override
+    public IAgent call() throws Exception
+    {
+        // a move intent of the two-phase execution is committed after the cycle, so an intent which is lost
+        // against the intent of another element is checked on the next cycle and the first move of the cycle fails
+        final boolean l_lost = ( m_intent >= 0 ) && ( m_intent != this.cell( (int) m_position.getQuick( 0 ), (int) m_position.getQuick( 1 ) ) );
+        m_lost = l_lost;
+        m_intent = -1;
+        m_active = false;
 
         // --- agent-cycle to create goal-trigger --------------------------------------------------
 
         // call cycle
         super.call();
 
-        // if position is not changed run not-moved plan
-        if ( m_position.equals( l_position ) )
-            this.trigger( CTrigger.from( ITrigger.EType.ADDGOAL, CLiteral.from( "movement/standstill" ) ) );
-
-
-        // get the next landmark
+        // get the next landmark, an agent without route has got no goal-position and the goal-position triggers are not
+        // created, so an agent without route and triggers is idle
         final DoubleMatrix1D l_goalposition = this.goal();
+        final boolean l_goal = l_goalposition != m_position;
+
+        // if position is not changed since the previous cycle run not-moved plan, the position is compared after the
+        // cycles, so moves which are committed after the cycle are seen on the next cycle, a lost intent is not a stop
+        // and an agent without goal-position, e.g. it waits for its route, does not stand still, a moved agent or an
+        // agent with a move intent is executed within the next step, so the move intent is checked
+        final boolean l_moved = ( m_previous == null ) || ( !m_position.equals( m_previous ) );
+        m_standstill = ( !l_moved ) && ( !l_lost ) && ( l_goal ) ? m_standstill + 1 : 0;
+        if ( m_standstill > 0 )
+            this.trigger( CTrigger.from( ITrigger.EType.ADDGOAL, CLiteral.from( "movement/standstill" ) ) );
+        if ( ( l_moved ) || ( m_intent >= 0 ) )
+            m_active = true;
 
         // check "near-by(D)" preference for the current position and the goal
         // position, D is the radius (in cells) so we trigger the goal "near-by(Y)" and
         // Y is a literal with distance,
         // default argument must match literal-value type (and on integral types long is used)
         final double l_distance = CMath.distance( m_position, l_goalposition );
-        if ( l_distance <= this.nearby() )
+        if ( ( l_goal ) && ( l_distance <= this.nearby() ) )
             this.trigger(
                 CTrigger.from(
                     ITrigger.EType.ADDGOAL,
@@ -145,8 +228,8 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
                 )
             );
 
-        // check if the quadrant between cached position and current position relative to goal-position, if it is changed, than we have missed the goal-position
-        if ( !l_quadrant.equals( EQuadrant.quadrant( l_goalposition, m_position ) ) )
+        // check if the quadrant between previous position and current position relative to goal-position, if it is changed, than we have missed the goal-position
+        if ( ( l_goal ) && ( m_previous != null ) && ( !EQuadrant.quadrant( l_goalposition, m_previous ).equals( EQuadrant.quadrant( l_goalposition, m_position ) ) ) )
             this.trigger(
                 CTrigger.from(
                     ITrigger.EType.ADDGOAL,
@@ -154,6 +237,9 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
                 )
             );
 
+        if ( m_previous == null )
+            m_previous = new DenseDoubleMatrix1D( m_position.size() );
+        m_previous.assign( m_position );
         return this;
     }
 
@@ -180,20 +266,30 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     }
 
     /**
-     * returns the goal-position
+     * returns the goal-position, a coarse landmark
+     * is refined if it becomes the goal-position
+     *
      * @return position
      */
     protected final DoubleMatrix1D goal()
     {
-        return m_route.isEmpty()
-               ? m_position
-               : m_route.get( 0 );
+        synchronized ( m_route )
+        {
+            if ( m_route.isEmpty() )
+                return m_position;
+
+            if ( !m_route.refined() )
+                m_route.refine( m_environment.refine( m_position, m_route.landmark() ) );
+            return m_route.isEmpty() ? m_position : m_route.landmark();
+        }
     }
 
     // --- agent actions ---------------------------------------------------------------------------------------------------------------------------------------
 
     /**
-     * route calculation and add landmarks at the beginning
+     * route calculation and add landmarks at the beginning, the
+     * route is calculated asynchronously, so the landmarks are added
+     * on a later step and the goal "route/arrived" is triggered
      *
      * @param p_row row position
      * @param p_column column position
@@ -202,7 +298,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     @IAgentActionName( name = "route/set/start" )
     protected final void routeatstart( final Number p_row, final Number p_column )
     {
-        m_route.addAll( 0, this.route( p_row, p_column ) );
+        this.route( p_row, p_column ).thenAccept( i -> this.add( 0, i ) );
     }
 
     /**
@@ -219,13 +315,10 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
         if ( p_radius.intValue() < 1 )
             throw new RuntimeException( "radius must be greater than zero" );
 
-        m_route.addAll(
-            0,
-            this.route(
-                m_position.getQuick( 0 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue(),
-                m_position.getQuick( 1 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue()
-            )
-        );
+        this.route(
+            m_position.getQuick( 0 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue(),
+            m_position.getQuick( 1 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue()
+        ).thenAccept( i -> this.add( 0, i ) );
     }
 
     /**
@@ -238,7 +331,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     @IAgentActionName( name = "route/set/end" )
     protected final void routeatend( final Number p_row, final Number p_column )
     {
-        m_route.addAll( this.route( p_row, p_column ) );
+        this.route( p_row, p_column ).thenAccept( i -> this.add( -1, i ) );
     }
 
     /**
@@ -255,25 +348,42 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
         if ( p_radius.intValue() < 1 )
             throw new RuntimeException( "radius must be greater than zero" );
 
-        m_route.addAll(
-            this.route(
-                m_position.getQuick( 0 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue(),
-                m_position.getQuick( 1 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue()
-            )
-        );
+        this.route(
+            m_position.getQuick( 0 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue(),
+            m_position.getQuick( 1 ) + CMath.RANDOMGENERATOR.nextInt( p_radius.intValue() * 2 ) - p_radius.intValue()
+        ).thenAccept( i -> this.add( -1, i ) );
     }
 
 
 
     /**
-     * calculates a new route
+     * requests a new route, the route is calculated
+     * asynchronously by the environment
+     *
      * @param p_row target row position
      * @param p_column target column position
-     * @return route list
+     * @return future of the route list
      */
-    private List<DoubleMatrix1D> route( final Number p_row, final Number p_column )
+    private CompletableFuture<List<DoubleMatrix1D>> route( final Number p_row, final Number p_column )
     {
-        return m_environment.route( m_position, new DenseDoubleMatrix1D( new double[]{p_row.doubleValue(), p_column.doubleValue()} ) );
+        return m_environment.routerequest(
+            this,
+            new DenseDoubleMatrix1D( m_position.toArray() ),
+            new DenseDoubleMatrix1D( new double[]{p_row.doubleValue(), p_column.doubleValue()} )
+        );
+    }
+
+    /**
+     * adds landmarks to the route and triggers the goal "route/arrived",
+     * so the agent can read the route, e.g. the estimated time
+     *
+     * @param p_index index of the first landmark, on negative values the landmarks are added at the end
+     * @param p_landmarks landmarks
+     */
+    private void add( final int p_index, final List<DoubleMatrix1D> p_landmarks )
+    {
+        m_route.add( p_index, p_landmarks );
+        this.trigger( CTrigger.from( ITrigger.EType.ADDGOAL, CLiteral.from( "route/arrived" ) ) );
     }
 
 
@@ -284,8 +394,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     @IAgentActionName( name = "route/next" )
     protected final void routenext()
     {
-        if ( !m_route.isEmpty() )
-            m_route.remove( 0 );
+        m_route.skip( 1 );
     }
 
     /**
@@ -300,7 +409,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
         if ( p_value.intValue() < 1 )
             throw new RuntimeException( "value must be greater than zero" );
 
-        IntStream.range( 0, p_value.intValue() ).filter( i -> !m_route.isEmpty() ).forEach( i -> m_route.remove( 0 ) );
+        m_route.skip( p_value.intValue() );
     }
 
     /**
@@ -313,9 +422,7 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
     @IAgentActionName( name = "route/estimatedtime" )
     protected final double routeestimatedtime()
     {
-        return m_route.size() < 1
-               ? 0
-               : m_environment.routestimatedtime( Stream.concat( Stream.of( m_position ), m_route.stream() ), this.speed() );
+        return m_route.estimatedtime( m_position, this.speed() );
     }
 
     /**
@@ -409,8 +516,34 @@ public abstract class IBaseAgent extends org.lightjason.agentspeak.agent.IBaseAg
         if ( l_goalposition.equals( m_position ) )
             return;
 
-        if ( !this.equals( m_environment.move( this, p_direction.position( m_position, l_goalposition, this.speed() ) ) ) )
+        if ( m_lost )
+        {
+            m_lost = false;
+            throw new RuntimeException( MessageFormat.format( "cannot move {0}, the move of the previous step is lost", p_direction ) );
+        }
+
+        // a cooperative route reserves one cell per tick, so the agent moves one cell per step
+        final int l_cell = p_direction.position(
+            m_position.getQuick( 0 ), m_position.getQuick( 1 ), l_goalposition.getQuick( 0 ), l_goalposition.getQuick( 1 ),
+            m_environment.cooperative() ? 1 : this.speed(), m_environment.row(), m_environment.column()
+        );
+        if ( !this.equals( m_environment.move( this, l_cell / m_environment.column(), l_cell % m_environment.column() ) ) )
             throw new RuntimeException( MessageFormat.format( "cannot move {0}", p_direction ) );
+
+        // on multiple intents of a cycle the environment uses the intent with the lowest cell
+        m_intent = m_intent < 0 ? l_cell : Math.min( m_intent, l_cell );
+    }
+
+    /**
+     * returns the index of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return index
+     */
+    private int cell( final int p_row, final int p_column )
+    {
+        return p_row * m_environment.column() + p_column;
     }
 
 }
@@ -117,19 +117,4 @@ final class CCommon
         );
     }
 
-    /**
-     * checks if a point is within the angel of the visual range
-     *
-     * @param p_ypos y-position of the point (relative position [-radius, +radius])
-     * @param p_xpos x-position of the point (relative position [-radius, +radius])
-     * @param p_angle angle of the view-range in degree
-     * @return boolean if the position is inside
-     */
-    static boolean positioninsideangle( final double p_ypos, final double p_xpos, final double p_angle )
-    {
-        final double l_segment = 0.5 * p_angle;
-        final double l_angle = Math.toDegrees( Math.atan( Math.abs( p_ypos ) / Math.abs( p_xpos ) ) );
-        return !Double.isNaN( l_angle ) && ( l_angle >= 360 - l_segment ) || ( l_angle <= l_segment );
-    }
-
 }
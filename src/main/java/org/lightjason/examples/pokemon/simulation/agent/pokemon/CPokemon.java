@@ -27,7 +27,6 @@ package org.lightjason.examples.pokemon.simulation.agent.pokemon;
 import cern.colt.matrix.impl.DenseDoubleMatrix1D;
 import cern.jet.math.Functions;
 import com.google.common.util.concurrent.AtomicDouble;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.lightjason.agentspeak.action.binding.IAgentAction;
@@ -54,12 +53,18 @@ import org.lightjason.agentspeak.language.instantiable.plan.trigger.CTrigger;
 import org.lightjason.agentspeak.language.instantiable.plan.trigger.ITrigger;
 import org.lightjason.examples.pokemon.ui.CParticleSystem;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -212,7 +217,7 @@ public final class CPokemon extends IBaseAgent
     @Override
     public final void spriteinitialize( final int p_rows, final int p_columns, final int p_cellsize, final float p_unit )
     {
-        m_sprite = CDefinition.INSTANCE.tupel( m_pokemon, 0 ).sprite( p_cellsize, p_unit );
+        m_sprite = CDefinition.INSTANCE.tupel( m_pokemon, m_level.get() ).sprite( p_cellsize, p_unit );
         m_attack.values().forEach( i -> CParticleSystem.INSTANCE.initialize( i.particlesystem(), p_unit ) );
 
         // initialize all other sprites and particle systems
@@ -277,17 +282,18 @@ public final class CPokemon extends IBaseAgent
      */
     private void levelup()
     {
-        // check current experience depend on level and sprite
+        // check current experience depend on level
         final int l_level = m_experience.get().divide( m_levelexperience ).intValue();
-        if ( ( m_sprite == null ) || ( l_level == m_level.get() ) || ( m_experience.get().compareTo( m_experiencemaximum ) != -1 ) )
+        if ( ( l_level == m_level.get() ) || ( m_experience.get().compareTo( m_experiencemaximum ) != -1 ) )
             return;
 
         // increment level and get old and new level structure of the pokemon
         final CLevel l_old = CDefinition.INSTANCE.tupel( m_pokemon, m_level.get() );
         final CLevel l_new = CDefinition.INSTANCE.tupel( m_pokemon, l_level );
 
-        // set data for visualization and internal attributes
-        m_sprite = l_new.sprite( l_old.spritecell(), l_old.spriteunit() );
+        // set data for visualization and internal attributes, the sprite exists only on a simulation with window
+        if ( m_sprite != null )
+            m_sprite = l_new.sprite( l_old.spritecell(), l_old.spriteunit() );
         l_new.attack().forEach( i -> m_attack.put( i.name(), i ) );
         l_new.attribute().entrySet().forEach( i -> m_attribute.put( i.getKey().name(), new MutablePair<>( i.getKey().access(), i.getValue() ) ) );
         l_new.motivation().entrySet().forEach( i -> m_motivation.put( i.getKey(), i.getValue() ) );
@@ -325,40 +331,197 @@ public final class CPokemon extends IBaseAgent
     }
 
     /**
-     * environment perceiving
+     * environment perceiving, the method is package-private
+     * so it can be called by the benchmarks
      *
      * @param p_direction structure
      * @return stream with pair of element and position
      */
-    private Stream<Pair<IElement, DoubleMatrix1D>> perceive( final CViewDirection p_direction )
+    Stream<Pair<IElement, DoubleMatrix1D>> perceive( final CViewDirection p_direction )
     {
         if ( !p_direction.error() )
             return Stream.of();
 
-        // iterate over the possible cells of the grid to read other elements,
-        // center is the rotated view point and iterate the sequare with radius size
-        return IntStream.rangeClosed( -p_direction.radius(), p_direction.radius() )
-                        .parallel()
-                        .boxed()
-                        .flatMap( y -> IntStream.rangeClosed( -p_direction.radius(), p_direction.radius() )
-                                                .boxed()
-                                                .filter( x -> CCommon.positioninsideangle( y, x, p_direction.angle() ) )
-                                                .map( x -> new DenseDoubleMatrix1D(
-                                                               new double[]{
-                                                                   y + p_direction.direction().getQuick( 0 ),
-                                                                   x + p_direction.direction().getQuick( 1 )}
-                                                               )
-                                                )
-                                                .filter( m_environment::isinside )
-                                                .map( i -> i == null
-                                                           ? null
-                                                           : new ImmutablePair<IElement, DoubleMatrix1D>( m_environment.get( i ), i ) )
-                                                .filter( Objects::nonNull )
-                        );
+        // read the elements of the view-cone, center is the rotated view point, so
+        // only the occupied cells around the view point are read
+        return m_environment.within(
+            (int) p_direction.direction().getQuick( 0 ),
+            (int) p_direction.direction().getQuick( 1 ),
+            p_direction.radius(),
+            p_direction.angle()
+        );
     }
 
 
 
+    // --- checkpoint ------------------------------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public final IAgent checkpoint( final DataOutput p_output ) throws IOException
+    {
+        // the pokemon name is read by the generator to create the agent
+        p_output.writeUTF( m_pokemon );
+        super.checkpoint( p_output );
+
+        final byte[] l_experience = m_experience.get().toByteArray();
+        p_output.writeInt( m_level.get() );
+        p_output.writeInt( l_experience.length );
+        p_output.write( l_experience );
+
+        CPokemon.checkpoint( p_output, m_ethnic );
+        CPokemon.checkpoint( p_output, m_motivation );
+
+        p_output.writeInt( m_attribute.size() );
+        for ( final Map.Entry<String, MutablePair<EAccess, Number>> i : m_attribute.entrySet() )
+        {
+            p_output.writeUTF( i.getKey() );
+            p_output.writeByte( i.getValue().getLeft().ordinal() );
+            CPokemon.checkpoint( p_output, i.getValue().getRight() );
+        }
+
+        p_output.writeInt( m_attack.size() );
+        for ( final String i : m_attack.keySet() )
+            p_output.writeUTF( i );
+
+        // the on-demand beliefbases are restored with the maps, so only the
+        // literals of the root beliefbase are written in their source form
+        final List<String> l_beliefs = m_beliefbase.beliefbase().streamLiteral().map( Object::toString ).collect( Collectors.toList() );
+        p_output.writeInt( l_beliefs.size() );
+        for ( final String i : l_beliefs )
+            p_output.writeUTF( i );
+
+        return this;
+    }
+
+    @Override
+    public final IAgent restore( final DataInput p_input ) throws IOException
+    {
+        super.restore( p_input );
+
+        m_level.set( p_input.readInt() );
+        final byte[] l_experience = new byte[p_input.readInt()];
+        p_input.readFully( l_experience );
+        m_experience.set( new BigInteger( l_experience ) );
+
+        CPokemon.restore( p_input, m_ethnic );
+        CPokemon.restore( p_input, m_motivation );
+
+        m_attribute.clear();
+        final int l_attributes = p_input.readInt();
+        for ( int i = 0; i < l_attributes; i++ )
+        {
+            final String l_name = p_input.readUTF();
+            final EAccess l_access = EAccess.values()[p_input.readByte()];
+            m_attribute.put( l_name, new MutablePair<>( l_access, CPokemon.restore( p_input ) ) );
+        }
+
+        // attacks are not copied, so they are resolved by their names from the definition of the reached levels
+        final Set<String> l_attacks = new HashSet<>();
+        final int l_attacknumber = p_input.readInt();
+        for ( int i = 0; i < l_attacknumber; i++ )
+            l_attacks.add( p_input.readUTF() );
+
+        m_attack.clear();
+        IntStream.rangeClosed( 0, m_level.get() )
+                 .boxed()
+                 .flatMap( i -> CDefinition.INSTANCE.tupel( m_pokemon, i ).attack().stream() )
+                 .filter( i -> l_attacks.contains( i.name() ) )
+                 .forEach( i -> m_attack.put( i.name(), i ) );
+
+        // the initial beliefs of the agent are replaced, literals which cannot be parsed are skipped
+        m_beliefbase.remove( m_beliefbase.beliefbase().streamLiteral().toArray( ILiteral[]::new ) );
+        final int l_beliefs = p_input.readInt();
+        for ( int i = 0; i < l_beliefs; i++ )
+            CPokemon.literal( p_input.readUTF() ).ifPresent( m_beliefbase::add );
+
+        return this;
+    }
+
+    /**
+     * writes a number with its type
+     *
+     * @param p_output output
+     * @param p_value number
+     * @throws IOException on writing error
+     */
+    private static void checkpoint( final DataOutput p_output, final Number p_value ) throws IOException
+    {
+        if ( ( p_value instanceof Double ) || ( p_value instanceof Float ) )
+        {
+            p_output.writeBoolean( true );
+            p_output.writeDouble( p_value.doubleValue() );
+            return;
+        }
+
+        p_output.writeBoolean( false );
+        p_output.writeLong( p_value.longValue() );
+    }
+
+    /**
+     * writes a map of numbers
+     *
+     * @param p_output output
+     * @param p_map map
+     * @throws IOException on writing error
+     */
+    private static void checkpoint( final DataOutput p_output, final Map<String, Number> p_map ) throws IOException
+    {
+        p_output.writeInt( p_map.size() );
+        for ( final Map.Entry<String, Number> i : p_map.entrySet() )
+        {
+            p_output.writeUTF( i.getKey() );
+            CPokemon.checkpoint( p_output, i.getValue() );
+        }
+    }
+
+    /**
+     * reads a number, floating-point numbers are read
+     * as double and integral numbers as long values
+     *
+     * @param p_input input
+     * @return number
+     * @throws IOException on reading error
+     */
+    private static Number restore( final DataInput p_input ) throws IOException
+    {
+        return p_input.readBoolean()
+               ? (Number) p_input.readDouble()
+               : (Number) p_input.readLong();
+    }
+
+    /**
+     * replaces the content of a map of numbers
+     *
+     * @param p_input input
+     * @param p_map map
+     * @throws IOException on reading error
+     */
+    private static void restore( final DataInput p_input, final Map<String, Number> p_map ) throws IOException
+    {
+        p_map.clear();
+        final int l_size = p_input.readInt();
+        for ( int i = 0; i < l_size; i++ )
+            p_map.put( p_input.readUTF(), CPokemon.restore( p_input ) );
+    }
+
+    /**
+     * parses a literal
+     *
+     * @param p_literal literal in source form
+     * @return optional literal
+     */
+    private static Optional<ILiteral> literal( final String p_literal )
+    {
+        try
+        {
+            return Optional.of( CLiteral.parse( p_literal ) );
+        }
+        catch ( final Exception l_exception )
+        {
+            return Optional.empty();
+        }
+    }
+
     // --- agent actions ---------------------------------------------------------------------------------------------------------------------------------------
 
     /**
@@ -375,16 +538,13 @@ public final class CPokemon extends IBaseAgent
     private void pointattack( final String p_attack, final double p_power, final Number p_row, final Number p_column )
     {
         final CAttack l_attack = this.attack( p_attack );
+        final IElement l_element = m_environment.get( p_row.intValue(), p_column.intValue() );
+
+        // check attack distance (squared norm of the difference)
+        final double l_row = p_row.doubleValue() - m_position.getQuick( 0 );
+        final double l_column = p_column.doubleValue() - m_position.getQuick( 1 );
         final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{p_row.doubleValue(), p_column.doubleValue()} );
-        final IElement l_element = m_environment.get( l_target );
-
-        // check attack distance
-        if ( CMath.ALGEBRA.norm2(
-                new DenseDoubleMatrix1D( new double[]{p_row.doubleValue(), p_column.doubleValue()} )
-                    .assign( m_position, Functions.minus )
-             )
-             > l_attack.distance()
-        )
+        if ( l_row * l_row + l_column * l_column > l_attack.distance() )
             throw new RuntimeException(
                 MessageFormat.format( "position between {0} and {1} greater than attack distance {2}",
                                       CMath.MATRIXFORMAT.toString( m_position ),
@@ -41,6 +41,8 @@ import org.lightjason.agentspeak.language.instantiable.plan.IPlan;
 import org.lightjason.agentspeak.language.instantiable.rule.IRule;
 import org.lightjason.agentspeak.language.score.IAggregation;
 
+import java.io.DataInput;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
@@ -61,6 +63,14 @@ public final class CPokemonGenerator extends IBaseAgentGenerator<IAgent>
      * random generator
      */
     private final Random m_random = new Random();
+    /**
+     * first row (inclusive) of the generated positions
+     */
+    private final int m_rowfrom;
+    /**
+     * last row (exclusive) of the generated positions
+     */
+    private final int m_rowto;
 
     /**
      * ctor
@@ -74,9 +84,33 @@ public final class CPokemonGenerator extends IBaseAgentGenerator<IAgent>
     public CPokemonGenerator( final IEnvironment p_environment, final InputStream p_stream,
                               final Set<IAction> p_actions, final IAggregation p_aggregation
     ) throws Exception
+    {
+        this( p_environment, p_stream, p_actions, p_aggregation, 0, p_environment.row() );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_environment environment
+     * @param p_stream input asl stream
+     * @param p_actions action set
+     * @param p_aggregation aggregation set
+     * @param p_rowfrom first row (inclusive) of the generated positions
+     * @param p_rowto last row (exclusive) of the generated positions
+     * @throws Exception on any error
+     */
+    public CPokemonGenerator( final IEnvironment p_environment, final InputStream p_stream,
+                              final Set<IAction> p_actions, final IAggregation p_aggregation,
+                              final int p_rowfrom, final int p_rowto
+    ) throws Exception
     {
         super( p_stream, p_actions, p_aggregation, Collections.emptySet(), IVariableBuilder.EMPTY );
+        if ( ( p_rowfrom < 0 ) || ( p_rowto > p_environment.row() ) || ( p_rowfrom >= p_rowto ) )
+            throw new IllegalArgumentException( "row range must be within the environment" );
+
         m_environment = p_environment;
+        m_rowfrom = p_rowfrom;
+        m_rowto = p_rowto;
     }
 
 
@@ -93,23 +127,37 @@ public final class CPokemonGenerator extends IBaseAgentGenerator<IAgent>
     @Override
     public IAgent generatesingle( final Object... p_data )
     {
-        final DenseDoubleMatrix1D l_position = new DenseDoubleMatrix1D( new double[]{m_random.nextInt( m_environment.row() ), m_random.nextInt( m_environment.column() )} );
-        while ( !m_environment.empty( l_position ) )
+        int l_row = m_rowfrom + m_random.nextInt( m_rowto - m_rowfrom );
+        int l_column = m_random.nextInt( m_environment.column() );
+        while ( !m_environment.empty( l_row, l_column ) )
         {
-            l_position.setQuick( 0, m_random.nextInt( m_environment.row() ) );
-            l_position.setQuick( 1, m_random.nextInt( m_environment.column() ) );
+            l_row = m_rowfrom + m_random.nextInt( m_rowto - m_rowfrom );
+            l_column = m_random.nextInt( m_environment.column() );
         }
 
         return new CPokemon(
             m_environment,
             m_configuration,
 
-            l_position,
+            new DenseDoubleMatrix1D( new double[]{l_row, l_column} ),
 
             (String) p_data[0]
         );
     }
 
+    /**
+     * restores an agent of a checkpoint, the agent is created
+     * with the stored position, so no free cell is searched
+     *
+     * @param p_input input
+     * @return agent
+     * @throws IOException on reading error
+     */
+    public final IAgent restore( final DataInput p_input ) throws IOException
+    {
+        return new CPokemon( m_environment, m_configuration, new DenseDoubleMatrix1D( 2 ), p_input.readUTF() ).restore( p_input );
+    }
+
 
     /**
      * agent configuration
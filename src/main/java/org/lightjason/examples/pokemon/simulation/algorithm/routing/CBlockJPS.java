@@ -0,0 +1,83 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+
+import cern.colt.matrix.ObjectMatrix2D;
+
+
+
+/**
+ * block-based JPS algorithm, the static obstacles are stored as
+ * 64-bit row and column words, so the jump points are found by
+ * bit scans over whole words instead of a precomputed table
+ *
+ * @see https://harabor.net/data/papers/harabor-grastien-icaps14.pdf
+ */
+final class CBlockJPS extends IBaseJumpPoint
+{
+    /**
+     * block words
+     */
+    private volatile CBlockJump m_blocks;
+
+    @Override
+    public final IRouting initialize( final ObjectMatrix2D p_objects )
+    {
+        m_blocks = CBlockJump.from( CGrid.from( p_objects ) );
+        return this;
+    }
+
+    @Override
+    public final synchronized IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom,
+                                               final int p_rowto, final int p_columnto )
+    {
+        m_blocks = CBlockJump.from( this.blocks( p_objects ).grid().update( p_objects, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) );
+        return this;
+    }
+
+    @Override
+    protected final IJumpPoint jumppoints( final ObjectMatrix2D p_objects )
+    {
+        return this.blocks( p_objects );
+    }
+
+    /**
+     * returns the block words, if the routing is not
+     * initialized the words are created from the given grid
+     *
+     * @param p_objects snapshot of the environment
+     * @return block words
+     */
+    private CBlockJump blocks( final ObjectMatrix2D p_objects )
+    {
+        final CBlockJump l_blocks = m_blocks;
+        if ( ( l_blocks != null ) && ( l_blocks.grid().matches( p_objects ) ) )
+            return l_blocks;
+
+        this.initialize( p_objects );
+        return m_blocks;
+    }
+
+}
@@ -0,0 +1,323 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+
+/**
+ * block-based jump point calculation, the free cells are stored as 64-bit
+ * words for each row and each column, so straight jumps scan a whole word
+ * with bit operations and diagonal jumps run cell by cell with straight
+ * scans on each cell, the jump points are equal to the JPS+ table
+ *
+ * @see https://harabor.net/data/papers/harabor-grastien-icaps14.pdf
+ */
+final class CBlockJump implements IJumpPoint
+{
+    /**
+     * grid of the static obstacles
+     */
+    private final CGrid m_grid;
+    /**
+     * number of words of a row
+     */
+    private final int m_rowwords;
+    /**
+     * number of words of a column
+     */
+    private final int m_columnwords;
+    /**
+     * free cells as row words (bit index is the column)
+     */
+    private final long[] m_row;
+    /**
+     * free cells as column words (bit index is the row)
+     */
+    private final long[] m_column;
+
+
+    /**
+     * ctor
+     *
+     * @param p_grid grid of the static obstacles
+     */
+    private CBlockJump( final CGrid p_grid )
+    {
+        m_grid = p_grid;
+        m_rowwords = ( p_grid.columns() + 63 ) >>> 6;
+        m_columnwords = ( p_grid.rows() + 63 ) >>> 6;
+        m_row = new long[p_grid.rows() * m_rowwords];
+        m_column = new long[p_grid.columns() * m_columnwords];
+
+        for ( int i = 0; i < p_grid.rows(); i++ )
+            for ( int j = 0; j < p_grid.columns(); j++ )
+                if ( p_grid.free( i, j ) )
+                {
+                    m_row[i * m_rowwords + ( j >>> 6 )] |= 1L << j;
+                    m_column[j * m_columnwords + ( i >>> 6 )] |= 1L << i;
+                }
+    }
+
+    /**
+     * creates the words of the static obstacles
+     *
+     * @param p_grid grid of the static obstacles
+     * @return block structure
+     */
+    static CBlockJump from( final CGrid p_grid )
+    {
+        return new CBlockJump( p_grid );
+    }
+
+    @Override
+    public final CGrid grid()
+    {
+        return m_grid;
+    }
+
+    @Override
+    public final int jump( final int p_row, final int p_column, final int p_direction, final int p_targetrow, final int p_targetcolumn )
+    {
+        final int l_steps = CGrid.steps( p_row, p_column, p_direction, p_targetrow, p_targetcolumn );
+        final int l_distance = ( CGrid.ROW[p_direction] == 0 ) || ( CGrid.COLUMN[p_direction] == 0 )
+                               ? this.straight( p_row, p_column, p_direction )
+                               : this.diagonal( p_row, p_column, p_direction, l_steps > 0 ? l_steps : Integer.MAX_VALUE );
+
+        if ( ( l_steps > 0 ) && ( l_steps <= Math.abs( l_distance ) ) )
+            return m_grid.index( p_row + CGrid.ROW[p_direction] * l_steps, p_column + CGrid.COLUMN[p_direction] * l_steps );
+
+        return l_distance > 0
+               ? m_grid.index( p_row + CGrid.ROW[p_direction] * l_distance, p_column + CGrid.COLUMN[p_direction] * l_distance )
+               : -1;
+    }
+
+    /**
+     * calculates the straight jump distance
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction straight direction index
+     * @return distance to the next jump point (positive) or negative number of free cells
+     */
+    private int straight( final int p_row, final int p_column, final int p_direction )
+    {
+        // horizontal movements scan the row words, vertical movements the column words
+        if ( CGrid.ROW[p_direction] == 0 )
+            return CGrid.COLUMN[p_direction] > 0
+                   ? CBlockJump.forward( m_row, m_rowwords, m_grid.rows(), m_grid.columns(), p_row, p_column )
+                   : CBlockJump.backward( m_row, m_rowwords, m_grid.rows(), m_grid.columns(), p_row, p_column );
+
+        return CGrid.ROW[p_direction] > 0
+               ? CBlockJump.forward( m_column, m_columnwords, m_grid.columns(), m_grid.rows(), p_column, p_row )
+               : CBlockJump.backward( m_column, m_columnwords, m_grid.columns(), m_grid.rows(), p_column, p_row );
+    }
+
+    /**
+     * calculates the diagonal jump distance, the calculation
+     * stops if the number of steps reaches the limit
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction diagonal direction index
+     * @param p_limit maximum number of steps
+     * @return distance to the next jump point or limit (positive) or negative number of free cells
+     */
+    private int diagonal( final int p_row, final int p_column, final int p_direction, final int p_limit )
+    {
+        for ( int i = 1; i < Integer.MAX_VALUE; i++ )
+        {
+            final int l_row = p_row + i * CGrid.ROW[p_direction];
+            final int l_column = p_column + i * CGrid.COLUMN[p_direction];
+            if ( !m_grid.free( l_row, l_column ) )
+                return 1 - i;
+
+            if ( ( i >= p_limit ) || this.jumppoint( l_row, l_column, p_direction ) )
+                return i;
+        }
+
+        return 0;
+    }
+
+    /**
+     * checks if a cell is a diagonal jump point
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction diagonal direction index
+     * @return jump point flag
+     */
+    private boolean jumppoint( final int p_row, final int p_column, final int p_direction )
+    {
+        final int l_row = CGrid.ROW[p_direction];
+        final int l_column = CGrid.COLUMN[p_direction];
+
+        return m_grid.blocked( p_row - l_row, p_column ) && m_grid.free( p_row - l_row, p_column + l_column )
+               || m_grid.blocked( p_row, p_column - l_column ) && m_grid.free( p_row + l_row, p_column - l_column )
+               || this.straight( p_row, p_column, ( p_direction + CGrid.DIRECTIONS - 1 ) % CGrid.DIRECTIONS ) > 0
+               || this.straight( p_row, p_column, ( p_direction + 1 ) % CGrid.DIRECTIONS ) > 0;
+    }
+
+    /**
+     * scans a line in increasing direction
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_length number of cells of a line
+     * @param p_line line index
+     * @param p_position cell position within the line
+     * @return distance to the next jump point (positive) or negative number of free cells
+     */
+    private static int forward( final long[] p_words, final int p_perline, final int p_lines, final int p_length, final int p_line, final int p_position )
+    {
+        final int l_first = ( p_position + 1 ) >>> 6;
+        for ( int i = l_first; i < p_perline; i++ )
+        {
+            // the bits of the shifted words contain the state of the next cell
+            final long l_mask = i == l_first ? -1L << ( p_position + 1 ) : -1L;
+            final long l_wall = ~CBlockJump.word( p_words, p_perline, p_lines, p_line, i ) & l_mask;
+            final long l_left = CBlockJump.blocked( p_words, p_perline, p_lines, p_length, p_line - 1, i )
+                                 & CBlockJump.next( p_words, p_perline, p_lines, p_line - 1, i );
+            final long l_right = CBlockJump.blocked( p_words, p_perline, p_lines, p_length, p_line + 1, i )
+                                 & CBlockJump.next( p_words, p_perline, p_lines, p_line + 1, i );
+            final long l_jump = CBlockJump.next( p_words, p_perline, p_lines, p_line, i ) & ( l_left | l_right ) & l_mask;
+
+            if ( ( l_wall | l_jump ) == 0 )
+                continue;
+
+            final int l_wallbit = Long.numberOfTrailingZeros( l_wall );
+            final int l_jumpbit = Long.numberOfTrailingZeros( l_jump );
+            return l_jumpbit < l_wallbit
+                   ? ( i << 6 ) + l_jumpbit - p_position
+                   : p_position + 1 - ( i << 6 ) - l_wallbit;
+        }
+
+        return p_position + 1 - p_length;
+    }
+
+    /**
+     * scans a line in decreasing direction
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_length number of cells of a line
+     * @param p_line line index
+     * @param p_position cell position within the line
+     * @return distance to the next jump point (positive) or negative number of free cells
+     */
+    private static int backward( final long[] p_words, final int p_perline, final int p_lines, final int p_length, final int p_line, final int p_position )
+    {
+        final int l_first = ( p_position - 1 ) >> 6;
+        for ( int i = l_first; i >= 0; i-- )
+        {
+            // the bits of the shifted words contain the state of the previous cell
+            final long l_mask = i == l_first ? -1L >>> ( 63 - ( ( p_position - 1 ) & 63 ) ) : -1L;
+            final long l_wall = ~CBlockJump.word( p_words, p_perline, p_lines, p_line, i ) & l_mask;
+            final long l_left = CBlockJump.blocked( p_words, p_perline, p_lines, p_length, p_line - 1, i )
+                                 & CBlockJump.previous( p_words, p_perline, p_lines, p_line - 1, i );
+            final long l_right = CBlockJump.blocked( p_words, p_perline, p_lines, p_length, p_line + 1, i )
+                                 & CBlockJump.previous( p_words, p_perline, p_lines, p_line + 1, i );
+            final long l_jump = CBlockJump.previous( p_words, p_perline, p_lines, p_line, i ) & ( l_left | l_right ) & l_mask;
+
+            if ( ( l_wall | l_jump ) == 0 )
+                continue;
+
+            final int l_wallbit = 63 - Long.numberOfLeadingZeros( l_wall );
+            final int l_jumpbit = 63 - Long.numberOfLeadingZeros( l_jump );
+            return l_jumpbit > l_wallbit
+                   ? p_position - ( i << 6 ) - l_jumpbit
+                   : ( i << 6 ) + l_wallbit + 1 - p_position;
+        }
+
+        return -p_position;
+    }
+
+    /**
+     * returns a word of free cells, words outside the grid are empty
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_line line index
+     * @param p_word word index
+     * @return word
+     */
+    private static long word( final long[] p_words, final int p_perline, final int p_lines, final int p_line, final int p_word )
+    {
+        return ( p_line < 0 ) || ( p_line >= p_lines ) || ( p_word < 0 ) || ( p_word >= p_perline )
+               ? 0
+               : p_words[p_line * p_perline + p_word];
+    }
+
+    /**
+     * returns a word of blocked cells, cells outside the grid are not blocked
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_length number of cells of a line
+     * @param p_line line index
+     * @param p_word word index
+     * @return word
+     */
+    private static long blocked( final long[] p_words, final int p_perline, final int p_lines, final int p_length, final int p_line, final int p_word )
+    {
+        if ( ( p_line < 0 ) || ( p_line >= p_lines ) )
+            return 0;
+
+        final int l_cells = p_length - ( p_word << 6 );
+        return ~CBlockJump.word( p_words, p_perline, p_lines, p_line, p_word ) & ( l_cells >= 64 ? -1L : ( 1L << l_cells ) - 1 );
+    }
+
+    /**
+     * returns a word of free cells shifted by one cell, so each bit contains the state of the next cell
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_line line index
+     * @param p_word word index
+     * @return word
+     */
+    private static long next( final long[] p_words, final int p_perline, final int p_lines, final int p_line, final int p_word )
+    {
+        return ( CBlockJump.word( p_words, p_perline, p_lines, p_line, p_word ) >>> 1 ) | ( CBlockJump.word( p_words, p_perline, p_lines, p_line, p_word + 1 ) << 63 );
+    }
+
+    /**
+     * returns a word of free cells shifted by one cell, so each bit contains the state of the previous cell
+     *
+     * @param p_words words
+     * @param p_perline number of words of a line
+     * @param p_lines number of lines
+     * @param p_line line index
+     * @param p_word word index
+     * @return word
+     */
+    private static long previous( final long[] p_words, final int p_perline, final int p_lines, final int p_line, final int p_word )
+    {
+        return ( CBlockJump.word( p_words, p_perline, p_lines, p_line, p_word ) << 1 ) | ( CBlockJump.word( p_words, p_perline, p_lines, p_line, p_word - 1 ) >>> 63 );
+    }
+
+}
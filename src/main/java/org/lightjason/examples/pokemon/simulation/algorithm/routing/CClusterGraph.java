@@ -0,0 +1,589 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.list.IntArrayList;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * abstract graph of the hierarchical routing, the grid is split into
+ * square clusters, entrances between neighbouring clusters define the
+ * graph nodes and the edges store the movement costs between the nodes
+ * of a cluster (intra-edges) and across a cluster border (inter-edges)
+ *
+ * @see https://webdocs.cs.ualberta.ca/~mmueller/ps/hpastar.pdf
+ */
+final class CClusterGraph
+{
+    /**
+     * minimal length of an entrance which gets a transition at both ends
+     */
+    private static final int ENTRANCELENGTH = 6;
+    /**
+     * grid of the static obstacles
+     */
+    private final CGrid m_grid;
+    /**
+     * cluster size (in cells)
+     */
+    private final int m_size;
+    /**
+     * number of cluster columns
+     */
+    private final int m_clustercolumns;
+    /**
+     * cell index of each node
+     */
+    private final int[] m_nodecell;
+    /**
+     * first position of the nodes of each cluster within the cluster-node array
+     */
+    private final int[] m_clusterstart;
+    /**
+     * nodes ordered by cluster
+     */
+    private final int[] m_clusternode;
+    /**
+     * first position of the edges of each node within the edge arrays
+     */
+    private final int[] m_edgestart;
+    /**
+     * target node of each edge
+     */
+    private final int[] m_edgetarget;
+    /**
+     * costs of each edge
+     */
+    private final int[] m_edgecosts;
+
+
+    /**
+     * ctor
+     *
+     * @param p_builder builder with nodes and edges
+     */
+    private CClusterGraph( final CBuilder p_builder )
+    {
+        m_grid = p_builder.m_grid;
+        m_size = p_builder.m_size;
+        m_clustercolumns = ( m_grid.columns() + m_size - 1 ) / m_size;
+        m_nodecell = Arrays.copyOf( p_builder.m_nodecell.elements(), p_builder.m_nodecell.size() );
+
+        final int l_clusters = ( ( m_grid.rows() + m_size - 1 ) / m_size ) * m_clustercolumns;
+        m_clusterstart = new int[l_clusters + 1];
+        m_clusternode = new int[m_nodecell.length];
+        CClusterGraph.group( IntStream.range( 0, m_nodecell.length ).map( i -> this.cluster( m_nodecell[i] ) ).toArray(), m_clusterstart, m_clusternode );
+
+        // intra-edges are calculated independently for each cluster
+        final IntArrayList l_edges = p_builder.m_edges;
+        IntStream.range( 0, l_clusters )
+                 .parallel()
+                 .mapToObj( this::intraedges )
+                 .collect( Collectors.toList() )
+                 .forEach( l_edges::addAllOf );
+
+        final int[] l_source = new int[l_edges.size() / 3];
+        IntStream.range( 0, l_source.length ).forEach( i -> l_source[i] = l_edges.getQuick( 3 * i ) );
+
+        m_edgestart = new int[m_nodecell.length + 1];
+        final int[] l_order = new int[l_source.length];
+        CClusterGraph.group( l_source, m_edgestart, l_order );
+
+        m_edgetarget = IntStream.of( l_order ).map( i -> l_edges.getQuick( 3 * i + 1 ) ).toArray();
+        m_edgecosts = IntStream.of( l_order ).map( i -> l_edges.getQuick( 3 * i + 2 ) ).toArray();
+    }
+
+    /**
+     * creates the abstract graph of a grid
+     *
+     * @param p_grid grid of the static obstacles
+     * @param p_size cluster size (in cells)
+     * @return graph
+     */
+    static CClusterGraph from( final CGrid p_grid, final int p_size )
+    {
+        final CBuilder l_builder = new CBuilder( p_grid, p_size );
+        for ( int i = 0; i < p_grid.rows(); i += p_size )
+            for ( int j = 0; j < p_grid.columns(); j += p_size )
+            {
+                // each cluster creates the entrances to the east and south neighbour
+                l_builder.entrances( i, j + p_size - 1, 1, 0 );
+                l_builder.entrances( i + p_size - 1, j, 0, 1 );
+            }
+
+        return new CClusterGraph( l_builder );
+    }
+
+    /**
+     * returns the grid
+     *
+     * @return grid
+     */
+    CGrid grid()
+    {
+        return m_grid;
+    }
+
+    /**
+     * returns the number of nodes
+     *
+     * @return number of nodes
+     */
+    int nodes()
+    {
+        return m_nodecell.length;
+    }
+
+    /**
+     * calculates the route between two cells, the first landmark is refined
+     * and further landmarks are the exit cells of the traversed clusters
+     *
+     * @param p_source source cell index
+     * @param p_target target cell index
+     * @return landmarks without source
+     */
+    List<DoubleMatrix1D> route( final int p_source, final int p_target )
+    {
+        final int l_targetcluster = this.cluster( p_target );
+        if ( this.cluster( p_source ) == l_targetcluster )
+        {
+            final List<DoubleMatrix1D> l_local = this.field( l_targetcluster, p_target ).route( p_source );
+            if ( !l_local.isEmpty() )
+                return l_local;
+        }
+
+        final CSearchBuffer l_buffer = CSearchBuffer.get( m_nodecell.length + 2 );
+        if ( !this.search( l_buffer, p_source, p_target ) )
+            return Collections.<DoubleMatrix1D>emptyList();
+
+        final LinkedList<DoubleMatrix1D> l_landmarks = this.landmarks( l_buffer, p_target );
+        final int l_first = this.index( l_landmarks.removeFirst() );
+        l_landmarks.addAll( 0, this.refine( p_source, l_first ) );
+        return l_landmarks;
+    }
+
+    /**
+     * refines a landmark, a landmark which is reachable on a straight or diagonal
+     * line is not changed, otherwise the route is calculated within the clusters
+     * of the position and the landmark
+     *
+     * @param p_position position cell index
+     * @param p_landmark landmark cell index
+     * @return refined landmarks
+     */
+    List<DoubleMatrix1D> refine( final int p_position, final int p_landmark )
+    {
+        final List<DoubleMatrix1D> l_landmark = Collections.singletonList( this.position( p_landmark ) );
+        if ( this.walkable( p_position, p_landmark ) )
+            return l_landmark;
+
+        final int l_rowfrom = Math.min( m_grid.row( p_position ), m_grid.row( p_landmark ) ) / m_size;
+        final int l_rowto = Math.max( m_grid.row( p_position ), m_grid.row( p_landmark ) ) / m_size;
+        final int l_columnfrom = Math.min( m_grid.column( p_position ), m_grid.column( p_landmark ) ) / m_size;
+        final int l_columnto = Math.max( m_grid.column( p_position ), m_grid.column( p_landmark ) ) / m_size;
+        if ( ( l_rowto - l_rowfrom > 1 ) || ( l_columnto - l_columnfrom > 1 ) )
+            return l_landmark;
+
+        final List<DoubleMatrix1D> l_route = CWindowField.from(
+            m_grid, l_rowfrom * m_size, l_columnfrom * m_size, ( l_rowto + 1 ) * m_size - 1, ( l_columnto + 1 ) * m_size - 1, p_landmark
+        ).route( p_position );
+
+        return l_route.isEmpty() ? l_landmark : l_route;
+    }
+
+    /**
+     * runs the A* search on the abstract graph, the source and the target are
+     * inserted as temporary nodes which are connected with the nodes of their clusters
+     *
+     * @param p_buffer search buffer
+     * @param p_source source cell index
+     * @param p_target target cell index
+     * @return flag if the target is reachable
+     */
+    private boolean search( final CSearchBuffer p_buffer, final int p_source, final int p_target )
+    {
+        final int l_sourcenode = m_nodecell.length;
+        final int l_targetnode = m_nodecell.length + 1;
+        final int l_targetcluster = this.cluster( p_target );
+        final CWindowField l_sourcefield = this.field( this.cluster( p_source ), p_source );
+        final CWindowField l_targetfield = this.field( l_targetcluster, p_target );
+
+        p_buffer.visit( l_sourcenode, 0, -1 ).open().push( l_sourcenode, this.hscore( p_source, p_target ) );
+        while ( !p_buffer.open().isEmpty() )
+        {
+            final int l_current = p_buffer.open().pop();
+            if ( l_current == l_targetnode )
+                return true;
+
+            p_buffer.close( l_current );
+            if ( l_current == l_sourcenode )
+            {
+                this.successors( p_buffer, l_current, this.cluster( p_source ), l_sourcefield, p_target );
+                continue;
+            }
+
+            for ( int i = m_edgestart[l_current]; i < m_edgestart[l_current + 1]; i++ )
+                this.relax( p_buffer, l_current, m_edgetarget[i], p_buffer.gscore( l_current ) + m_edgecosts[i], p_target );
+
+            if ( ( this.cluster( m_nodecell[l_current] ) == l_targetcluster ) && ( l_targetfield.costs( m_nodecell[l_current] ) != CWindowField.UNREACHABLE ) )
+                this.relax( p_buffer, l_current, l_targetnode, p_buffer.gscore( l_current ) + l_targetfield.costs( m_nodecell[l_current] ), p_target );
+        }
+
+        return false;
+    }
+
+    /**
+     * relaxes the nodes of a cluster with the costs of a field
+     *
+     * @param p_buffer search buffer
+     * @param p_current current node
+     * @param p_cluster cluster index
+     * @param p_field field with the costs of the cluster cells
+     * @param p_target target cell index
+     */
+    private void successors( final CSearchBuffer p_buffer, final int p_current, final int p_cluster, final CWindowField p_field, final int p_target )
+    {
+        for ( int i = m_clusterstart[p_cluster]; i < m_clusterstart[p_cluster + 1]; i++ )
+        {
+            final int l_costs = p_field.costs( m_nodecell[m_clusternode[i]] );
+            if ( l_costs != CWindowField.UNREACHABLE )
+                this.relax( p_buffer, p_current, m_clusternode[i], p_buffer.gscore( p_current ) + l_costs, p_target );
+        }
+    }
+
+    /**
+     * pushes a node to the open list if the g-score is decreased
+     *
+     * @param p_buffer search buffer
+     * @param p_current current node
+     * @param p_node successor node
+     * @param p_gscore g-score of the successor
+     * @param p_target target cell index
+     */
+    private void relax( final CSearchBuffer p_buffer, final int p_current, final int p_node, final double p_gscore, final int p_target )
+    {
+        if ( ( p_buffer.closed( p_node ) ) || ( p_gscore >= p_buffer.gscore( p_node ) ) )
+            return;
+
+        p_buffer.visit( p_node, p_gscore, p_current ).open().push(
+            p_node,
+            p_gscore + ( p_node < m_nodecell.length ? this.hscore( m_nodecell[p_node], p_target ) : 0 )
+        );
+    }
+
+    /**
+     * builds the landmarks from the parent references, a node is
+     * a landmark if the next node is located in another cluster
+     *
+     * @param p_buffer search buffer
+     * @param p_target target cell index
+     * @return landmarks
+     */
+    private LinkedList<DoubleMatrix1D> landmarks( final CSearchBuffer p_buffer, final int p_target )
+    {
+        final LinkedList<DoubleMatrix1D> l_landmarks = new LinkedList<>();
+        l_landmarks.add( this.position( p_target ) );
+
+        int l_cluster = this.cluster( p_target );
+        for ( int i = p_buffer.parent( m_nodecell.length + 1 ); i != m_nodecell.length; i = p_buffer.parent( i ) )
+        {
+            if ( this.cluster( m_nodecell[i] ) != l_cluster )
+                l_landmarks.addFirst( this.position( m_nodecell[i] ) );
+            l_cluster = this.cluster( m_nodecell[i] );
+        }
+
+        return l_landmarks;
+    }
+
+    /**
+     * calculates the intra-edges of a cluster
+     *
+     * @param p_cluster cluster index
+     * @return edge triples (source node, target node, costs)
+     */
+    private IntArrayList intraedges( final int p_cluster )
+    {
+        final IntArrayList l_edges = new IntArrayList();
+        for ( int i = m_clusterstart[p_cluster]; i < m_clusterstart[p_cluster + 1]; i++ )
+        {
+            final CWindowField l_field = this.field( p_cluster, m_nodecell[m_clusternode[i]] );
+            for ( int j = m_clusterstart[p_cluster]; j < m_clusterstart[p_cluster + 1]; j++ )
+            {
+                final int l_costs = l_field.costs( m_nodecell[m_clusternode[j]] );
+                if ( ( i == j ) || ( l_costs == CWindowField.UNREACHABLE ) )
+                    continue;
+
+                l_edges.add( m_clusternode[j] );
+                l_edges.add( m_clusternode[i] );
+                l_edges.add( l_costs );
+            }
+        }
+        return l_edges;
+    }
+
+    /**
+     * checks if a cell is reachable on a free straight or diagonal line
+     *
+     * @param p_source source cell index
+     * @param p_target target cell index
+     * @return walkable flag
+     */
+    private boolean walkable( final int p_source, final int p_target )
+    {
+        final int l_rows = m_grid.row( p_target ) - m_grid.row( p_source );
+        final int l_columns = m_grid.column( p_target ) - m_grid.column( p_source );
+        if ( ( l_rows != 0 ) && ( l_columns != 0 ) && ( Math.abs( l_rows ) != Math.abs( l_columns ) ) )
+            return false;
+
+        for ( int i = 1; i <= Math.max( Math.abs( l_rows ), Math.abs( l_columns ) ); i++ )
+            if ( !m_grid.free( m_grid.row( p_source ) + i * Integer.signum( l_rows ), m_grid.column( p_source ) + i * Integer.signum( l_columns ) ) )
+                return false;
+
+        return true;
+    }
+
+    /**
+     * creates the field of a target within a cluster
+     *
+     * @param p_cluster cluster index
+     * @param p_target target cell index
+     * @return field
+     */
+    private CWindowField field( final int p_cluster, final int p_target )
+    {
+        final int l_row = p_cluster / m_clustercolumns * m_size;
+        final int l_column = p_cluster % m_clustercolumns * m_size;
+        return CWindowField.from( m_grid, l_row, l_column, l_row + m_size - 1, l_column + m_size - 1, p_target );
+    }
+
+    /**
+     * returns the cluster index of a cell
+     *
+     * @param p_cell cell index
+     * @return cluster index
+     */
+    private int cluster( final int p_cell )
+    {
+        return m_grid.row( p_cell ) / m_size * m_clustercolumns + m_grid.column( p_cell ) / m_size;
+    }
+
+    /**
+     * calculates the octile distance
+     *
+     * @param p_cell cell index
+     * @param p_target target cell index
+     * @return h-score
+     */
+    private double hscore( final int p_cell, final int p_target )
+    {
+        final int l_rows = Math.abs( m_grid.row( p_target ) - m_grid.row( p_cell ) );
+        final int l_columns = Math.abs( m_grid.column( p_target ) - m_grid.column( p_cell ) );
+        return 10 * Math.max( l_rows, l_columns ) + 4 * Math.min( l_rows, l_columns );
+    }
+
+    /**
+     * returns the position vector of a cell
+     *
+     * @param p_cell cell index
+     * @return position
+     */
+    private DoubleMatrix1D position( final int p_cell )
+    {
+        return new DenseDoubleMatrix1D( new double[]{m_grid.row( p_cell ), m_grid.column( p_cell )} );
+    }
+
+    /**
+     * returns the cell index of a position vector
+     *
+     * @param p_position position
+     * @return cell index
+     */
+    private int index( final DoubleMatrix1D p_position )
+    {
+        return m_grid.index( (int) p_position.getQuick( 0 ), (int) p_position.getQuick( 1 ) );
+    }
+
+    /**
+     * groups values by a key with a counting sort
+     *
+     * @param p_key key of each value
+     * @param p_start first position of each key within the result (size is number of keys + 1)
+     * @param p_result values ordered by key
+     */
+    private static void group( final int[] p_key, final int[] p_start, final int[] p_result )
+    {
+        IntStream.of( p_key ).forEach( i -> p_start[i + 1]++ );
+        IntStream.range( 1, p_start.length ).forEach( i -> p_start[i] += p_start[i - 1] );
+
+        final int[] l_position = Arrays.copyOf( p_start, p_start.length );
+        IntStream.range( 0, p_key.length ).forEach( i -> p_result[l_position[p_key[i]]++] = i );
+    }
+
+
+    /**
+     * builder of the nodes and inter-edges
+     */
+    private static final class CBuilder
+    {
+        /**
+         * grid of the static obstacles
+         */
+        private final CGrid m_grid;
+        /**
+         * cluster size
+         */
+        private final int m_size;
+        /**
+         * map with cell index and node
+         */
+        private final Map<Integer, Integer> m_nodes = new HashMap<>();
+        /**
+         * cell index of each node
+         */
+        private final IntArrayList m_nodecell = new IntArrayList();
+        /**
+         * edge triples (source node, target node, costs)
+         */
+        private final IntArrayList m_edges = new IntArrayList();
+
+        /**
+         * ctor
+         *
+         * @param p_grid grid
+         * @param p_size cluster size
+         */
+        CBuilder( final CGrid p_grid, final int p_size )
+        {
+            m_grid = p_grid;
+            m_size = p_size;
+        }
+
+        /**
+         * creates the transitions along a cluster border, the border cells of the
+         * neighbour cluster are located orthogonal to the border direction
+         *
+         * @param p_row first row of the border
+         * @param p_column first column of the border
+         * @param p_rowdirection row direction of the border
+         * @param p_columndirection column direction of the border
+         */
+        void entrances( final int p_row, final int p_column, final int p_rowdirection, final int p_columndirection )
+        {
+            int l_start = -1;
+            for ( int i = 0; i <= m_size; i++ )
+            {
+                final int l_row = p_row + i * p_rowdirection;
+                final int l_column = p_column + i * p_columndirection;
+                final boolean l_free = ( i < m_size ) && m_grid.free( l_row, l_column ) && m_grid.free( l_row + p_columndirection, l_column + p_rowdirection );
+                if ( i < m_size )
+                    this.diagonals( l_row, l_column, p_rowdirection, p_columndirection );
+
+                if ( l_free && ( l_start < 0 ) )
+                    l_start = i;
+                if ( l_free || ( l_start < 0 ) )
+                    continue;
+
+                // long entrances get a transition at both ends, short entrances in the middle
+                if ( i - l_start < ENTRANCELENGTH )
+                    this.transition( p_row + ( l_start + i - 1 ) / 2 * p_rowdirection, p_column + ( l_start + i - 1 ) / 2 * p_columndirection,
+                                     p_columndirection, p_rowdirection, CGrid.costs( 0 ) );
+                else
+                {
+                    this.transition( p_row + l_start * p_rowdirection, p_column + l_start * p_columndirection, p_columndirection, p_rowdirection, CGrid.costs( 0 ) );
+                    this.transition( p_row + ( i - 1 ) * p_rowdirection, p_column + ( i - 1 ) * p_columndirection, p_columndirection, p_rowdirection, CGrid.costs( 0 ) );
+                }
+                l_start = -1;
+            }
+        }
+
+        /**
+         * creates the transitions of a border cell which are passable on a
+         * diagonal line only, because both straight neighbours are blocked
+         *
+         * @param p_row row of the cell
+         * @param p_column column of the cell
+         * @param p_rowdirection row direction of the border
+         * @param p_columndirection column direction of the border
+         */
+        private void diagonals( final int p_row, final int p_column, final int p_rowdirection, final int p_columndirection )
+        {
+            if ( !m_grid.free( p_row, p_column ) || m_grid.free( p_row + p_columndirection, p_column + p_rowdirection ) )
+                return;
+
+            for ( int i = -1; i < 2; i += 2 )
+                if ( m_grid.free( p_row + p_columndirection + i * p_rowdirection, p_column + p_rowdirection + i * p_columndirection )
+                     && !m_grid.free( p_row + i * p_rowdirection, p_column + i * p_columndirection ) )
+                    this.transition( p_row, p_column, p_columndirection + i * p_rowdirection, p_rowdirection + i * p_columndirection, CGrid.costs( 1 ) );
+        }
+
+        /**
+         * creates a transition with the nodes on both sides of the border
+         *
+         * @param p_row row of the cell
+         * @param p_column column of the cell
+         * @param p_rowoffset row offset to the neighbour cell
+         * @param p_columnoffset column offset to the neighbour cell
+         * @param p_costs movement costs
+         */
+        private void transition( final int p_row, final int p_column, final int p_rowoffset, final int p_columnoffset, final int p_costs )
+        {
+            final int l_first = this.node( m_grid.index( p_row, p_column ) );
+            final int l_second = this.node( m_grid.index( p_row + p_rowoffset, p_column + p_columnoffset ) );
+
+            m_edges.add( l_first );
+            m_edges.add( l_second );
+            m_edges.add( p_costs );
+
+            m_edges.add( l_second );
+            m_edges.add( l_first );
+            m_edges.add( p_costs );
+        }
+
+        /**
+         * returns the node of a cell and creates it if needed
+         *
+         * @param p_cell cell index
+         * @return node
+         */
+        private int node( final int p_cell )
+        {
+            return m_nodes.computeIfAbsent( p_cell, i -> {
+                m_nodecell.add( i );
+                return m_nodecell.size() - 1;
+            } );
+        }
+    }
+
+}
@@ -0,0 +1,381 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+
+/**
+ * windowed cooperative A* routing, the first ticks of a route are
+ * calculated by a space-time A* (one cell or a wait per tick) which avoids
+ * the slots of the reservation table and reserves its own slots, the rest
+ * of the route is calculated by the underlying routing algorithm, waits are
+ * returned as repeated landmarks, so the element stands still for a tick
+ *
+ * @see https://www.aaai.org/Papers/AIIDE/2005/AIIDE05-020.pdf
+ */
+final class CCooperativeAStar extends IBaseRouting
+{
+    /**
+     * number of search retries if the reservation fails on concurrent reservations
+     */
+    private static final int RETRIES = 3;
+    /**
+     * costs of a wait
+     */
+    private static final int WAITCOSTS = 10;
+    /**
+     * routing algorithm beyond the window
+     */
+    private final IRouting m_routing;
+    /**
+     * number of ticks of the window
+     */
+    private final int m_window;
+
+
+    /**
+     * ctor
+     *
+     * @param p_routing routing algorithm beyond the window
+     * @param p_window number of ticks of the window
+     */
+    CCooperativeAStar( final IRouting p_routing, final int p_window )
+    {
+        if ( p_window < 1 )
+            throw new IllegalArgumentException( "window must be greater or equal than one" );
+
+        m_routing = p_routing;
+        m_window = p_window;
+    }
+
+    @Override
+    public final IRouting initialize( final ObjectMatrix2D p_objects )
+    {
+        m_routing.initialize( p_objects );
+        return this;
+    }
+
+    @Override
+    public final IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        m_routing.update( p_objects, p_rowfrom, p_columnfrom, p_rowto, p_columnto );
+        return this;
+    }
+
+    @Override
+    public final IRouting update( final ObjectMatrix2D p_objects, final int p_cell )
+    {
+        m_routing.update( p_objects, p_cell );
+        return this;
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        return m_routing.route( p_objects, p_currentposition, p_targetposition );
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner,
+                                             final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final int l_row = (int) p_currentposition.getQuick( 0 );
+        final int l_column = (int) p_currentposition.getQuick( 1 );
+        final int l_targetrow = (int) p_targetposition.getQuick( 0 );
+        final int l_targetcolumn = (int) p_targetposition.getQuick( 1 );
+
+        if ( ( !p_currentposition.equals( p_targetposition ) ) && ( CCooperativeAStar.inside( p_objects, l_row, l_column ) )
+             && ( CCooperativeAStar.inside( p_objects, l_targetrow, l_targetcolumn ) ) )
+            for ( int i = 0; i < RETRIES; i++ )
+            {
+                // the slots are checked during the search and claimed afterwards, so
+                // a concurrent reservation of the same slots forces a new search
+                final long l_tick = p_reservation.tick();
+                final int[] l_window = this.window( p_objects, p_reservation, p_owner, l_tick, l_row, l_column, l_targetrow, l_targetcolumn );
+                if ( l_window.length == 0 )
+                    break;
+
+                if ( p_reservation.reserve( p_owner, l_tick + 1, l_window ) )
+                    return this.route( p_objects, p_reservation, p_owner, l_window, p_currentposition, p_targetposition );
+            }
+
+        p_reservation.release( p_owner );
+        return m_routing.route( p_objects, p_currentposition, p_targetposition );
+    }
+
+    @Override
+    public final boolean cooperative()
+    {
+        return true;
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> refine( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark )
+    {
+        return m_routing.refine( p_objects, p_position, p_landmark );
+    }
+
+    /**
+     * builds the route of the reserved window and the route beyond the window
+     *
+     * @param p_objects object matrix
+     * @param p_reservation reservation table
+     * @param p_owner owner of the reservation
+     * @param p_window reserved cells of the window
+     * @param p_currentposition current position
+     * @param p_targetposition target position
+     * @return route
+     */
+    private List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner, final int[] p_window,
+                                        final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final int l_target = (int) p_targetposition.getQuick( 0 ) * p_objects.columns() + (int) p_targetposition.getQuick( 1 );
+
+        // the window is filled up with the target cell, so the filling is not part of the route
+        int l_length = p_window.length;
+        while ( ( l_length > 1 ) && ( p_window[l_length - 1] == l_target ) && ( p_window[l_length - 2] == l_target ) )
+            l_length--;
+
+        final List<DoubleMatrix1D> l_route = new ArrayList<>();
+        for ( int i = 0; i < l_length; i++ )
+            l_route.add( new DenseDoubleMatrix1D( new double[]{p_window[i] / p_objects.columns(), p_window[i] % p_objects.columns()} ) );
+        if ( p_window[l_length - 1] == l_target )
+            return l_route;
+
+        final List<DoubleMatrix1D> l_beyond = m_routing.route( p_objects, l_route.get( l_length - 1 ), p_targetposition );
+        if ( !l_beyond.isEmpty() )
+        {
+            l_route.addAll( l_beyond );
+            return l_route;
+        }
+
+        // the window ends on a cell without a route to the target
+        p_reservation.release( p_owner );
+        return m_routing.route( p_objects, p_currentposition, p_targetposition );
+    }
+
+    /**
+     * space-time A* over the window, the costs beyond the window are estimated
+     * by the octile distance to the target, if the target is reached within the
+     * window, the target cell is reserved until the end of the window
+     *
+     * @param p_objects object matrix
+     * @param p_reservation reservation table
+     * @param p_owner owner of the reservation
+     * @param p_tick current tick
+     * @param p_row row of the current position
+     * @param p_column column of the current position
+     * @param p_targetrow row of the target position
+     * @param p_targetcolumn column of the target position
+     * @return cells of the ticks 1 to window or an empty array if there is no route
+     */
+    private int[] window( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner, final long p_tick,
+                          final int p_row, final int p_column, final int p_targetrow, final int p_targetcolumn )
+    {
+        final Map<Long, CState> l_visited = new HashMap<>();
+        final PriorityQueue<CState> l_open = new PriorityQueue<>(
+            Comparator.<CState>comparingInt( i -> i.m_costs + i.m_estimated ).thenComparingInt( i -> -i.m_tick )
+        );
+        final long l_cells = (long) p_objects.rows() * p_objects.columns();
+
+        final CState l_source = new CState( p_row, p_column, 0, 0, CCooperativeAStar.hscore( p_row, p_column, p_targetrow, p_targetcolumn ), null );
+        l_visited.put( (long) p_row * p_objects.columns() + p_column, l_source );
+        l_open.add( l_source );
+
+        while ( !l_open.isEmpty() )
+        {
+            final CState l_state = l_open.poll();
+            if ( ( l_state.m_tick == m_window ) || ( ( l_state.m_row == p_targetrow ) && ( l_state.m_column == p_targetcolumn ) ) )
+                return this.cells( p_objects, l_state );
+
+            // successors are the eight neighbours and the wait on the cell, the wait is stored as the direction index -1
+            for ( int i = -1; i < CGrid.DIRECTIONS; i++ )
+            {
+                final int l_row = l_state.m_row + ( i < 0 ? 0 : CGrid.ROW[i] );
+                final int l_column = l_state.m_column + ( i < 0 ? 0 : CGrid.COLUMN[i] );
+                if ( !this.free( p_objects, p_reservation, p_owner, p_tick, l_state, l_row, l_column, p_row, p_column ) )
+                    continue;
+
+                final int l_costs = l_state.m_costs + ( i < 0 ? WAITCOSTS : CGrid.costs( i ) );
+                final long l_key = ( l_state.m_tick + 1L ) * l_cells + (long) l_row * p_objects.columns() + l_column;
+                final CState l_visit = l_visited.get( l_key );
+                if ( ( l_visit != null ) && ( l_visit.m_costs <= l_costs ) )
+                    continue;
+
+                final CState l_successor = new CState(
+                    l_row, l_column, l_state.m_tick + 1, l_costs, CCooperativeAStar.hscore( l_row, l_column, p_targetrow, p_targetcolumn ), l_state
+                );
+                l_visited.put( l_key, l_successor );
+                l_open.add( l_successor );
+            }
+        }
+
+        return new int[0];
+    }
+
+    /**
+     * checks if a state can move into a cell on the next tick, the cell must be free
+     * (the cell of the current position is free for the owner), the slot must not be
+     * reserved by another element and the cell must not be reserved by another element
+     * on the previous or the next tick, so the element neither swaps the cells with an
+     * element nor follows an element into the cell it leaves or is followed by an element,
+     * because on the two-phase execution a cell is only free if it is free within the
+     * snapshot of the previous tick
+     *
+     * @param p_objects object matrix
+     * @param p_reservation reservation table
+     * @param p_owner owner of the reservation
+     * @param p_tick current tick
+     * @param p_state state
+     * @param p_row row of the cell
+     * @param p_column column of the cell
+     * @param p_sourcerow row of the current position
+     * @param p_sourcecolumn column of the current position
+     * @return free flag
+     */
+    private boolean free( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner, final long p_tick,
+                          final CState p_state, final int p_row, final int p_column, final int p_sourcerow, final int p_sourcecolumn )
+    {
+        if ( !CCooperativeAStar.inside( p_objects, p_row, p_column ) )
+            return false;
+        if ( ( CGrid.occupied( p_objects, p_row, p_column ) ) && ( ( p_row != p_sourcerow ) || ( p_column != p_sourcecolumn ) ) )
+            return false;
+
+        final long l_tick = p_tick + p_state.m_tick + 1;
+        if ( !p_reservation.free( p_owner, p_row, p_column, l_tick ) )
+            return false;
+
+        return ( p_reservation.free( p_owner, p_row, p_column, l_tick - 1 ) ) && ( p_reservation.free( p_owner, p_row, p_column, l_tick + 1 ) );
+    }
+
+    /**
+     * returns the cells of the ticks 1 to window of a state chain,
+     * the cells after the last state are filled with the last cell
+     *
+     * @param p_objects object matrix
+     * @param p_state last state
+     * @return cells
+     */
+    private int[] cells( final ObjectMatrix2D p_objects, final CState p_state )
+    {
+        final int[] l_cells = new int[m_window];
+        for ( int i = p_state.m_tick; i < m_window; i++ )
+            l_cells[i] = p_state.m_row * p_objects.columns() + p_state.m_column;
+        for ( CState l_state = p_state; l_state.m_tick > 0; l_state = l_state.m_parent )
+            l_cells[l_state.m_tick - 1] = l_state.m_row * p_objects.columns() + l_state.m_column;
+        return l_cells;
+    }
+
+    /**
+     * checks if a cell is inside the object matrix
+     *
+     * @param p_objects object matrix
+     * @param p_row row
+     * @param p_column column
+     * @return inside flag
+     */
+    private static boolean inside( final ObjectMatrix2D p_objects, final int p_row, final int p_column )
+    {
+        return ( p_row >= 0 ) && ( p_column >= 0 ) && ( p_row < p_objects.rows() ) && ( p_column < p_objects.columns() );
+    }
+
+    /**
+     * octile distance of a cell to the target (straight 10, diagonal 14)
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_targetrow row of the target
+     * @param p_targetcolumn column of the target
+     * @return h-score
+     */
+    private static int hscore( final int p_row, final int p_column, final int p_targetrow, final int p_targetcolumn )
+    {
+        final int l_row = Math.abs( p_targetrow - p_row );
+        final int l_column = Math.abs( p_targetcolumn - p_column );
+        return 10 * Math.max( l_row, l_column ) + 4 * Math.min( l_row, l_column );
+    }
+
+
+    /**
+     * search state of a cell at a tick
+     */
+    private static final class CState
+    {
+        /**
+         * row
+         */
+        private final int m_row;
+        /**
+         * column
+         */
+        private final int m_column;
+        /**
+         * tick relative to the start of the search
+         */
+        private final int m_tick;
+        /**
+         * costs from the start
+         */
+        private final int m_costs;
+        /**
+         * estimated costs to the target
+         */
+        private final int m_estimated;
+        /**
+         * previous state
+         */
+        private final CState m_parent;
+
+        /**
+         * ctor
+         *
+         * @param p_row row
+         * @param p_column column
+         * @param p_tick tick relative to the start of the search
+         * @param p_costs costs from the start
+         * @param p_estimated estimated costs to the target
+         * @param p_parent previous state
+         */
+        CState( final int p_row, final int p_column, final int p_tick, final int p_costs, final int p_estimated, final CState p_parent )
+        {
+            m_row = p_row;
+            m_column = p_column;
+            m_tick = p_tick;
+            m_costs = p_costs;
+            m_estimated = p_estimated;
+            m_parent = p_parent;
+        }
+    }
+
+}
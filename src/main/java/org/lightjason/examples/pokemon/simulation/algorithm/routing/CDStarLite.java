@@ -0,0 +1,226 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.list.IntArrayList;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * incremental D* Lite routing, the search state of each target cell is kept
+ * between the route calculations and the occupancy changes of moving elements
+ * are fed into the states, so a replanning expands the cells around the changes
+ * only instead of the whole map, occupied cells of moving elements are obstacles
+ *
+ * @see http://idm-lab.org/bib/abstracts/papers/aaai02b.pdf
+ */
+final class CDStarLite extends IBaseRouting
+{
+    /**
+     * approximated number of bytes of a cell within a search state (costs, lookahead, open list and occupancy)
+     */
+    private static final int CELLBYTES = 32;
+    /**
+     * maximum number of cells over all search states, a quarter of the heap is used by the search states,
+     * so the number of kept states depends on the map size and on large maps a state is not dropped on
+     * each route calculation
+     */
+    private static final long MAXIMUMCELLS = Math.max( 1L << 22, Runtime.getRuntime().maxMemory() / 4 / CELLBYTES );
+    /**
+     * ratio of pending changes to cells, on which a search state is dropped
+     */
+    private static final int MAXIMUMCHANGES = 16;
+    /**
+     * search states of each target in access order
+     */
+    private final Map<Integer, CDStarLiteSearch> m_searches = new LinkedHashMap<>( 16, 0.75f, true );
+    /**
+     * grid of the cell geometry
+     */
+    private CGrid m_grid;
+    /**
+     * current occupied cells
+     */
+    private BitSet m_occupied;
+    /**
+     * cell indices of pending occupancy changes, the cells are queued without the routing lock and
+     * the occupancy is read on the next route calculation, so the moves of the elements are not
+     * serialized by the route calculations
+     */
+    private final IntArrayList m_changes = new IntArrayList();
+
+    @Override
+    public final synchronized IRouting initialize( final ObjectMatrix2D p_objects )
+    {
+        m_grid = CGrid.from( p_objects );
+        m_occupied = new BitSet( m_grid.cells() );
+        for ( int i = 0; i < m_grid.cells(); i++ )
+            m_occupied.set( i, m_grid.blocked( m_grid.row( i ), m_grid.column( i ) ) );
+
+        m_searches.clear();
+        synchronized ( m_changes )
+        {
+            m_changes.clear();
+        }
+        return this;
+    }
+
+    @Override
+    public final IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom,
+                                  final int p_rowto, final int p_columnto )
+    {
+        for ( int i = Math.max( 0, Math.min( p_rowfrom, p_rowto ) ); i <= Math.min( p_objects.rows() - 1, Math.max( p_rowfrom, p_rowto ) ); i++ )
+            for ( int j = Math.max( 0, Math.min( p_columnfrom, p_columnto ) ); j <= Math.min( p_objects.columns() - 1, Math.max( p_columnfrom, p_columnto ) ); j++ )
+                this.queue( p_objects, i, j );
+
+        return this;
+    }
+
+    @Override
+    public final IRouting update( final ObjectMatrix2D p_objects, final int p_cell )
+    {
+        this.queue( p_objects, p_cell / p_objects.columns(), p_cell % p_objects.columns() );
+        return this;
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final CDStarLiteSearch l_search = this.search( p_objects, p_currentposition, p_targetposition );
+        return l_search == null
+               ? Collections.<DoubleMatrix1D>emptyList()
+               : l_search.route( (int) p_currentposition.getQuick( 0 ), (int) p_currentposition.getQuick( 1 ) );
+    }
+
+    /**
+     * returns the search state of the target, the least recently
+     * used states are dropped if the number of cells is exceeded
+     *
+     * @param p_objects snapshot of the environment
+     * @param p_currentposition current position
+     * @param p_targetposition target position
+     * @return search state or null if there is no route
+     */
+    private synchronized CDStarLiteSearch search( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final CGrid l_grid = this.grid( p_objects );
+        this.apply( p_objects );
+
+        final int l_row = (int) p_targetposition.getQuick( 0 );
+        final int l_column = (int) p_targetposition.getQuick( 1 );
+        if ( ( p_currentposition.equals( p_targetposition ) ) || ( !l_grid.inside( l_row, l_column ) ) || ( m_occupied.get( l_grid.index( l_row, l_column ) ) ) )
+            return null;
+
+        final CDStarLiteSearch l_search = m_searches.get( l_grid.index( l_row, l_column ) );
+        if ( l_search != null )
+            return l_search;
+
+        final Iterator<CDStarLiteSearch> l_iterator = m_searches.values().iterator();
+        while ( ( l_iterator.hasNext() ) && ( ( m_searches.size() + 1L ) * l_grid.cells() > MAXIMUMCELLS ) )
+        {
+            l_iterator.next();
+            l_iterator.remove();
+        }
+
+        final CDStarLiteSearch l_new = new CDStarLiteSearch( l_grid, (BitSet) m_occupied.clone(), l_grid.index( l_row, l_column ) );
+        m_searches.put( l_grid.index( l_row, l_column ), l_new );
+        return l_new;
+    }
+
+    /**
+     * queues the occupancy change of a cell
+     *
+     * @param p_objects snapshot of the environment
+     * @param p_row row
+     * @param p_column column
+     */
+    private void queue( final ObjectMatrix2D p_objects, final int p_row, final int p_column )
+    {
+        if ( ( p_row < 0 ) || ( p_column < 0 ) || ( p_row >= p_objects.rows() ) || ( p_column >= p_objects.columns() ) )
+            return;
+
+        synchronized ( m_changes )
+        {
+            m_changes.add( p_row * p_objects.columns() + p_column );
+        }
+    }
+
+    /**
+     * applies the queued occupancy changes with the current occupancy of the cells
+     *
+     * @param p_objects snapshot of the environment
+     */
+    private void apply( final ObjectMatrix2D p_objects )
+    {
+        final IntArrayList l_changes = new IntArrayList();
+        synchronized ( m_changes )
+        {
+            l_changes.addAllOf( m_changes );
+            m_changes.clear();
+        }
+
+        for ( int i = 0; i < l_changes.size(); i++ )
+            this.change( l_changes.getQuick( i ), CGrid.occupied( p_objects, m_grid.row( l_changes.getQuick( i ) ), m_grid.column( l_changes.getQuick( i ) ) ) );
+    }
+
+    /**
+     * changes the occupancy of a cell and notifies all search states,
+     * states with too many pending changes are dropped, because a new
+     * search is cheaper than the repair
+     *
+     * @param p_cell cell index
+     * @param p_blocked blocked flag
+     */
+    private void change( final int p_cell, final boolean p_blocked )
+    {
+        if ( m_occupied.get( p_cell ) == p_blocked )
+            return;
+
+        m_occupied.set( p_cell, p_blocked );
+        m_searches.values().removeIf( i -> i.change( p_cell, p_blocked ) > i.cells() / MAXIMUMCHANGES );
+    }
+
+    /**
+     * returns the grid, if the routing is not
+     * initialized the grid is created from the given objects
+     *
+     * @param p_objects snapshot of the environment
+     * @return grid
+     */
+    private CGrid grid( final ObjectMatrix2D p_objects )
+    {
+        if ( ( m_grid == null ) || ( !m_grid.matches( p_objects ) ) )
+            this.initialize( p_objects );
+        return m_grid;
+    }
+
+}
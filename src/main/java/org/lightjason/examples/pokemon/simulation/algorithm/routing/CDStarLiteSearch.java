@@ -0,0 +1,402 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.list.IntArrayList;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+
+/**
+ * D* Lite search state of a target cell, the search runs backward from
+ * the target, so the costs stay valid if the start cell moves and only
+ * the cells around changed occupancies are expanded again, changes are
+ * collected concurrently and applied on the next route calculation
+ *
+ * @see http://idm-lab.org/bib/abstracts/papers/aaai02b.pdf
+ */
+final class CDStarLiteSearch
+{
+    /**
+     * value of unreachable cells
+     */
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * factor of the first key component, so both key components are packed into one heap key
+     */
+    private static final double KEYFACTOR = 1L << 26;
+    /**
+     * grid of the cell geometry
+     */
+    private final CGrid m_grid;
+    /**
+     * occupied cells of the search
+     */
+    private final BitSet m_blocked;
+    /**
+     * target cell index
+     */
+    private final int m_target;
+    /**
+     * costs of each cell to the target (g-value)
+     */
+    private final int[] m_costs;
+    /**
+     * one-step lookahead costs of each cell (rhs-value)
+     */
+    private final int[] m_lookahead;
+    /**
+     * open list with inconsistent cells
+     */
+    private final CIndexedHeap m_open;
+    /**
+     * pending occupancy changes (cell index shifted by one, lowest bit is the blocked flag)
+     */
+    private final IntArrayList m_changes = new IntArrayList();
+    /**
+     * start cell of the last search
+     */
+    private int m_start = -1;
+    /**
+     * key modifier, which is increased by the heuristic distance on each start movement
+     */
+    private int m_modifier;
+    /**
+     * number of expanded cells over all searches
+     */
+    private long m_expansions;
+
+
+    /**
+     * ctor
+     *
+     * @param p_grid grid of the cell geometry
+     * @param p_blocked occupied cells, the bitset is owned by the search
+     * @param p_target target cell index
+     */
+    CDStarLiteSearch( final CGrid p_grid, final BitSet p_blocked, final int p_target )
+    {
+        m_grid = p_grid;
+        m_blocked = p_blocked;
+        m_target = p_target;
+        m_costs = new int[p_grid.cells()];
+        m_lookahead = new int[p_grid.cells()];
+        m_open = new CIndexedHeap( p_grid.cells() );
+
+        Arrays.fill( m_costs, UNREACHABLE );
+        Arrays.fill( m_lookahead, UNREACHABLE );
+    }
+
+    /**
+     * returns the number of cells
+     *
+     * @return cells
+     */
+    int cells()
+    {
+        return m_costs.length;
+    }
+
+    /**
+     * returns the number of expanded cells over all searches
+     *
+     * @return expanded cells
+     */
+    synchronized long expansions()
+    {
+        return m_expansions;
+    }
+
+    /**
+     * adds an occupancy change, which is applied on the next route calculation
+     *
+     * @param p_cell cell index
+     * @param p_blocked blocked flag
+     * @return number of pending changes
+     */
+    int change( final int p_cell, final boolean p_blocked )
+    {
+        synchronized ( m_changes )
+        {
+            m_changes.add( ( p_cell << 1 ) | ( p_blocked ? 1 : 0 ) );
+            return m_changes.size();
+        }
+    }
+
+    /**
+     * returns the route from a cell to the target, a landmark
+     * is set on each cell where the direction changes
+     *
+     * @param p_row start row
+     * @param p_column start column
+     * @return landmarks without start or empty list if the target is not reachable
+     */
+    synchronized List<DoubleMatrix1D> route( final int p_row, final int p_column )
+    {
+        final int l_start = m_grid.index( p_row, p_column );
+        if ( l_start == m_target )
+            return Collections.<DoubleMatrix1D>emptyList();
+        if ( m_start < 0 )
+            this.initialize( l_start );
+
+        // the keys within the open list are lower bounds, if the start is moved the modifier is increased by the moved distance
+        m_modifier += this.heuristic( m_start, l_start );
+        m_start = l_start;
+
+        this.apply();
+        this.compute();
+
+        return m_lookahead[l_start] == UNREACHABLE
+               ? Collections.<DoubleMatrix1D>emptyList()
+               : this.path( l_start );
+    }
+
+    /**
+     * initializes the open list with the target
+     *
+     * @param p_start start cell index
+     */
+    private void initialize( final int p_start )
+    {
+        m_start = p_start;
+        this.vertex( m_target );
+    }
+
+    /**
+     * applies the pending occupancy changes, the costs of the
+     * neighbours of a changed cell depend on the cell
+     */
+    private void apply()
+    {
+        synchronized ( m_changes )
+        {
+            for ( int i = 0; i < m_changes.size(); i++ )
+            {
+                final int l_cell = m_changes.getQuick( i ) >>> 1;
+                final boolean l_blocked = ( m_changes.getQuick( i ) & 1 ) == 1;
+                if ( m_blocked.get( l_cell ) == l_blocked )
+                    continue;
+
+                m_blocked.set( l_cell, l_blocked );
+                this.neighbours( l_cell );
+                if ( l_cell == m_target )
+                    this.vertex( l_cell );
+            }
+            m_changes.clear();
+        }
+    }
+
+    /**
+     * runs the search until the start cell is consistent
+     */
+    private void compute()
+    {
+        while ( !m_open.isEmpty() && ( ( m_open.key( m_open.peek() ) < this.key( m_start ) ) || ( m_costs[m_start] != m_lookahead[m_start] ) ) )
+        {
+            final int l_cell = m_open.peek();
+            final double l_key = this.key( l_cell );
+            if ( m_open.key( l_cell ) < l_key )
+            {
+                m_open.push( l_cell, l_key );
+                continue;
+            }
+
+            m_open.remove( l_cell );
+            m_expansions++;
+            if ( m_costs[l_cell] > m_lookahead[l_cell] )
+                m_costs[l_cell] = m_lookahead[l_cell];
+            else
+            {
+                m_costs[l_cell] = UNREACHABLE;
+                this.vertex( l_cell );
+            }
+            this.neighbours( l_cell );
+        }
+    }
+
+    /**
+     * updates all neighbours of a cell
+     *
+     * @param p_cell cell index
+     */
+    private void neighbours( final int p_cell )
+    {
+        final int l_row = m_grid.row( p_cell );
+        final int l_column = m_grid.column( p_cell );
+        for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+            if ( m_grid.inside( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] ) )
+                this.vertex( m_grid.index( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] ) );
+    }
+
+    /**
+     * updates the lookahead costs of a cell and its open list entry
+     *
+     * @param p_cell cell index
+     */
+    private void vertex( final int p_cell )
+    {
+        // the target is the root of the search, so its costs depend on its occupancy only
+        if ( p_cell != m_target )
+            m_lookahead[p_cell] = this.lookahead( p_cell );
+        else
+            m_lookahead[p_cell] = m_blocked.get( p_cell ) ? UNREACHABLE : 0;
+
+        if ( m_costs[p_cell] == m_lookahead[p_cell] )
+            m_open.remove( p_cell );
+        else
+            m_open.push( p_cell, this.key( p_cell ) );
+    }
+
+    /**
+     * calculates the minimal costs over the free neighbours of a cell
+     *
+     * @param p_cell cell index
+     * @return costs or unreachable value
+     */
+    private int lookahead( final int p_cell )
+    {
+        final int l_row = m_grid.row( p_cell );
+        final int l_column = m_grid.column( p_cell );
+
+        int l_costs = UNREACHABLE;
+        for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+        {
+            final int l_next = this.free( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] );
+            if ( ( l_next > -1 ) && ( m_costs[l_next] != UNREACHABLE ) )
+                l_costs = Math.min( l_costs, m_costs[l_next] + CGrid.costs( i ) );
+        }
+        return l_costs;
+    }
+
+    /**
+     * returns the route by walking the steepest descent
+     *
+     * @param p_start start cell index
+     * @return landmarks without start
+     */
+    private List<DoubleMatrix1D> path( final int p_start )
+    {
+        final List<DoubleMatrix1D> l_path = new LinkedList<>();
+        int l_current = p_start;
+        int l_direction = -1;
+        for ( int i = 0; ( i < m_costs.length ) && ( l_current != m_target ); i++ )
+        {
+            final int l_next = this.descent( l_current, l_direction );
+            if ( l_next < 0 )
+                return Collections.<DoubleMatrix1D>emptyList();
+            if ( ( l_direction > -1 ) && ( l_next != l_direction ) )
+                l_path.add( new DenseDoubleMatrix1D( new double[]{m_grid.row( l_current ), m_grid.column( l_current )} ) );
+
+            l_direction = l_next;
+            l_current = m_grid.index( m_grid.row( l_current ) + CGrid.ROW[l_direction], m_grid.column( l_current ) + CGrid.COLUMN[l_direction] );
+        }
+
+        l_path.add( new DenseDoubleMatrix1D( new double[]{m_grid.row( m_target ), m_grid.column( m_target )} ) );
+        return l_path;
+    }
+
+    /**
+     * returns the direction of the steepest descent, on equal costs
+     * the preferred direction is used to reduce the number of landmarks
+     *
+     * @param p_cell cell index
+     * @param p_preferred preferred direction index
+     * @return direction index or -1 if there is no reachable neighbour
+     */
+    private int descent( final int p_cell, final int p_preferred )
+    {
+        final int l_row = m_grid.row( p_cell );
+        final int l_column = m_grid.column( p_cell );
+
+        int l_direction = -1;
+        long l_costs = UNREACHABLE;
+        for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+        {
+            final int l_next = this.free( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] );
+            if ( ( l_next < 0 ) || ( m_costs[l_next] == UNREACHABLE ) )
+                continue;
+
+            final long l_value = (long) m_costs[l_next] + CGrid.costs( i );
+            if ( ( l_value < l_costs ) || ( ( l_value == l_costs ) && ( i == p_preferred ) ) )
+            {
+                l_costs = l_value;
+                l_direction = i;
+            }
+        }
+
+        return l_direction;
+    }
+
+    /**
+     * returns the index of a free cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return cell index or -1 if the cell is outside or blocked
+     */
+    private int free( final int p_row, final int p_column )
+    {
+        if ( !m_grid.inside( p_row, p_column ) )
+            return -1;
+
+        final int l_cell = m_grid.index( p_row, p_column );
+        return m_blocked.get( l_cell ) ? -1 : l_cell;
+    }
+
+    /**
+     * calculates the heap key of a cell, the first component is the estimated
+     * costs over the cell, the second component the costs to the target
+     *
+     * @param p_cell cell index
+     * @return key
+     */
+    private double key( final int p_cell )
+    {
+        final int l_costs = Math.min( m_costs[p_cell], m_lookahead[p_cell] );
+        return l_costs == UNREACHABLE
+               ? Double.POSITIVE_INFINITY
+               : ( (double) l_costs + this.heuristic( m_start, p_cell ) + m_modifier ) * KEYFACTOR + Math.min( l_costs, KEYFACTOR - 1 );
+    }
+
+    /**
+     * octile distance between two cells
+     *
+     * @param p_first first cell index
+     * @param p_second second cell index
+     * @return distance
+     */
+    private int heuristic( final int p_first, final int p_second )
+    {
+        final int l_row = Math.abs( m_grid.row( p_first ) - m_grid.row( p_second ) );
+        final int l_column = Math.abs( m_grid.column( p_first ) - m_grid.column( p_second ) );
+        return 10 * Math.max( l_row, l_column ) + 4 * Math.min( l_row, l_column );
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * flow-field routing, a Dijkstra wave is run once for each target cell
+ * over the static obstacles, so all agents with the same target share
+ * one integration field and the route is read by walking the gradient,
+ * fields are cached with least-recently-used eviction
+ *
+ * @see https://howtorts.github.io/2014/01/04/basic-flow-fields.html
+ */
+final class CFlowField extends IBaseRouting
+{
+    /**
+     * maximum number of cached field cells over all fields
+     */
+    private static final long MAXIMUMCELLS = 1L << 24;
+    /**
+     * field cache of the current static obstacles
+     */
+    private volatile CFields m_fields;
+
+    @Override
+    public final IRouting initialize( final ObjectMatrix2D p_objects )
+    {
+        m_fields = new CFields( CGrid.from( p_objects ) );
+        return this;
+    }
+
+    @Override
+    public final synchronized IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom,
+                                               final int p_rowto, final int p_columnto )
+    {
+        // each field depends on the whole grid, so all cached fields are dropped
+        m_fields = new CFields( this.fields( p_objects ).grid().update( p_objects, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) );
+        return this;
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final CFields l_fields = this.fields( p_objects );
+        final CGrid l_grid = l_fields.grid();
+        final int l_targetrow = (int) p_targetposition.getQuick( 0 );
+        final int l_targetcolumn = (int) p_targetposition.getQuick( 1 );
+        if ( ( p_currentposition.equals( p_targetposition ) ) || ( !l_grid.free( l_targetrow, l_targetcolumn ) ) )
+            return Collections.<DoubleMatrix1D>emptyList();
+
+        return l_fields.get( l_grid.index( l_targetrow, l_targetcolumn ) )
+                       .route( l_grid.index( (int) p_currentposition.getQuick( 0 ), (int) p_currentposition.getQuick( 1 ) ) );
+    }
+
+    /**
+     * returns the number of cached integration fields
+     *
+     * @return number of fields
+     */
+    final long size()
+    {
+        final CFields l_fields = m_fields;
+        return l_fields == null ? 0 : l_fields.size();
+    }
+
+    /**
+     * returns the field cache, if the routing is not
+     * initialized the cache is created from the given grid
+     *
+     * @param p_objects snapshot of the environment
+     * @return field cache
+     */
+    private CFields fields( final ObjectMatrix2D p_objects )
+    {
+        final CFields l_fields = m_fields;
+        if ( ( l_fields != null ) && ( l_fields.grid().matches( p_objects ) ) )
+            return l_fields;
+
+        this.initialize( p_objects );
+        return m_fields;
+    }
+
+    /**
+     * integration fields of one static grid
+     */
+    private static final class CFields
+    {
+        /**
+         * grid of the static obstacles
+         */
+        private final CGrid m_grid;
+        /**
+         * cache with the integration field of each target cell
+         */
+        private final LoadingCache<Integer, CWindowField> m_cache;
+
+        /**
+         * ctor
+         *
+         * @param p_grid grid of the static obstacles
+         */
+        CFields( final CGrid p_grid )
+        {
+            m_grid = p_grid;
+            m_cache = CacheBuilder.newBuilder()
+                                  .maximumWeight( MAXIMUMCELLS )
+                                  .<Integer, CWindowField>weigher( ( i, j ) -> j.cells() )
+                                  .build( CacheLoader.from( i -> CWindowField.from( m_grid, i ) ) );
+        }
+
+        /**
+         * returns the grid
+         *
+         * @return grid
+         */
+        final CGrid grid()
+        {
+            return m_grid;
+        }
+
+        /**
+         * returns the integration field of a target, concurrent
+         * requests of the same target compute the field once
+         *
+         * @param p_target target cell index
+         * @return integration field
+         */
+        final CWindowField get( final int p_target )
+        {
+            return m_cache.getUnchecked( p_target );
+        }
+
+        /**
+         * returns the number of cached fields
+         *
+         * @return number of fields
+         */
+        final long size()
+        {
+            return m_cache.size();
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.BitSet;
+
+
+/**
+ * immutable grid of the static obstacles, cells are
+ * addressed by packed indices (row * columns + column)
+ */
+final class CGrid
+{
+    /**
+     * number of directions
+     */
+    static final int DIRECTIONS = 8;
+    /**
+     * row offset of the directions (north, north-east, east, south-east, south, south-west, west, north-west)
+     */
+    static final int[] ROW = {-1, -1, 0, 1, 1, 1, 0, -1};
+    /**
+     * column offset of the directions (north, north-east, east, south-east, south, south-west, west, north-west)
+     */
+    static final int[] COLUMN = {0, 1, 1, 1, 0, -1, -1, -1};
+    /**
+     * number of rows
+     */
+    private final int m_rows;
+    /**
+     * number of columns
+     */
+    private final int m_columns;
+    /**
+     * static obstacles
+     */
+    private final BitSet m_blocked;
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     * @param p_blocked obstacle bitset
+     */
+    private CGrid( final int p_rows, final int p_columns, final BitSet p_blocked )
+    {
+        m_rows = p_rows;
+        m_columns = p_columns;
+        m_blocked = p_blocked;
+    }
+
+    /**
+     * creates the grid of the static obstacles
+     *
+     * @param p_objects object matrix with static obstacles
+     * @return grid
+     */
+    static CGrid from( final ObjectMatrix2D p_objects )
+    {
+        final CGrid l_grid = new CGrid( p_objects.rows(), p_objects.columns(), new BitSet( p_objects.rows() * p_objects.columns() ) );
+        l_grid.read( p_objects, 0, 0, l_grid.m_rows - 1, l_grid.m_columns - 1 );
+        return l_grid;
+    }
+
+    /**
+     * creates a new grid with an updated region, the region is clipped to the grid
+     *
+     * @param p_objects object matrix with static obstacles
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return new grid
+     */
+    CGrid update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        final CGrid l_grid = new CGrid( m_rows, m_columns, (BitSet) m_blocked.clone() );
+        l_grid.read(
+            p_objects,
+            Math.max( 0, Math.min( p_rowfrom, p_rowto ) ), Math.max( 0, Math.min( p_columnfrom, p_columnto ) ),
+            Math.min( m_rows - 1, Math.max( p_rowfrom, p_rowto ) ), Math.min( m_columns - 1, Math.max( p_columnfrom, p_columnto ) )
+        );
+        return l_grid;
+    }
+
+    /**
+     * checks if the grid matches the size of an object matrix
+     *
+     * @param p_objects object matrix
+     * @return matching flag
+     */
+    boolean matches( final ObjectMatrix2D p_objects )
+    {
+        return ( m_rows == p_objects.rows() ) && ( m_columns == p_objects.columns() );
+    }
+
+    /**
+     * returns the number of rows
+     *
+     * @return rows
+     */
+    int rows()
+    {
+        return m_rows;
+    }
+
+    /**
+     * returns the number of columns
+     *
+     * @return columns
+     */
+    int columns()
+    {
+        return m_columns;
+    }
+
+    /**
+     * returns the number of cells
+     *
+     * @return cells
+     */
+    int cells()
+    {
+        return m_rows * m_columns;
+    }
+
+    /**
+     * returns the packed index of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return index
+     */
+    int index( final int p_row, final int p_column )
+    {
+        return p_row * m_columns + p_column;
+    }
+
+    /**
+     * returns the row of a packed index
+     *
+     * @param p_cell index
+     * @return row
+     */
+    int row( final int p_cell )
+    {
+        return p_cell / m_columns;
+    }
+
+    /**
+     * returns the column of a packed index
+     *
+     * @param p_cell index
+     * @return column
+     */
+    int column( final int p_cell )
+    {
+        return p_cell % m_columns;
+    }
+
+    /**
+     * checks if a cell is inside the grid
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return inside flag
+     */
+    boolean inside( final int p_row, final int p_column )
+    {
+        return ( p_row >= 0 ) && ( p_column >= 0 ) && ( p_row < m_rows ) && ( p_column < m_columns );
+    }
+
+    /**
+     * checks if a cell is inside the grid and not blocked
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return free flag
+     */
+    boolean free( final int p_row, final int p_column )
+    {
+        return this.inside( p_row, p_column ) && !m_blocked.get( this.index( p_row, p_column ) );
+    }
+
+    /**
+     * checks if a cell is inside the grid and blocked
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return blocked flag
+     */
+    boolean blocked( final int p_row, final int p_column )
+    {
+        return this.inside( p_row, p_column ) && m_blocked.get( this.index( p_row, p_column ) );
+    }
+
+    /**
+     * returns the number of steps in a direction until the row or column of
+     * the target is reached, if the target lies within the quadrant of the direction
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction direction index
+     * @param p_targetrow row of the target
+     * @param p_targetcolumn column of the target
+     * @return number of steps or -1 if the target is not within the quadrant
+     */
+    static int steps( final int p_row, final int p_column, final int p_direction, final int p_targetrow, final int p_targetcolumn )
+    {
+        final int l_rowdelta = p_targetrow - p_row;
+        final int l_columndelta = p_targetcolumn - p_column;
+        if ( ( Integer.signum( l_rowdelta ) != ROW[p_direction] ) || ( Integer.signum( l_columndelta ) != COLUMN[p_direction] ) )
+            return -1;
+
+        // straight directions reach the target, diagonal directions the row or column of the target
+        return ( ROW[p_direction] == 0 ) || ( COLUMN[p_direction] == 0 )
+               ? Math.max( Math.abs( l_rowdelta ), Math.abs( l_columndelta ) )
+               : Math.min( Math.abs( l_rowdelta ), Math.abs( l_columndelta ) );
+    }
+
+    /**
+     * movement costs of a direction (straight 10, diagonal 14)
+     *
+     * @param p_direction direction index
+     * @return costs
+     */
+    static int costs( final int p_direction )
+    {
+        return p_direction % 2 == 0 ? 10 : 14;
+    }
+
+    /**
+     * reads the obstacles of a region
+     *
+     * @param p_objects object matrix
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     */
+    private void read( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        for ( int i = p_rowfrom; i <= p_rowto; i++ )
+            for ( int j = p_columnfrom; j <= p_columnto; j++ )
+                m_blocked.set( this.index( i, j ), CGrid.occupied( p_objects, i, j ) );
+    }
+
+    /**
+     * checks if a cell of an object matrix is occupied, a matrix with a primitive
+     * occupancy access is read without resolving the object of the cell
+     *
+     * @param p_objects object matrix
+     * @param p_row row
+     * @param p_column column
+     * @return occupied flag
+     */
+    static boolean occupied( final ObjectMatrix2D p_objects, final int p_row, final int p_column )
+    {
+        return p_objects instanceof IOccupancyMatrix
+               ? ( (IOccupancyMatrix) p_objects ).occupied( p_row, p_column )
+               : p_objects.getQuick( p_row, p_column ) != null;
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * hierarchical path-finding (HPA*), the route is calculated on the
+ * abstract cluster graph, so the landmarks are the exits of the
+ * traversed clusters and each landmark is refined to the cell-level
+ * route if it becomes the next goal-position
+ *
+ * @see https://webdocs.cs.ualberta.ca/~mmueller/ps/hpastar.pdf
+ */
+final class CHPAStar extends IBaseRouting
+{
+    /**
+     * cluster size (in cells)
+     */
+    private static final int CLUSTERSIZE = 32;
+    /**
+     * abstract graph
+     */
+    private volatile CClusterGraph m_graph;
+
+    @Override
+    public final IRouting initialize( final ObjectMatrix2D p_objects )
+    {
+        m_graph = CClusterGraph.from( CGrid.from( p_objects ), CLUSTERSIZE );
+        return this;
+    }
+
+    @Override
+    public final synchronized IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom,
+                                               final int p_rowto, final int p_columnto )
+    {
+        m_graph = CClusterGraph.from( this.graph( p_objects ).grid().update( p_objects, p_rowfrom, p_columnfrom, p_rowto, p_columnto ), CLUSTERSIZE );
+        return this;
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final CClusterGraph l_graph = this.graph( p_objects );
+        final int l_targetrow = (int) p_targetposition.getQuick( 0 );
+        final int l_targetcolumn = (int) p_targetposition.getQuick( 1 );
+        if ( ( p_currentposition.equals( p_targetposition ) ) || ( !l_graph.grid().free( l_targetrow, l_targetcolumn ) ) )
+            return Collections.<DoubleMatrix1D>emptyList();
+
+        return l_graph.route(
+            l_graph.grid().index( (int) p_currentposition.getQuick( 0 ), (int) p_currentposition.getQuick( 1 ) ),
+            l_graph.grid().index( l_targetrow, l_targetcolumn )
+        );
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> refine( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark )
+    {
+        final CClusterGraph l_graph = this.graph( p_objects );
+        return l_graph.refine(
+            l_graph.grid().index( (int) p_position.getQuick( 0 ), (int) p_position.getQuick( 1 ) ),
+            l_graph.grid().index( (int) p_landmark.getQuick( 0 ), (int) p_landmark.getQuick( 1 ) )
+        );
+    }
+
+    /**
+     * returns the abstract graph, if the routing is not
+     * initialized the graph is created from the given grid
+     *
+     * @param p_objects snapshot of the environment
+     * @return graph
+     */
+    private CClusterGraph graph( final ObjectMatrix2D p_objects )
+    {
+        final CClusterGraph l_graph = m_graph;
+        if ( ( l_graph != null ) && ( l_graph.grid().matches( p_objects ) ) )
+            return l_graph;
+
+        this.initialize( p_objects );
+        return m_graph;
+    }
+
+}
@@ -0,0 +1,279 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import java.util.Arrays;
+
+
+/**
+ * indexed binary min-heap over integer nodes (packed cell indices)
+ * with decrease-key support, nodes with equal keys are ordered
+ * last-in-first-out
+ */
+final class CIndexedHeap
+{
+    /**
+     * initial heap size
+     */
+    private static final int INITIALSIZE = 64;
+    /**
+     * heap array with nodes
+     */
+    private int[] m_heap = new int[INITIALSIZE];
+    /**
+     * heap position of each node (position + 1, zero if the node is not within the heap)
+     */
+    private int[] m_position;
+    /**
+     * key of each node
+     */
+    private double[] m_key;
+    /**
+     * insert order of each node
+     */
+    private int[] m_order;
+    /**
+     * number of elements
+     */
+    private int m_size;
+    /**
+     * insert counter
+     */
+    private int m_counter;
+
+
+    /**
+     * ctor
+     *
+     * @param p_nodes number of nodes
+     */
+    CIndexedHeap( final int p_nodes )
+    {
+        m_position = new int[p_nodes];
+        m_key = new double[p_nodes];
+        m_order = new int[p_nodes];
+    }
+
+    /**
+     * returns the number of nodes
+     *
+     * @return number of nodes
+     */
+    int nodes()
+    {
+        return m_position.length;
+    }
+
+    /**
+     * checks if the heap is empty
+     *
+     * @return empty flag
+     */
+    boolean isEmpty()
+    {
+        return m_size == 0;
+    }
+
+    /**
+     * checks if a node is within the heap
+     *
+     * @param p_node node
+     * @return existing flag
+     */
+    boolean contains( final int p_node )
+    {
+        return m_position[p_node] > 0;
+    }
+
+    /**
+     * returns the key of a node within the heap
+     *
+     * @param p_node node
+     * @return key
+     */
+    double key( final int p_node )
+    {
+        return m_key[p_node];
+    }
+
+    /**
+     * inserts a node or updates the key of an existing node
+     *
+     * @param p_node node
+     * @param p_key key
+     * @return self reference
+     */
+    CIndexedHeap push( final int p_node, final double p_key )
+    {
+        m_key[p_node] = p_key;
+        m_order[p_node] = m_counter++;
+
+        if ( m_position[p_node] > 0 )
+        {
+            this.down( this.up( m_position[p_node] - 1 ) );
+            return this;
+        }
+
+        if ( m_size == m_heap.length )
+            m_heap = Arrays.copyOf( m_heap, m_size * 2 );
+
+        m_heap[m_size] = p_node;
+        m_position[p_node] = ++m_size;
+        this.up( m_size - 1 );
+        return this;
+    }
+
+    /**
+     * returns the node with the minimal key without removing
+     *
+     * @return node
+     */
+    int peek()
+    {
+        if ( m_size == 0 )
+            throw new IllegalStateException( "heap is empty" );
+        return m_heap[0];
+    }
+
+    /**
+     * removes the node with the minimal key
+     *
+     * @return node
+     */
+    int pop()
+    {
+        final int l_node = this.peek();
+        this.remove( l_node );
+        return l_node;
+    }
+
+    /**
+     * removes a node from the heap
+     *
+     * @param p_node node
+     * @return self reference
+     */
+    CIndexedHeap remove( final int p_node )
+    {
+        final int l_position = m_position[p_node] - 1;
+        if ( l_position < 0 )
+            return this;
+
+        m_position[p_node] = 0;
+        m_size--;
+        if ( l_position == m_size )
+            return this;
+
+        m_heap[l_position] = m_heap[m_size];
+        m_position[m_heap[l_position]] = l_position + 1;
+        this.down( this.up( l_position ) );
+        return this;
+    }
+
+    /**
+     * removes all nodes, the costs depend on the heap size only
+     *
+     * @return self reference
+     */
+    CIndexedHeap clear()
+    {
+        for ( int i = 0; i < m_size; i++ )
+            m_position[m_heap[i]] = 0;
+        m_size = 0;
+        m_counter = 0;
+        return this;
+    }
+
+    /**
+     * moves a heap element up
+     *
+     * @param p_position heap position
+     * @return new heap position
+     */
+    private int up( final int p_position )
+    {
+        int l_position = p_position;
+        while ( l_position > 0 )
+        {
+            final int l_parent = ( l_position - 1 ) / 2;
+            if ( !this.less( l_position, l_parent ) )
+                break;
+
+            this.swap( l_position, l_parent );
+            l_position = l_parent;
+        }
+        return l_position;
+    }
+
+    /**
+     * moves a heap element down
+     *
+     * @param p_position heap position
+     */
+    private void down( final int p_position )
+    {
+        int l_position = p_position;
+        while ( 2 * l_position + 1 < m_size )
+        {
+            final int l_left = 2 * l_position + 1;
+            final int l_child = ( l_left + 1 < m_size ) && this.less( l_left + 1, l_left ) ? l_left + 1 : l_left;
+            if ( !this.less( l_child, l_position ) )
+                break;
+
+            this.swap( l_position, l_child );
+            l_position = l_child;
+        }
+    }
+
+    /**
+     * compares two heap elements
+     *
+     * @param p_first first heap position
+     * @param p_second second heap position
+     * @return true if the first element is less than the second
+     */
+    private boolean less( final int p_first, final int p_second )
+    {
+        final int l_first = m_heap[p_first];
+        final int l_second = m_heap[p_second];
+        return m_key[l_first] < m_key[l_second]
+               || m_key[l_first] == m_key[l_second] && m_order[l_first] > m_order[l_second];
+    }
+
+    /**
+     * swaps two heap elements
+     *
+     * @param p_first first heap position
+     * @param p_second second heap position
+     */
+    private void swap( final int p_first, final int p_second )
+    {
+        final int l_node = m_heap[p_first];
+        m_heap[p_first] = m_heap[p_second];
+        m_heap[p_second] = l_node;
+        m_position[m_heap[p_first]] = p_first + 1;
+        m_position[m_heap[p_second]] = p_second + 1;
+    }
+
+}
@@ -0,0 +1,316 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.BitSet;
+
+
+/**
+ * JPS+ jump-distance table, stores for each cell and each of the eight
+ * directions the distance to the next jump point (positive value) or
+ * the negative number of free cells until a wall is reached, the table
+ * is build once from the static obstacles and is immutable after creation
+ *
+ * @see https://www.gameaipro.com/GameAIPro2/GameAIPro2_Chapter14_JPS_Plus_An_Extreme_A_Star_Speed_Optimization_for_Static_Uniform_Cost_Grids.pdf
+ */
+final class CJumpTable implements IJumpPoint
+{
+    /**
+     * grid of the static obstacles
+     */
+    private final CGrid m_grid;
+    /**
+     * jump distances with eight values per cell
+     */
+    private final int[] m_distance;
+
+
+    /**
+     * ctor
+     *
+     * @param p_grid grid of the static obstacles
+     * @param p_distance distance array
+     */
+    private CJumpTable( final CGrid p_grid, final int[] p_distance )
+    {
+        m_grid = p_grid;
+        m_distance = p_distance;
+    }
+
+    /**
+     * creates the table of the static obstacles
+     *
+     * @param p_objects grid with static obstacles
+     * @return table
+     */
+    static CJumpTable from( final ObjectMatrix2D p_objects )
+    {
+        final CGrid l_grid = CGrid.from( p_objects );
+        final CJumpTable l_table = new CJumpTable( l_grid, new int[l_grid.cells() * CGrid.DIRECTIONS] );
+
+        // straight distances must be exist before the diagonal distances are calculated
+        for ( int i = 0; i < CGrid.DIRECTIONS; i += 2 )
+            l_table.compute( i, 0, l_grid.rows() - 1, 0, l_grid.columns() - 1 );
+        for ( int i = 1; i < CGrid.DIRECTIONS; i += 2 )
+            l_table.compute( i, 0, l_grid.rows() - 1, 0, l_grid.columns() - 1 );
+
+        return l_table;
+    }
+
+    /**
+     * creates a new table with an updated region, straight distances
+     * are recalculated on the affected rows and columns only, diagonal
+     * distances are recalculated on the affected rows and columns and
+     * along the diagonals which run into them
+     *
+     * @param p_objects grid with static obstacles
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return new table
+     */
+    CJumpTable update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        final CJumpTable l_table = new CJumpTable( m_grid.update( p_objects, p_rowfrom, p_columnfrom, p_rowto, p_columnto ), m_distance.clone() );
+
+        // forced neighbours depend on the adjacent cells, so the band is one cell larger than the region
+        final int[] l_band = {
+            Math.max( 0, Math.min( p_rowfrom, p_rowto ) - 1 ), Math.min( m_grid.rows() - 1, Math.max( p_rowfrom, p_rowto ) + 1 ),
+            Math.max( 0, Math.min( p_columnfrom, p_columnto ) - 1 ), Math.min( m_grid.columns() - 1, Math.max( p_columnfrom, p_columnto ) + 1 )
+        };
+
+        for ( int i = 0; i < CGrid.DIRECTIONS; i += 2 )
+            if ( CGrid.ROW[i] == 0 )
+                l_table.compute( i, l_band[0], l_band[1], 0, m_grid.columns() - 1 );
+            else
+                l_table.compute( i, 0, m_grid.rows() - 1, l_band[2], l_band[3] );
+
+        for ( int i = 1; i < CGrid.DIRECTIONS; i += 2 )
+            l_table.propagate( i, l_band );
+
+        return l_table;
+    }
+
+    @Override
+    public final CGrid grid()
+    {
+        return m_grid;
+    }
+
+    /**
+     * returns the jump distance of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction direction index
+     * @return distance to the next jump point (positive) or negative number of free cells
+     */
+    int distance( final int p_row, final int p_column, final int p_direction )
+    {
+        return m_distance[m_grid.index( p_row, p_column ) * CGrid.DIRECTIONS + p_direction];
+    }
+
+    @Override
+    public final int jump( final int p_row, final int p_column, final int p_direction, final int p_targetrow, final int p_targetcolumn )
+    {
+        final int l_distance = this.distance( p_row, p_column, p_direction );
+        final int l_steps = CGrid.steps( p_row, p_column, p_direction, p_targetrow, p_targetcolumn );
+
+        if ( ( l_steps > 0 ) && ( l_steps <= Math.abs( l_distance ) ) )
+            return m_grid.index( p_row + CGrid.ROW[p_direction] * l_steps, p_column + CGrid.COLUMN[p_direction] * l_steps );
+
+        return l_distance > 0
+               ? m_grid.index( p_row + CGrid.ROW[p_direction] * l_distance, p_column + CGrid.COLUMN[p_direction] * l_distance )
+               : -1;
+    }
+
+    /**
+     * computes the distances of one direction within a region,
+     * the iteration runs against the direction, so the distance
+     * of the next cell is always computed before
+     *
+     * @param p_direction direction index
+     * @param p_rowfrom first row (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_columnto last column (inclusive)
+     */
+    private void compute( final int p_direction, final int p_rowfrom, final int p_rowto, final int p_columnfrom, final int p_columnto )
+    {
+        for ( int i = 0; i <= p_rowto - p_rowfrom; i++ )
+        {
+            final int l_row = CGrid.ROW[p_direction] > 0 ? p_rowto - i : p_rowfrom + i;
+            for ( int j = 0; j <= p_columnto - p_columnfrom; j++ )
+            {
+                final int l_column = CGrid.COLUMN[p_direction] > 0 ? p_columnto - j : p_columnfrom + j;
+                m_distance[m_grid.index( l_row, l_column ) * CGrid.DIRECTIONS + p_direction] = this.step( l_row, l_column, p_direction );
+            }
+        }
+    }
+
+    /**
+     * recomputes the diagonal distances of the cells within the band
+     * and propagates changes backward along the diagonal
+     *
+     * @param p_direction diagonal direction index
+     * @param p_band band (first row, last row, first column, last column)
+     */
+    private void propagate( final int p_direction, final int[] p_band )
+    {
+        final BitSet l_changed = new BitSet( m_grid.cells() );
+        for ( int i = 0; i < m_grid.rows(); i++ )
+        {
+            final int l_row = CGrid.ROW[p_direction] > 0 ? m_grid.rows() - 1 - i : i;
+            for ( int j = 0; j < m_grid.columns(); j++ )
+            {
+                final int l_column = CGrid.COLUMN[p_direction] > 0 ? m_grid.columns() - 1 - j : j;
+                if ( !this.dirty( l_row, l_column, p_direction, p_band, l_changed ) )
+                    continue;
+
+                final int l_index = m_grid.index( l_row, l_column );
+                final int l_distance = this.step( l_row, l_column, p_direction );
+                l_changed.set( l_index, l_distance != m_distance[l_index * CGrid.DIRECTIONS + p_direction] );
+                m_distance[l_index * CGrid.DIRECTIONS + p_direction] = l_distance;
+            }
+        }
+    }
+
+    /**
+     * checks if a diagonal distance must be recomputed
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction diagonal direction index
+     * @param p_band band (first row, last row, first column, last column)
+     * @param p_changed changed cells
+     * @return dirty flag
+     */
+    private boolean dirty( final int p_row, final int p_column, final int p_direction, final int[] p_band, final BitSet p_changed )
+    {
+        final int l_row = p_row + CGrid.ROW[p_direction];
+        final int l_column = p_column + CGrid.COLUMN[p_direction];
+
+        if ( CJumpTable.inband( p_row, p_column, p_band ) || CJumpTable.inband( l_row, l_column, p_band ) )
+            return true;
+
+        return m_grid.inside( l_row, l_column ) && p_changed.get( m_grid.index( l_row, l_column ) );
+    }
+
+    /**
+     * checks if a cell is inside the band rows or columns
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_band band (first row, last row, first column, last column)
+     * @return inside flag
+     */
+    private static boolean inband( final int p_row, final int p_column, final int[] p_band )
+    {
+        return ( p_row >= p_band[0] && p_row <= p_band[1] ) || ( p_column >= p_band[2] && p_column <= p_band[3] );
+    }
+
+    /**
+     * calculates the distance value of a cell based on the next cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction direction index
+     * @return distance value
+     */
+    private int step( final int p_row, final int p_column, final int p_direction )
+    {
+        final int l_row = p_row + CGrid.ROW[p_direction];
+        final int l_column = p_column + CGrid.COLUMN[p_direction];
+
+        if ( !m_grid.free( l_row, l_column ) )
+            return 0;
+
+        if ( this.jumppoint( l_row, l_column, p_direction ) )
+            return 1;
+
+        final int l_next = this.distance( l_row, l_column, p_direction );
+        return l_next > 0 ? l_next + 1 : l_next - 1;
+    }
+
+    /**
+     * checks if a cell is a jump point if it is reached by the direction
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_direction direction index
+     * @return jump point flag
+     */
+    private boolean jumppoint( final int p_row, final int p_column, final int p_direction )
+    {
+        final int l_row = CGrid.ROW[p_direction];
+        final int l_column = CGrid.COLUMN[p_direction];
+
+        // diagonal cell is a jump point on forced neighbours or if a straight jump point is reachable
+        if ( ( l_row != 0 ) && ( l_column != 0 ) )
+            return this.forced( p_row, p_column, l_row, l_column )
+                   || this.distance( p_row, p_column, ( p_direction + CGrid.DIRECTIONS - 1 ) % CGrid.DIRECTIONS ) > 0
+                   || this.distance( p_row, p_column, ( p_direction + 1 ) % CGrid.DIRECTIONS ) > 0;
+
+        // straight cell is a jump point on forced neighbours
+        return m_grid.free( p_row + l_row, p_column + l_column )
+               && ( this.forced( p_row, p_column, l_row, l_column, 1 ) || this.forced( p_row, p_column, l_row, l_column, -1 ) );
+    }
+
+    /**
+     * checks the forced neighbours of a diagonal movement
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_rowdirection row direction
+     * @param p_columndirection column direction
+     * @return forced flag
+     */
+    private boolean forced( final int p_row, final int p_column, final int p_rowdirection, final int p_columndirection )
+    {
+        return m_grid.blocked( p_row - p_rowdirection, p_column ) && m_grid.free( p_row - p_rowdirection, p_column + p_columndirection )
+               || m_grid.blocked( p_row, p_column - p_columndirection ) && m_grid.free( p_row + p_rowdirection, p_column - p_columndirection );
+    }
+
+    /**
+     * checks a forced neighbour of a straight movement
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_rowdirection row direction
+     * @param p_columndirection column direction
+     * @param p_side side of the neighbour
+     * @return forced flag
+     */
+    private boolean forced( final int p_row, final int p_column, final int p_rowdirection, final int p_columndirection, final int p_side )
+    {
+        // the side offset is orthogonal to the movement direction
+        final int l_row = p_rowdirection == 0 ? p_side : 0;
+        final int l_column = p_columndirection == 0 ? p_side : 0;
+        return m_grid.blocked( p_row + l_row, p_column + l_column ) && m_grid.free( p_row + l_row + p_rowdirection, p_column + l_column + p_columndirection );
+    }
+
+}
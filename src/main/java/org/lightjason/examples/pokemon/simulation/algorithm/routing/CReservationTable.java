@@ -0,0 +1,212 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * space-time reservation table for cooperative routing, a slot is
+ * a cell at a tick (packed as tick * cells + cell) and is owned by
+ * at most one element, slots are claimed atomically, so routes can
+ * be reserved concurrently, slots of passed ticks are dropped on
+ * advancing the tick
+ *
+ * @see https://www.aaai.org/Papers/AIIDE/2005/AIIDE05-020.pdf
+ */
+public final class CReservationTable
+{
+    /**
+     * number of rows
+     */
+    private final int m_rows;
+    /**
+     * number of columns
+     */
+    private final int m_columns;
+    /**
+     * current tick
+     */
+    private final AtomicLong m_tick = new AtomicLong();
+    /**
+     * owner of each reserved slot
+     */
+    private final Map<Long, Object> m_slots = new ConcurrentHashMap<>();
+    /**
+     * reserved slots of each owner in ascending tick order
+     */
+    private final Map<Object, long[]> m_owner = new ConcurrentHashMap<>();
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     */
+    public CReservationTable( final int p_rows, final int p_columns )
+    {
+        if ( ( p_rows < 1 ) || ( p_columns < 1 ) )
+            throw new IllegalArgumentException( "reservation table size must be greater or equal than one" );
+
+        m_rows = p_rows;
+        m_columns = p_columns;
+    }
+
+    /**
+     * returns the current tick
+     *
+     * @return tick
+     */
+    public final long tick()
+    {
+        return m_tick.get();
+    }
+
+    /**
+     * returns the number of reserved slots
+     *
+     * @return number of slots
+     */
+    public final int size()
+    {
+        return m_slots.size();
+    }
+
+    /**
+     * advances the tick and drops the slots of passed ticks
+     *
+     * @return self reference
+     */
+    public final CReservationTable advance()
+    {
+        final long l_first = m_tick.incrementAndGet() * this.cells();
+        m_slots.keySet().removeIf( i -> i < l_first );
+        m_owner.values().removeIf( i -> i[i.length - 1] < l_first );
+        return this;
+    }
+
+    /**
+     * releases all slots of an owner
+     *
+     * @param p_owner owner
+     * @return self reference
+     */
+    public final CReservationTable release( final Object p_owner )
+    {
+        final long[] l_slots = m_owner.remove( p_owner );
+        if ( l_slots != null )
+            Arrays.stream( l_slots ).forEach( i -> m_slots.remove( i, p_owner ) );
+        return this;
+    }
+
+    /**
+     * returns the owner of a slot
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_tick tick
+     * @return owner or null if the slot is free
+     */
+    public final Object owner( final int p_row, final int p_column, final long p_tick )
+    {
+        return ( p_row < 0 ) || ( p_column < 0 ) || ( p_row >= m_rows ) || ( p_column >= m_columns )
+               ? null
+               : m_slots.get( this.slot( p_row * m_columns + p_column, p_tick ) );
+    }
+
+    /**
+     * checks if a slot is free or owned by the owner
+     *
+     * @param p_owner owner
+     * @param p_row row
+     * @param p_column column
+     * @param p_tick tick
+     * @return free flag
+     */
+    public final boolean free( final Object p_owner, final int p_row, final int p_column, final long p_tick )
+    {
+        final Object l_owner = this.owner( p_row, p_column, p_tick );
+        return ( l_owner == null ) || ( l_owner.equals( p_owner ) );
+    }
+
+    /**
+     * reserves the cells of a route, the i-th cell is reserved
+     * at the tick p_tick + i, the reservation is done completely
+     * or not at all, previous slots of the owner are released
+     *
+     * @param p_owner owner
+     * @param p_tick tick of the first cell
+     * @param p_cells packed cell indices (row * columns + column)
+     * @return flag that all cells are reserved
+     */
+    final boolean reserve( final Object p_owner, final long p_tick, final int... p_cells )
+    {
+        this.release( p_owner );
+
+        final long[] l_slots = new long[p_cells.length];
+        for ( int i = 0; i < p_cells.length; i++ )
+        {
+            l_slots[i] = this.slot( p_cells[i], p_tick + i );
+
+            // on a conflicting slot the already claimed slots are rolled back
+            final Object l_owner = m_slots.putIfAbsent( l_slots[i], p_owner );
+            if ( ( l_owner != null ) && ( !l_owner.equals( p_owner ) ) )
+            {
+                Arrays.stream( l_slots, 0, i ).forEach( j -> m_slots.remove( j, p_owner ) );
+                return false;
+            }
+        }
+
+        if ( l_slots.length > 0 )
+            m_owner.put( p_owner, l_slots );
+        return true;
+    }
+
+    /**
+     * returns the number of cells
+     *
+     * @return cells
+     */
+    private long cells()
+    {
+        return (long) m_rows * m_columns;
+    }
+
+    /**
+     * returns the slot key
+     *
+     * @param p_cell packed cell index
+     * @param p_tick tick
+     * @return slot key
+     */
+    private long slot( final int p_cell, final long p_tick )
+    {
+        return p_tick * this.cells() + p_cell;
+    }
+
+}
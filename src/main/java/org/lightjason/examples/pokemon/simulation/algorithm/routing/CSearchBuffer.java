@@ -0,0 +1,218 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+
+/**
+ * scratch structure of a grid search over packed cell indices, each
+ * thread uses its own buffer, which is reused for each search, so the
+ * reset costs depend on the touched cells only
+ */
+final class CSearchBuffer
+{
+    /**
+     * thread-local buffer
+     */
+    private static final ThreadLocal<CSearchBuffer> BUFFER = ThreadLocal.withInitial( () -> new CSearchBuffer( 0 ) );
+    /**
+     * open list
+     */
+    private final CIndexedHeap m_open;
+    /**
+     * closed list
+     */
+    private final BitSet m_closed;
+    /**
+     * closed cells of the current search, so only
+     * the touched bits are cleared on the next search
+     */
+    private int[] m_closedcells = new int[64];
+    /**
+     * number of closed cells of the current search
+     */
+    private int m_closedsize;
+    /**
+     * g-score of each cell
+     */
+    private final double[] m_gscore;
+    /**
+     * parent of each cell
+     */
+    private final int[] m_parent;
+    /**
+     * search generation of each cell, g-score and parent are valid if the generation matches
+     */
+    private final int[] m_generation;
+    /**
+     * current search generation
+     */
+    private int m_current;
+
+
+    /**
+     * ctor
+     *
+     * @param p_cells number of cells
+     */
+    private CSearchBuffer( final int p_cells )
+    {
+        m_open = new CIndexedHeap( p_cells );
+        m_closed = new BitSet( p_cells );
+        m_gscore = new double[p_cells];
+        m_parent = new int[p_cells];
+        m_generation = new int[p_cells];
+    }
+
+    /**
+     * returns the cleared buffer of the current thread
+     *
+     * @param p_cells number of cells
+     * @return buffer
+     */
+    static CSearchBuffer get( final int p_cells )
+    {
+        CSearchBuffer l_buffer = BUFFER.get();
+        if ( l_buffer.m_gscore.length < p_cells )
+        {
+            l_buffer = new CSearchBuffer( p_cells );
+            BUFFER.set( l_buffer );
+        }
+
+        return l_buffer.clear();
+    }
+
+    /**
+     * returns the open list
+     *
+     * @return heap
+     */
+    CIndexedHeap open()
+    {
+        return m_open;
+    }
+
+    /**
+     * checks if a cell is closed
+     *
+     * @param p_cell cell index
+     * @return closed flag
+     */
+    boolean closed( final int p_cell )
+    {
+        return m_closed.get( p_cell );
+    }
+
+    /**
+     * closes a cell
+     *
+     * @param p_cell cell index
+     * @return self reference
+     */
+    CSearchBuffer close( final int p_cell )
+    {
+        if ( m_closed.get( p_cell ) )
+            return this;
+
+        m_closed.set( p_cell );
+        if ( m_closedsize == m_closedcells.length )
+            m_closedcells = Arrays.copyOf( m_closedcells, m_closedsize * 2 );
+        m_closedcells[m_closedsize++] = p_cell;
+        return this;
+    }
+
+    /**
+     * checks if a cell is visited within the current search
+     *
+     * @param p_cell cell index
+     * @return visited flag
+     */
+    boolean visited( final int p_cell )
+    {
+        return m_generation[p_cell] == m_current;
+    }
+
+    /**
+     * returns the g-score of a cell
+     *
+     * @param p_cell cell index
+     * @return g-score or infinity if the cell is not visited
+     */
+    double gscore( final int p_cell )
+    {
+        return this.visited( p_cell ) ? m_gscore[p_cell] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * returns the parent of a cell
+     *
+     * @param p_cell cell index
+     * @return parent cell index or -1
+     */
+    int parent( final int p_cell )
+    {
+        return this.visited( p_cell ) ? m_parent[p_cell] : -1;
+    }
+
+    /**
+     * sets g-score and parent of a cell
+     *
+     * @param p_cell cell index
+     * @param p_gscore g-score
+     * @param p_parent parent cell index
+     * @return self reference
+     */
+    CSearchBuffer visit( final int p_cell, final double p_gscore, final int p_parent )
+    {
+        m_generation[p_cell] = m_current;
+        m_gscore[p_cell] = p_gscore;
+        m_parent[p_cell] = p_parent;
+        return this;
+    }
+
+    /**
+     * clears the buffer for a new search
+     *
+     * @return self reference
+     */
+    private CSearchBuffer clear()
+    {
+        m_open.clear();
+        for ( int i = 0; i < m_closedsize; i++ )
+            m_closed.clear( m_closedcells[i] );
+        m_closedsize = 0;
+
+        m_current++;
+        if ( m_current == Integer.MAX_VALUE )
+        {
+            Arrays.fill( m_generation, 0 );
+            m_current = 1;
+        }
+
+        return this;
+    }
+
+}
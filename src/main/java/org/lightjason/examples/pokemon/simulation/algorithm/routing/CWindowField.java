@@ -0,0 +1,289 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+
+/**
+ * integration field of a target cell, a Dijkstra wave is run from
+ * the target over the free cells of a rectangular window of the grid,
+ * so the costs of each cell within the window to the target are
+ * stored and routes are read by walking the gradient
+ */
+final class CWindowField
+{
+    /**
+     * value of unreachable cells
+     */
+    static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * grid of the static obstacles
+     */
+    private final CGrid m_grid;
+    /**
+     * first row of the window
+     */
+    private final int m_rowfrom;
+    /**
+     * first column of the window
+     */
+    private final int m_columnfrom;
+    /**
+     * number of rows of the window
+     */
+    private final int m_rows;
+    /**
+     * number of columns of the window
+     */
+    private final int m_columns;
+    /**
+     * target cell index
+     */
+    private final int m_target;
+    /**
+     * costs of each window cell
+     */
+    private final int[] m_field;
+
+
+    /**
+     * ctor
+     *
+     * @param p_grid grid
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @param p_target target cell index
+     */
+    private CWindowField( final CGrid p_grid, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto, final int p_target )
+    {
+        m_grid = p_grid;
+        m_rowfrom = p_rowfrom;
+        m_columnfrom = p_columnfrom;
+        m_rows = p_rowto - p_rowfrom + 1;
+        m_columns = p_columnto - p_columnfrom + 1;
+        m_target = p_target;
+        m_field = new int[m_rows * m_columns];
+    }
+
+    /**
+     * creates the field of a target over the whole grid
+     *
+     * @param p_grid grid
+     * @param p_target target cell index
+     * @return field
+     */
+    static CWindowField from( final CGrid p_grid, final int p_target )
+    {
+        return CWindowField.from( p_grid, 0, 0, p_grid.rows() - 1, p_grid.columns() - 1, p_target );
+    }
+
+    /**
+     * creates the field of a target within a window, the window is clipped
+     * to the grid and the target must be located within the window
+     *
+     * @param p_grid grid
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @param p_target target cell index
+     * @return field
+     */
+    static CWindowField from( final CGrid p_grid, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto, final int p_target )
+    {
+        final CWindowField l_field = new CWindowField(
+            p_grid,
+            Math.max( 0, p_rowfrom ), Math.max( 0, p_columnfrom ),
+            Math.min( p_grid.rows() - 1, p_rowto ), Math.min( p_grid.columns() - 1, p_columnto ),
+            p_target
+        );
+        l_field.integrate();
+        return l_field;
+    }
+
+    /**
+     * returns the number of window cells
+     *
+     * @return cells
+     */
+    int cells()
+    {
+        return m_field.length;
+    }
+
+    /**
+     * returns the costs of a cell to the target
+     *
+     * @param p_cell cell index
+     * @return costs or unreachable value
+     */
+    int costs( final int p_cell )
+    {
+        final int l_row = m_grid.row( p_cell );
+        final int l_column = m_grid.column( p_cell );
+        return this.inside( l_row, l_column ) ? m_field[this.local( l_row, l_column )] : UNREACHABLE;
+    }
+
+    /**
+     * returns the route from a cell to the target, a landmark
+     * is set on each cell where the direction changes
+     *
+     * @param p_source source cell index
+     * @return landmarks without source or empty list if the target is not reachable
+     */
+    List<DoubleMatrix1D> route( final int p_source )
+    {
+        if ( ( p_source == m_target ) || ( this.costs( p_source ) == UNREACHABLE ) )
+            return Collections.<DoubleMatrix1D>emptyList();
+
+        final List<DoubleMatrix1D> l_path = new LinkedList<>();
+        int l_current = p_source;
+        int l_direction = -1;
+        while ( l_current != m_target )
+        {
+            final int l_next = this.descent( l_current, l_direction );
+            if ( ( l_direction > -1 ) && ( l_next != l_direction ) )
+                l_path.add( new DenseDoubleMatrix1D( new double[]{m_grid.row( l_current ), m_grid.column( l_current )} ) );
+
+            l_direction = l_next;
+            l_current = m_grid.index( m_grid.row( l_current ) + CGrid.ROW[l_direction], m_grid.column( l_current ) + CGrid.COLUMN[l_direction] );
+        }
+
+        l_path.add( new DenseDoubleMatrix1D( new double[]{m_grid.row( m_target ), m_grid.column( m_target )} ) );
+        return l_path;
+    }
+
+    /**
+     * runs the Dijkstra wave from the target
+     */
+    private void integrate()
+    {
+        Arrays.fill( m_field, UNREACHABLE );
+        if ( !this.free( m_grid.row( m_target ), m_grid.column( m_target ) ) )
+            return;
+
+        final CIndexedHeap l_open = new CIndexedHeap( m_field.length );
+        final int l_target = this.local( m_grid.row( m_target ), m_grid.column( m_target ) );
+        m_field[l_target] = 0;
+        l_open.push( l_target, 0 );
+
+        while ( !l_open.isEmpty() )
+        {
+            final int l_current = l_open.pop();
+            final int l_row = m_rowfrom + l_current / m_columns;
+            final int l_column = m_columnfrom + l_current % m_columns;
+
+            for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+            {
+                if ( !this.free( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] ) )
+                    continue;
+
+                final int l_next = this.local( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] );
+                final int l_costs = m_field[l_current] + CGrid.costs( i );
+                if ( l_costs >= m_field[l_next] )
+                    continue;
+
+                m_field[l_next] = l_costs;
+                l_open.push( l_next, l_costs );
+            }
+        }
+    }
+
+    /**
+     * returns the direction of the steepest descent, on equal costs
+     * the preferred direction is used to reduce the number of landmarks
+     *
+     * @param p_cell cell index
+     * @param p_preferred preferred direction index
+     * @return direction index
+     */
+    private int descent( final int p_cell, final int p_preferred )
+    {
+        final int l_row = m_grid.row( p_cell );
+        final int l_column = m_grid.column( p_cell );
+
+        int l_direction = -1;
+        long l_costs = Long.MAX_VALUE;
+        for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+        {
+            if ( !this.free( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] ) )
+                continue;
+
+            final long l_value = (long) m_field[this.local( l_row + CGrid.ROW[i], l_column + CGrid.COLUMN[i] )] + CGrid.costs( i );
+            if ( ( l_value < l_costs ) || ( ( l_value == l_costs ) && ( i == p_preferred ) ) )
+            {
+                l_costs = l_value;
+                l_direction = i;
+            }
+        }
+
+        return l_direction;
+    }
+
+    /**
+     * checks if a cell is inside the window
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return inside flag
+     */
+    private boolean inside( final int p_row, final int p_column )
+    {
+        return ( p_row >= m_rowfrom ) && ( p_column >= m_columnfrom ) && ( p_row < m_rowfrom + m_rows ) && ( p_column < m_columnfrom + m_columns );
+    }
+
+    /**
+     * checks if a cell is inside the window and not blocked
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return free flag
+     */
+    private boolean free( final int p_row, final int p_column )
+    {
+        return this.inside( p_row, p_column ) && m_grid.free( p_row, p_column );
+    }
+
+    /**
+     * returns the window index of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return window index
+     */
+    private int local( final int p_row, final int p_column )
+    {
+        return ( p_row - m_rowfrom ) * m_columns + p_column - m_columnfrom;
+    }
+
+}
@@ -29,7 +29,12 @@ package org.lightjason.examples.pokemon.simulation.algorithm.routing;
  */
 public enum ERoutingFactory
 {
-    JPSPLUS( new CJPSPlus() );
+    JPSPLUS( new CJPSPlus() ),
+    FLOWFIELD( new CFlowField() ),
+    HPASTAR( new CHPAStar() ),
+    BLOCKJPS( new CBlockJPS() ),
+    DSTARLITE( new CDStarLite() ),
+    WHCASTAR( new CCooperativeAStar( new CJPSPlus(), 16 ) );
 
     /**
      * routing object
@@ -0,0 +1,160 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+
+/**
+ * jump point search with A* on packed cell indices (row * columns + column),
+ * the successors of a cell are calculated by the jump point structure
+ *
+ * @see http://users.cecs.anu.edu.au/~dharabor/data/papers/harabor-grastien-aaai11.pdf
+ */
+abstract class IBaseJumpPoint extends IBaseRouting
+{
+
+    @Override
+    public final List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_currentposition, final DoubleMatrix1D p_targetposition )
+    {
+        final IJumpPoint l_jumppoints = this.jumppoints( p_objects );
+        final CGrid l_grid = l_jumppoints.grid();
+        final int l_targetrow = (int) p_targetposition.getQuick( 0 );
+        final int l_targetcolumn = (int) p_targetposition.getQuick( 1 );
+        if ( ( p_currentposition.equals( p_targetposition ) ) || ( !l_grid.free( l_targetrow, l_targetcolumn ) ) )
+            return Collections.<DoubleMatrix1D>emptyList();
+
+        final int l_source = l_grid.index( (int) p_currentposition.getQuick( 0 ), (int) p_currentposition.getQuick( 1 ) );
+        final int l_target = l_grid.index( l_targetrow, l_targetcolumn );
+        final CSearchBuffer l_buffer = CSearchBuffer.get( l_grid.cells() );
+
+        l_buffer.visit( l_source, 0, -1 ).open().push( l_source, IBaseJumpPoint.hscore( l_grid, l_source, l_target ) );
+        while ( !l_buffer.open().isEmpty() )
+        {
+            final int l_current = l_buffer.open().pop();
+            if ( l_current == l_target )
+                return IBaseJumpPoint.path( l_grid, l_buffer, l_source, l_target );
+
+            l_buffer.close( l_current );
+            this.successors( l_jumppoints, l_buffer, l_current, l_target );
+        }
+
+        return Collections.<DoubleMatrix1D>emptyList();
+    }
+
+    /**
+     * returns the jump point structure of the static obstacles
+     *
+     * @param p_objects snapshot of the environment
+     * @return jump point structure
+     */
+    protected abstract IJumpPoint jumppoints( final ObjectMatrix2D p_objects );
+
+    /**
+     * individual jump point successors are identified by table lookup and
+     * are pushed to the open list if the g-score is decreased
+     *
+     * @param p_jumppoints jump point calculation
+     * @param p_buffer search buffer
+     * @param p_current current cell index
+     * @param p_target target cell index
+     */
+    private void successors( final IJumpPoint p_jumppoints, final CSearchBuffer p_buffer, final int p_current, final int p_target )
+    {
+        final CGrid l_grid = p_jumppoints.grid();
+        final int l_row = l_grid.row( p_current );
+        final int l_column = l_grid.column( p_current );
+
+        for ( int i = 0; i < CGrid.DIRECTIONS; i++ )
+        {
+            // direction is skipped if the neighbour is blocked or already explored
+            final int l_neighbourrow = l_row + CGrid.ROW[i];
+            final int l_neighbourcolumn = l_column + CGrid.COLUMN[i];
+            if ( !l_grid.free( l_neighbourrow, l_neighbourcolumn ) || p_buffer.closed( l_grid.index( l_neighbourrow, l_neighbourcolumn ) ) )
+                continue;
+
+            final int l_successor = p_jumppoints.jump( l_row, l_column, i, l_grid.row( p_target ), l_grid.column( p_target ) );
+            if ( ( l_successor < 0 ) || ( p_buffer.closed( l_successor ) ) )
+                continue;
+
+            final double l_gscore = p_buffer.gscore( p_current ) + IBaseJumpPoint.gscore( l_grid, p_current, l_successor );
+            if ( l_gscore >= p_buffer.gscore( l_successor ) )
+                continue;
+
+            p_buffer.visit( l_successor, l_gscore, p_current ).open().push( l_successor, l_gscore + IBaseJumpPoint.hscore( l_grid, l_successor, p_target ) );
+        }
+    }
+
+    /**
+     * builds the path from the parent references
+     *
+     * @param p_grid grid
+     * @param p_buffer search buffer
+     * @param p_source source cell index
+     * @param p_target target cell index
+     * @return path without source
+     */
+    private static List<DoubleMatrix1D> path( final CGrid p_grid, final CSearchBuffer p_buffer, final int p_source, final int p_target )
+    {
+        final LinkedList<DoubleMatrix1D> l_path = new LinkedList<>();
+        for ( int i = p_target; i != p_source; i = p_buffer.parent( i ) )
+            l_path.addFirst( new DenseDoubleMatrix1D( new double[]{p_grid.row( i ), p_grid.column( i )} ) );
+        return l_path;
+    }
+
+    /**
+     * calculates the heuristic score with the Manhattan distance
+     *
+     * @param p_grid grid
+     * @param p_cell cell index
+     * @param p_target target cell index
+     * @return h-score
+     */
+    private static double hscore( final CGrid p_grid, final int p_cell, final int p_target )
+    {
+        return 10 * ( Math.abs( p_grid.row( p_target ) - p_grid.row( p_cell ) ) + Math.abs( p_grid.column( p_target ) - p_grid.column( p_cell ) ) );
+    }
+
+    /**
+     * calculates the movement costs between two cells on a straight or diagonal line
+     *
+     * @param p_grid grid
+     * @param p_cell cell index
+     * @param p_next next cell index
+     * @return g-score difference
+     */
+    private static double gscore( final CGrid p_grid, final int p_cell, final int p_next )
+    {
+        final int l_row = Math.abs( p_grid.row( p_next ) - p_grid.row( p_cell ) );
+        final int l_column = Math.abs( p_grid.column( p_next ) - p_grid.column( p_cell ) );
+        return ( l_row != 0 ) && ( l_column != 0 ) ? 14 * l_row : 10 * Math.max( l_row, l_column );
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+
+/**
+ * default routing structure with fully refined landmarks,
+ * ignored occupancy changes of moving elements and reservations
+ * and the estimated time calculation on the landmark distances
+ */
+public abstract class IBaseRouting implements IRouting
+{
+
+    @Override
+    public IRouting update( final ObjectMatrix2D p_objects, final int p_cell )
+    {
+        return this;
+    }
+
+    @Override
+    public List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner,
+                                       final DoubleMatrix1D p_source, final DoubleMatrix1D p_target )
+    {
+        return this.route( p_objects, p_source, p_target );
+    }
+
+    @Override
+    public boolean cooperative()
+    {
+        return false;
+    }
+
+    @Override
+    public List<DoubleMatrix1D> refine( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark )
+    {
+        return Collections.singletonList( p_landmark );
+    }
+
+    @Override
+    public double estimatedtime( final Stream<DoubleMatrix1D> p_route, final double p_speed )
+    {
+        // the distances are summed on primitives, so no vector is created for each segment
+        final Iterator<DoubleMatrix1D> l_iterator = p_route.iterator();
+        if ( !l_iterator.hasNext() )
+            return 0;
+
+        double l_distance = 0;
+        DoubleMatrix1D l_previous = l_iterator.next();
+        while ( l_iterator.hasNext() )
+        {
+            final DoubleMatrix1D l_current = l_iterator.next();
+            final double l_row = l_current.getQuick( 0 ) - l_previous.getQuick( 0 );
+            final double l_column = l_current.getQuick( 1 ) - l_previous.getQuick( 1 );
+            l_distance += Math.sqrt( l_row * l_row + l_column * l_column );
+            l_previous = l_current;
+        }
+
+        return l_distance / p_speed;
+    }
+
+}
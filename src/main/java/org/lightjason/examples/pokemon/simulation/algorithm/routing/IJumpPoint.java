@@ -0,0 +1,55 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+
+/**
+ * jump point structure of the static obstacles
+ */
+interface IJumpPoint
+{
+
+    /**
+     * returns the grid of the static obstacles
+     *
+     * @return grid
+     */
+    CGrid grid();
+
+    /**
+     * returns the successor of a cell in a direction, the target is
+     * returned if it is reachable straight or a jump point on the
+     * row / column of the target is created if the target lies
+     * within the diagonal quadrant
+     *
+     * @param p_row row of the cell
+     * @param p_column column of the cell
+     * @param p_direction direction index
+     * @param p_targetrow row of the target
+     * @param p_targetcolumn column of the target
+     * @return cell index of the successor or -1
+     */
+    int jump( final int p_row, final int p_column, final int p_direction, final int p_targetrow, final int p_targetcolumn );
+
+}
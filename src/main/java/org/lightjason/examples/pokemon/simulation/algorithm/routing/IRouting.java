@@ -46,6 +46,31 @@ public interface IRouting
      */
     IRouting initialize( final ObjectMatrix2D p_objects );
 
+    /**
+     * updates the static information of a rectangular region
+     * after static obstacles are changed
+     *
+     * @param p_objects environment grid (static elements)
+     * @param p_rowfrom first row (inclusive) of the changed region
+     * @param p_columnfrom first column (inclusive) of the changed region
+     * @param p_rowto last row (inclusive) of the changed region
+     * @param p_columnto last column (inclusive) of the changed region
+     * @return self reference
+     */
+    IRouting update( final ObjectMatrix2D p_objects, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto );
+
+    /**
+     * updates the occupancy of a single cell, it is called
+     * on each movement of an element with the released and
+     * the occupied cell, so incremental routings can repair
+     * their routes around moving elements
+     *
+     * @param p_objects environment grid
+     * @param p_cell packed index of the changed cell (row * columns + column)
+     * @return self reference
+     */
+    IRouting update( final ObjectMatrix2D p_objects, final int p_cell );
+
     /**
      * routing algorithm
      *
@@ -56,6 +81,41 @@ public interface IRouting
      */
     List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_source, final DoubleMatrix1D p_target );
 
+    /**
+     * cooperative routing algorithm, the route avoids the slots
+     * of the reservation table which are reserved by other elements
+     * and reserves its own slots
+     *
+     * @param p_objects object matrix
+     * @param p_reservation reservation table
+     * @param p_owner owner of the route
+     * @param p_source current position
+     * @param p_target target position
+     * @return list of tuples of the cellindex
+     */
+    List<DoubleMatrix1D> route( final ObjectMatrix2D p_objects, final CReservationTable p_reservation, final Object p_owner,
+                                final DoubleMatrix1D p_source, final DoubleMatrix1D p_target );
+
+    /**
+     * returns if the routes reserve slots for their owner within the
+     * reservation table, so a route cannot be shared by other elements
+     *
+     * @return cooperative flag
+     */
+    boolean cooperative();
+
+    /**
+     * refines a landmark of a route, it is called if the landmark
+     * becomes the next goal-position, so algorithms which return
+     * coarse landmarks can calculate the detailed route lazily
+     *
+     * @param p_objects object matrix
+     * @param p_position current position
+     * @param p_landmark landmark
+     * @return list of landmarks which replaces the landmark
+     */
+    List<DoubleMatrix1D> refine( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark );
+
 
     /**
      * calculated the estimated time to move the path
@@ -0,0 +1,443 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+
+/**
+ * chunked occupancy grid for huge sparse environments, the grid is split
+ * into square chunks, a chunk is allocated as a direct buffer outside of
+ * the heap if the first cell of the chunk is occupied, empty chunks are kept
+ * with a hysteresis and the oldest empty chunks are released, so elements which
+ * move across a chunk border do not allocate direct buffers on each step and the
+ * memory depends on the populated area and not on the size of the environment,
+ * cells of a chunk are written under the
+ * lock of the chunk and reads are lock-free, the snapshot copies the allocated
+ * chunks only and a range query reads the allocated chunks only
+ */
+final class CChunkedOccupancyGrid extends IBaseOccupancyGrid
+{
+    /**
+     * number of cells of a chunk in each dimension
+     */
+    private static final int CHUNKSIZE = 64;
+    /**
+     * expected id to overwrite any cell
+     */
+    private static final int ANY = Integer.MIN_VALUE;
+    /**
+     * maximum number of empty chunks which are kept
+     */
+    static final int RETAINED = 16;
+    /**
+     * number of chunk columns
+     */
+    private final int m_chunkcolumns;
+    /**
+     * chunks, an empty chunk is null
+     */
+    private final AtomicReferenceArray<CChunk> m_chunks;
+    /**
+     * number of allocated chunks
+     */
+    private final AtomicInteger m_allocated = new AtomicInteger();
+    /**
+     * indices of the empty chunks in the order in which they are emptied
+     */
+    private final Queue<Integer> m_empty = new ConcurrentLinkedQueue<>();
+    /**
+     * snapshot chunks which are read
+     */
+    private volatile int[][] m_front;
+    /**
+     * snapshot chunks which are written on the next swap
+     */
+    private int[][] m_back;
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     */
+    CChunkedOccupancyGrid( final int p_rows, final int p_columns )
+    {
+        super( p_rows, p_columns );
+        m_chunkcolumns = ( p_columns + CHUNKSIZE - 1 ) / CHUNKSIZE;
+        m_chunks = new AtomicReferenceArray<>( ( p_rows + CHUNKSIZE - 1 ) / CHUNKSIZE * m_chunkcolumns );
+    }
+
+    @Override
+    public final void setQuick( final int p_row, final int p_column, final Object p_value )
+    {
+        this.write( p_row * m_columns + p_column, ANY, p_value == null ? 0 : this.id( p_value ) );
+    }
+
+    @Override
+    public final ObjectMatrix2D like( final int p_rows, final int p_columns )
+    {
+        return new CChunkedOccupancyGrid( p_rows, p_columns );
+    }
+
+    @Override
+    final boolean claim( final int p_cell, final Object p_element )
+    {
+        return this.write( p_cell, 0, this.id( p_element ) );
+    }
+
+    @Override
+    final boolean release( final int p_cell, final Object p_element )
+    {
+        // an element without id does not own any cell
+        final int l_id = this.registered( p_element );
+        return ( l_id != 0 ) && ( this.write( p_cell, l_id, 0 ) );
+    }
+
+    @Override
+    protected final IntStream occupied( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        // only the allocated chunks which overlap the rectangle are scanned
+        return IntStream.rangeClosed( p_rowfrom / CHUNKSIZE, p_rowto / CHUNKSIZE )
+                        .flatMap( i -> IntStream.rangeClosed( p_columnfrom / CHUNKSIZE, p_columnto / CHUNKSIZE )
+                                                .filter( j -> m_chunks.get( i * m_chunkcolumns + j ) != null )
+                                                .flatMap( j -> this.cells(
+                                                    Math.max( p_rowfrom, i * CHUNKSIZE ), Math.min( p_rowto, i * CHUNKSIZE + CHUNKSIZE - 1 ),
+                                                    Math.max( p_columnfrom, j * CHUNKSIZE ), Math.min( p_columnto, j * CHUNKSIZE + CHUNKSIZE - 1 )
+                                                ) ) )
+                        .filter( i -> this.cell( i ) > 0 );
+    }
+
+    @Override
+    protected final void fill( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        // each chunk is locked once and filled with all cells of the rectangle
+        IntStream.rangeClosed( p_rowfrom / CHUNKSIZE, p_rowto / CHUNKSIZE )
+                 .forEach( i -> IntStream.rangeClosed( p_columnfrom / CHUNKSIZE, p_columnto / CHUNKSIZE ).forEach( j ->
+                 {
+                     final CChunk l_chunk = this.allocate( i * m_chunkcolumns + j );
+                     synchronized ( l_chunk )
+                     {
+                         this.cells(
+                             Math.max( p_rowfrom, i * CHUNKSIZE ), Math.min( p_rowto, i * CHUNKSIZE + CHUNKSIZE - 1 ),
+                             Math.max( p_columnfrom, j * CHUNKSIZE ), Math.min( p_columnto, j * CHUNKSIZE + CHUNKSIZE - 1 )
+                         ).forEach( k -> l_chunk.write( this.offset( k ), ANY, OBSTACLE ) );
+                     }
+                 } ) );
+    }
+
+    @Override
+    final Object snapshot( final int p_row, final int p_column )
+    {
+        final int[][] l_front = m_front;
+        if ( l_front == null )
+            return this.getQuick( p_row, p_column );
+
+        final int l_cell = p_row * m_columns + p_column;
+        final int[] l_chunk = l_front[this.chunk( l_cell )];
+        return l_chunk == null ? null : this.element( l_chunk[this.offset( l_cell )], p_row, p_column );
+    }
+
+    @Override
+    final synchronized CChunkedOccupancyGrid swap()
+    {
+        // the chunk buffers of the previous snapshot are reused on the next swap
+        final int[][] l_buffer = m_back == null ? new int[m_chunks.length()][] : m_back;
+        for ( int i = 0; i < l_buffer.length; i++ )
+        {
+            final CChunk l_chunk = m_chunks.get( i );
+            l_buffer[i] = l_chunk == null ? null : l_chunk.copy( l_buffer[i] == null ? new int[CHUNKSIZE * CHUNKSIZE] : l_buffer[i] );
+        }
+
+        m_back = m_front;
+        m_front = l_buffer;
+        return this;
+    }
+
+    @Override
+    protected final int cell( final int p_cell )
+    {
+        final CChunk l_chunk = m_chunks.get( this.chunk( p_cell ) );
+        return l_chunk == null ? 0 : l_chunk.get( this.offset( p_cell ) );
+    }
+
+    /**
+     * returns the number of allocated chunks
+     *
+     * @return number of chunks
+     */
+    final int allocated()
+    {
+        return m_allocated.get();
+    }
+
+    /**
+     * writes a cell, the chunk is allocated on the first occupied
+     * cell and it is retained if the last cell is emptied
+     *
+     * @param p_cell packed cell index
+     * @param p_expect expected id of the cell or any
+     * @param p_update new id
+     * @return flag that the cell is written
+     */
+    private boolean write( final int p_cell, final int p_expect, final int p_update )
+    {
+        final int l_index = this.chunk( p_cell );
+        while ( true )
+        {
+            final CChunk l_chunk = p_update == 0 ? m_chunks.get( l_index ) : this.allocate( l_index );
+            if ( l_chunk == null )
+                return p_expect <= 0;
+
+            final boolean l_retain;
+            synchronized ( l_chunk )
+            {
+                // a chunk which is released concurrently is not used anymore, so the write is repeated on the current chunk
+                if ( l_chunk.released() )
+                    continue;
+
+                final int l_previous = l_chunk.get( this.offset( p_cell ) );
+                if ( !l_chunk.write( this.offset( p_cell ), p_expect, p_update ) )
+                    return false;
+
+                this.count( p_cell, l_previous, p_update );
+                l_retain = l_chunk.retain();
+            }
+
+            // the chunk is not locked, because the release locks other chunks
+            if ( l_retain )
+                this.retain( l_index );
+            return true;
+        }
+    }
+
+    /**
+     * returns the chunk of a chunk index and allocates it if needed
+     *
+     * @param p_index chunk index
+     * @return chunk
+     */
+    private CChunk allocate( final int p_index )
+    {
+        CChunk l_chunk = m_chunks.get( p_index );
+        while ( l_chunk == null )
+        {
+            if ( m_chunks.compareAndSet( p_index, null, new CChunk() ) )
+                m_allocated.incrementAndGet();
+            l_chunk = m_chunks.get( p_index );
+        }
+        return l_chunk;
+    }
+
+    /**
+     * retains an empty chunk and releases the
+     * oldest empty chunks above the hysteresis
+     *
+     * @param p_index chunk index
+     */
+    private void retain( final int p_index )
+    {
+        m_empty.add( p_index );
+        while ( m_empty.size() > RETAINED )
+        {
+            final Integer l_index = m_empty.poll();
+            if ( l_index != null )
+                this.release( l_index );
+        }
+    }
+
+    /**
+     * releases a retained chunk, if it is still empty
+     *
+     * @param p_index chunk index
+     */
+    private void release( final int p_index )
+    {
+        final CChunk l_chunk = m_chunks.get( p_index );
+        if ( l_chunk == null )
+            return;
+
+        synchronized ( l_chunk )
+        {
+            // a chunk which is occupied again is kept
+            if ( !l_chunk.release() )
+                return;
+            if ( m_chunks.compareAndSet( p_index, l_chunk, null ) )
+                m_allocated.decrementAndGet();
+        }
+    }
+
+    /**
+     * returns the packed indices of the cells of a rectangle
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return stream of packed cell indices
+     */
+    private IntStream cells( final int p_rowfrom, final int p_rowto, final int p_columnfrom, final int p_columnto )
+    {
+        return IntStream.rangeClosed( p_rowfrom, p_rowto )
+                        .flatMap( i -> IntStream.rangeClosed( p_columnfrom, p_columnto ).map( j -> i * m_columns + j ) );
+    }
+
+    /**
+     * returns the chunk index of a cell
+     *
+     * @param p_cell packed cell index
+     * @return chunk index
+     */
+    private int chunk( final int p_cell )
+    {
+        return p_cell / m_columns / CHUNKSIZE * m_chunkcolumns + p_cell % m_columns / CHUNKSIZE;
+    }
+
+    /**
+     * returns the offset of a cell within its chunk
+     *
+     * @param p_cell packed cell index
+     * @return offset
+     */
+    private int offset( final int p_cell )
+    {
+        return p_cell / m_columns % CHUNKSIZE * CHUNKSIZE + p_cell % m_columns % CHUNKSIZE;
+    }
+
+
+    /**
+     * chunk of cells within a direct buffer
+     */
+    private static final class CChunk
+    {
+        /**
+         * element id of each cell
+         */
+        private final IntBuffer m_cells = ByteBuffer.allocateDirect( CHUNKSIZE * CHUNKSIZE * Integer.BYTES ).order( ByteOrder.nativeOrder() ).asIntBuffer();
+        /**
+         * number of occupied cells
+         */
+        private int m_occupied;
+        /**
+         * flag that the empty chunk is retained
+         */
+        private boolean m_retained;
+        /**
+         * released flag
+         */
+        private volatile boolean m_released;
+
+        /**
+         * returns the id of a cell
+         *
+         * @param p_offset offset of the cell
+         * @return id
+         */
+        final int get( final int p_offset )
+        {
+            return m_cells.get( p_offset );
+        }
+
+        /**
+         * writes a cell, the chunk must be locked
+         *
+         * @param p_offset offset of the cell
+         * @param p_expect expected id of the cell or any
+         * @param p_update new id
+         * @return flag that the cell is written
+         */
+        final boolean write( final int p_offset, final int p_expect, final int p_update )
+        {
+            final int l_current = m_cells.get( p_offset );
+            if ( ( p_expect != ANY ) && ( l_current != p_expect ) )
+                return false;
+
+            m_cells.put( p_offset, p_update );
+            m_occupied += ( l_current == 0 ? 0 : -1 ) + ( p_update == 0 ? 0 : 1 );
+            return true;
+        }
+
+        /**
+         * copies the cells into an array
+         *
+         * @param p_target target array
+         * @return target array
+         */
+        final int[] copy( final int[] p_target )
+        {
+            m_cells.duplicate().get( p_target );
+            return p_target;
+        }
+
+        /**
+         * marks an empty chunk as retained, the chunk must be locked
+         *
+         * @return flag that the chunk is empty and it is not retained yet
+         */
+        final boolean retain()
+        {
+            if ( ( m_occupied != 0 ) || ( m_retained ) )
+                return false;
+
+            m_retained = true;
+            return true;
+        }
+
+        /**
+         * marks a retained chunk as released, the chunk must be locked
+         *
+         * @return flag that the chunk is empty and it is released
+         */
+        final boolean release()
+        {
+            m_retained = false;
+            if ( m_occupied != 0 )
+                return false;
+
+            m_released = true;
+            return true;
+        }
+
+        /**
+         * checks if the chunk is released
+         *
+         * @return released flag
+         */
+        final boolean released()
+        {
+            return m_released;
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+
+/**
+ * density pyramid with the number of elements of a grid, the pyramid
+ * stores binary indexed prefix counts on two levels, the coarse level counts
+ * the elements of square blocks and the fine level counts the cells of a block,
+ * each node of a level stores the count of a power-of-two sized area, so
+ * the count of a rectangle is the sum of logarithmic many nodes, the fully
+ * covered blocks of a rectangle are counted on the coarse level and the partial
+ * blocks at the border on the fine level of the block, the fine level of a block
+ * is allocated on the first element, so the memory depends on the visited area,
+ * updates are lock-free and concurrent updates can be missed by a count
+ */
+final class CDensityPyramid
+{
+    /**
+     * number of cells of a block in each dimension
+     */
+    private static final int BLOCKSIZE = 64;
+    /**
+     * number of rows
+     */
+    private final int m_rows;
+    /**
+     * number of columns
+     */
+    private final int m_columns;
+    /**
+     * number of block rows
+     */
+    private final int m_blockrows;
+    /**
+     * number of block columns
+     */
+    private final int m_blockcolumns;
+    /**
+     * prefix counts of the blocks
+     */
+    private final AtomicIntegerArray m_blocks;
+    /**
+     * prefix counts of the cells of each block, a block without elements is null
+     */
+    private final AtomicReferenceArray<AtomicIntegerArray> m_cells;
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     */
+    CDensityPyramid( final int p_rows, final int p_columns )
+    {
+        m_rows = p_rows;
+        m_columns = p_columns;
+        m_blockrows = ( p_rows + BLOCKSIZE - 1 ) / BLOCKSIZE;
+        m_blockcolumns = ( p_columns + BLOCKSIZE - 1 ) / BLOCKSIZE;
+        m_blocks = new AtomicIntegerArray( m_blockrows * m_blockcolumns );
+        m_cells = new AtomicReferenceArray<>( m_blockrows * m_blockcolumns );
+    }
+
+    /**
+     * changes the number of elements of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @param p_delta difference of the number of elements
+     * @return self reference
+     */
+    final CDensityPyramid add( final int p_row, final int p_column, final int p_delta )
+    {
+        final int l_block = p_row / BLOCKSIZE * m_blockcolumns + p_column / BLOCKSIZE;
+        AtomicIntegerArray l_cells = m_cells.get( l_block );
+        while ( l_cells == null )
+        {
+            m_cells.compareAndSet( l_block, null, new AtomicIntegerArray( BLOCKSIZE * BLOCKSIZE ) );
+            l_cells = m_cells.get( l_block );
+        }
+
+        CDensityPyramid.add( l_cells, BLOCKSIZE, BLOCKSIZE, p_row % BLOCKSIZE, p_column % BLOCKSIZE, p_delta );
+        CDensityPyramid.add( m_blocks, m_blockrows, m_blockcolumns, p_row / BLOCKSIZE, p_column / BLOCKSIZE, p_delta );
+        return this;
+    }
+
+    /**
+     * returns the number of elements within a rectangle,
+     * the rectangle must be inside the grid
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return number of elements
+     */
+    final int count( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        // blocks which are fully covered, the last block of the grid is covered by the last row or column
+        final int l_innerrowfrom = ( p_rowfrom + BLOCKSIZE - 1 ) / BLOCKSIZE;
+        final int l_innercolumnfrom = ( p_columnfrom + BLOCKSIZE - 1 ) / BLOCKSIZE;
+        final int l_innerrowto = p_rowto == m_rows - 1 ? p_rowto / BLOCKSIZE : ( p_rowto + 1 ) / BLOCKSIZE - 1;
+        final int l_innercolumnto = p_columnto == m_columns - 1 ? p_columnto / BLOCKSIZE : ( p_columnto + 1 ) / BLOCKSIZE - 1;
+        final boolean l_inner = ( l_innerrowfrom <= l_innerrowto ) && ( l_innercolumnfrom <= l_innercolumnto );
+
+        // the border blocks are the blocks of the rectangle without the inner blocks
+        return ( l_inner ? CDensityPyramid.sum( m_blocks, m_blockcolumns, l_innerrowfrom, l_innercolumnfrom, l_innerrowto, l_innercolumnto ) : 0 )
+               + IntStream.rangeClosed( p_rowfrom / BLOCKSIZE, p_rowto / BLOCKSIZE )
+                          .map( i -> ( !l_inner ) || ( i < l_innerrowfrom ) || ( i > l_innerrowto )
+                                     ? this.border( i, p_columnfrom / BLOCKSIZE, p_columnto / BLOCKSIZE, p_rowfrom, p_columnfrom, p_rowto, p_columnto )
+                                     : this.border( i, p_columnfrom / BLOCKSIZE, l_innercolumnfrom - 1, p_rowfrom, p_columnfrom, p_rowto, p_columnto )
+                                       + this.border( i, l_innercolumnto + 1, p_columnto / BLOCKSIZE, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) )
+                          .sum();
+    }
+
+    /**
+     * counts the elements of a rectangle within a range of blocks of a block row
+     *
+     * @param p_blockrow block row
+     * @param p_blockcolumnfrom first block column (inclusive)
+     * @param p_blockcolumnto last block column (inclusive)
+     * @param p_rowfrom first row (inclusive) of the rectangle
+     * @param p_columnfrom first column (inclusive) of the rectangle
+     * @param p_rowto last row (inclusive) of the rectangle
+     * @param p_columnto last column (inclusive) of the rectangle
+     * @return number of elements
+     */
+    private int border( final int p_blockrow, final int p_blockcolumnfrom, final int p_blockcolumnto,
+                        final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        final int l_row = p_blockrow * BLOCKSIZE;
+        return IntStream.rangeClosed( p_blockcolumnfrom, p_blockcolumnto )
+                        .filter( i -> m_cells.get( p_blockrow * m_blockcolumns + i ) != null )
+                        .map( i -> CDensityPyramid.sum(
+                            m_cells.get( p_blockrow * m_blockcolumns + i ), BLOCKSIZE,
+                            Math.max( p_rowfrom, l_row ) - l_row, Math.max( p_columnfrom, i * BLOCKSIZE ) - i * BLOCKSIZE,
+                            Math.min( p_rowto, l_row + BLOCKSIZE - 1 ) - l_row, Math.min( p_columnto, i * BLOCKSIZE + BLOCKSIZE - 1 ) - i * BLOCKSIZE
+                        ) )
+                        .sum();
+    }
+
+    /**
+     * adds a value to a node and all nodes which contain the node
+     *
+     * @param p_nodes prefix counts
+     * @param p_rows number of rows of the counts
+     * @param p_columns number of columns of the counts
+     * @param p_row row
+     * @param p_column column
+     * @param p_delta value
+     */
+    private static void add( final AtomicIntegerArray p_nodes, final int p_rows, final int p_columns, final int p_row, final int p_column, final int p_delta )
+    {
+        for ( int i = p_row + 1; i <= p_rows; i += i & -i )
+            for ( int j = p_column + 1; j <= p_columns; j += j & -j )
+                p_nodes.addAndGet( ( i - 1 ) * p_columns + j - 1, p_delta );
+    }
+
+    /**
+     * returns the sum of a rectangle
+     *
+     * @param p_nodes prefix counts
+     * @param p_columns number of columns of the counts
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return sum
+     */
+    private static int sum( final AtomicIntegerArray p_nodes, final int p_columns, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        return CDensityPyramid.prefix( p_nodes, p_columns, p_rowto, p_columnto )
+               - CDensityPyramid.prefix( p_nodes, p_columns, p_rowfrom - 1, p_columnto )
+               - CDensityPyramid.prefix( p_nodes, p_columns, p_rowto, p_columnfrom - 1 )
+               + CDensityPyramid.prefix( p_nodes, p_columns, p_rowfrom - 1, p_columnfrom - 1 );
+    }
+
+    /**
+     * returns the sum of the rectangle from the origin to a cell
+     *
+     * @param p_nodes prefix counts
+     * @param p_columns number of columns of the counts
+     * @param p_row last row (inclusive)
+     * @param p_column last column (inclusive)
+     * @return sum
+     */
+    private static int prefix( final AtomicIntegerArray p_nodes, final int p_columns, final int p_row, final int p_column )
+    {
+        int l_sum = 0;
+        for ( int i = p_row + 1; i > 0; i -= i & -i )
+            for ( int j = p_column + 1; j > 0; j -= j & -j )
+                l_sum += p_nodes.get( ( i - 1 ) * p_columns + j - 1 );
+        return l_sum;
+    }
+
+}
@@ -23,26 +23,37 @@
 
 package org.lightjason.examples.pokemon.simulation.environment;
 
-import org.lightjason.examples.pokemon.CCommon;
 import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.CReservationTable;
 import org.lightjason.examples.pokemon.simulation.algorithm.routing.IRouting;
 import org.lightjason.examples.pokemon.simulation.item.IItem;
+import cern.colt.list.IntArrayList;
 import cern.colt.matrix.DoubleMatrix1D;
-import cern.colt.matrix.ObjectMatrix2D;
 import cern.colt.matrix.impl.DenseDoubleMatrix1D;
-import cern.colt.matrix.impl.SparseObjectMatrix2D;
 import cern.colt.matrix.linalg.Algebra;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.ImmutableTriple;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Logger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -62,6 +73,14 @@ public final class CEnvironment implements IEnvironment
      * algebra object
      */
     private static final Algebra ALGEBRA = new Algebra();
+    /**
+     * maximum number of cells of a background tile in each direction
+     */
+    private static final int BACKGROUNDBLOCK = 16;
+    /**
+     * maximum size of the background texture in pixel
+     */
+    private static final int BACKGROUNDTEXTURE = 2048;
     /**
      * routing algorithm
      */
@@ -79,9 +98,42 @@ public final class CEnvironment implements IEnvironment
      */
     private final int m_cellsize;
     /**
-     * matrix with object positions
+     * grid with object positions
+     */
+    private final IBaseOccupancyGrid m_positions;
+    /**
+     * thread pool for route calculation
+     */
+    private final ForkJoinPool m_routepool = new ForkJoinPool( Runtime.getRuntime().availableProcessors() );
+    /**
+     * route requests of the current step with the requesting element, the start and target cell and the future
+     */
+    private final Map<Object, Triple<IElement, Long, CompletableFuture<List<DoubleMatrix1D>>>> m_routerequests = new ConcurrentHashMap<>();
+    /**
+     * space-time reservations of the routes
+     */
+    private final CReservationTable m_reservation;
+    /**
+     * two-phase execution, elements read the snapshot of the previous step
+     * and the moves are applied at the end of the step
      */
-    private final ObjectMatrix2D m_positions;
+    private final boolean m_synchronous;
+    /**
+     * move intents of the current step with the target cell
+     */
+    private final Map<IElement, Integer> m_intents = new ConcurrentHashMap<>();
+    /**
+     * flag that the intents of the current step are committed
+     */
+    private volatile boolean m_committed;
+    /**
+     * packed indices of the cells which are changed since the last call of the changes
+     */
+    private final IntArrayList m_changes = new IntArrayList();
+    /**
+     * flag that changed cells are recorded, it is set on the first call of the changes
+     */
+    private volatile boolean m_tracking;
 
 
     /**
@@ -94,6 +146,23 @@ public final class CEnvironment implements IEnvironment
      * @param p_obstacles static obstacles
      */
     public CEnvironment( final int p_cellrows, final int p_cellcolumns, final int p_cellsize, final IRouting p_routing, final List<? extends IItem> p_obstacles )
+    {
+        this( p_cellrows, p_cellcolumns, p_cellsize, p_routing, false, false, p_obstacles );
+    }
+
+    /**
+     * create environment
+     *
+     * @param p_cellrows number of row cells
+     * @param p_cellcolumns number of column cells
+     * @param p_cellsize cell size
+     * @param p_routing routing algorithm
+     * @param p_synchronous two-phase execution, moves are applied at the end of the step
+     * @param p_chunked chunked grid, the cells are allocated for the populated chunks only
+     * @param p_obstacles static obstacles
+     */
+    public CEnvironment( final int p_cellrows, final int p_cellcolumns, final int p_cellsize, final IRouting p_routing, final boolean p_synchronous,
+                         final boolean p_chunked, final List<? extends IItem> p_obstacles )
     {
         if ( ( p_cellcolumns < 1 ) || ( p_cellrows < 1 ) || ( p_cellsize < 1 ) )
             throw new IllegalArgumentException( "environment size must be greater or equal than one" );
@@ -102,26 +171,72 @@ public final class CEnvironment implements IEnvironment
         m_column = p_cellcolumns;
         m_routing = p_routing;
         m_cellsize = p_cellsize;
-        m_positions = new SparseObjectMatrix2D( m_row, m_column );
+        m_positions = p_chunked ? new CChunkedOccupancyGrid( m_row, m_column ) : new COccupancyGrid( m_row, m_column );
+        m_reservation = new CReservationTable( m_row, m_column );
+        m_synchronous = p_synchronous;
+
+        // add all obstacles as rectangles to the position grid
+        m_positions.obstacles( p_obstacles );
 
-        // add all obstacles to the position matrix
-        p_obstacles.forEach( i -> CCommon.inttupelstream( i ).forEach( j -> m_positions.setQuick( j.getLeft(), j.getRight(), i ) ) );
         LOGGER.info( MessageFormat.format( "create environment with size [{0}x{1}] and cell size [{2}]", m_row, m_column, p_cellsize ) );
     }
 
     @Override
     public final IEnvironment initialize()
     {
-        m_routing.initialize( m_positions );
+        m_routing.initialize( m_positions.view() );
+        if ( m_synchronous )
+            m_positions.swap();
         return this;
     }
 
     @Override
     public final IEnvironment call()
     {
+        // the move intents of the step are applied, if they are not committed before, and the elements read the new snapshot on the next step
+        if ( ( m_synchronous ) && ( !m_committed ) )
+            this.apply();
+        m_committed = false;
+
+        // the ids of removed elements are reused two steps later, so readers of the previous step and the snapshot do not find another element
+        m_positions.recycle();
+
+        // each execution is a tick of the reservations
+        m_reservation.advance();
+
+        // requests are removed one by one, so requests which are added during the iteration are not lost
+        final List<Triple<IElement, Long, CompletableFuture<List<DoubleMatrix1D>>>> l_batch = new ArrayList<>();
+        m_routerequests.keySet().forEach( i -> l_batch.add( m_routerequests.remove( i ) ) );
+
+        // a cooperative route reserves its slots from the next tick on, so the batch is finished before the next step
+        // and the first cell of the route is reached within the next step, other routes are delivered on a later step
+        if ( !l_batch.isEmpty() )
+        {
+            final ForkJoinTask<?> l_task = m_routepool.submit( () -> l_batch.parallelStream().forEach( i -> this.resolve( i.getMiddle(), i.getLeft(), i.getRight() ) ) );
+            if ( m_routing.cooperative() )
+                l_task.join();
+        }
+
         return this;
     }
 
+    @Override
+    public final IEnvironment commit()
+    {
+        if ( !m_synchronous )
+            return this;
+
+        this.apply();
+        m_committed = true;
+        return this;
+    }
+
+    @Override
+    public final void close()
+    {
+        m_routepool.shutdown();
+    }
+
     @Override
     public final int row()
     {
@@ -146,7 +261,66 @@ public final class CEnvironment implements IEnvironment
     @Override
     public final List<DoubleMatrix1D> route( final DoubleMatrix1D p_start, final DoubleMatrix1D p_end )
     {
-        return m_routing.route( m_positions, p_start, p_end );
+        return m_routing.route( m_positions.view(), p_start, p_end );
+    }
+
+    @Override
+    public final List<DoubleMatrix1D> refine( final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark )
+    {
+        return m_routing.refine( m_positions.view(), p_position, p_landmark );
+    }
+
+    @Override
+    public final boolean cooperative()
+    {
+        return m_routing.cooperative();
+    }
+
+    @Override
+    public final CompletableFuture<List<DoubleMatrix1D>> routerequest( final IElement p_element, final DoubleMatrix1D p_start, final DoubleMatrix1D p_end )
+    {
+        if ( !this.isinside( p_start ) || !this.isinside( p_end ) )
+            return CompletableFuture.completedFuture( Collections.<DoubleMatrix1D>emptyList() );
+
+        // equal requests are calculated once, the key is build by the start and target cell index, a cooperative
+        // routing reserves the slots of a route for the requesting element, so each request is calculated on its own
+        final long l_cells = (long) m_row * m_column;
+        final long l_key = ( (long) p_start.getQuick( 0 ) * m_column + (long) p_start.getQuick( 1 ) ) * l_cells
+                           + (long) p_end.getQuick( 0 ) * m_column + (long) p_end.getQuick( 1 );
+        return m_routerequests.computeIfAbsent(
+            m_routing.cooperative() ? new Object() : l_key,
+            i -> new ImmutableTriple<>( p_element, l_key, new CompletableFuture<>() )
+        ).getRight();
+    }
+
+    /**
+     * calculates a requested route
+     *
+     * @param p_key request key
+     * @param p_element requesting element
+     * @param p_future future of the request
+     */
+    private void resolve( final long p_key, final IElement p_element, final CompletableFuture<List<DoubleMatrix1D>> p_future )
+    {
+        final long l_cells = (long) m_row * m_column;
+        try
+        {
+            p_future.complete(
+                Collections.unmodifiableList(
+                    m_routing.route(
+                        m_positions.view(),
+                        m_reservation,
+                        p_element,
+                        new DenseDoubleMatrix1D( new double[]{p_key / l_cells / m_column, p_key / l_cells % m_column} ),
+                        new DenseDoubleMatrix1D( new double[]{p_key % l_cells / m_column, p_key % l_cells % m_column} )
+                    )
+                )
+            );
+        }
+        catch ( final RuntimeException l_exception )
+        {
+            p_future.completeExceptionally( l_exception );
+        }
     }
 
     @Override
@@ -156,46 +330,326 @@ public final class CEnvironment implements IEnvironment
     }
 
     @Override
-    @SuppressWarnings( "unchecked" )
-    public final synchronized IElement move( final IElement p_element, final DoubleMatrix1D p_position )
+    public final IElement move( final IElement p_element, final DoubleMatrix1D p_position )
+    {
+        return this.move( p_element, (int) CEnvironment.clip( p_position.getQuick( 0 ), m_row ), (int) CEnvironment.clip( p_position.getQuick( 1 ), m_column ) );
+    }
+
+    @Override
+    public final IElement move( final IElement p_element, final int p_row, final int p_column )
+    {
+        final int l_row = CEnvironment.clip( p_row, m_row );
+        final int l_column = CEnvironment.clip( p_column, m_column );
+        if ( m_synchronous )
+            return this.intent( p_element, l_row, l_column );
+
+        // the move is repeated if the element or the target cell is changed concurrently
+        while ( true )
+        {
+            // check of the target position is free, if not return object, which blocks the cell
+            final IElement l_object = (IElement) m_positions.getQuick( l_row, l_column );
+            if ( l_object != null )
+                return l_object;
+
+            final int l_releasedrow = (int) p_element.position().getQuick( 0 );
+            final int l_releasedcolumn = (int) p_element.position().getQuick( 1 );
+            if ( this.move( p_element, l_releasedrow, l_releasedcolumn, l_row, l_column ) )
+            {
+                this.changed( m_positions.index( l_releasedrow, l_releasedcolumn ) );
+                this.changed( m_positions.index( l_row, l_column ) );
+                return p_element;
+            }
+        }
+    }
+
+    /**
+     * moves an element between two cells, the lock stripes of both
+     * cells are locked in index order, so moves in different parts
+     * of the grid do not contend, the target cell is claimed by
+     * compare-and-set against lock-free writers
+     *
+     * @param p_element element
+     * @param p_releasedrow current row of the element
+     * @param p_releasedcolumn current column of the element
+     * @param p_row new row
+     * @param p_column new column
+     * @return flag that the element is moved, false if the element or the target cell is changed concurrently
+     */
+    private boolean move( final IElement p_element, final int p_releasedrow, final int p_releasedcolumn, final int p_row, final int p_column )
     {
-        final DoubleMatrix1D l_position = this.clip( new DenseDoubleMatrix1D( p_position.toArray() ) );
+        final int l_released = m_positions.index( p_releasedrow, p_releasedcolumn );
+        final int l_position = m_positions.index( p_row, p_column );
+
+        synchronized ( m_positions.lock( Math.min( l_released, l_position ) ) )
+        {
+            synchronized ( m_positions.lock( Math.max( l_released, l_position ) ) )
+            {
+                if ( ( p_element.position().getQuick( 0 ) != p_releasedrow )
+                     || ( p_element.position().getQuick( 1 ) != p_releasedcolumn )
+                     || ( !m_positions.claim( l_position, p_element ) ) )
+                    return false;
+
+                // an element, which is not stored within the grid yet, can be placed on its own position
+                if ( l_released != l_position )
+                    m_positions.release( l_released, p_element );
+                p_element.position().setQuick( 0, p_row );
+                p_element.position().setQuick( 1, p_column );
+                return true;
+            }
+        }
+    }
 
-        // check of the target position is free, if not return object, which blocks the cell
-        final IElement l_object = (IElement) m_positions.getQuick( (int) l_position.getQuick( 0 ), (int) l_position.getQuick( 1 ) );
+    /**
+     * stores a move intent on the two-phase execution, the intent is accepted if the target
+     * cell is empty within the snapshot, on multiple intents of an element the intent with
+     * the lowest target cell is used, so the result does not depend on the execution order
+     *
+     * @param p_element element
+     * @param p_row new row
+     * @param p_column new column
+     * @return element or the object which uses the cell within the snapshot
+     */
+    private IElement intent( final IElement p_element, final int p_row, final int p_column )
+    {
+        final IElement l_object = (IElement) m_positions.snapshot( p_row, p_column );
         if ( l_object != null )
             return l_object;
 
-        // cell is free, move the position and return updated object
-        m_positions.set( (int) p_element.position().get( 0 ), (int) p_element.position().get( 1 ), null );
-        m_positions.set( (int) l_position.getQuick( 0 ), (int) l_position.getQuick( 1 ), p_element );
-        p_element.position().setQuick( 0, l_position.getQuick( 0 ) );
-        p_element.position().setQuick( 1, l_position.getQuick( 1 ) );
-
+        m_intents.merge( p_element, m_positions.index( p_row, p_column ), Math::min );
         return p_element;
     }
 
+    /**
+     * applies the move intents of the step in parallel and swaps the snapshot, on intents with
+     * the same target cell the element with the lowest current cell wins, so the result depends
+     * on the snapshot only and not on the thread scheduling
+     */
+    private void apply()
+    {
+        // intents are removed one by one, so intents which are added during the iteration are kept for the next step
+        final Map<Integer, IElement> l_winner = new HashMap<>();
+        m_intents.keySet().forEach( i ->
+        {
+            final Integer l_cell = m_intents.remove( i );
+            if ( l_cell != null )
+                l_winner.merge( l_cell, i, this::priority );
+        } );
+
+        // each winner stores its released cell and its target cell, a failed move stores no cells
+        final int[] l_targets = l_winner.keySet().stream().mapToInt( Integer::intValue ).toArray();
+        final int[] l_cells = new int[2 * l_targets.length];
+        IntStream.range( 0, l_targets.length ).parallel().forEach( i ->
+        {
+            l_cells[2 * i] = this.commit( l_winner.get( l_targets[i] ), l_targets[i] );
+            l_cells[2 * i + 1] = l_cells[2 * i] < 0 ? -1 : l_targets[i];
+        } );
+
+        m_positions.swap();
+        for ( final int l_cell : l_cells )
+            if ( l_cell >= 0 )
+                this.changed( l_cell );
+    }
+
+    /**
+     * handles a changed cell, incremental routings repair their routes
+     * around the cell and the cell is recorded for the changes
+     *
+     * @param p_cell packed cell index
+     */
+    private void changed( final int p_cell )
+    {
+        m_routing.update( m_positions.view(), p_cell );
+        if ( m_tracking )
+            synchronized ( m_changes )
+            {
+                m_changes.add( p_cell );
+            }
+    }
+
+    /**
+     * moves an element of a winning intent, the target cell is empty within
+     * the snapshot and is not claimed by any other intent
+     *
+     * @param p_element element
+     * @param p_cell target cell
+     * @return released cell or -1 if the element cannot be moved
+     */
+    private int commit( final IElement p_element, final int p_cell )
+    {
+        final int l_releasedrow = (int) p_element.position().getQuick( 0 );
+        final int l_releasedcolumn = (int) p_element.position().getQuick( 1 );
+        return this.move( p_element, l_releasedrow, l_releasedcolumn, p_cell / m_column, p_cell % m_column )
+               ? m_positions.index( l_releasedrow, l_releasedcolumn )
+               : -1;
+    }
+
+    /**
+     * returns the element with the higher priority of two intents with the same target cell
+     *
+     * @param p_first first element
+     * @param p_second second element
+     * @return element with the lowest current cell
+     */
+    private IElement priority( final IElement p_first, final IElement p_second )
+    {
+        return p_first.position().get( 0 ) * m_column + p_first.position().get( 1 ) <= p_second.position().get( 0 ) * m_column + p_second.position().get( 1 )
+               ? p_first
+               : p_second;
+    }
+
+    @Override
+    public final IElement get( final DoubleMatrix1D p_position )
+    {
+        return this.element( (int) CEnvironment.clip( p_position.getQuick( 0 ), m_row ), (int) CEnvironment.clip( p_position.getQuick( 1 ), m_column ) );
+    }
+
+    @Override
+    public final IElement get( final int p_row, final int p_column )
+    {
+        return this.element( CEnvironment.clip( p_row, m_row ), CEnvironment.clip( p_column, m_column ) );
+    }
+
+    @Override
+    public final Stream<Pair<IElement, DoubleMatrix1D>> within( final int p_row, final int p_column, final int p_radius )
+    {
+        return m_positions.within( p_row, p_column, p_radius )
+                          .<Pair<IElement, DoubleMatrix1D>>mapToObj( i -> new ImmutablePair<>(
+                              this.element( i / m_column, i % m_column ),
+                              new DenseDoubleMatrix1D( new double[]{i / m_column, i % m_column} )
+                          ) )
+                          .filter( i -> i.getLeft() != null );
+    }
+
+    @Override
+    public final Stream<Pair<IElement, DoubleMatrix1D>> within( final int p_row, final int p_column, final int p_radius, final double p_angle )
+    {
+        return this.within( p_row, p_column, p_radius )
+                   .filter( i -> CEnvironment.insideangle( i.getRight().getQuick( 0 ) - p_row, i.getRight().getQuick( 1 ) - p_column, p_angle ) );
+    }
+
+    @Override
+    public final int density( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        return m_positions.density( p_rowfrom, p_columnfrom, p_rowto, p_columnto );
+    }
+
+    @Override
+    public final IntStream changes()
+    {
+        m_tracking = true;
+
+        // the cells are moved out of the list, so cells which are changed during the iteration are kept for the next call
+        final IntArrayList l_changes = new IntArrayList();
+        synchronized ( m_changes )
+        {
+            l_changes.addAllOf( m_changes );
+            m_changes.clear();
+        }
+        return Arrays.stream( l_changes.elements(), 0, l_changes.size() );
+    }
+
+    /**
+     * returns the element of a cell, on the two-phase
+     * execution the snapshot of the previous step is read
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return element or null
+     */
+    private IElement element( final int p_row, final int p_column )
+    {
+        return (IElement) ( m_synchronous ? m_positions.snapshot( p_row, p_column ) : m_positions.getQuick( p_row, p_column ) );
+    }
+
+    /**
+     * checks if a relative position is within the view-cone
+     *
+     * @param p_row row offset to the center
+     * @param p_column column offset to the center
+     * @param p_angle view angle in degree
+     * @return inside flag
+     */
+    private static boolean insideangle( final double p_row, final double p_column, final double p_angle )
+    {
+        final double l_angle = Math.toDegrees( Math.atan( Math.abs( p_row ) / Math.abs( p_column ) ) );
+        return !Double.isNaN( l_angle ) && ( l_angle <= 0.5 * p_angle );
+    }
+
     @Override
-    @SuppressWarnings( "unchecked" )
-    public final synchronized IElement get( final DoubleMatrix1D p_position )
+    public final IElement remove( final IElement p_object )
     {
-        return (IElement) m_positions.getQuick( (int) CEnvironment.clip( p_position.get( 0 ), m_row ), (int) CEnvironment.clip( p_position.get( 1 ), m_column ) );
+        // the element is removed from its current cell, if it is moved concurrently the current cell is read again
+        while ( this.remove( p_object, (int) p_object.position().getQuick( 0 ), (int) p_object.position().getQuick( 1 ) ) == null )
+            Thread.yield();
+
+        return p_object;
     }
 
     @Override
-    public final synchronized IElement remove( final IElement p_object )
+    public final IElement remove( final IElement p_object, final int p_row, final int p_column )
     {
-        final DoubleMatrix1D l_position = this.clip( new DenseDoubleMatrix1D( p_object.position().toArray() ) );
-        m_positions.set( (int) l_position.get( 0 ), (int) l_position.get( 1 ), null );
+        final int l_row = CEnvironment.clip( p_row, m_row );
+        final int l_column = CEnvironment.clip( p_column, m_column );
+        if ( !this.release( p_object, l_row, l_column ) )
+            return null;
+
+        this.changed( m_positions.index( l_row, l_column ) );
+        m_reservation.release( p_object );
+        m_intents.remove( p_object );
 
         return p_object;
     }
 
+    /**
+     * releases the cell of an element and removes the element from
+     * the registry, the cell is locked, so the element cannot be moved
+     * concurrently
+     *
+     * @param p_object element
+     * @param p_row row
+     * @param p_column column
+     * @return flag that the cell is released, false if the element is not stored on the cell
+     */
+    private boolean release( final IElement p_object, final int p_row, final int p_column )
+    {
+        final int l_cell = m_positions.index( p_row, p_column );
+        synchronized ( m_positions.lock( l_cell ) )
+        {
+            if ( ( CEnvironment.clip( (int) p_object.position().getQuick( 0 ), m_row ) != p_row )
+                 || ( CEnvironment.clip( (int) p_object.position().getQuick( 1 ), m_column ) != p_column ) )
+                return false;
+
+            m_positions.release( l_cell, p_object );
+            m_positions.unregister( p_object );
+            return true;
+        }
+    }
+
+    /**
+     * returns the number of ids, which are used within the registry of the position grid,
+     * the number is bounded by the maximum number of stored elements within three steps
+     *
+     * @return number of ids
+     */
+    public final int registry()
+    {
+        return m_positions.registry();
+    }
+
     @Override
-    public final synchronized boolean empty( final DoubleMatrix1D p_position )
+    public final boolean empty( final DoubleMatrix1D p_position )
     {
-        final DoubleMatrix1D l_position = this.clip( new DenseDoubleMatrix1D( p_position.toArray() ) );
-        return m_positions.getQuick( (int) l_position.getQuick( 0 ), (int) l_position.getQuick( 1 ) ) == null;
+        return this.empty( (int) CEnvironment.clip( p_position.getQuick( 0 ), m_row ), (int) CEnvironment.clip( p_position.getQuick( 1 ), m_column ) );
+    }
+
+    @Override
+    public final boolean empty( final int p_row, final int p_column )
+    {
+        final int l_row = CEnvironment.clip( p_row, m_row );
+        final int l_column = CEnvironment.clip( p_column, m_column );
+        return m_synchronous
+               ? m_positions.snapshot( l_row, l_column ) == null
+               : m_positions.empty( l_row, l_column );
     }
 
     @Override
@@ -207,6 +661,12 @@ public final class CEnvironment implements IEnvironment
                && ( p_position.getQuick( 1 ) < m_column );
     }
 
+    @Override
+    public final boolean isinside( final int p_row, final int p_column )
+    {
+        return ( p_row >= 0 ) && ( p_column >= 0 ) && ( p_row < m_row ) && ( p_column < m_column );
+    }
+
     @Override
     public final DoubleMatrix1D clip( final DoubleMatrix1D p_position )
     {
@@ -229,47 +689,86 @@ public final class CEnvironment implements IEnvironment
         return Math.max( Math.min( p_value, p_max - 1 ), 0 );
     }
 
+    /**
+     * value clipping
+     *
+     * @param p_value value
+     * @param p_max maximum
+     * @return modifed value
+     */
+    private static int clip( final int p_value, final int p_max )
+    {
+        return Math.max( Math.min( p_value, p_max - 1 ), 0 );
+    }
+
 
     // --- visualization ---------------------------------------------------------------------------------------------------------------------------------------
 
     @Override
     public final TiledMap map()
     {
-        // create background checkerboard with a tile map
-        final Pixmap l_pixmap = new Pixmap( 2 * m_cellsize, m_cellsize, Pixmap.Format.RGBA8888 );
-        l_pixmap.setColor( new Color( 0.8f, 0.1f, 0.1f, 0.5f ) );
-        l_pixmap.fillRectangle( 0, 0, m_cellsize, m_cellsize );
-        l_pixmap.setColor( new Color( 0.5f, 0.5f, 0.5f, 0.5f ) );
-        l_pixmap.fillRectangle( m_cellsize, 0, m_cellsize, m_cellsize );
-
+        // the background checkerboard is drawn by tiles of a block of cells, so the tile layer stores one cell for each
+        // block and not for each cell of the world, the block size is even, so all blocks show the same pattern
+        final int l_block = Math.max( 2, Math.min( BACKGROUNDBLOCK, BACKGROUNDTEXTURE / m_cellsize ) & ~1 );
+        final Color l_first = new Color( 0.8f, 0.1f, 0.1f, 0.5f );
+        final Color l_second = new Color( 0.5f, 0.5f, 0.5f, 0.5f );
+
+        // the pixmap rows are drawn top-down and the layer rows bottom-up, so the parity of the pixmap rows is inverted
+        final Pixmap l_pixmap = new Pixmap( l_block * m_cellsize, l_block * m_cellsize, Pixmap.Format.RGBA8888 );
+        for ( int i = 0; i < l_block; i++ )
+            for ( int j = 0; j < l_block; j++ )
+            {
+                l_pixmap.setColor( ( i + j ) % 2 != 0 ? l_first : l_second );
+                l_pixmap.fillRectangle( i * m_cellsize, j * m_cellsize, m_cellsize, m_cellsize );
+            }
         final Texture l_texture = new Texture( l_pixmap );
-        final TiledMapTile l_region1 = new StaticTiledMapTile( new TextureRegion( l_texture, 0, 0, m_cellsize, m_cellsize ) );
-        final TiledMapTile l_region2 = new StaticTiledMapTile( new TextureRegion( l_texture, m_cellsize, 0, m_cellsize, m_cellsize ) );
 
         // create tilemap
+        final int l_columns = ( m_column + l_block - 1 ) / l_block;
+        final int l_rows = ( m_row + l_block - 1 ) / l_block;
         final TiledMap l_map = new TiledMap();
-        final TiledMapTileLayer l_layer = new TiledMapTileLayer( m_column, m_row, m_cellsize, m_cellsize );
+        final TiledMapTileLayer l_layer = new TiledMapTileLayer( l_columns, l_rows, l_block * m_cellsize, l_block * m_cellsize );
         l_map.getLayers().add( l_layer );
 
+        // the tiles of the last block column and row are cut to the world size, a cut tile keeps the
+        // lower rows of the pixmap, so the cells of the tile have got the same parity as a full tile,
+        // the cells are shared, so the map does not create an object for each block
+        final int l_width = m_column - ( l_columns - 1 ) * l_block;
+        final int l_height = m_row - ( l_rows - 1 ) * l_block;
+        final TiledMapTileLayer.Cell[] l_cells = {
+            CEnvironment.backgroundcell( l_texture, l_block, l_block, l_block, m_cellsize ),
+            CEnvironment.backgroundcell( l_texture, l_block, l_width, l_block, m_cellsize ),
+            CEnvironment.backgroundcell( l_texture, l_block, l_block, l_height, m_cellsize ),
+            CEnvironment.backgroundcell( l_texture, l_block, l_width, l_height, m_cellsize )
+        };
+
         IntStream
-            .range( 0, m_column )
+            .range( 0, l_columns )
             .forEach( x ->
             {
                 IntStream
-                    .range( 0, m_row )
-                    .forEach( y ->
-                    {
-                        final TiledMapTileLayer.Cell l_cell = new TiledMapTileLayer.Cell();
-                        l_layer.setCell( x, y, l_cell );
-                        l_cell.setTile(
-                            y % 2 != 0
-                            ? x % 2 != 0 ? l_region1 : l_region2
-                            : x % 2 != 0 ? l_region2 : l_region1
-                        );
-                    } );
+                    .range( 0, l_rows )
+                    .forEach( y -> l_layer.setCell( x, y, l_cells[( x == l_columns - 1 ? 1 : 0 ) + ( y == l_rows - 1 ? 2 : 0 )] ) );
             } );
 
         return l_map;
     }
 
+    /**
+     * creates a cell of the background layer
+     *
+     * @param p_texture background texture
+     * @param p_block number of cells of the texture in each direction
+     * @param p_width number of cells of the tile in column direction
+     * @param p_height number of cells of the tile in row direction
+     * @param p_cellsize cell size
+     * @return layer cell
+     */
+    private static TiledMapTileLayer.Cell backgroundcell( final Texture p_texture, final int p_block, final int p_width, final int p_height, final int p_cellsize )
+    {
+        return new TiledMapTileLayer.Cell().setTile(
+            new StaticTiledMapTile( new TextureRegion( p_texture, 0, ( p_block - p_height ) * p_cellsize, p_width * p_cellsize, p_height * p_cellsize ) )
+        );
+    }
+
 }
@@ -0,0 +1,247 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * packed R-tree of the static obstacles, the rectangles are bulk-loaded by
+ * sort-tile-recursive ordering, each node stores the bounding rectangle of
+ * its children (row-from, column-from, row-to, column-to, all inclusive),
+ * so the memory depends on the number of obstacles and not on their area,
+ * on overlapping obstacles the obstacle which is defined last is used
+ *
+ * @tparam T obstacle type
+ * @see https://en.wikipedia.org/wiki/R-tree
+ */
+final class CObstacleIndex<T>
+{
+    /**
+     * number of children of a node
+     */
+    private static final int FANOUT = 16;
+    /**
+     * obstacles in leaf order
+     */
+    private final List<T> m_elements;
+    /**
+     * definition order of each leaf
+     */
+    private final int[] m_priority;
+    /**
+     * bounding rectangles of each tree level, the first level are the leafs
+     */
+    private final List<int[]> m_levels = new ArrayList<>();
+
+
+    /**
+     * ctor
+     *
+     * @param p_obstacles obstacles
+     * @param p_bounds function which returns the cell rectangle of an obstacle (row-from, column-from, row-to, column-to, all inclusive)
+     */
+    CObstacleIndex( final List<? extends T> p_obstacles, final Function<? super T, int[]> p_bounds )
+    {
+        final int[] l_bounds = p_obstacles.stream().flatMapToInt( i -> IntStream.of( p_bounds.apply( i ) ) ).toArray();
+
+        // sort-tile-recursive order, the rectangles are sorted by the row center into slabs and each slab is sorted by the column center
+        final int l_slab = Math.max( 1, FANOUT * (int) Math.ceil( Math.sqrt( Math.ceil( (double) p_obstacles.size() / FANOUT ) ) ) );
+        final List<Integer> l_rows = IntStream.range( 0, p_obstacles.size() )
+                                              .boxed()
+                                              .sorted( Comparator.comparingInt( i -> l_bounds[4 * i] + l_bounds[4 * i + 2] ) )
+                                              .collect( Collectors.toList() );
+        m_priority = IntStream.range( 0, ( l_rows.size() + l_slab - 1 ) / l_slab )
+                              .flatMap( i -> l_rows.subList( i * l_slab, Math.min( l_rows.size(), ( i + 1 ) * l_slab ) )
+                                                   .stream()
+                                                   .sorted( Comparator.comparingInt( j -> l_bounds[4 * j + 1] + l_bounds[4 * j + 3] ) )
+                                                   .mapToInt( Integer::intValue ) )
+                              .toArray();
+        m_elements = IntStream.of( m_priority ).mapToObj( p_obstacles::get ).collect( Collectors.toList() );
+        m_levels.add( IntStream.of( m_priority ).flatMap( i -> IntStream.range( 4 * i, 4 * i + 4 ).map( j -> l_bounds[j] ) ).toArray() );
+
+        // each level contains the bounding rectangles of the consecutive nodes of the level below
+        while ( this.size( m_levels.size() - 1 ) > 1 )
+            m_levels.add( this.parents( m_levels.get( m_levels.size() - 1 ) ) );
+    }
+
+    /**
+     * returns the obstacle of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return obstacle or null
+     */
+    final T get( final int p_row, final int p_column )
+    {
+        final int l_top = m_levels.size() - 1;
+        int l_leaf = -1;
+        for ( int i = 0; i < this.size( l_top ); i++ )
+            l_leaf = this.priority( l_leaf, this.get( l_top, i, p_row, p_column ) );
+
+        return l_leaf < 0 ? null : m_elements.get( l_leaf );
+    }
+
+    /**
+     * returns the cells of the obstacles within a rectangle
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @param p_columns number of columns of the grid
+     * @return stream of packed cell indices (row * columns + column)
+     */
+    final IntStream cells( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto, final int p_columns )
+    {
+        final int[] l_leafs = m_levels.get( 0 );
+        final int l_top = m_levels.size() - 1;
+
+        return IntStream.range( 0, this.size( l_top ) )
+                        .flatMap( i -> this.intersect( l_top, i, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) )
+                        .flatMap( i -> IntStream.rangeClosed( Math.max( p_rowfrom, l_leafs[4 * i] ), Math.min( p_rowto, l_leafs[4 * i + 2] ) )
+                                                .flatMap( j -> IntStream.rangeClosed(
+                                                    Math.max( p_columnfrom, l_leafs[4 * i + 1] ),
+                                                    Math.min( p_columnto, l_leafs[4 * i + 3] )
+                                                ).map( k -> j * p_columns + k ) ) )
+                        .distinct();
+    }
+
+    /**
+     * returns the leaf with the highest priority of a subtree which contains a cell
+     *
+     * @param p_level level of the node
+     * @param p_node node
+     * @param p_row row
+     * @param p_column column
+     * @return leaf or -1
+     */
+    private int get( final int p_level, final int p_node, final int p_row, final int p_column )
+    {
+        if ( !CObstacleIndex.intersects( m_levels.get( p_level ), p_node, p_row, p_column, p_row, p_column ) )
+            return -1;
+        if ( p_level == 0 )
+            return p_node;
+
+        int l_leaf = -1;
+        for ( int i = p_node * FANOUT; i < Math.min( this.size( p_level - 1 ), ( p_node + 1 ) * FANOUT ); i++ )
+            l_leaf = this.priority( l_leaf, this.get( p_level - 1, i, p_row, p_column ) );
+        return l_leaf;
+    }
+
+    /**
+     * returns the leafs of a subtree which intersect a rectangle
+     *
+     * @param p_level level of the node
+     * @param p_node node
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return stream of leafs
+     */
+    private IntStream intersect( final int p_level, final int p_node, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        if ( !CObstacleIndex.intersects( m_levels.get( p_level ), p_node, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) )
+            return IntStream.empty();
+
+        return p_level == 0
+               ? IntStream.of( p_node )
+               : IntStream.range( p_node * FANOUT, Math.min( this.size( p_level - 1 ), ( p_node + 1 ) * FANOUT ) )
+                          .flatMap( i -> this.intersect( p_level - 1, i, p_rowfrom, p_columnfrom, p_rowto, p_columnto ) );
+    }
+
+    /**
+     * returns the leaf which is defined later
+     *
+     * @param p_first first leaf or -1
+     * @param p_second second leaf or -1
+     * @return leaf or -1
+     */
+    private int priority( final int p_first, final int p_second )
+    {
+        if ( ( p_first < 0 ) || ( p_second < 0 ) )
+            return Math.max( p_first, p_second );
+
+        return m_priority[p_first] >= m_priority[p_second] ? p_first : p_second;
+    }
+
+    /**
+     * returns the number of nodes of a level
+     *
+     * @param p_level level
+     * @return number of nodes
+     */
+    private int size( final int p_level )
+    {
+        return m_levels.get( p_level ).length / 4;
+    }
+
+    /**
+     * creates the parent level of a level
+     *
+     * @param p_children bounding rectangles of the level
+     * @return bounding rectangles of the parent level
+     */
+    private int[] parents( final int[] p_children )
+    {
+        final int l_size = p_children.length / 4;
+        final int[] l_parents = new int[4 * ( ( l_size + FANOUT - 1 ) / FANOUT )];
+        for ( int i = 0; i < l_size; i++ )
+        {
+            final int l_parent = 4 * ( i / FANOUT );
+            final boolean l_first = i % FANOUT == 0;
+            l_parents[l_parent] = l_first ? p_children[4 * i] : Math.min( l_parents[l_parent], p_children[4 * i] );
+            l_parents[l_parent + 1] = l_first ? p_children[4 * i + 1] : Math.min( l_parents[l_parent + 1], p_children[4 * i + 1] );
+            l_parents[l_parent + 2] = l_first ? p_children[4 * i + 2] : Math.max( l_parents[l_parent + 2], p_children[4 * i + 2] );
+            l_parents[l_parent + 3] = l_first ? p_children[4 * i + 3] : Math.max( l_parents[l_parent + 3], p_children[4 * i + 3] );
+        }
+        return l_parents;
+    }
+
+    /**
+     * checks if the bounding rectangle of a node intersects a rectangle
+     *
+     * @param p_bounds bounding rectangles of the level
+     * @param p_node node
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return intersection flag
+     */
+    private static boolean intersects( final int[] p_bounds, final int p_node, final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        return ( p_bounds[4 * p_node] <= p_rowto )
+               && ( p_bounds[4 * p_node + 1] <= p_columnto )
+               && ( p_bounds[4 * p_node + 2] >= p_rowfrom )
+               && ( p_bounds[4 * p_node + 3] >= p_columnfrom );
+    }
+
+}
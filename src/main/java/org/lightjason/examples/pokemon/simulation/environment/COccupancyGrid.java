@@ -0,0 +1,190 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import cern.colt.matrix.ObjectMatrix2D;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * dense occupancy grid, the cells store element ids in a primitive array
+ * (row * columns + column), so a cell access is a single array read instead
+ * of a hash lookup, cells are claimed and released by compare-and-set, so
+ * reads are lock-free, for a two-phase execution the cells can be copied
+ * into a double-buffered immutable snapshot, the occupied cells are indexed
+ * by coarse buckets, so range queries read the occupied cells only
+ */
+final class COccupancyGrid extends IBaseOccupancyGrid
+{
+    /**
+     * number of cells of a bucket in each dimension
+     */
+    private static final int BUCKETSIZE = 16;
+    /**
+     * element id of each cell
+     */
+    private final AtomicIntegerArray m_cells;
+    /**
+     * number of bucket columns
+     */
+    private final int m_bucketcolumns;
+    /**
+     * occupied cells of each bucket
+     */
+    private final List<Set<Integer>> m_buckets;
+    /**
+     * snapshot buffer which is read
+     */
+    private volatile int[] m_front;
+    /**
+     * snapshot buffer which is written on the next swap
+     */
+    private int[] m_back;
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     */
+    COccupancyGrid( final int p_rows, final int p_columns )
+    {
+        super( p_rows, p_columns );
+        m_cells = new AtomicIntegerArray( p_rows * p_columns );
+        m_bucketcolumns = ( p_columns + BUCKETSIZE - 1 ) / BUCKETSIZE;
+        m_buckets = IntStream.range( 0, ( p_rows + BUCKETSIZE - 1 ) / BUCKETSIZE * m_bucketcolumns )
+                             .mapToObj( i -> ConcurrentHashMap.<Integer>newKeySet() )
+                             .collect( Collectors.toList() );
+    }
+
+    @Override
+    public final void setQuick( final int p_row, final int p_column, final Object p_value )
+    {
+        final int l_cell = p_row * m_columns + p_column;
+        final int l_id = p_value == null ? 0 : this.id( p_value );
+        final int l_previous = m_cells.getAndSet( l_cell, l_id );
+        this.count( l_cell, l_previous, l_id );
+
+        if ( ( l_previous == 0 ) && ( l_id != 0 ) )
+            this.bucket( l_cell ).add( l_cell );
+        if ( ( l_previous != 0 ) && ( l_id == 0 ) )
+            this.bucket( l_cell ).remove( l_cell );
+    }
+
+    @Override
+    public final ObjectMatrix2D like( final int p_rows, final int p_columns )
+    {
+        return new COccupancyGrid( p_rows, p_columns );
+    }
+
+    @Override
+    final boolean claim( final int p_cell, final Object p_element )
+    {
+        final int l_id = this.id( p_element );
+        if ( !m_cells.compareAndSet( p_cell, 0, l_id ) )
+            return false;
+
+        this.count( p_cell, 0, l_id );
+        this.bucket( p_cell ).add( p_cell );
+        return true;
+    }
+
+    @Override
+    final boolean release( final int p_cell, final Object p_element )
+    {
+        // an element without id does not own any cell
+        final int l_id = this.registered( p_element );
+        if ( ( l_id == 0 ) || ( !m_cells.compareAndSet( p_cell, l_id, 0 ) ) )
+            return false;
+
+        this.count( p_cell, l_id, 0 );
+        this.bucket( p_cell ).remove( p_cell );
+        return true;
+    }
+
+    @Override
+    protected final IntStream occupied( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        // only the buckets which overlap the rectangle are read, the bucket index is updated after the cells
+        return IntStream.rangeClosed( p_rowfrom / BUCKETSIZE, p_rowto / BUCKETSIZE )
+                        .flatMap( i -> IntStream.rangeClosed( p_columnfrom / BUCKETSIZE, p_columnto / BUCKETSIZE )
+                                                .flatMap( j -> m_buckets.get( i * m_bucketcolumns + j ).stream().mapToInt( Integer::intValue ) ) )
+                        .filter( i -> ( i / m_columns >= p_rowfrom ) && ( i / m_columns <= p_rowto ) )
+                        .filter( i -> ( i % m_columns >= p_columnfrom ) && ( i % m_columns <= p_columnto ) );
+    }
+
+    @Override
+    protected final void fill( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        // the obstacles are not stored in the buckets, because they are read from the obstacle index
+        for ( int i = p_rowfrom; i <= p_rowto; i++ )
+            for ( int j = p_columnfrom; j <= p_columnto; j++ )
+                m_cells.set( i * m_columns + j, OBSTACLE );
+    }
+
+    @Override
+    final Object snapshot( final int p_row, final int p_column )
+    {
+        final int[] l_front = m_front;
+        return l_front == null ? this.getQuick( p_row, p_column ) : this.element( l_front[p_row * m_columns + p_column], p_row, p_column );
+    }
+
+    @Override
+    final synchronized COccupancyGrid swap()
+    {
+        // the buffer of the previous snapshot is reused on the next swap
+        final int[] l_buffer = m_back == null ? new int[m_cells.length()] : m_back;
+        for ( int i = 0; i < l_buffer.length; i++ )
+            l_buffer[i] = m_cells.get( i );
+
+        m_back = m_front;
+        m_front = l_buffer;
+        return this;
+    }
+
+    @Override
+    protected final int cell( final int p_cell )
+    {
+        return m_cells.get( p_cell );
+    }
+
+    /**
+     * returns the bucket of a cell
+     *
+     * @param p_cell packed cell index
+     * @return set of the occupied cells of the bucket
+     */
+    private Set<Integer> bucket( final int p_cell )
+    {
+        return m_buckets.get( p_cell / m_columns / BUCKETSIZE * m_bucketcolumns + p_cell % m_columns / BUCKETSIZE );
+    }
+
+}
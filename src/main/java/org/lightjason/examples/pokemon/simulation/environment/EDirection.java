@@ -86,6 +86,32 @@ public enum EDirection
                               .assign( Math::round );
     }
 
+    /**
+     * calculates the new cell without creating any vector, it
+     * matches the position calculation, but the cell is clipped
+     * to the grid
+     *
+     * @param p_row current row
+     * @param p_column current column
+     * @param p_goalrow goal row
+     * @param p_goalcolumn goal column
+     * @param p_speed number of cells / step size
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     * @return packed cell index (row * columns + column)
+     */
+    public int position( final double p_row, final double p_column, final double p_goalrow, final double p_goalcolumn, final int p_speed,
+                         final int p_rows, final int p_columns )
+    {
+        final double l_length = Math.sqrt( ( p_goalrow - p_row ) * ( p_goalrow - p_row ) + ( p_goalcolumn - p_column ) * ( p_goalcolumn - p_column ) );
+        final double l_row = ( p_goalrow - p_row ) / l_length;
+        final double l_column = ( p_goalcolumn - p_column ) / l_length;
+
+        final int l_newrow = (int) Math.round( ( m_rotation.getQuick( 0, 0 ) * l_row + m_rotation.getQuick( 0, 1 ) * l_column ) * p_speed + p_row );
+        final int l_newcolumn = (int) Math.round( ( m_rotation.getQuick( 1, 0 ) * l_row + m_rotation.getQuick( 1, 1 ) * l_column ) * p_speed + p_column );
+        return Math.max( 0, Math.min( p_rows - 1, l_newrow ) ) * p_columns + Math.max( 0, Math.min( p_columns - 1, l_newcolumn ) );
+    }
+
 
     /**
      * returns the direction by an angle (in degree)
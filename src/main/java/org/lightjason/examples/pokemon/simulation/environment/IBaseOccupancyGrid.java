@@ -0,0 +1,536 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import cern.colt.list.IntArrayList;
+import cern.colt.matrix.ObjectMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseObjectMatrix1D;
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.IOccupancyMatrix;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+
+/**
+ * occupancy grid, the cells store element ids which are packed
+ * as (row * columns + column) and the elements are stored in an id
+ * registry, the id zero is an empty cell, views on the cells are
+ * not supported, cells are claimed and released atomically, so the
+ * lock stripes are only needed to move an element consistently, static
+ * obstacles are filled as a primitive marker into the cells and the
+ * obstacle of a marked cell is resolved by the obstacle index, the
+ * number of elements is counted within a density pyramid, the ids of
+ * removed elements are reused after two recycling calls, so lock-free
+ * readers of the previous step and the snapshot do not find another
+ * element with the same id
+ */
+abstract class IBaseOccupancyGrid extends ObjectMatrix2D
+{
+    /**
+     * id of a cell with a static obstacle
+     */
+    protected static final int OBSTACLE = -1;
+    /**
+     * initial size of the registry
+     */
+    private static final int INITIALSIZE = 64;
+    /**
+     * number of lock stripes
+     */
+    private static final int STRIPES = 1024;
+    /**
+     * number of columns
+     */
+    protected final int m_columns;
+    /**
+     * id of each registered element
+     */
+    private final Map<Object, Integer> m_ids = new ConcurrentHashMap<>();
+    /**
+     * lock stripes of the cells
+     */
+    private final Object[] m_locks = IntStream.range( 0, STRIPES ).mapToObj( i -> new Object() ).toArray();
+    /**
+     * read-only view
+     */
+    private final ObjectMatrix2D m_view;
+    /**
+     * density pyramid of the elements
+     */
+    private final CDensityPyramid m_density;
+    /**
+     * registry with the element of each id
+     */
+    private volatile Object[] m_elements = new Object[INITIALSIZE];
+    /**
+     * number of ids, which are used within the registry
+     */
+    private int m_size;
+    /**
+     * ids of the removed elements since the last recycling
+     */
+    private final IntArrayList m_released = new IntArrayList();
+    /**
+     * ids of the removed elements before the last recycling
+     */
+    private final IntArrayList m_pending = new IntArrayList();
+    /**
+     * ids which can be reused
+     */
+    private final IntArrayList m_free = new IntArrayList();
+    /**
+     * index of the static obstacles
+     */
+    private volatile CObstacleIndex<IElement> m_obstacles = new CObstacleIndex<>( Collections.emptyList(), IBaseOccupancyGrid::bounds );
+
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows
+     * @param p_columns number of columns
+     */
+    protected IBaseOccupancyGrid( final int p_rows, final int p_columns )
+    {
+        if ( (long) p_rows * p_columns > Integer.MAX_VALUE )
+            throw new IllegalArgumentException( "number of cells exceeds the packed cell index" );
+
+        this.setUp( p_rows, p_columns );
+        m_columns = p_columns;
+        m_view = new CView( this );
+        m_density = new CDensityPyramid( p_rows, p_columns );
+    }
+
+    @Override
+    public final Object getQuick( final int p_row, final int p_column )
+    {
+        return this.element( this.cell( p_row * m_columns + p_column ), p_row, p_column );
+    }
+
+    @Override
+    public final ObjectMatrix1D like1D( final int p_size )
+    {
+        return new DenseObjectMatrix1D( p_size );
+    }
+
+    @Override
+    protected final ObjectMatrix1D like1D( final int p_size, final int p_zero, final int p_stride )
+    {
+        throw new UnsupportedOperationException( "views of the occupancy grid are not supported" );
+    }
+
+    @Override
+    protected final ObjectMatrix2D viewSelectionLike( final int[] p_rows, final int[] p_columns )
+    {
+        throw new UnsupportedOperationException( "views of the occupancy grid are not supported" );
+    }
+
+    /**
+     * checks if a cell is empty
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return empty flag
+     */
+    final boolean empty( final int p_row, final int p_column )
+    {
+        return this.cell( p_row * m_columns + p_column ) == 0;
+    }
+
+    /**
+     * returns the packed index of a cell
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return index
+     */
+    final int index( final int p_row, final int p_column )
+    {
+        return p_row * m_columns + p_column;
+    }
+
+    /**
+     * returns the lock stripe of a cell, if two cells
+     * are locked, they must be locked in index order
+     *
+     * @param p_cell packed cell index
+     * @return lock object
+     */
+    final Object lock( final int p_cell )
+    {
+        return m_locks[p_cell % STRIPES];
+    }
+
+    /**
+     * returns a read-only view of the grid
+     *
+     * @return view
+     */
+    final ObjectMatrix2D view()
+    {
+        return m_view;
+    }
+
+    /**
+     * sets the static obstacles, the cells of the obstacles are filled
+     * with the obstacle marker, it must not run concurrently
+     *
+     * @param p_obstacles obstacles, the position must be a vector with 4 elements (row, column, height, width)
+     * @return self reference
+     */
+    final IBaseOccupancyGrid obstacles( final List<? extends IElement> p_obstacles )
+    {
+        m_obstacles = new CObstacleIndex<>( p_obstacles, IBaseOccupancyGrid::bounds );
+        p_obstacles.stream()
+                   .map( IBaseOccupancyGrid::bounds )
+                   .forEach( i -> this.fill(
+                       Math.max( 0, i[0] ), Math.max( 0, i[1] ),
+                       Math.min( this.rows() - 1, i[2] ), Math.min( m_columns - 1, i[3] )
+                   ) );
+        return this;
+    }
+
+    /**
+     * returns the occupied cells within a square, the cells of the
+     * obstacles are read from the obstacle index, concurrent changes
+     * can be missed
+     *
+     * @param p_row row of the center
+     * @param p_column column of the center
+     * @param p_radius radius of the square
+     * @return stream of packed cell indices
+     */
+    final IntStream within( final int p_row, final int p_column, final int p_radius )
+    {
+        final int l_rowfrom = Math.max( 0, p_row - p_radius );
+        final int l_rowto = Math.min( this.rows() - 1, p_row + p_radius );
+        final int l_columnfrom = Math.max( 0, p_column - p_radius );
+        final int l_columnto = Math.min( m_columns - 1, p_column + p_radius );
+        if ( ( l_rowfrom > l_rowto ) || ( l_columnfrom > l_columnto ) )
+            return IntStream.empty();
+
+        return IntStream.concat(
+            this.occupied( l_rowfrom, l_columnfrom, l_rowto, l_columnto ),
+            m_obstacles.cells( l_rowfrom, l_columnfrom, l_rowto, l_columnto, m_columns )
+        );
+    }
+
+    /**
+     * returns the number of elements within a rectangle, the rectangle
+     * is clipped to the grid, the obstacles are not counted and
+     * concurrent changes can be missed
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return number of elements
+     */
+    final int density( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto )
+    {
+        final int l_rowfrom = Math.max( 0, p_rowfrom );
+        final int l_rowto = Math.min( this.rows() - 1, p_rowto );
+        final int l_columnfrom = Math.max( 0, p_columnfrom );
+        final int l_columnto = Math.min( m_columns - 1, p_columnto );
+        return ( l_rowfrom > l_rowto ) || ( l_columnfrom > l_columnto ) ? 0 : m_density.count( l_rowfrom, l_columnfrom, l_rowto, l_columnto );
+    }
+
+    /**
+     * claims an empty cell for an element
+     *
+     * @param p_cell packed cell index
+     * @param p_element element
+     * @return flag that the cell is claimed
+     */
+    abstract boolean claim( final int p_cell, final Object p_element );
+
+    /**
+     * releases a cell of an element
+     *
+     * @param p_cell packed cell index
+     * @param p_element element
+     * @return flag that the cell is released, false if the cell is not owned by the element
+     */
+    abstract boolean release( final int p_cell, final Object p_element );
+
+    /**
+     * returns the cells within a rectangle which are occupied by elements,
+     * the rectangle is inside the grid and the obstacles are not returned
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return stream of packed cell indices
+     */
+    protected abstract IntStream occupied( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto );
+
+    /**
+     * fills the cells of a rectangle with the obstacle marker,
+     * the rectangle is inside the grid
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     */
+    protected abstract void fill( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto );
+
+    /**
+     * returns an element of the snapshot, if there
+     * is no snapshot the current cells are read
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return element or null
+     */
+    abstract Object snapshot( final int p_row, final int p_column );
+
+    /**
+     * copies the current cells into the snapshot, the
+     * swap must not run concurrently to snapshot reads
+     *
+     * @return self reference
+     */
+    abstract IBaseOccupancyGrid swap();
+
+    /**
+     * returns the element id of a cell
+     *
+     * @param p_cell packed cell index
+     * @return id
+     */
+    protected abstract int cell( final int p_cell );
+
+    /**
+     * counts a changed cell within the density pyramid,
+     * it must be called after each successful write of a cell
+     *
+     * @param p_cell packed cell index
+     * @param p_previous previous id of the cell
+     * @param p_update new id of the cell
+     */
+    protected final void count( final int p_cell, final int p_previous, final int p_update )
+    {
+        final int l_delta = ( p_update > 0 ? 1 : 0 ) - ( p_previous > 0 ? 1 : 0 );
+        if ( l_delta != 0 )
+            m_density.add( p_cell / m_columns, p_cell % m_columns, l_delta );
+    }
+
+    /**
+     * returns the element of an id
+     *
+     * @param p_id id
+     * @param p_row row of the cell
+     * @param p_column column of the cell
+     * @return element or null
+     */
+    protected final Object element( final int p_id, final int p_row, final int p_column )
+    {
+        return p_id == OBSTACLE ? m_obstacles.get( p_row, p_column ) : m_elements[p_id];
+    }
+
+    /**
+     * returns the cell rectangle of an obstacle
+     *
+     * @param p_obstacle obstacle, the position must be a vector with 4 elements (row, column, height, width)
+     * @return row-from, column-from, row-to and column-to (all inclusive)
+     */
+    private static int[] bounds( final IElement p_obstacle )
+    {
+        return new int[]{
+            (int) p_obstacle.position().get( 0 ),
+            (int) p_obstacle.position().get( 1 ),
+            (int) ( p_obstacle.position().get( 0 ) + p_obstacle.position().get( 2 ) ),
+            (int) ( p_obstacle.position().get( 1 ) + p_obstacle.position().get( 3 ) )
+        };
+    }
+
+    /**
+     * returns the id of an element, the lookup is lock-free
+     *
+     * @param p_element element
+     * @return id
+     */
+    protected final int id( final Object p_element )
+    {
+        final Integer l_id = m_ids.get( p_element );
+        return l_id == null ? this.register( p_element ) : l_id;
+    }
+
+    /**
+     * returns the id of a registered element without registering it, the lookup is lock-free
+     *
+     * @param p_element element
+     * @return id or zero if the element is not registered
+     */
+    protected final int registered( final Object p_element )
+    {
+        final Integer l_id = m_ids.get( p_element );
+        return l_id == null ? 0 : l_id;
+    }
+
+    /**
+     * removes an element from the registry, the element must not be
+     * stored within any cell, its id is reused after two recycling calls
+     *
+     * @param p_element element
+     */
+    final synchronized void unregister( final Object p_element )
+    {
+        final Integer l_id = m_ids.remove( p_element );
+        if ( l_id != null )
+            m_released.add( l_id );
+    }
+
+    /**
+     * frees the ids which are removed before the previous call and
+     * defers the ids which are removed since the previous call, it
+     * must be called once per step, when no cell is read with the
+     * ids of the step before the previous step
+     */
+    final synchronized void recycle()
+    {
+        for ( int i = 0; i < m_pending.size(); i++ )
+        {
+            m_elements[m_pending.getQuick( i )] = null;
+            m_free.add( m_pending.getQuick( i ) );
+        }
+
+        m_pending.clear();
+        m_pending.addAllOf( m_released );
+        m_released.clear();
+    }
+
+    /**
+     * returns the number of ids which are used within the registry
+     *
+     * @return number of ids
+     */
+    final synchronized int registry()
+    {
+        return m_size;
+    }
+
+    /**
+     * registers an element, the registry is published
+     * before the id is returned, so lock-free readers
+     * of a cell with the id find the element
+     *
+     * @param p_element element
+     * @return id
+     */
+    private synchronized int register( final Object p_element )
+    {
+        final Integer l_id = m_ids.get( p_element );
+        if ( l_id != null )
+            return l_id;
+
+        // a free id of a removed element is reused before the registry is grown
+        final int l_next = m_free.isEmpty() ? m_size + 1 : m_free.getQuick( m_free.size() - 1 );
+        if ( m_free.isEmpty() )
+            m_size = l_next;
+        else
+            m_free.remove( m_free.size() - 1 );
+
+        final Object[] l_elements = l_next < m_elements.length ? m_elements : Arrays.copyOf( m_elements, 2 * m_elements.length );
+        l_elements[l_next] = p_element;
+        m_elements = l_elements;
+        m_ids.put( p_element, l_next );
+        return l_next;
+    }
+
+
+    /**
+     * read-only view of the occupancy grid, the occupancy
+     * of a cell is read from the ids without the registry
+     */
+    private static final class CView extends ObjectMatrix2D implements IOccupancyMatrix
+    {
+        /**
+         * occupancy grid
+         */
+        private final IBaseOccupancyGrid m_grid;
+
+        /**
+         * ctor
+         *
+         * @param p_grid occupancy grid
+         */
+        CView( final IBaseOccupancyGrid p_grid )
+        {
+            this.setUp( p_grid.rows(), p_grid.columns() );
+            m_grid = p_grid;
+        }
+
+        @Override
+        public final Object getQuick( final int p_row, final int p_column )
+        {
+            return m_grid.getQuick( p_row, p_column );
+        }
+
+        @Override
+        public final boolean occupied( final int p_row, final int p_column )
+        {
+            return m_grid.cell( m_grid.index( p_row, p_column ) ) != 0;
+        }
+
+        @Override
+        public final void setQuick( final int p_row, final int p_column, final Object p_value )
+        {
+            throw new UnsupportedOperationException( "occupancy grid view is read-only" );
+        }
+
+        @Override
+        public final ObjectMatrix2D like( final int p_rows, final int p_columns )
+        {
+            return m_grid.like( p_rows, p_columns );
+        }
+
+        @Override
+        public final ObjectMatrix1D like1D( final int p_size )
+        {
+            return m_grid.like1D( p_size );
+        }
+
+        @Override
+        protected final ObjectMatrix1D like1D( final int p_size, final int p_zero, final int p_stride )
+        {
+            throw new UnsupportedOperationException( "views of the occupancy grid are not supported" );
+        }
+
+        @Override
+        protected final ObjectMatrix2D viewSelectionLike( final int[] p_rows, final int[] p_columns )
+        {
+            throw new UnsupportedOperationException( "views of the occupancy grid are not supported" );
+        }
+    }
+
+}
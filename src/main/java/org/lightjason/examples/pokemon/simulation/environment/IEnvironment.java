@@ -27,16 +27,19 @@ package org.lightjason.examples.pokemon.simulation.environment;
 import org.lightjason.examples.pokemon.simulation.IElement;
 import org.lightjason.examples.pokemon.ui.ITileMap;
 import cern.colt.matrix.DoubleMatrix1D;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 
 /**
  * environment interface
  */
-public interface IEnvironment extends Callable<IEnvironment>, ITileMap
+public interface IEnvironment extends Callable<IEnvironment>, ITileMap, AutoCloseable
 {
 
     // --- main elements ---------------------------------------------------------------------------------------------------------------------------------------
@@ -77,6 +80,22 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     IEnvironment initialize();
 
+    /**
+     * applies the move intents of the step on the two-phase execution, so the
+     * moves can be resolved before the environment is executed, the execution
+     * applies the intents only if they are not committed within the step
+     *
+     * @return self reference
+     */
+    IEnvironment commit();
+
+    /**
+     * shuts down the route calculation, requested routes
+     * which are not calculated are not completed
+     */
+    @Override
+    void close();
+
 
     // --- dynamic object access -------------------------------------------------------------------------------------------------------------------------------
 
@@ -89,6 +108,36 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     List<DoubleMatrix1D> route( final DoubleMatrix1D p_start, final DoubleMatrix1D p_end );
 
+    /**
+     * returns if the routing is cooperative, a cooperative route reserves
+     * one cell per tick, so the element must move one cell per step
+     *
+     * @return cooperative flag
+     */
+    boolean cooperative();
+
+    /**
+     * requests a route, requests are collected and calculated
+     * as a batch on the next execution of the environment, cooperative
+     * routings reserve the route for the requesting element, so these
+     * routes are delivered before the next step
+     *
+     * @param p_element requesting element
+     * @param p_start start position
+     * @param p_end target position
+     * @return future of the list of tuples of the cellindex
+     */
+    CompletableFuture<List<DoubleMatrix1D>> routerequest( final IElement p_element, final DoubleMatrix1D p_start, final DoubleMatrix1D p_end );
+
+    /**
+     * refines the next landmark of a route
+     *
+     * @param p_position current position
+     * @param p_landmark landmark
+     * @return list of landmarks which replaces the landmark
+     */
+    List<DoubleMatrix1D> refine( final DoubleMatrix1D p_position, final DoubleMatrix1D p_landmark );
+
     /**
      * calculate estimated time of a route
      *
@@ -107,6 +156,17 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     IElement move( final IElement p_object, final DoubleMatrix1D p_position );
 
+    /**
+     * sets an object to the cell and changes the object position,
+     * the cell is clipped to the environment
+     *
+     * @param p_object object, which should be moved (must store the current position)
+     * @param p_row new row
+     * @param p_column new column
+     * @return updated object or object which uses the cell
+     */
+    IElement move( final IElement p_object, final int p_row, final int p_column );
+
     /**
      * returns an object from the given position
      *
@@ -115,6 +175,62 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     IElement get( final DoubleMatrix1D p_position );
 
+    /**
+     * returns an object from the given cell,
+     * the cell is clipped to the environment
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return object or null
+     */
+    IElement get( final int p_row, final int p_column );
+
+    /**
+     * returns the elements within a square around a position,
+     * the costs depend on the number of elements nearby only
+     *
+     * @param p_row row of the center
+     * @param p_column column of the center
+     * @param p_radius radius of the square (in cells)
+     * @return stream with pair of element and cell position
+     */
+    Stream<Pair<IElement, DoubleMatrix1D>> within( final int p_row, final int p_column, final int p_radius );
+
+    /**
+     * returns the elements within a view-cone around a position, the cone
+     * is the part of the square, which angle to the column axis is not
+     * greater than the half view angle, the center is not part of the cone
+     *
+     * @param p_row row of the center
+     * @param p_column column of the center
+     * @param p_radius radius of the square (in cells)
+     * @param p_angle view angle in degree
+     * @return stream with pair of element and cell position
+     */
+    Stream<Pair<IElement, DoubleMatrix1D>> within( final int p_row, final int p_column, final int p_radius, final double p_angle );
+
+    /**
+     * returns the number of elements within a rectangle, the rectangle
+     * is clipped to the environment, obstacles are not counted and the
+     * cells are not scanned, so the costs do not grow with the area
+     *
+     * @param p_rowfrom first row (inclusive)
+     * @param p_columnfrom first column (inclusive)
+     * @param p_rowto last row (inclusive)
+     * @param p_columnto last column (inclusive)
+     * @return number of elements
+     */
+    int density( final int p_rowfrom, final int p_columnfrom, final int p_rowto, final int p_columnto );
+
+    /**
+     * returns and clears the cells which are released or occupied
+     * since the last call, cells are recorded after the first
+     * call only, so an unused environment does not store them
+     *
+     * @return stream of packed indices of the changed cells (row * columns + column)
+     */
+    IntStream changes();
+
     /**
      * removes an element from a position
      *
@@ -123,6 +239,17 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     IElement remove( final IElement p_object );
 
+    /**
+     * removes an element from a cell, the element is
+     * only removed if it is stored on the cell
+     *
+     * @param p_object element
+     * @param p_row row
+     * @param p_column column
+     * @return element or null if the element is not stored on the cell
+     */
+    IElement remove( final IElement p_object, final int p_row, final int p_column );
+
     /**
      * checks if a position is empty
      *
@@ -131,6 +258,16 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     boolean empty( final DoubleMatrix1D p_position );
 
+    /**
+     * checks if a cell is empty,
+     * the cell is clipped to the environment
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return boolean result
+     */
+    boolean empty( final int p_row, final int p_column );
+
     /**
      * checks if a position is inside the environment
      *
@@ -139,4 +276,13 @@ public interface IEnvironment extends Callable<IEnvironment>, ITileMap
      */
     boolean isinside( final DoubleMatrix1D p_position );
 
+    /**
+     * checks if a cell is inside the environment
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return boolean result
+     */
+    boolean isinside( final int p_row, final int p_column );
+
 }
@@ -0,0 +1,123 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import org.lightjason.agentspeak.language.ITerm;
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.algorithm.force.collectors.CSum;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+
+/**
+ * ghost of an element of a neighbour shard, it occupies the cell
+ * within the ghost rows, so perception and routing see the elements
+ * across the border, the ghost is neutral within the force model
+ */
+final class CGhost implements IElement
+{
+    /**
+     * position
+     */
+    private final DoubleMatrix1D m_position;
+
+    /**
+     * ctor
+     *
+     * @param p_row row
+     * @param p_column column
+     */
+    CGhost( final int p_row, final int p_column )
+    {
+        m_position = new DenseDoubleMatrix1D( new double[]{p_row, p_column} );
+    }
+
+    @Override
+    public final Stream<ITerm> attribute()
+    {
+        return Stream.empty();
+    }
+
+    @Override
+    public final DoubleMatrix1D position()
+    {
+        return m_position;
+    }
+
+    @Override
+    public final Sprite sprite()
+    {
+        return null;
+    }
+
+    @Override
+    public final void spriteinitialize( final int p_rows, final int p_columns, final int p_cellsize, final float p_unit )
+    {
+    }
+
+    // --- force model structure -------------------------------------------------------------------------------------------------------------------------------
+
+    @Override
+    public final Function<IElement, Double> metric()
+    {
+        return ( i ) -> 0.0;
+    }
+
+    @Override
+    public final UnaryOperator<Double> potential()
+    {
+        return ( i ) -> 0.0;
+    }
+
+    @Override
+    public final BiFunction<Double, Double, Double> potentialrating()
+    {
+        return ( i, j ) -> 0.0;
+    }
+
+    @Override
+    public final Collector<Double, ?, Double> potentialreduce()
+    {
+        return CSum.factory();
+    }
+
+    @Override
+    public final BiFunction<IElement, IElement, Double> distancescale()
+    {
+        return ( i, j ) -> 0.0;
+    }
+
+    @Override
+    public final Collector<Double, ?, Double> forceresult()
+    {
+        return CSum.factory();
+    }
+
+}
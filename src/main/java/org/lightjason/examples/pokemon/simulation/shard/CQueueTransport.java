@@ -0,0 +1,135 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * in-process transport, each pair of shards
+ * is connected by an unbounded queue
+ */
+public final class CQueueTransport implements ITransport
+{
+    /**
+     * own shard index
+     */
+    private final int m_shard;
+    /**
+     * queues of all shard pairs, indexed by source * shards + target
+     */
+    private final List<BlockingQueue<byte[]>> m_queues;
+    /**
+     * number of shards
+     */
+    private final int m_shards;
+
+    /**
+     * ctor
+     *
+     * @param p_shard own shard index
+     * @param p_shards number of shards
+     * @param p_queues queues of all shard pairs
+     */
+    private CQueueTransport( final int p_shard, final int p_shards, final List<BlockingQueue<byte[]>> p_queues )
+    {
+        m_shard = p_shard;
+        m_shards = p_shards;
+        m_queues = p_queues;
+    }
+
+    /**
+     * creates the connected transports of all shards
+     *
+     * @param p_shards number of shards
+     * @return list of transports in shard order
+     */
+    public static List<ITransport> from( final int p_shards )
+    {
+        if ( p_shards < 1 )
+            throw new IllegalArgumentException( "number of shards must be greater or equal than one" );
+
+        final List<BlockingQueue<byte[]>> l_queues = Collections.unmodifiableList(
+            IntStream.range( 0, p_shards * p_shards ).mapToObj( i -> new LinkedBlockingQueue<byte[]>() ).collect( Collectors.toList() )
+        );
+
+        return Collections.unmodifiableList(
+            IntStream.range( 0, p_shards ).mapToObj( i -> new CQueueTransport( i, p_shards, l_queues ) ).collect( Collectors.toList() )
+        );
+    }
+
+    @Override
+    public final int shard()
+    {
+        return m_shard;
+    }
+
+    @Override
+    public final ITransport send( final int p_shard, final byte[] p_message ) throws IOException
+    {
+        m_queues.get( this.queue( m_shard, p_shard ) ).add( p_message );
+        return this;
+    }
+
+    @Override
+    public final byte[] receive( final int p_shard ) throws IOException
+    {
+        try
+        {
+            return m_queues.get( this.queue( p_shard, m_shard ) ).take();
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( l_exception.getMessage() );
+        }
+    }
+
+    @Override
+    public final void close()
+    {
+    }
+
+    /**
+     * returns the queue index of a shard pair
+     *
+     * @param p_source source shard
+     * @param p_target target shard
+     * @return queue index
+     */
+    private int queue( final int p_source, final int p_target )
+    {
+        if ( ( p_source < 0 ) || ( p_target < 0 ) || ( p_source >= m_shards ) || ( p_target >= m_shards ) )
+            throw new IllegalArgumentException( MessageFormat.format( "shard [{0}] or [{1}] does not exist", p_source, p_target ) );
+        return p_source * m_shards + p_target;
+    }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * shard of a region-sharded simulation, the shard executes the agents of
+ * its row stripe, after each step of the environment the agents which are
+ * moved out of the stripe migrate to the neighbour in their direction and
+ * the positions of the agents within the border rows are sent as ghosts to
+ * the neighbours, the environment of a shard has the size of the full grid,
+ * so positions and routes do not need any translation, but only the own
+ * stripe and the ghost rows are populated (which allocates the chunks of the
+ * stripe only on a chunked environment), on the synchronous execution the ghosts
+ * and the migrated agents are placed like moves, so they are read on the next step,
+ * the ghosts are kept between the steps and moved to the new ghost cells, so each
+ * ghost cell uses one ghost object, a migrated agent whose cell is occupied is placed
+ * on the nearest empty cell and is kept back until a cell within the number of ghost
+ * rows is empty
+ */
+public final class CShard implements Callable<CShard>
+{
+    /**
+     * environment
+     */
+    private final IEnvironment m_environment;
+    /**
+     * stripe
+     */
+    private final CStripe m_stripe;
+    /**
+     * transport
+     */
+    private final ITransport m_transport;
+    /**
+     * number of ghost rows
+     */
+    private final int m_halo;
+    /**
+     * restores a migrated agent with its configuration name
+     */
+    private final BiFunction<String, DataInput, IAgent> m_restore;
+    /**
+     * agents of the shard with their configuration name
+     */
+    private final Map<IAgent, String> m_agents = new ConcurrentHashMap<>();
+    /**
+     * migrated agents with their configuration name, which are not placed yet
+     */
+    private final Map<IAgent, String> m_pending = new ConcurrentHashMap<>();
+    /**
+     * ghosts of each neighbour
+     */
+    private final Map<Integer, List<CGhost>> m_ghosts = new ConcurrentHashMap<>();
+
+    /**
+     * ctor
+     *
+     * @param p_environment environment
+     * @param p_stripe stripe of the shard
+     * @param p_transport transport
+     * @param p_halo number of ghost rows, it must be not less than the distance of a move within one step
+     * @param p_restore restores a migrated agent with its configuration name, the input stores the agent checkpoint
+     */
+    public CShard( final IEnvironment p_environment, final CStripe p_stripe, final ITransport p_transport, final int p_halo,
+                   final BiFunction<String, DataInput, IAgent> p_restore )
+    {
+        if ( p_halo < 1 )
+            throw new IllegalArgumentException( "number of ghost rows must be greater or equal than one" );
+
+        m_environment = p_environment;
+        m_stripe = p_stripe;
+        m_transport = p_transport;
+        m_halo = p_halo;
+        m_restore = p_restore;
+    }
+
+    /**
+     * adds an agent
+     *
+     * @param p_name configuration name of the agent
+     * @param p_agent agent
+     * @return self reference
+     */
+    public final CShard add( final String p_name, final IAgent p_agent )
+    {
+        m_agents.put( p_agent, p_name );
+        return this;
+    }
+
+    /**
+     * returns the stripe
+     *
+     * @return stripe
+     */
+    public final CStripe stripe()
+    {
+        return m_stripe;
+    }
+
+    /**
+     * returns the current agents
+     *
+     * @return unmodifiable agent collection
+     */
+    public final Collection<IAgent> agents()
+    {
+        return Collections.unmodifiableSet( m_agents.keySet() );
+    }
+
+    /**
+     * returns the current agents and the migrated agents, which
+     * are not placed yet, grouped by their configuration name
+     *
+     * @return map with agents of each configuration name
+     */
+    public final Map<String, List<IAgent>> groups()
+    {
+        return Stream.concat( m_agents.entrySet().stream(), m_pending.entrySet().stream() ).collect(
+            Collectors.groupingBy( Map.Entry::getValue, Collectors.mapping( Map.Entry::getKey, Collectors.toList() ) )
+        );
+    }
+
+    @Override
+    public final CShard call() throws Exception
+    {
+        m_environment.call();
+
+        // all messages are sent before receiving, so the shards do not wait on each other
+        final int[] l_neighbours = m_stripe.neighbours().toArray();
+        for ( final int i : l_neighbours )
+            m_transport.send( i, this.message( i ) );
+        for ( final int i : l_neighbours )
+            this.receive( i, m_transport.receive( i ) );
+
+        return this;
+    }
+
+    /**
+     * creates the message to a neighbour with the migrating agents and the ghosts
+     *
+     * @param p_neighbour neighbour shard
+     * @return message
+     * @throws IOException on writing error
+     */
+    private byte[] message( final int p_neighbour ) throws IOException
+    {
+        final ByteArrayOutputStream l_message = new ByteArrayOutputStream();
+        final DataOutputStream l_output = new DataOutputStream( l_message );
+
+        // agents which are moved out of the stripe are removed and written with their checkpoint
+        final List<Map.Entry<IAgent, String>> l_migrants = m_agents.entrySet()
+                                                                   .stream()
+                                                                   .filter( i -> m_stripe.next( CShard.row( i.getKey() ) ) == p_neighbour )
+                                                                   .collect( Collectors.toList() );
+        l_output.writeInt( l_migrants.size() );
+        for ( final Map.Entry<IAgent, String> i : l_migrants )
+        {
+            m_agents.remove( i.getKey() );
+            m_environment.remove( i.getKey() );
+
+            l_output.writeUTF( i.getValue() );
+            i.getKey().checkpoint( l_output );
+        }
+
+        // agents within the border rows are ghosts of the neighbour
+        final List<IAgent> l_ghosts = m_agents.keySet()
+                                              .stream()
+                                              .filter( i -> m_stripe.border( CShard.row( i ), p_neighbour, m_halo ) )
+                                              .collect( Collectors.toList() );
+        l_output.writeInt( l_ghosts.size() );
+        for ( final IAgent i : l_ghosts )
+        {
+            l_output.writeInt( CShard.row( i ) );
+            l_output.writeInt( (int) i.position().getQuick( 1 ) );
+        }
+
+        l_output.flush();
+        return l_message.toByteArray();
+    }
+
+    /**
+     * reads the message of a neighbour, the migrated agents
+     * are placed and the ghosts of the previous step are updated
+     *
+     * @param p_neighbour neighbour shard
+     * @param p_message message
+     * @throws IOException on reading error
+     */
+    private void receive( final int p_neighbour, final byte[] p_message ) throws IOException
+    {
+        final DataInputStream l_input = new DataInputStream( new ByteArrayInputStream( p_message ) );
+
+        final int l_migrants = l_input.readInt();
+        for ( int i = 0; i < l_migrants; i++ )
+        {
+            final String l_name = l_input.readUTF();
+            m_pending.put( m_restore.apply( l_name, l_input ), l_name );
+        }
+
+        // migrated agents are executed after they are placed, agents which are not placed are tried again on the next step
+        final Iterator<Map.Entry<IAgent, String>> l_iterator = m_pending.entrySet().iterator();
+        while ( l_iterator.hasNext() )
+        {
+            final Map.Entry<IAgent, String> l_migrant = l_iterator.next();
+            if ( !this.place( l_migrant.getKey() ) )
+                continue;
+
+            m_agents.put( l_migrant.getKey(), l_migrant.getValue() );
+            l_iterator.remove();
+        }
+
+        final Set<Integer> l_cells = new LinkedHashSet<>();
+        final int l_ghostnumber = l_input.readInt();
+        for ( int i = 0; i < l_ghostnumber; i++ )
+        {
+            final int l_row = l_input.readInt();
+            l_cells.add( l_row * m_environment.column() + l_input.readInt() );
+        }
+        m_ghosts.put( p_neighbour, this.ghosts( m_ghosts.getOrDefault( p_neighbour, Collections.emptyList() ), l_cells ) );
+    }
+
+    /**
+     * places a migrated agent on its cell, if the cell is occupied the agent is placed
+     * on the nearest empty cell within the number of ghost rows, which is owned by the
+     * same shard like the cell of the agent, on the synchronous execution the agent is
+     * placed if its move intent is accepted
+     *
+     * @param p_agent agent
+     * @return flag that the agent is placed
+     */
+    private boolean place( final IAgent p_agent )
+    {
+        final int l_row = CShard.row( p_agent );
+        final int l_column = (int) p_agent.position().getQuick( 1 );
+
+        for ( int i = 0; i <= m_halo; i++ )
+            for ( int j = Math.max( 0, l_row - i ); j <= Math.min( m_environment.row() - 1, l_row + i ); j++ )
+                for ( int k = Math.max( 0, l_column - i ); k <= Math.min( m_environment.column() - 1, l_column + i ); k++ )
+                    if ( ( Math.max( Math.abs( j - l_row ), Math.abs( k - l_column ) ) == i )
+                         && ( m_stripe.next( j ) == m_stripe.next( l_row ) )
+                         && ( m_environment.move( p_agent, j, k ) == p_agent ) )
+                        return true;
+
+        return false;
+    }
+
+    /**
+     * updates the ghosts of a neighbour, a ghost which is stored on a ghost cell
+     * is kept, the other ghosts are moved to the remaining ghost cells and the
+     * ghosts which are not needed anymore are removed
+     *
+     * @param p_ghosts ghosts of the previous step
+     * @param p_cells packed cell indices of the ghosts
+     * @return ghosts
+     */
+    private List<CGhost> ghosts( final List<CGhost> p_ghosts, final Set<Integer> p_cells )
+    {
+        final List<CGhost> l_ghosts = new LinkedList<>();
+        final Queue<CGhost> l_spare = new LinkedList<>();
+        p_ghosts.forEach( i ->
+        {
+            if ( ( m_environment.get( i.position() ) == i ) && ( p_cells.remove( CShard.row( i ) * m_environment.column() + (int) i.position().getQuick( 1 ) ) ) )
+                l_ghosts.add( i );
+            else
+                l_spare.add( i );
+        } );
+
+        for ( final int i : p_cells )
+        {
+            final int l_row = i / m_environment.column();
+            final int l_column = i % m_environment.column();
+            final CGhost l_ghost = l_spare.isEmpty() ? new CGhost( l_row, l_column ) : l_spare.poll();
+
+            if ( m_environment.move( l_ghost, l_row, l_column ) == l_ghost )
+                l_ghosts.add( l_ghost );
+            else
+                m_environment.remove( l_ghost );
+        }
+
+        l_spare.forEach( m_environment::remove );
+        return l_ghosts;
+    }
+
+    /**
+     * returns the row of an element
+     *
+     * @param p_element element
+     * @return row
+     */
+    private static int row( final IElement p_element )
+    {
+        return (int) p_element.position().getQuick( 0 );
+    }
+
+}
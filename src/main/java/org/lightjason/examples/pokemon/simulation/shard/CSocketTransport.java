@@ -0,0 +1,267 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+
+/**
+ * localhost socket transport, each shard listens on the base port plus its
+ * index and all shards are connected pairwise, the messages are read by one
+ * thread of each connection into a queue, so sending does not block on
+ * full socket buffers if two shards send to each other at the same time
+ */
+public final class CSocketTransport implements ITransport
+{
+    /**
+     * logger
+     */
+    private static final Logger LOGGER = Logger.getLogger( CSocketTransport.class.getName() );
+    /**
+     * marker of a closed connection
+     */
+    private static final byte[] CLOSED = new byte[0];
+    /**
+     * connection timeout in milliseconds
+     */
+    private static final long TIMEOUT = TimeUnit.MINUTES.toMillis( 1 );
+    /**
+     * own shard index
+     */
+    private final int m_shard;
+    /**
+     * sockets of each shard
+     */
+    private final Map<Integer, Socket> m_sockets = new ConcurrentHashMap<>();
+    /**
+     * output streams of each shard
+     */
+    private final Map<Integer, DataOutputStream> m_output = new ConcurrentHashMap<>();
+    /**
+     * received messages of each shard
+     */
+    private final Map<Integer, BlockingQueue<byte[]>> m_input = new ConcurrentHashMap<>();
+
+    /**
+     * ctor, the call blocks until all shards are connected
+     *
+     * @param p_shard own shard index
+     * @param p_shards number of shards
+     * @param p_port base port
+     * @throws IOException on connection error
+     */
+    public CSocketTransport( final int p_shard, final int p_shards, final int p_port ) throws IOException
+    {
+        if ( ( p_shard < 0 ) || ( p_shard >= p_shards ) )
+            throw new IllegalArgumentException( MessageFormat.format( "shard [{0}] does not exist within [{1}] shards", p_shard, p_shards ) );
+
+        m_shard = p_shard;
+        try (
+            final ServerSocket l_server = new ServerSocket( p_port + p_shard, p_shards, InetAddress.getLoopbackAddress() );
+        )
+        {
+            // shards with a lower index are listening already, shards with a higher index connect to this shard
+            for ( int i = 0; i < p_shard; i++ )
+                this.connect( i, CSocketTransport.connect( p_port + i, p_shard ) );
+
+            for ( int i = p_shard + 1; i < p_shards; i++ )
+            {
+                final Socket l_socket = l_server.accept();
+                this.connect( new DataInputStream( l_socket.getInputStream() ).readInt(), l_socket );
+            }
+        }
+        catch ( final IOException l_exception )
+        {
+            this.close();
+            throw l_exception;
+        }
+    }
+
+    @Override
+    public final int shard()
+    {
+        return m_shard;
+    }
+
+    @Override
+    public final ITransport send( final int p_shard, final byte[] p_message ) throws IOException
+    {
+        final DataOutputStream l_output = this.peer( m_output, p_shard );
+        synchronized ( l_output )
+        {
+            l_output.writeInt( p_message.length );
+            l_output.write( p_message );
+            l_output.flush();
+        }
+        return this;
+    }
+
+    @Override
+    public final byte[] receive( final int p_shard ) throws IOException
+    {
+        final BlockingQueue<byte[]> l_queue = this.peer( m_input, p_shard );
+        try
+        {
+            final byte[] l_message = l_queue.take();
+            if ( l_message != CLOSED )
+                return l_message;
+
+            // the marker is kept, so each further call fails
+            l_queue.add( CLOSED );
+            throw new IOException( MessageFormat.format( "connection to shard [{0}] is closed", p_shard ) );
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( l_exception.getMessage() );
+        }
+    }
+
+    @Override
+    public final void close()
+    {
+        m_sockets.values().forEach( i ->
+        {
+            try
+            {
+                i.close();
+            }
+            catch ( final IOException l_exception )
+            {
+                LOGGER.warning( l_exception.toString() );
+            }
+        } );
+    }
+
+    /**
+     * returns the value of a connected shard
+     *
+     * @param p_map map of the shards
+     * @param p_shard shard index
+     * @tparam T value type
+     * @return value
+     */
+    private <T> T peer( final Map<Integer, T> p_map, final int p_shard )
+    {
+        final T l_value = p_map.get( p_shard );
+        if ( l_value == null )
+            throw new IllegalArgumentException( MessageFormat.format( "shard [{0}] is not connected", p_shard ) );
+        return l_value;
+    }
+
+    /**
+     * registers the connection of a shard and starts the reading thread
+     *
+     * @param p_shard shard index
+     * @param p_socket socket
+     * @throws IOException on stream error
+     */
+    private void connect( final int p_shard, final Socket p_socket ) throws IOException
+    {
+        final BlockingQueue<byte[]> l_queue = new LinkedBlockingQueue<>();
+        final DataInputStream l_input = new DataInputStream( new BufferedInputStream( p_socket.getInputStream() ) );
+
+        p_socket.setTcpNoDelay( true );
+        m_sockets.put( p_shard, p_socket );
+        m_input.put( p_shard, l_queue );
+        m_output.put( p_shard, new DataOutputStream( new BufferedOutputStream( p_socket.getOutputStream() ) ) );
+
+        final Thread l_thread = new Thread( () ->
+        {
+            try
+            {
+                while ( true )
+                {
+                    final byte[] l_message = new byte[l_input.readInt()];
+                    l_input.readFully( l_message );
+                    l_queue.add( l_message );
+                }
+            }
+            catch ( final IOException l_exception )
+            {
+                l_queue.add( CLOSED );
+            }
+        }, MessageFormat.format( "shard {0} receiver {1}", m_shard, p_shard ) );
+
+        l_thread.setDaemon( true );
+        l_thread.start();
+    }
+
+    /**
+     * connects to a listening shard, the connection is retried
+     * until the shard is started or the timeout is reached
+     *
+     * @param p_port port of the shard
+     * @param p_shard own shard index, which is sent to the shard
+     * @return socket
+     * @throws IOException on connection error
+     */
+    private static Socket connect( final int p_port, final int p_shard ) throws IOException
+    {
+        final long l_end = System.currentTimeMillis() + TIMEOUT;
+        while ( true )
+        {
+            final Socket l_socket = new Socket();
+            try
+            {
+                l_socket.connect( new InetSocketAddress( InetAddress.getLoopbackAddress(), p_port ) );
+                new DataOutputStream( l_socket.getOutputStream() ).writeInt( p_shard );
+                return l_socket;
+            }
+            catch ( final ConnectException l_exception )
+            {
+                l_socket.close();
+                if ( System.currentTimeMillis() > l_end )
+                    throw l_exception;
+            }
+
+            try
+            {
+                Thread.sleep( 100 );
+            }
+            catch ( final InterruptedException l_exception )
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException( l_exception.getMessage() );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,208 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import java.text.MessageFormat;
+import java.util.stream.IntStream;
+
+
+/**
+ * row stripe of a shard, the rows of the environment are split
+ * into stripes of nearly equal size, so each shard has a neighbour
+ * above and below only and the border cells are full rows
+ */
+public final class CStripe
+{
+    /**
+     * number of rows of the environment
+     */
+    private final int m_rows;
+    /**
+     * number of shards
+     */
+    private final int m_shards;
+    /**
+     * shard index
+     */
+    private final int m_shard;
+    /**
+     * first row (inclusive)
+     */
+    private final int m_rowfrom;
+    /**
+     * last row (exclusive)
+     */
+    private final int m_rowto;
+
+    /**
+     * ctor
+     *
+     * @param p_rows number of rows of the environment
+     * @param p_shards number of shards
+     * @param p_shard shard index
+     */
+    public CStripe( final int p_rows, final int p_shards, final int p_shard )
+    {
+        if ( ( p_shards < 1 ) || ( p_shards > p_rows ) )
+            throw new IllegalArgumentException( MessageFormat.format( "number of shards [{0}] must be within [1, {1}]", p_shards, p_rows ) );
+        if ( ( p_shard < 0 ) || ( p_shard >= p_shards ) )
+            throw new IllegalArgumentException( MessageFormat.format( "shard [{0}] does not exist within [{1}] shards", p_shard, p_shards ) );
+
+        m_rows = p_rows;
+        m_shards = p_shards;
+        m_shard = p_shard;
+        m_rowfrom = this.first( p_shard );
+        m_rowto = this.first( p_shard + 1 );
+    }
+
+    /**
+     * returns the shard index
+     *
+     * @return shard index
+     */
+    public final int shard()
+    {
+        return m_shard;
+    }
+
+    /**
+     * returns the number of shards
+     *
+     * @return number of shards
+     */
+    public final int shards()
+    {
+        return m_shards;
+    }
+
+    /**
+     * returns the first row
+     *
+     * @return row (inclusive)
+     */
+    public final int rowfrom()
+    {
+        return m_rowfrom;
+    }
+
+    /**
+     * returns the last row
+     *
+     * @return row (exclusive)
+     */
+    public final int rowto()
+    {
+        return m_rowto;
+    }
+
+    /**
+     * returns the shard which owns a row
+     *
+     * @param p_row row
+     * @return shard index
+     */
+    public final int owner( final int p_row )
+    {
+        final long l_row = Math.max( 0, Math.min( m_rows - 1, p_row ) );
+        return (int) ( ( ( l_row + 1 ) * m_shards - 1 ) / m_rows );
+    }
+
+    /**
+     * checks if a row is owned by the shard
+     *
+     * @param p_row row
+     * @return inside flag
+     */
+    public final boolean inside( final int p_row )
+    {
+        return this.owner( p_row ) == m_shard;
+    }
+
+    /**
+     * returns the neighbour in the direction of the owner of a row,
+     * elements which leave the stripe are passed to this shard
+     *
+     * @param p_row row
+     * @return shard index of the neighbour or the own index if the row is owned by the shard
+     */
+    public final int next( final int p_row )
+    {
+        final int l_owner = this.owner( p_row );
+        return l_owner == m_shard
+               ? m_shard
+               : l_owner < m_shard ? m_shard - 1 : m_shard + 1;
+    }
+
+    /**
+     * returns the neighbours
+     *
+     * @return stream of the shard indices above and below
+     */
+    public final IntStream neighbours()
+    {
+        return IntStream.of( m_shard - 1, m_shard + 1 ).filter( i -> ( i >= 0 ) && ( i < m_shards ) );
+    }
+
+    /**
+     * checks if a row is a border row of the stripe, which
+     * is a ghost row within the stripe of a neighbour
+     *
+     * @param p_row row
+     * @param p_neighbour neighbour shard
+     * @param p_halo number of ghost rows
+     * @return border flag
+     */
+    public final boolean border( final int p_row, final int p_neighbour, final int p_halo )
+    {
+        if ( !this.inside( p_row ) )
+            return false;
+
+        return p_neighbour < m_shard
+               ? p_row < m_rowfrom + p_halo
+               : p_row >= m_rowto - p_halo;
+    }
+
+    /**
+     * returns the number of elements of the stripe, if
+     * elements are split proportional to the rows
+     *
+     * @param p_number number of all elements
+     * @return number of elements of the stripe
+     */
+    public final int share( final int p_number )
+    {
+        return (int) ( (long) p_number * m_rowto / m_rows - (long) p_number * m_rowfrom / m_rows );
+    }
+
+    /**
+     * returns the first row of a shard
+     *
+     * @param p_shard shard index
+     * @return row
+     */
+    private int first( final int p_shard )
+    {
+        return (int) ( (long) p_shard * m_rows / m_shards );
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+
+/**
+ * transport of the messages between shards, the messages
+ * between two shards are received in the order of sending
+ */
+public interface ITransport extends Closeable
+{
+
+    /**
+     * returns the index of the own shard
+     *
+     * @return shard index
+     */
+    int shard();
+
+    /**
+     * sends a message to a shard, the call must not
+     * block until the message is received
+     *
+     * @param p_shard target shard index
+     * @param p_message message
+     * @return self reference
+     * @throws IOException on sending error
+     */
+    ITransport send( final int p_shard, final byte[] p_message ) throws IOException;
+
+    /**
+     * receives the next message of a shard, the call
+     * blocks until a message is available
+     *
+     * @param p_shard source shard index
+     * @return message
+     * @throws IOException on receiving error
+     */
+    byte[] receive( final int p_shard ) throws IOException;
+
+}
@@ -61,6 +61,10 @@ public final class CParticleSystem
      * set with current active emitters
      */
     private final Collection<ParticleEffect> m_active = new CopyOnWriteArrayList<>();
+    /**
+     * enabled flag
+     */
+    private volatile boolean m_enabled = true;
 
 
     /**
@@ -72,7 +76,8 @@ public final class CParticleSystem
 
 
     /**
-     * runs the particel effect immediatly
+     * runs the particel effect immediatly,
+     * it is ignored if the system is disabled
      *
      * @param p_name name effect
      * @param p_position emitter position
@@ -80,6 +85,9 @@ public final class CParticleSystem
      */
     public final CParticleSystem execute( final String p_name, final DoubleMatrix1D p_position )
     {
+        if ( !m_enabled )
+            return this;
+
         final ParticleEffect l_base = m_effects.get( CParticleSystem.name( p_name ) );
         if ( l_base == null )
             throw new RuntimeException( MessageFormat.format( "particle effect [{0}] not found", p_name ) );
@@ -93,6 +101,19 @@ public final class CParticleSystem
     }
 
 
+    /**
+     * disables the particle system, so effects are
+     * not executed on simulations without window
+     *
+     * @return self reference
+     */
+    public final CParticleSystem disable()
+    {
+        m_enabled = false;
+        return this;
+    }
+
+
     /**
      * creates the particle system
      *
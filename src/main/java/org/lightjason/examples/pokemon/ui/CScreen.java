@@ -24,6 +24,7 @@
 package org.lightjason.examples.pokemon.ui;
 
 import org.lightjason.examples.pokemon.CConfiguration;
+import org.lightjason.examples.pokemon.simulation.IElement;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputProcessor;
@@ -32,15 +33,20 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.ScreenUtils;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
 import java.text.MessageFormat;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 
 /**
@@ -48,6 +54,10 @@ import java.util.List;
  * based on the LibGDX library
  *
  * @note with "s" a screenshot can be created
+ * @note with "c" a checkpoint can be requested
+ * @note the sprites are positioned between the positions of the last two
+ * committed simulation steps, so the rendering does not read the positions
+ * during a step and the movement is smooth on any frame rate
  * @warning rendering elements must be set within the create call for avoid instantiation error
  * @see https://libgdx.badlogicgames.com/
  * @see https://github.com/libgdx/libgdx/wiki/Tile-maps
@@ -62,7 +72,7 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
     /**
      * sprite list
      */
-    private final List<? extends ISprite> m_sprites;
+    private final List<? extends IElement> m_sprites;
     /**
      * screenshot
      */
@@ -95,6 +105,14 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
      * flag for taking a screenshot
      */
     private volatile boolean m_screenshottake;
+    /**
+     * flag for requesting a checkpoint
+     */
+    private final AtomicBoolean m_checkpointtake = new AtomicBoolean();
+    /**
+     * sprite positions of the previous and the last committed step
+     */
+    private volatile Pair<CFrame, CFrame> m_frames;
 
 
 
@@ -105,11 +123,14 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
      * @param p_environment environment reference
      * @param p_screenshot screenshot configuration
      */
-    public CScreen( final List<? extends ISprite> p_sprites, final ITileMap p_environment, final Triple<String, String, Integer> p_screenshot )
+    public CScreen( final List<? extends IElement> p_sprites, final ITileMap p_environment, final Triple<String, String, Integer> p_screenshot )
     {
         m_environment = p_environment;
         m_sprites = p_sprites;
         m_screenshot = p_screenshot;
+
+        final CFrame l_frame = new CFrame( p_sprites );
+        m_frames = new ImmutablePair<>( l_frame, l_frame );
     }
 
     @Override
@@ -156,7 +177,16 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
         m_spritebatch.setProjectionMatrix( m_camera.combined );
         m_spritebatch.begin();
 
-        m_sprites.forEach( i -> i.sprite().draw( m_spritebatch ) );
+        // sprites are positioned between the last two committed steps, the rendering is one step behind the simulation
+        final Pair<CFrame, CFrame> l_frames = m_frames;
+        final float l_weight = l_frames.getRight().weight( l_frames.getLeft(), System.nanoTime() );
+        IntStream.range( 0, m_sprites.size() )
+                 .filter( i -> m_sprites.get( i ).sprite() != null )
+                 .forEach( i ->
+                 {
+                     l_frames.getRight().position( m_sprites.get( i ).sprite(), l_frames.getLeft(), i, l_weight );
+                     m_sprites.get( i ).sprite().draw( m_spritebatch );
+                 } );
 
         final float l_delta = Gdx.graphics.getDeltaTime();
         CParticleSystem.INSTANCE.clean().emitter().forEach( i -> i.draw( m_spritebatch, l_delta ) );
@@ -206,6 +236,29 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
         return this;
     }
 
+    /**
+     * commits the positions of the sprites after a simulation
+     * step, it must not run concurrently to the step
+     *
+     * @return screen reference
+     */
+    public final CScreen commit()
+    {
+        m_frames = new ImmutablePair<>( m_frames.getRight(), new CFrame( m_sprites ) );
+        return this;
+    }
+
+    /**
+     * returns and resets the checkpoint request, the checkpoint
+     * is written by the simulation between two steps
+     *
+     * @return checkpoint is requested
+     */
+    public final boolean checkpoint()
+    {
+        return m_checkpointtake.getAndSet( false );
+    }
+
     @Override
     public final boolean keyDown( final int p_key )
     {
@@ -213,6 +266,10 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
         if ( p_key == 47 )
             m_screenshottake = ( !m_screenshot.getLeft().isEmpty() ) && ( !m_screenshot.getMiddle().isEmpty() );
 
+        // if "c" key pressed, request a checkpoint
+        if ( p_key == 31 )
+            m_checkpointtake.set( true );
+
         return false;
     }
 
@@ -292,4 +349,66 @@ public final class CScreen extends ApplicationAdapter implements InputProcessor
         return this;
     }
 
+
+    /**
+     * sprite positions of a committed step
+     */
+    private static final class CFrame
+    {
+        /**
+         * column and row of each sprite
+         */
+        private final float[] m_positions;
+        /**
+         * commit time in nanoseconds
+         */
+        private final long m_time = System.nanoTime();
+
+        /**
+         * ctor
+         *
+         * @param p_elements elements
+         */
+        CFrame( final List<? extends IElement> p_elements )
+        {
+            m_positions = new float[2 * p_elements.size()];
+            IntStream.range( 0, p_elements.size() ).forEach( i ->
+            {
+                m_positions[2 * i] = (float) p_elements.get( i ).position().getQuick( 1 );
+                m_positions[2 * i + 1] = (float) p_elements.get( i ).position().getQuick( 0 );
+            } );
+        }
+
+        /**
+         * returns the interpolation weight, the weight is the time since the
+         * commit relative to the time between the previous and this commit
+         *
+         * @param p_previous previous frame
+         * @param p_time current time in nanoseconds
+         * @return weight within [0,1]
+         */
+        final float weight( final CFrame p_previous, final long p_time )
+        {
+            final long l_period = m_time - p_previous.m_time;
+            return l_period <= 0 ? 1 : Math.max( 0, Math.min( 1, (float) ( p_time - m_time ) / l_period ) );
+        }
+
+        /**
+         * sets the interpolated position of a sprite
+         *
+         * @param p_sprite sprite
+         * @param p_previous previous frame
+         * @param p_index index of the sprite
+         * @param p_weight interpolation weight
+         */
+        final void position( final Sprite p_sprite, final CFrame p_previous, final int p_index, final float p_weight )
+        {
+            final int l_index = 2 * p_index;
+            p_sprite.setPosition(
+                p_previous.m_positions[l_index] + p_weight * ( m_positions[l_index] - p_previous.m_positions[l_index] ),
+                p_previous.m_positions[l_index + 1] + p_weight * ( m_positions[l_index + 1] - p_previous.m_positions[l_index + 1] )
+            );
+        }
+    }
+
 }
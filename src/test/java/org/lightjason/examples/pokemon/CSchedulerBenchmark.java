@@ -0,0 +1,150 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.LogManager;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * benchmark of the agent cycle phase of the scheduler with the pool and
+ * the virtual execution, each agent calculates a hash and each thousandth
+ * agent blocks for a short time, like an agent which waits for a lock
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CSchedulerBenchmark
+{
+    /**
+     * blocking time of an agent in nanoseconds
+     */
+    private static final long BLOCKING = 100000;
+    /**
+     * number of agents
+     */
+    @Param( {"10000", "100000", "1000000"} )
+    protected int m_agents;
+    /**
+     * virtual execution
+     */
+    @Param( {"false", "true"} )
+    protected boolean m_virtual;
+    /**
+     * scheduler
+     */
+    private CScheduler m_scheduler;
+    /**
+     * agents
+     */
+    private List<Callable<Integer>> m_elements;
+
+
+    /**
+     * creates the scheduler and the agents
+     */
+    @Setup
+    public void initialize()
+    {
+        // disable logging
+        LogManager.getLogManager().reset();
+
+        m_scheduler = new CScheduler( i ->
+        {
+            try
+            {
+                i.call();
+            }
+            catch ( final Exception l_exception )
+            {
+                throw new RuntimeException( l_exception );
+            }
+        }, m_virtual, 0 );
+
+        m_elements = IntStream.range( 0, m_agents ).mapToObj( CSchedulerBenchmark::agent ).collect( Collectors.toList() );
+    }
+
+    /**
+     * shuts down the scheduler
+     */
+    @TearDown
+    public void shutdown()
+    {
+        m_scheduler.close();
+    }
+
+    /**
+     * runs the agent cycle phase
+     *
+     * @return scheduler
+     */
+    @Benchmark
+    public CScheduler cycle()
+    {
+        m_scheduler.phase( CScheduler.EPhase.CYCLE, m_elements, i -> i );
+        return m_scheduler;
+    }
+
+    /**
+     * creates an agent
+     *
+     * @param p_index index of the agent
+     * @return agent
+     */
+    private static Callable<Integer> agent( final int p_index )
+    {
+        return () ->
+        {
+            if ( p_index % 1000 == 0 )
+                LockSupport.parkNanos( BLOCKING );
+
+            int l_hash = p_index;
+            for ( int i = 0; i < 256; i++ )
+                l_hash = 31 * l_hash + i;
+            return l_hash;
+        };
+    }
+
+}
@@ -0,0 +1,246 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.language.score.IAggregation;
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.agent.pokemon.CPokemon;
+import org.lightjason.examples.pokemon.simulation.agent.pokemon.CPokemonGenerator;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.ERoutingFactory;
+import org.lightjason.examples.pokemon.simulation.environment.CEnvironment;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+import org.lightjason.examples.pokemon.simulation.item.IItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.LogManager;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * checkpoint test
+ */
+public final class TestCCheckpoint
+{
+    /**
+     * size of the environment
+     */
+    private static final int SIZE = 100;
+    /**
+     * number of agents
+     */
+    private static final int AGENTS = 3;
+    /**
+     * agent script, which adds a belief and requests a route
+     */
+    private static final String SCRIPT = "!main. +!main <- +counter(5); route/set/start( 40, 40 ).";
+    /**
+     * action references
+     */
+    private Set<IAction> m_actions;
+
+
+    /**
+     * data initialization
+     */
+    @Before
+    public void initialize()
+    {
+        // disable logging
+        LogManager.getLogManager().reset();
+
+        m_actions = Collections.unmodifiableSet( Stream.concat(
+            org.lightjason.agentspeak.common.CCommon.actionsFromPackage(),
+            org.lightjason.agentspeak.common.CCommon.actionsFromAgentClass( CPokemon.class )
+        ).collect( Collectors.toSet() ) );
+    }
+
+
+    /**
+     * test agents with route, level, attributes and beliefs
+     * are restored with the state of the checkpoint
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test
+    public void testroundtrip() throws Exception
+    {
+        Assume.assumeNotNull( m_actions );
+
+        final IEnvironment l_environment = new CEnvironment( SIZE, SIZE, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+        final CPokemonGenerator l_generator = this.generator( l_environment );
+        final List<IAgent> l_agents = IntStream.range( 0, AGENTS ).mapToObj( i -> l_generator.generatesingle( "eevee" ) ).collect( Collectors.toList() );
+
+        // the initial goal adds the belief and requests the route, which is calculated asynchronously
+        for ( final IAgent i : l_agents )
+            i.call();
+        for ( int i = 0; ( i < 100 ) && l_agents.stream().anyMatch( TestCCheckpoint::routeless ); i++ )
+        {
+            l_environment.call();
+            Thread.sleep( 10 );
+        }
+        assertFalse( l_agents.stream().anyMatch( TestCCheckpoint::routeless ) );
+
+        final Path l_path = Files.createTempFile( "pokemon", ".checkpoint" );
+        try
+        {
+            CCheckpoint.write( l_path, 7, l_environment, Collections.singletonMap( "pokemon", l_agents ) );
+
+            final IEnvironment l_restoreenvironment = new CEnvironment( SIZE, SIZE, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+            final Map<String, List<IAgent>> l_restored = new HashMap<>();
+            assertEquals(
+                7,
+                CCheckpoint.restore( l_path, l_restoreenvironment, Collections.singletonMap( "pokemon", this.generator( l_restoreenvironment ) ), l_restored )
+            );
+
+            assertEquals( Collections.singleton( "pokemon" ), l_restored.keySet() );
+            assertEquals( AGENTS, l_restored.get( "pokemon" ).size() );
+
+            // the serialized state contains position, route, level, experience, attributes, attacks and beliefs
+            for ( int i = 0; i < AGENTS; i++ )
+            {
+                assertEquals( l_agents.get( i ).position(), l_restored.get( "pokemon" ).get( i ).position() );
+                assertArrayEquals( TestCCheckpoint.state( l_agents.get( i ) ), TestCCheckpoint.state( l_restored.get( "pokemon" ).get( i ) ) );
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists( l_path );
+        }
+    }
+
+
+    /**
+     * test a checkpoint is not restored within an environment of a different size
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test( expected = IOException.class )
+    public void testenvironmentmismatch() throws Exception
+    {
+        Assume.assumeNotNull( m_actions );
+
+        final IEnvironment l_environment = new CEnvironment( SIZE, SIZE, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+        final List<IAgent> l_agents = Collections.singletonList( this.generator( l_environment ).generatesingle( "eevee" ) );
+        final Path l_path = Files.createTempFile( "pokemon", ".checkpoint" );
+        try
+        {
+            CCheckpoint.write( l_path, 0, l_environment, Collections.singletonMap( "pokemon", l_agents ) );
+
+            final IEnvironment l_restoreenvironment = new CEnvironment( SIZE / 2, SIZE, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+            CCheckpoint.restore( l_path, l_restoreenvironment, Collections.singletonMap( "pokemon", this.generator( l_restoreenvironment ) ), new HashMap<>() );
+        }
+        finally
+        {
+            Files.deleteIfExists( l_path );
+        }
+    }
+
+
+    /**
+     * creates the agent generator
+     *
+     * @param p_environment environment
+     * @return generator
+     * @throws Exception on parsing error
+     */
+    private CPokemonGenerator generator( final IEnvironment p_environment ) throws Exception
+    {
+        return new CPokemonGenerator( p_environment, new ByteArrayInputStream( SCRIPT.getBytes( StandardCharsets.UTF_8 ) ), m_actions, IAggregation.EMPTY );
+    }
+
+    /**
+     * checks if the route of an agent has not arrived
+     *
+     * @param p_agent agent
+     * @return empty route
+     */
+    private static boolean routeless( final IAgent p_agent )
+    {
+        return p_agent.toString().endsWith( "route []" );
+    }
+
+    /**
+     * serializes the state of an agent
+     *
+     * @param p_agent agent
+     * @return bytes of the state
+     * @throws IOException on writing error
+     */
+    private static byte[] state( final IAgent p_agent ) throws IOException
+    {
+        final ByteArrayOutputStream l_bytes = new ByteArrayOutputStream();
+        try (
+            final DataOutputStream l_output = new DataOutputStream( l_bytes );
+        )
+        {
+            p_agent.checkpoint( l_output );
+        }
+        return l_bytes.toByteArray();
+    }
+
+
+    /**
+     * main
+     *
+     * @param p_args arguments
+     * @throws Exception is thrown on errors
+     */
+    public static void main( final String[] p_args ) throws Exception
+    {
+        final TestCCheckpoint l_test = new TestCCheckpoint();
+        l_test.initialize();
+
+        l_test.testroundtrip();
+        try
+        {
+            l_test.testenvironmentmismatch();
+        }
+        catch ( final IOException l_exception )
+        {
+            System.out.println( l_exception.getMessage() );
+        }
+    }
+
+}
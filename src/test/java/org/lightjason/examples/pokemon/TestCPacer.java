@@ -0,0 +1,116 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * pacer test
+ */
+public final class TestCPacer
+{
+    /**
+     * tick rate of the tests
+     */
+    private static final double TICKRATE = 20;
+    /**
+     * tick period in milliseconds
+     */
+    private static final long PERIOD = (long) ( 1000 / TICKRATE );
+
+
+    /**
+     * test a step behind its deadline is counted as overrun and the
+     * next deadline starts at the end of the step, so the next step
+     * waits for a full period instead of catching up
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test
+    public void testoverrun() throws Exception
+    {
+        final CPacer l_pacer = new CPacer( TICKRATE );
+
+        TimeUnit.MILLISECONDS.sleep( 3 * PERIOD );
+        l_pacer.pace();
+        assertEquals( 1, l_pacer.overruns() );
+
+        final long l_start = System.nanoTime();
+        l_pacer.pace();
+        assertTrue( System.nanoTime() - l_start >= TimeUnit.MILLISECONDS.toNanos( PERIOD / 2 ) );
+        assertEquals( 1, l_pacer.overruns() );
+    }
+
+    /**
+     * test a step within its deadline waits and is not counted as overrun
+     */
+    @Test
+    public void testdeadline()
+    {
+        final CPacer l_pacer = new CPacer( TICKRATE );
+
+        final long l_start = System.nanoTime();
+        l_pacer.pace().pace();
+        assertTrue( System.nanoTime() - l_start >= TimeUnit.MILLISECONDS.toNanos( PERIOD ) );
+        assertEquals( 0, l_pacer.overruns() );
+    }
+
+    /**
+     * test a disabled pacing does not wait and counts no overruns
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test
+    public void testdisabled() throws Exception
+    {
+        final CPacer l_pacer = new CPacer( 0 );
+
+        TimeUnit.MILLISECONDS.sleep( PERIOD );
+        l_pacer.pace();
+        assertEquals( 0, l_pacer.overruns() );
+    }
+
+
+    /**
+     * main
+     *
+     * @param p_args arguments
+     * @throws Exception is thrown on errors
+     */
+    public static void main( final String[] p_args ) throws Exception
+    {
+        final TestCPacer l_test = new TestCPacer();
+
+        l_test.testoverrun();
+        l_test.testdeadline();
+        l_test.testdisabled();
+    }
+
+}
@@ -0,0 +1,314 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+import org.lightjason.examples.pokemon.simulation.item.IItem;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.LogManager;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * scheduler test, the agents and the environment are
+ * proxies which record the calls of the phases
+ */
+public final class TestCScheduler
+{
+    /**
+     * number of agents
+     */
+    private static final int AGENTS = 64;
+    /**
+     * execution function of a task
+     */
+    private static final Consumer<Callable<?>> CALL = i ->
+    {
+        try
+        {
+            i.call();
+        }
+        catch ( final Exception l_exception )
+        {
+            throw new RuntimeException( l_exception );
+        }
+    };
+    /**
+     * recorded calls
+     */
+    private List<String> m_calls;
+
+
+    /**
+     * data initialization
+     */
+    @Before
+    public void initialize()
+    {
+        // disable logging
+        LogManager.getLogManager().reset();
+
+        m_calls = Collections.synchronizedList( new ArrayList<>() );
+    }
+
+
+    /**
+     * test the phases are executed in the order perceive,
+     * cycle, move, environment and metric
+     */
+    @Test
+    public void testphaseorder()
+    {
+        this.phaseorder( false );
+    }
+
+    /**
+     * test the phases are executed in order on the virtual execution
+     */
+    @Test
+    public void testvirtualphaseorder()
+    {
+        this.phaseorder( true );
+    }
+
+    /**
+     * test each agent runs as own virtual thread, so all agents
+     * wait concurrently, which blocks a pool with fewer workers
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test
+    public void testvirtualblocking() throws Exception
+    {
+        Assume.assumeTrue( Arrays.stream( Executors.class.getMethods() ).anyMatch( i -> "newVirtualThreadPerTaskExecutor".equals( i.getName() ) ) );
+
+        final CountDownLatch l_latch = new CountDownLatch( AGENTS );
+        final AtomicInteger l_released = new AtomicInteger();
+        final List<Callable<?>> l_agents = IntStream.range( 0, AGENTS ).mapToObj( i -> (Callable<?>) () ->
+        {
+            l_latch.countDown();
+            if ( l_latch.await( 10, TimeUnit.SECONDS ) )
+                l_released.incrementAndGet();
+            return null;
+        } ).collect( Collectors.toList() );
+
+        try (
+            final CScheduler l_scheduler = new CScheduler( CALL, true, 0 );
+        )
+        {
+            l_scheduler.phase( CScheduler.EPhase.CYCLE, l_agents, i -> i );
+        }
+
+        assertEquals( AGENTS, l_released.get() );
+    }
+
+    /**
+     * test the static items are not executed and not woken
+     * on the activity execution, only the agents near the changed
+     * cells are executed
+     */
+    @Test
+    public void teststaticskip()
+    {
+        final List<String> l_static = Collections.synchronizedList( new ArrayList<>() );
+        final IItem l_item = (IItem) Proxy.newProxyInstance(
+            IItem.class.getClassLoader(),
+            new Class<?>[]{IItem.class},
+            ( i, j, k ) ->
+            {
+                l_static.add( j.getName() );
+                return null;
+            }
+        );
+
+        final IAgent l_near = this.agent( "near", false );
+        final IAgent l_far = this.agent( "far", false );
+
+        try (
+            final CScheduler l_scheduler = new CScheduler( CALL, false, 1 );
+        )
+        {
+            l_scheduler.execute(
+                Arrays.asList( l_near, l_far ),
+                this.environment( Stream.of( l_item, l_near ) ),
+                () -> m_calls.add( "environment" ),
+                () -> m_calls.add( "metric" )
+            );
+        }
+
+        assertTrue( l_static.isEmpty() );
+        assertEquals( Arrays.asList( "perceive near", "cycle near", "move", "environment", "metric" ), m_calls );
+    }
+
+
+    /**
+     * runs a step and checks the order of the phases
+     *
+     * @param p_virtual virtual execution
+     */
+    private void phaseorder( final boolean p_virtual )
+    {
+        final List<IAgent> l_agents = IntStream.range( 0, AGENTS ).mapToObj( i -> this.agent( Integer.toString( i ), true ) ).collect( Collectors.toList() );
+
+        try (
+            final CScheduler l_scheduler = new CScheduler( CALL, p_virtual, 0 );
+        )
+        {
+            l_scheduler.execute( l_agents, this.environment( Stream.empty() ), () -> m_calls.add( "environment" ), () -> m_calls.add( "metric" ) );
+        }
+
+        assertEquals( 2 * AGENTS + 3, m_calls.size() );
+        assertTrue( m_calls.subList( 0, AGENTS ).stream().allMatch( i -> i.startsWith( "perceive " ) ) );
+        assertTrue( m_calls.subList( AGENTS, 2 * AGENTS ).stream().allMatch( i -> i.startsWith( "cycle " ) ) );
+        assertEquals( Arrays.asList( "move", "environment", "metric" ), m_calls.subList( 2 * AGENTS, m_calls.size() ) );
+    }
+
+    /**
+     * creates an agent, which records the perceive and the cycle call
+     *
+     * @param p_name name
+     * @param p_active initial activity
+     * @return agent
+     */
+    private IAgent agent( final String p_name, final boolean p_active )
+    {
+        final boolean[] l_active = {p_active};
+        return (IAgent) Proxy.newProxyInstance(
+            IAgent.class.getClassLoader(),
+            new Class<?>[]{IAgent.class},
+            ( i, j, k ) ->
+            {
+                switch ( j.getName() )
+                {
+                    case "perceive":
+                        m_calls.add( "perceive " + p_name );
+                        return i;
+
+                    case "call":
+                        m_calls.add( "cycle " + p_name );
+                        return i;
+
+                    case "active":
+                        return l_active[0];
+
+                    case "activate":
+                        l_active[0] = true;
+                        return i;
+
+                    case "hashCode":
+                        return System.identityHashCode( i );
+
+                    case "equals":
+                        return i == k[0];
+
+                    case "toString":
+                        return p_name;
+
+                    default:
+                        return null;
+                }
+            }
+        );
+    }
+
+    /**
+     * creates an environment, which records the commit call
+     * and returns a single changed cell
+     *
+     * @param p_changed elements near the changed cell
+     * @return environment
+     */
+    private IEnvironment environment( final Stream<Object> p_changed )
+    {
+        final List<Object> l_changed = p_changed.collect( Collectors.toList() );
+        return (IEnvironment) Proxy.newProxyInstance(
+            IEnvironment.class.getClassLoader(),
+            new Class<?>[]{IEnvironment.class},
+            ( i, j, k ) ->
+            {
+                switch ( j.getName() )
+                {
+                    case "commit":
+                        m_calls.add( "move" );
+                        return i;
+
+                    case "column":
+                        return 10;
+
+                    case "changes":
+                        return l_changed.isEmpty() ? IntStream.empty() : IntStream.of( 0 );
+
+                    case "within":
+                        return l_changed.stream().map( n -> new ImmutablePair<>( n, null ) );
+
+                    default:
+                        return null;
+                }
+            }
+        );
+    }
+
+
+    /**
+     * main
+     *
+     * @param p_args arguments
+     * @throws Exception is thrown on errors
+     */
+    public static void main( final String[] p_args ) throws Exception
+    {
+        final TestCScheduler l_test = new TestCScheduler();
+
+        l_test.initialize();
+        l_test.testphaseorder();
+
+        l_test.initialize();
+        l_test.teststaticskip();
+
+        l_test.initialize();
+        l_test.testvirtualphaseorder();
+    }
+
+}
@@ -23,6 +23,9 @@
 
 package org.lightjason.examples.pokemon.simulation.agent;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import org.lightjason.examples.pokemon.CCommon;
 import org.lightjason.examples.pokemon.simulation.agent.pokemon.CPokemon;
 import org.lightjason.examples.pokemon.simulation.agent.pokemon.CPokemonGenerator;
@@ -34,8 +37,13 @@ import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.language.CLiteral;
+import org.lightjason.agentspeak.language.instantiable.plan.trigger.CTrigger;
+import org.lightjason.agentspeak.language.instantiable.plan.trigger.ITrigger;
 import org.lightjason.agentspeak.language.score.IAggregation;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.Set;
@@ -97,6 +105,38 @@ public final class TestCAgent
     }
 
 
+    /**
+     * test an idle agent with a queued trigger is active, so
+     * it is executed within the next step
+     *
+     * @throws Exception throws any exceptions
+     */
+    @Test
+    public void testactivity() throws Exception
+    {
+        Assume.assumeNotNull( m_environment );
+        Assume.assumeNotNull( m_actions );
+
+        final IAgent l_agent = new CPokemonGenerator(
+            m_environment,
+            new ByteArrayInputStream( "!main. +!main <- generic/print(\"main\"). +!poke <- generic/print(\"poke\").".getBytes( StandardCharsets.UTF_8 ) ),
+            m_actions,
+            IAggregation.EMPTY
+        ).generatesingle( "eevee" );
+
+        // the first cycle runs the initial goal, the second cycle is without any trigger and route
+        l_agent.call();
+        l_agent.call();
+        assertFalse( l_agent.active() );
+
+        l_agent.trigger( CTrigger.from( ITrigger.EType.ADDGOAL, CLiteral.from( "poke" ) ) );
+        assertTrue( l_agent.active() );
+
+        l_agent.call();
+        assertFalse( l_agent.active() );
+    }
+
+
     /**
      * main
      *
@@ -109,6 +149,7 @@ public final class TestCAgent
         l_test.initialize();
 
         l_test.testMovingAgentGenerator();
+        l_test.testactivity();
     }
 
 }
@@ -0,0 +1,174 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+
+/**
+ * test for the packed agent route
+ */
+public final class TestCRoute
+{
+    /**
+     * route
+     */
+    private CRoute m_route;
+
+    /**
+     * initialize route with two landmarks
+     */
+    @Before
+    public void initialize()
+    {
+        m_route = new CRoute( 10 ).add( -1, TestCRoute.landmarks( 2, 3, 6, 6 ) );
+    }
+
+    /**
+     * test of adding landmarks at the start and at the end
+     */
+    @Test
+    public void testadd()
+    {
+        m_route.add( 0, TestCRoute.landmarks( 1, 1 ) ).add( -1, TestCRoute.landmarks( 9, 9 ) );
+
+        assertEquals( TestCRoute.landmarks( 1, 1, 2, 3, 6, 6, 9, 9 ), m_route.stream().collect( Collectors.toList() ) );
+        assertEquals( new DenseDoubleMatrix1D( new double[]{1, 1} ), m_route.landmark() );
+    }
+
+    /**
+     * test of skipping landmarks
+     */
+    @Test
+    public void testskip()
+    {
+        m_route.skip( 1 );
+        assertEquals( 1, m_route.size() );
+        assertEquals( new DenseDoubleMatrix1D( new double[]{6, 6} ), m_route.landmark() );
+
+        m_route.skip( 5 );
+        assertTrue( m_route.isEmpty() );
+        assertEquals( 0, m_route.estimatedtime( new DenseDoubleMatrix1D( new double[]{0, 0} ), 1 ), 0 );
+    }
+
+    /**
+     * test of the estimated time from the current position over all landmarks
+     */
+    @Test
+    public void testestimatedtime()
+    {
+        assertEquals( 5 + 5, m_route.estimatedtime( new DenseDoubleMatrix1D( new double[]{2, 3} ), 0.5 ), 1e-9 );
+
+        m_route.skip( 1 );
+        assertEquals( 5, m_route.estimatedtime( new DenseDoubleMatrix1D( new double[]{3, 2} ), 1 ), 1e-9 );
+    }
+
+    /**
+     * test of replacing the current landmark with refined landmarks
+     */
+    @Test
+    public void testrefine()
+    {
+        m_route.refine( TestCRoute.landmarks( 2, 3 ) );
+        assertTrue( m_route.refined() );
+        assertEquals( TestCRoute.landmarks( 2, 3, 6, 6 ), m_route.stream().collect( Collectors.toList() ) );
+
+        m_route.skip( 1 ).refine( TestCRoute.landmarks( 4, 4, 5, 5, 6, 6 ) );
+        assertTrue( m_route.refined() );
+        assertEquals( TestCRoute.landmarks( 4, 4, 5, 5, 6, 6 ), m_route.stream().collect( Collectors.toList() ) );
+    }
+
+    /**
+     * test of writing and restoring the remaining landmarks
+     *
+     * @throws IOException on stream error
+     */
+    @Test
+    public void testcheckpoint() throws IOException
+    {
+        final ByteArrayOutputStream l_output = new ByteArrayOutputStream();
+        m_route.add( 0, TestCRoute.landmarks( 1, 1 ) ).skip( 1 ).checkpoint( new DataOutputStream( l_output ) );
+
+        final CRoute l_route = new CRoute( 10 ).add( -1, TestCRoute.landmarks( 9, 9 ) );
+        l_route.restore( new DataInputStream( new ByteArrayInputStream( l_output.toByteArray() ) ) );
+
+        assertEquals( TestCRoute.landmarks( 2, 3, 6, 6 ), l_route.stream().collect( Collectors.toList() ) );
+        assertEquals( new DenseDoubleMatrix1D( new double[]{2, 3} ), l_route.landmark() );
+        assertEquals( 5 + 5, l_route.estimatedtime( new DenseDoubleMatrix1D( new double[]{2, 3} ), 0.5 ), 1e-9 );
+    }
+
+    /**
+     * creates a list of landmarks
+     *
+     * @param p_values row and column values
+     * @return landmark list
+     */
+    private static List<DoubleMatrix1D> landmarks( final double... p_values )
+    {
+        return Stream.iterate( 0, i -> i + 2 )
+                     .limit( p_values.length / 2 )
+                     .map( i -> new DenseDoubleMatrix1D( new double[]{p_values[i], p_values[i + 1]} ) )
+                     .collect( Collectors.toList() );
+    }
+
+
+    /**
+     * main
+     *
+     * @param p_args arguments
+     * @throws IOException on stream error
+     */
+    public static void main( final String[] p_args ) throws IOException
+    {
+        final TestCRoute l_test = new TestCRoute();
+
+        l_test.initialize();
+        l_test.testadd();
+        l_test.initialize();
+        l_test.testskip();
+        l_test.initialize();
+        l_test.testestimatedtime();
+        l_test.initialize();
+        l_test.testrefine();
+        l_test.initialize();
+        l_test.testcheckpoint();
+    }
+
+}
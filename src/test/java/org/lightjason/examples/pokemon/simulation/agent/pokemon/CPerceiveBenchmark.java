@@ -0,0 +1,146 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.agent.pokemon;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import org.lightjason.agentspeak.action.IAction;
+import org.lightjason.agentspeak.language.score.IAggregation;
+import org.lightjason.examples.pokemon.CCommon;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.ERoutingFactory;
+import org.lightjason.examples.pokemon.simulation.environment.CEnvironment;
+import org.lightjason.examples.pokemon.simulation.environment.IEnvironment;
+import org.lightjason.examples.pokemon.simulation.item.CStatic;
+import org.lightjason.examples.pokemon.simulation.item.IItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+/**
+ * benchmark of the pokemon perceiving at different view ranges,
+ * the environment is filled with random static elements
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class CPerceiveBenchmark
+{
+    /**
+     * number of rows and columns of the environment
+     */
+    private static final int SIZE = 250;
+    /**
+     * number of static elements
+     */
+    private static final int ELEMENTS = SIZE * SIZE / 10;
+    /**
+     * view angle in degree
+     */
+    private static final double ANGLE = 120;
+    /**
+     * view range in cells
+     */
+    @Param( {"5", "10", "25", "50"} )
+    protected int m_range;
+    /**
+     * pokemon
+     */
+    private CPokemon m_pokemon;
+    /**
+     * view direction
+     */
+    private CViewDirection m_direction;
+
+
+    /**
+     * creates the environment and the pokemon
+     *
+     * @throws Exception is thrown on agent generating errors
+     */
+    @Setup
+    public void initialize() throws Exception
+    {
+        // disable logging
+        LogManager.getLogManager().reset();
+
+        final Random l_random = new Random( 42 );
+        final IEnvironment l_environment = new CEnvironment( SIZE, SIZE, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+        IntStream.range( 0, ELEMENTS )
+                 .mapToObj( i -> Arrays.asList( l_random.nextInt( SIZE ), l_random.nextInt( SIZE ) ) )
+                 .map( i -> new CStatic( i, i, "000000" ) )
+                 .forEach( i -> l_environment.move( i, i.position() ) );
+
+        final Set<IAction> l_actions = Collections.unmodifiableSet( Stream.concat(
+            org.lightjason.agentspeak.common.CCommon.actionsFromPackage(),
+            org.lightjason.agentspeak.common.CCommon.actionsFromAgentClass( CPokemon.class )
+        ).collect( Collectors.toSet() ) );
+
+        m_pokemon = (CPokemon) new CPokemonGenerator(
+            l_environment,
+            CPerceiveBenchmark.class.getResourceAsStream( MessageFormat.format( "/{0}/agent.asl", CCommon.PACKAGEPATH ) ),
+            l_actions,
+            IAggregation.EMPTY
+        ).generatesingle( "eevee" );
+
+        // the goal must be different to the position, otherwise the view direction cannot be calculated
+        final DoubleMatrix1D l_goal = new DenseDoubleMatrix1D( new double[]{m_pokemon.position().getQuick( 0 ), m_pokemon.position().getQuick( 1 ) + 1} );
+        m_direction = CViewDirection.generate( ANGLE, m_range, m_pokemon.position(), l_goal );
+    }
+
+
+    /**
+     * perceives the environment
+     *
+     * @return number of perceived cells
+     */
+    @Benchmark
+    public long perceive()
+    {
+        return m_pokemon.perceive( m_direction ).count();
+    }
+
+}
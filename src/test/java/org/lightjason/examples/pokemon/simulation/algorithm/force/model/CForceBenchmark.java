@@ -0,0 +1,103 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.force.model;
+
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.item.CStatic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * benchmark of the default force model over neighbour sets of different sizes
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class CForceBenchmark
+{
+    /**
+     * number of neighbours
+     */
+    @Param( {"1", "10", "100", "1000"} )
+    protected int m_neighbours;
+    /**
+     * force model
+     */
+    private IModel<IElement> m_model;
+    /**
+     * element
+     */
+    private IElement m_element;
+    /**
+     * neighbours of the element
+     */
+    private List<IElement> m_neighbour;
+
+
+    /**
+     * creates the element and the neighbours
+     */
+    @Setup
+    public void initialize()
+    {
+        m_model = new CDefaultModell<>();
+        m_element = new CStatic( Arrays.asList( 0, 0 ), Arrays.asList( 0, 0 ), "000000" );
+        m_neighbour = IntStream.range( 0, m_neighbours )
+                               .mapToObj( i -> Arrays.asList( 1 + i / 100, i % 100 ) )
+                               .map( i -> new CStatic( i, i, "000000" ) )
+                               .collect( Collectors.toList() );
+    }
+
+
+    /**
+     * calculates the force of the element
+     *
+     * @return force value
+     */
+    @Benchmark
+    public Double apply()
+    {
+        return m_model.apply( m_element, m_neighbour.stream() );
+    }
+
+}
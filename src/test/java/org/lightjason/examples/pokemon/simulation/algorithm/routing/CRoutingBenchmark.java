@@ -0,0 +1,146 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.impl.SparseObjectMatrix2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * benchmark of the JPS+ routing over different map sizes and obstacle densities,
+ * the routes are calculated between fixed random pairs of free cells
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class CRoutingBenchmark
+{
+    /**
+     * number of source-target pairs
+     */
+    private static final int QUERIES = 64;
+    /**
+     * number of rows and columns of the map
+     */
+    @Param( {"100", "500", "1000"} )
+    protected int m_size;
+    /**
+     * probability of an obstacle within a cell
+     */
+    @Param( {"0.0", "0.1", "0.3"} )
+    protected double m_density;
+    /**
+     * map with static obstacles
+     */
+    private ObjectMatrix2D m_objects;
+    /**
+     * routing algorithm
+     */
+    private IRouting m_routing;
+    /**
+     * source-target pairs
+     */
+    private DoubleMatrix1D[][] m_queries;
+    /**
+     * index of the next query
+     */
+    private int m_query;
+
+
+    /**
+     * creates the map and the queries with a fixed seed
+     */
+    @Setup
+    public void initialize()
+    {
+        final Random l_random = new Random( 42 );
+        final Object l_obstacle = new Object();
+
+        m_objects = new SparseObjectMatrix2D( m_size, m_size );
+        IntStream.range( 0, m_size )
+                 .forEach( i -> IntStream.range( 0, m_size )
+                                         .filter( j -> l_random.nextDouble() < m_density )
+                                         .forEach( j -> m_objects.setQuick( i, j, l_obstacle ) ) );
+
+        m_routing = new CJPSPlus().initialize( m_objects );
+        m_queries = IntStream.range( 0, QUERIES )
+                             .mapToObj( i -> new DoubleMatrix1D[]{this.free( l_random ), this.free( l_random )} )
+                             .toArray( DoubleMatrix1D[][]::new );
+    }
+
+
+    /**
+     * calculates a route
+     *
+     * @return route
+     */
+    @Benchmark
+    public List<DoubleMatrix1D> route()
+    {
+        final DoubleMatrix1D[] l_query = m_queries[m_query];
+        m_query = ( m_query + 1 ) % QUERIES;
+        return m_routing.route( m_objects, l_query[0], l_query[1] );
+    }
+
+
+    /**
+     * returns a random free cell
+     *
+     * @param p_random random generator
+     * @return position
+     */
+    private DoubleMatrix1D free( final Random p_random )
+    {
+        final DoubleMatrix1D l_position = new DenseDoubleMatrix1D( new double[]{p_random.nextInt( m_size ), p_random.nextInt( m_size )} );
+        while ( m_objects.getQuick( (int) l_position.getQuick( 0 ), (int) l_position.getQuick( 1 ) ) != null )
+        {
+            l_position.setQuick( 0, p_random.nextInt( m_size ) );
+            l_position.setQuick( 1, p_random.nextInt( m_size ) );
+        }
+
+        return l_position;
+    }
+
+}
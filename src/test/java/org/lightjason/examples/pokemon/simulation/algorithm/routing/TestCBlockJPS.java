@@ -0,0 +1,106 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.impl.SparseObjectMatrix2D;
+
+
+/**
+ * test for block-based JPS, the routing contract is tested by TestCRouting
+ */
+public final class TestCBlockJPS
+{
+
+    /**
+     * test of equal routes of block-based JPS and JPS+ on a grid which is larger than a word
+     */
+    @Test
+    public void testjpsplus()
+    {
+        final Random l_random = new Random( 42 );
+        final ObjectMatrix2D l_grid = new SparseObjectMatrix2D( 150, 140 );
+        IntStream.range( 0, 3000 ).forEach( i -> l_grid.setQuick( l_random.nextInt( l_grid.rows() ), l_random.nextInt( l_grid.columns() ), new Object() ) );
+
+        final IRouting l_blockjps = new CBlockJPS().initialize( l_grid );
+        final IRouting l_jpsplus = new CJPSPlus().initialize( l_grid );
+
+        IntStream.range( 0, 50 ).forEach( i ->
+        {
+            final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{l_random.nextInt( l_grid.rows() ), l_random.nextInt( l_grid.columns() )} );
+            final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{l_random.nextInt( l_grid.rows() ), l_random.nextInt( l_grid.columns() )} );
+            assertEquals( l_jpsplus.route( l_grid, l_source, l_target ), l_blockjps.route( l_grid, l_source, l_target ) );
+        } );
+    }
+
+    /**
+     * test of equal routes of block-based JPS and JPS+, if the
+     * walls and their gaps are on the borders of the words
+     */
+    @Test
+    public void testwordborder()
+    {
+        final ObjectMatrix2D l_grid = new SparseObjectMatrix2D( 130, 130 );
+        IntStream.of( 63, 64, 127, 128 ).forEach( i -> IntStream.range( 0, l_grid.rows() )
+                                                               .filter( j -> Math.abs( j - i / 2 ) > 1 )
+                                                               .forEach( j -> l_grid.setQuick( j, i, new Object() ) ) );
+
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{0, 0} );
+        IntStream.of( 0, 63, 64, 127, 129 ).forEach( i ->
+        {
+            final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{i, 129} );
+            final List<DoubleMatrix1D> l_route = new CJPSPlus().route( l_grid, l_source, l_target );
+
+            assertEquals( l_target, l_route.get( l_route.size() - 1 ) );
+            assertEquals( l_route, new CBlockJPS().route( l_grid, l_source, l_target ) );
+        } );
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    public static void main( final String[] p_args )
+    {
+        new TestCBlockJPS().testjpsplus();
+        new TestCBlockJPS().testwordborder();
+    }
+
+
+}
@@ -0,0 +1,244 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+
+/**
+ * test for windowed cooperative A* routing, the routing contract is tested by TestCRouting
+ */
+public final class TestCCooperativeAStar
+{
+    private static final int WINDOW = 16;
+
+    /**
+     * test of a correct working route with some obstacles, the
+     * route is built by single cell steps and the window is reserved
+     */
+    @Test
+    public void testrouting()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.grid();
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        final List<DoubleMatrix1D> l_route = new CCooperativeAStar( new CJPSPlus(), WINDOW ).route(
+            l_grid, l_reservation, "a", new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} )
+        );
+
+        assertEquals( new DenseDoubleMatrix1D( new double[]{2, 3} ), l_route.get( l_route.size() - 1 ) );
+        this.steps( l_grid, new DenseDoubleMatrix1D( new double[]{8, 0} ), l_route );
+        assertEquals( WINDOW, l_reservation.size() );
+        assertEquals( "a", l_reservation.owner( 2, 3, WINDOW ) );
+    }
+
+    /**
+     * test of a route which is longer than the window, so
+     * the rest of the route is calculated by the underlying routing
+     */
+    @Test
+    public void testbeyondwindow()
+    {
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        final List<DoubleMatrix1D> l_route = new CCooperativeAStar( new CJPSPlus(), 4 ).route(
+            TestCRouting.emptygrid(), l_reservation, "a", new DenseDoubleMatrix1D( new double[]{0, 0} ), new DenseDoubleMatrix1D( new double[]{9, 9} )
+        );
+
+        assertEquals( new DenseDoubleMatrix1D( new double[]{4, 4} ), l_route.get( 3 ) );
+        assertEquals( new DenseDoubleMatrix1D( new double[]{9, 9} ), l_route.get( l_route.size() - 1 ) );
+        assertEquals( 4, l_reservation.size() );
+    }
+
+    /**
+     * test of two crossing routes, the elements are never on the
+     * same cell at the same tick and never swap their cells
+     */
+    @Test
+    public void testcrossing()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.emptygrid();
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        final IRouting l_routing = new CCooperativeAStar( new CJPSPlus(), WINDOW );
+        final DoubleMatrix1D l_firststart = new DenseDoubleMatrix1D( new double[]{5, 0} );
+        final DoubleMatrix1D l_secondstart = new DenseDoubleMatrix1D( new double[]{0, 5} );
+
+        final List<DoubleMatrix1D> l_first = l_routing.route( l_grid, l_reservation, "a", l_firststart, new DenseDoubleMatrix1D( new double[]{5, 9} ) );
+        final List<DoubleMatrix1D> l_second = l_routing.route( l_grid, l_reservation, "b", l_secondstart, new DenseDoubleMatrix1D( new double[]{9, 5} ) );
+
+        this.steps( l_grid, l_firststart, l_first );
+        this.steps( l_grid, l_secondstart, l_second );
+        assertEquals( new DenseDoubleMatrix1D( new double[]{9, 5} ), l_second.get( l_second.size() - 1 ) );
+        this.conflicts( l_firststart, l_first, l_secondstart, l_second );
+    }
+
+    /**
+     * test of two routes in opposite directions within a narrow
+     * corridor, the elements must pass each other without a swap
+     */
+    @Test
+    public void testheadon()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.emptygrid();
+        IntStream.range( 0, l_grid.columns() ).forEach( i ->
+        {
+            IntStream.range( 0, 4 ).forEach( j -> l_grid.setQuick( j, i, new Object() ) );
+            IntStream.range( 6, l_grid.rows() ).forEach( j -> l_grid.setQuick( j, i, new Object() ) );
+        } );
+
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        final IRouting l_routing = new CCooperativeAStar( new CJPSPlus(), WINDOW );
+        final DoubleMatrix1D l_firststart = new DenseDoubleMatrix1D( new double[]{4, 0} );
+        final DoubleMatrix1D l_secondstart = new DenseDoubleMatrix1D( new double[]{4, 9} );
+
+        final List<DoubleMatrix1D> l_first = l_routing.route( l_grid, l_reservation, "a", l_firststart, l_secondstart );
+        final List<DoubleMatrix1D> l_second = l_routing.route( l_grid, l_reservation, "b", l_secondstart, l_firststart );
+
+        this.steps( l_grid, l_firststart, l_first );
+        this.steps( l_grid, l_secondstart, l_second );
+        assertEquals( l_secondstart, l_first.get( l_first.size() - 1 ) );
+        assertEquals( l_firststart, l_second.get( l_second.size() - 1 ) );
+        this.conflicts( l_firststart, l_first, l_secondstart, l_second );
+    }
+
+    /**
+     * test of releasing and dropping the passed slots
+     */
+    @Test
+    public void testrelease()
+    {
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        final IRouting l_routing = new CCooperativeAStar( new CJPSPlus(), WINDOW );
+        l_routing.route( TestCRouting.emptygrid(), l_reservation, "a", new DenseDoubleMatrix1D( new double[]{0, 0} ), new DenseDoubleMatrix1D( new double[]{0, 9} ) );
+        l_routing.route( TestCRouting.emptygrid(), l_reservation, "b", new DenseDoubleMatrix1D( new double[]{9, 0} ), new DenseDoubleMatrix1D( new double[]{9, 9} ) );
+        assertEquals( 2 * WINDOW, l_reservation.size() );
+
+        l_reservation.advance().advance();
+        assertEquals( 2 * WINDOW - 2, l_reservation.size() );
+
+        l_reservation.release( "a" );
+        assertEquals( WINDOW - 1, l_reservation.size() );
+        assertEquals( "b", l_reservation.owner( 9, 9, WINDOW ) );
+    }
+
+    /**
+     * test of a correct working route with full of obstacles
+     */
+    @Test
+    public void testoccupiedgrid()
+    {
+        final CReservationTable l_reservation = new CReservationTable( 10, 10 );
+        assertEquals(
+            new CCooperativeAStar( new CJPSPlus(), WINDOW ).route(
+                TestCRouting.occupiedgrid(), l_reservation, "a", new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} )
+            ),
+            Collections.<DoubleMatrix1D>emptyList()
+        );
+        assertEquals( 0, l_reservation.size() );
+    }
+
+    /**
+     * asserts that a route moves at most one cell per landmark on free cells
+     *
+     * @param p_objects object matrix
+     * @param p_start start position
+     * @param p_route route
+     */
+    private void steps( final ObjectMatrix2D p_objects, final DoubleMatrix1D p_start, final List<DoubleMatrix1D> p_route )
+    {
+        IntStream.range( 0, Math.min( WINDOW, p_route.size() ) ).forEach( i ->
+        {
+            final DoubleMatrix1D l_previous = i == 0 ? p_start : p_route.get( i - 1 );
+            assertTrue( Math.abs( p_route.get( i ).getQuick( 0 ) - l_previous.getQuick( 0 ) ) <= 1 );
+            assertTrue( Math.abs( p_route.get( i ).getQuick( 1 ) - l_previous.getQuick( 1 ) ) <= 1 );
+            assertEquals( null, p_objects.getQuick( (int) p_route.get( i ).getQuick( 0 ), (int) p_route.get( i ).getQuick( 1 ) ) );
+        } );
+    }
+
+    /**
+     * asserts that two routes are never on the same cell at
+     * the same tick and never swap their cells between two ticks
+     *
+     * @param p_firststart start position of the first route
+     * @param p_first first route
+     * @param p_secondstart start position of the second route
+     * @param p_second second route
+     */
+    private void conflicts( final DoubleMatrix1D p_firststart, final List<DoubleMatrix1D> p_first,
+                            final DoubleMatrix1D p_secondstart, final List<DoubleMatrix1D> p_second )
+    {
+        IntStream.range( 0, WINDOW ).forEach( i ->
+        {
+            assertNotEquals( this.position( p_firststart, p_first, i ), this.position( p_secondstart, p_second, i ) );
+            assertTrue(
+                !this.position( p_firststart, p_first, i ).equals( this.position( p_secondstart, p_second, i + 1 ) )
+                || !this.position( p_firststart, p_first, i + 1 ).equals( this.position( p_secondstart, p_second, i ) )
+            );
+        } );
+    }
+
+    /**
+     * returns the position of a route at a tick
+     *
+     * @param p_start start position
+     * @param p_route route
+     * @param p_tick tick
+     * @return position
+     */
+    private DoubleMatrix1D position( final DoubleMatrix1D p_start, final List<DoubleMatrix1D> p_route, final int p_tick )
+    {
+        return p_tick == 0 ? p_start : p_route.get( Math.min( p_tick, p_route.size() ) - 1 );
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    public static void main( final String[] p_args )
+    {
+        new TestCCooperativeAStar().testrouting();
+        new TestCCooperativeAStar().testbeyondwindow();
+        new TestCCooperativeAStar().testcrossing();
+        new TestCCooperativeAStar().testheadon();
+        new TestCCooperativeAStar().testrelease();
+        new TestCCooperativeAStar().testoccupiedgrid();
+    }
+
+
+}
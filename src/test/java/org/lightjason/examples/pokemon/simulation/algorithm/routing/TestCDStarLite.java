@@ -0,0 +1,121 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.impl.SparseObjectMatrix2D;
+
+
+/**
+ * test for incremental D* Lite routing, the routing contract is tested by TestCRouting
+ */
+public final class TestCDStarLite
+{
+
+    /**
+     * test of a route repair after a moving element blocks and releases a cell of the route
+     */
+    @Test
+    public void testmovement()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.grid();
+        final IRouting l_routing = new CDStarLite().initialize( l_grid );
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{8, 0} );
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{2, 3} );
+        final int l_cell = 3 * l_grid.columns() + 1;
+        final List<DoubleMatrix1D> l_route = l_routing.route( l_grid, l_source, l_target );
+
+        l_grid.setQuick( 3, 1, new Object() );
+        l_routing.update( l_grid, l_cell );
+        assertEquals( new CFlowField().route( l_grid, l_source, l_target ), l_routing.route( l_grid, l_source, l_target ) );
+
+        l_grid.setQuick( 3, 1, null );
+        l_routing.update( l_grid, l_cell );
+        assertEquals( l_route, l_routing.route( l_grid, l_source, l_target ) );
+    }
+
+    /**
+     * test of an incremental repair, if the cell next to the start is
+     * blocked the repair expands the cells around the change only, a
+     * new search with the same occupancy expands the map again
+     */
+    @Test
+    public void testrepair()
+    {
+        final Random l_random = new Random( 0 );
+        final ObjectMatrix2D l_objects = new SparseObjectMatrix2D( 100, 100 );
+        IntStream.range( 0, 3000 ).forEach( i -> l_objects.setQuick( l_random.nextInt( l_objects.rows() ), l_random.nextInt( l_objects.columns() ), new Object() ) );
+        l_objects.setQuick( 50, 10, null );
+        l_objects.setQuick( 50, 90, null );
+
+        final CGrid l_grid = CGrid.from( l_objects );
+        final BitSet l_blocked = new BitSet( l_grid.cells() );
+        IntStream.range( 0, l_grid.cells() ).filter( i -> l_grid.blocked( l_grid.row( i ), l_grid.column( i ) ) ).forEach( l_blocked::set );
+
+        final CDStarLiteSearch l_search = new CDStarLiteSearch( l_grid, (BitSet) l_blocked.clone(), l_grid.index( 50, 90 ) );
+        final DoubleMatrix1D l_landmark = l_search.route( 50, 10 ).get( 0 );
+        final long l_initial = l_search.expansions();
+
+        final int l_cell = l_grid.index( 50 + (int) Math.signum( l_landmark.getQuick( 0 ) - 50 ), 10 + (int) Math.signum( l_landmark.getQuick( 1 ) - 10 ) );
+        l_search.change( l_cell, true );
+        final List<DoubleMatrix1D> l_repaired = l_search.route( 50, 10 );
+        final long l_repair = l_search.expansions() - l_initial;
+
+        l_blocked.set( l_cell );
+        final CDStarLiteSearch l_replan = new CDStarLiteSearch( l_grid, l_blocked, l_grid.index( 50, 90 ) );
+
+        assertEquals( l_replan.route( 50, 10 ), l_repaired );
+        assertTrue( l_repair > 0 );
+        assertTrue( l_repair * 4 < l_replan.expansions() );
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    public static void main( final String[] p_args )
+    {
+        new TestCDStarLite().testmovement();
+        new TestCDStarLite().testrepair();
+    }
+
+
+}
@@ -0,0 +1,115 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+
+/**
+ * test for flow-field routing, the routing contract is tested by TestCRouting
+ */
+public final class TestCFlowField
+{
+
+    /**
+     * test of routes with the same target from all free cells,
+     * the integration field of the target is calculated once
+     */
+    @Test
+    public void testsametarget()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.grid();
+        final CFlowField l_routing = new CFlowField();
+        l_routing.initialize( l_grid );
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{2, 3} );
+
+        IntStream.range( 0, l_grid.rows() )
+                 .forEach( i -> IntStream.range( 0, l_grid.columns() )
+                                         .filter( j -> l_grid.getQuick( i, j ) == null )
+                                         .mapToObj( j -> new DenseDoubleMatrix1D( new double[]{i, j} ) )
+                                         .filter( j -> !j.equals( l_target ) )
+                                         .forEach( j ->
+                                         {
+                                             final List<DoubleMatrix1D> l_path = TestCRouting.walk( l_routing, l_grid, j, l_target );
+                                             assertEquals( l_target, l_path.get( l_path.size() - 1 ) );
+                                         } ) );
+
+        assertEquals( 1, l_routing.size() );
+    }
+
+    /**
+     * test of dropping the cached integration fields
+     * after static obstacles are added
+     */
+    @Test
+    public void testupdate()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.emptygrid();
+        final CFlowField l_routing = new CFlowField();
+        l_routing.initialize( l_grid );
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{8, 0} );
+
+        l_routing.route( l_grid, l_source, new DenseDoubleMatrix1D( new double[]{2, 3} ) );
+        l_routing.route( l_grid, l_source, new DenseDoubleMatrix1D( new double[]{6, 9} ) );
+        assertEquals( 2, l_routing.size() );
+
+        l_grid.setQuick( 4, 2, new Object() );
+        l_grid.setQuick( 4, 3, new Object() );
+        l_grid.setQuick( 3, 2, new Object() );
+        l_routing.update( l_grid, 3, 2, 4, 3 );
+        assertEquals( 0, l_routing.size() );
+
+        assertEquals(
+            new CFlowField().route( l_grid, l_source, new DenseDoubleMatrix1D( new double[]{2, 3} ) ),
+            l_routing.route( l_grid, l_source, new DenseDoubleMatrix1D( new double[]{2, 3} ) )
+        );
+        assertEquals( 1, l_routing.size() );
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    public static void main( final String[] p_args )
+    {
+        new TestCFlowField().testsametarget();
+        new TestCFlowField().testupdate();
+    }
+
+
+}
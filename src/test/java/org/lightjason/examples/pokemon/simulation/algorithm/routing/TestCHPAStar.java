@@ -0,0 +1,119 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.impl.SparseObjectMatrix2D;
+
+
+/**
+ * test for hierarchical routing, the routing contract is tested by TestCRouting
+ */
+public final class TestCHPAStar
+{
+
+    /**
+     * test of a route over multiple clusters, the landmarks are
+     * refined like an agent which walks along the route
+     */
+    @Test
+    public void testclusters()
+    {
+        final ObjectMatrix2D l_grid = TestCHPAStar.wall();
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{10, 90} );
+        final List<DoubleMatrix1D> l_path = TestCRouting.walk( new CHPAStar().initialize( l_grid ), l_grid, new DenseDoubleMatrix1D( new double[]{10, 10} ), l_target );
+
+        assertEquals( l_target, l_path.get( l_path.size() - 1 ) );
+        assertTrue( l_path.stream().anyMatch( i -> i.getQuick( 0 ) == 90 ) );
+    }
+
+    /**
+     * test of the lazy refinement, the route contains the refined first
+     * landmark and the cluster exits, an exit is refined to the cell-level
+     * route if it is requested from the previous landmark
+     */
+    @Test
+    public void testlazyrefinement()
+    {
+        final ObjectMatrix2D l_grid = TestCHPAStar.wall();
+        final IRouting l_routing = new CHPAStar().initialize( l_grid );
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{10, 10} );
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{10, 90} );
+        final List<DoubleMatrix1D> l_route = l_routing.route( l_grid, l_source, l_target );
+
+        assertTrue( TestCRouting.walkable( l_grid, l_source, l_route.get( 0 ) ) );
+        final int l_coarse = IntStream.range( 1, l_route.size() )
+                                      .filter( i -> !TestCRouting.walkable( l_grid, l_route.get( i - 1 ), l_route.get( i ) ) )
+                                      .findFirst()
+                                      .orElse( -1 );
+        assertTrue( l_coarse > 0 );
+
+        final List<DoubleMatrix1D> l_refined = l_routing.refine( l_grid, l_route.get( l_coarse - 1 ), l_route.get( l_coarse ) );
+        assertEquals( l_route.get( l_coarse ), l_refined.get( l_refined.size() - 1 ) );
+        IntStream.range( 0, l_refined.size() )
+                 .forEach( i -> assertTrue( TestCRouting.walkable( l_grid, i == 0 ? l_route.get( l_coarse - 1 ) : l_refined.get( i - 1 ), l_refined.get( i ) ) ) );
+
+        assertTrue( l_route.size() < TestCRouting.walk( l_routing, l_grid, l_source, l_target ).size() );
+    }
+
+    /**
+     * returns a grid with a wall and a single gap,
+     * which splits the grid into two parts
+     *
+     * @return grid
+     */
+    private static ObjectMatrix2D wall()
+    {
+        final ObjectMatrix2D l_grid = new SparseObjectMatrix2D( 100, 100 );
+        IntStream.range( 0, l_grid.rows() ).filter( i -> i != 90 ).forEach( i -> l_grid.setQuick( i, 50, new Object() ) );
+        return l_grid;
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    public static void main( final String[] p_args )
+    {
+        new TestCHPAStar().testclusters();
+        new TestCHPAStar().testlazyrefinement();
+    }
+
+
+}
@@ -139,6 +139,26 @@ public final class TestCJPSPlus
     }
 
 
+    /**
+     * test of a route after static obstacles are added to an initialized grid
+     */
+    @Test
+    public void testupdate()
+    {
+        final IRouting l_routing = new CJPSPlus().initialize( m_emptygrid );
+
+        m_emptygrid.setQuick( 4, 2, new Object() );
+        m_emptygrid.setQuick( 4, 3, new Object() );
+        m_emptygrid.setQuick( 3, 2, new Object() );
+        l_routing.update( m_emptygrid, 3, 2, 4, 3 );
+
+        assertEquals(
+            new CJPSPlus().route( m_grid, new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} ) ),
+            l_routing.route( m_emptygrid, new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} ) )
+        );
+    }
+
+
     /**
      * it is recommand, that each test-class uses also
      * a main-method, which calls the test-methods manually,
@@ -152,6 +172,7 @@ public final class TestCJPSPlus
         new TestCJPSPlus().testemptygrid();
         new TestCJPSPlus().testoccupiedgrid();
         new TestCJPSPlus().testrouting();
+        new TestCJPSPlus().testupdate();
     }
 
 
@@ -0,0 +1,290 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.algorithm.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.ObjectMatrix2D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import cern.colt.matrix.impl.SparseObjectMatrix2D;
+
+
+/**
+ * test of the routing contract, which is fulfilled by each routing algorithm,
+ * the routes are compared with the shortest routes of JPS+
+ */
+@RunWith( Parameterized.class )
+public final class TestCRouting
+{
+    /**
+     * routing factory
+     */
+    private final Supplier<IRouting> m_routing;
+
+    /**
+     * ctor
+     *
+     * @param p_name name of the routing
+     * @param p_routing routing factory
+     */
+    public TestCRouting( final String p_name, final Supplier<IRouting> p_routing )
+    {
+        m_routing = p_routing;
+    }
+
+    /**
+     * returns the routing algorithms
+     *
+     * @return name and factory of each routing
+     */
+    @Parameterized.Parameters( name = "{0}" )
+    public static Collection<Object[]> routings()
+    {
+        return Stream.of(
+            new Object[]{"JPS+", (Supplier<IRouting>) CJPSPlus::new},
+            new Object[]{"flow-field", (Supplier<IRouting>) CFlowField::new},
+            new Object[]{"HPA*", (Supplier<IRouting>) CHPAStar::new},
+            new Object[]{"block-based JPS", (Supplier<IRouting>) CBlockJPS::new},
+            new Object[]{"D* Lite", (Supplier<IRouting>) CDStarLite::new},
+            new Object[]{"WHCA*", (Supplier<IRouting>) () -> new CCooperativeAStar( new CJPSPlus(), 16 )}
+        ).collect( Collectors.toList() );
+    }
+
+
+    /**
+     * test of a shortest route with some obstacles
+     */
+    @Test
+    public void testrouting()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.grid();
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{8, 0} );
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{2, 3} );
+        final List<DoubleMatrix1D> l_path = TestCRouting.walk( m_routing.get(), l_grid, l_source, l_target );
+
+        assertEquals( l_target, l_path.get( l_path.size() - 1 ) );
+        assertEquals( TestCRouting.length( l_source, new CJPSPlus().route( l_grid, l_source, l_target ) ), TestCRouting.length( l_source, l_path ), 1e-9 );
+    }
+
+    /**
+     * test of a route with full of obstacles
+     */
+    @Test
+    public void testoccupiedgrid()
+    {
+        assertEquals(
+            Collections.<DoubleMatrix1D>emptyList(),
+            m_routing.get().route( TestCRouting.occupiedgrid(), new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} ) )
+        );
+    }
+
+    /**
+     * test of a shortest route without obstacles
+     */
+    @Test
+    public void testemptygrid()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.emptygrid();
+        final DoubleMatrix1D l_source = new DenseDoubleMatrix1D( new double[]{2, 3} );
+        final DoubleMatrix1D l_target = new DenseDoubleMatrix1D( new double[]{6, 9} );
+        final List<DoubleMatrix1D> l_path = TestCRouting.walk( m_routing.get(), l_grid, l_source, l_target );
+
+        assertEquals( l_target, l_path.get( l_path.size() - 1 ) );
+        assertEquals( 4 * Math.sqrt( 2 ) + 2, TestCRouting.length( l_source, l_path ), 1e-9 );
+    }
+
+    /**
+     * test of a route after static obstacles are added to an initialized grid
+     */
+    @Test
+    public void testupdate()
+    {
+        final ObjectMatrix2D l_grid = TestCRouting.emptygrid();
+        final IRouting l_routing = m_routing.get().initialize( l_grid );
+
+        l_grid.setQuick( 4, 2, new Object() );
+        l_grid.setQuick( 4, 3, new Object() );
+        l_grid.setQuick( 3, 2, new Object() );
+        l_routing.update( l_grid, 3, 2, 4, 3 );
+
+        assertEquals(
+            m_routing.get().route( TestCRouting.grid(), new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} ) ),
+            l_routing.route( l_grid, new DenseDoubleMatrix1D( new double[]{8, 0} ), new DenseDoubleMatrix1D( new double[]{2, 3} ) )
+        );
+    }
+
+
+    /**
+     * returns a grid with some obstacles
+     *
+     * @return grid
+     */
+    static ObjectMatrix2D grid()
+    {
+        final ObjectMatrix2D l_grid = new SparseObjectMatrix2D( 10, 10 );
+
+        l_grid.setQuick( 4, 2, new Object() );
+        l_grid.setQuick( 4, 3, new Object() );
+        l_grid.setQuick( 3, 2, new Object() );
+        return l_grid;
+    }
+
+    /**
+     * returns an empty grid
+     *
+     * @return grid
+     */
+    static ObjectMatrix2D emptygrid()
+    {
+        return new SparseObjectMatrix2D( 10, 10 );
+    }
+
+    /**
+     * returns a fully occupied grid
+     *
+     * @return grid
+     */
+    static ObjectMatrix2D occupiedgrid()
+    {
+        final ObjectMatrix2D l_grid = new SparseObjectMatrix2D( 10, 10 );
+        IntStream.range( 0, l_grid.rows() )
+            .forEach( i -> IntStream.range( 0, l_grid.columns() )
+                               .forEach( j -> l_grid.setQuick( i, j, new Object() ) )
+            );
+        return l_grid;
+    }
+
+    /**
+     * walks along a route, the landmarks are refined like an agent does
+     * and each refined landmark must be reachable on a free line
+     *
+     * @param p_routing routing
+     * @param p_grid grid
+     * @param p_source source position
+     * @param p_target target position
+     * @return refined landmarks
+     */
+    static List<DoubleMatrix1D> walk( final IRouting p_routing, final ObjectMatrix2D p_grid, final DoubleMatrix1D p_source, final DoubleMatrix1D p_target )
+    {
+        final LinkedList<DoubleMatrix1D> l_route = new LinkedList<>( p_routing.route( p_grid, p_source, p_target ) );
+        final List<DoubleMatrix1D> l_path = new LinkedList<>();
+        DoubleMatrix1D l_position = p_source;
+        while ( !l_route.isEmpty() )
+        {
+            final DoubleMatrix1D l_landmark = l_route.removeFirst();
+            final List<DoubleMatrix1D> l_refined = p_routing.refine( p_grid, l_position, l_landmark );
+            if ( ( l_refined.size() != 1 ) || ( !l_refined.get( 0 ).equals( l_landmark ) ) )
+            {
+                l_route.addAll( 0, l_refined );
+                continue;
+            }
+
+            assertTrue( TestCRouting.walkable( p_grid, l_position, l_landmark ) );
+            l_path.add( l_landmark );
+            l_position = l_landmark;
+        }
+
+        return l_path;
+    }
+
+    /**
+     * checks if a landmark is reachable on a free straight or diagonal line
+     *
+     * @param p_grid grid
+     * @param p_source source position
+     * @param p_target target position
+     * @return walkable flag
+     */
+    static boolean walkable( final ObjectMatrix2D p_grid, final DoubleMatrix1D p_source, final DoubleMatrix1D p_target )
+    {
+        final int l_rows = (int) ( p_target.getQuick( 0 ) - p_source.getQuick( 0 ) );
+        final int l_columns = (int) ( p_target.getQuick( 1 ) - p_source.getQuick( 1 ) );
+        if ( ( l_rows != 0 ) && ( l_columns != 0 ) && ( Math.abs( l_rows ) != Math.abs( l_columns ) ) )
+            return false;
+
+        return IntStream.rangeClosed( 1, Math.max( Math.abs( l_rows ), Math.abs( l_columns ) ) )
+                        .allMatch( i -> p_grid.getQuick(
+                            (int) p_source.getQuick( 0 ) + i * Integer.signum( l_rows ),
+                            (int) p_source.getQuick( 1 ) + i * Integer.signum( l_columns )
+                        ) == null );
+    }
+
+    /**
+     * returns the length of a route with octile distances
+     *
+     * @param p_source source position
+     * @param p_route route
+     * @return length
+     */
+    static double length( final DoubleMatrix1D p_source, final List<DoubleMatrix1D> p_route )
+    {
+        return IntStream.range( 0, p_route.size() )
+                        .mapToDouble( i ->
+                        {
+                            final DoubleMatrix1D l_previous = i == 0 ? p_source : p_route.get( i - 1 );
+                            final double l_rows = Math.abs( p_route.get( i ).getQuick( 0 ) - l_previous.getQuick( 0 ) );
+                            final double l_columns = Math.abs( p_route.get( i ).getQuick( 1 ) - l_previous.getQuick( 1 ) );
+                            return Math.abs( l_rows - l_columns ) + Math.sqrt( 2 ) * Math.min( l_rows, l_columns );
+                        } )
+                        .sum();
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     **/
+    @SuppressWarnings( "unchecked" )
+    public static void main( final String[] p_args )
+    {
+        TestCRouting.routings().forEach( i ->
+        {
+            final TestCRouting l_test = new TestCRouting( (String) i[0], (Supplier<IRouting>) i[1] );
+            l_test.testemptygrid();
+            l_test.testoccupiedgrid();
+            l_test.testrouting();
+            l_test.testupdate();
+        } );
+    }
+
+
+}
@@ -0,0 +1,184 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.ERoutingFactory;
+import org.lightjason.examples.pokemon.simulation.item.CStatic;
+import org.lightjason.examples.pokemon.simulation.item.IItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+
+/**
+ * benchmark of the environment movement under concurrent threads,
+ * each thread moves its own element to a random neighbour cell
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class CEnvironmentBenchmark
+{
+    /**
+     * number of rows and columns of the environment
+     */
+    @Param( {"100", "1000"} )
+    protected int m_size;
+    /**
+     * environment
+     */
+    private IEnvironment m_environment;
+
+
+    /**
+     * creates the environment
+     */
+    @Setup
+    public void initialize()
+    {
+        // disable logging
+        LogManager.getLogManager().reset();
+
+        m_environment = new CEnvironment( m_size, m_size, 25, ERoutingFactory.JPSPLUS.get(), Collections.<IItem>emptyList() );
+    }
+
+
+    /**
+     * moves the element with a single thread
+     *
+     * @param p_element element state
+     * @return element which is moved or blocks the cell
+     */
+    @Benchmark
+    @Threads( 1 )
+    public IElement move1( final CElement p_element )
+    {
+        return p_element.move( m_environment );
+    }
+
+    /**
+     * moves the elements with four threads
+     *
+     * @param p_element element state
+     * @return element which is moved or blocks the cell
+     */
+    @Benchmark
+    @Threads( 4 )
+    public IElement move4( final CElement p_element )
+    {
+        return p_element.move( m_environment );
+    }
+
+    /**
+     * moves the elements with one thread for each processor
+     *
+     * @param p_element element state
+     * @return element which is moved or blocks the cell
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public IElement movemax( final CElement p_element )
+    {
+        return p_element.move( m_environment );
+    }
+
+
+    /**
+     * element of a thread
+     */
+    @State( Scope.Thread )
+    public static class CElement
+    {
+        /**
+         * element
+         */
+        private IElement m_element;
+
+        /**
+         * places the element on a free cell
+         *
+         * @param p_benchmark benchmark state
+         */
+        @Setup
+        public void initialize( final CEnvironmentBenchmark p_benchmark )
+        {
+            // move returns the blocking element if the cell is not free, so a new element is created until it is placed
+            IElement l_element = CElement.element( p_benchmark.m_size );
+            while ( p_benchmark.m_environment.move( l_element, l_element.position() ) != l_element )
+                l_element = CElement.element( p_benchmark.m_size );
+
+            m_element = l_element;
+        }
+
+        /**
+         * moves the element to a random neighbour cell
+         *
+         * @param p_environment environment
+         * @return element which is moved or blocks the cell
+         */
+        final IElement move( final IEnvironment p_environment )
+        {
+            final DoubleMatrix1D l_position = new DenseDoubleMatrix1D( new double[]{
+                m_element.position().getQuick( 0 ) + ThreadLocalRandom.current().nextInt( -1, 2 ),
+                m_element.position().getQuick( 1 ) + ThreadLocalRandom.current().nextInt( -1, 2 )
+            } );
+            return p_environment.move( m_element, l_position );
+        }
+
+        /**
+         * creates an element on a random cell
+         *
+         * @param p_size number of rows and columns
+         * @return element
+         */
+        private static IElement element( final int p_size )
+        {
+            final int l_row = ThreadLocalRandom.current().nextInt( p_size );
+            final int l_column = ThreadLocalRandom.current().nextInt( p_size );
+            return new CStatic( Arrays.asList( l_row, l_column ), Arrays.asList( l_row, l_column ), "000000" );
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the chunked occupancy grid
+ */
+public final class TestCChunkedOccupancyGrid
+{
+
+    /**
+     * test of the chunk allocation, chunks are allocated
+     * on the first occupied cell and empty chunks are retained
+     */
+    @Test
+    public void testallocation()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 20000, 20000 );
+        final Object l_element = new Object();
+        assertEquals( 0, l_grid.allocated() );
+        assertTrue( l_grid.empty( 19999, 19999 ) );
+        assertNull( l_grid.getQuick( 19999, 19999 ) );
+
+        l_grid.setQuick( 19999, 19999, l_element );
+        l_grid.setQuick( 19998, 19999, l_element );
+        l_grid.setQuick( 0, 0, l_element );
+        assertEquals( 2, l_grid.allocated() );
+        assertEquals( l_element, l_grid.getQuick( 19999, 19999 ) );
+        assertEquals( l_element, l_grid.view().getQuick( 0, 0 ) );
+
+        l_grid.setQuick( 19999, 19999, null );
+        assertEquals( 2, l_grid.allocated() );
+        assertTrue( l_grid.release( l_grid.index( 19998, 19999 ), l_element ) );
+        assertEquals( 2, l_grid.allocated() );
+        assertTrue( l_grid.empty( 19998, 19999 ) );
+
+        assertTrue( l_grid.claim( l_grid.index( 19998, 19999 ), l_element ) );
+        assertEquals( 2, l_grid.allocated() );
+        assertEquals( l_element, l_grid.getQuick( 19998, 19999 ) );
+    }
+
+    /**
+     * test of claiming and releasing cells
+     */
+    @Test
+    public void testclaim()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 100, 100 );
+        final Object l_first = new Object();
+        final Object l_second = new Object();
+
+        assertFalse( l_grid.release( l_grid.index( 2, 3 ), l_first ) );
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), l_first ) );
+        assertFalse( l_grid.claim( l_grid.index( 2, 3 ), l_second ) );
+        assertFalse( l_grid.release( l_grid.index( 2, 3 ), l_second ) );
+        assertEquals( l_first, l_grid.getQuick( 2, 3 ) );
+
+        assertTrue( l_grid.release( l_grid.index( 2, 3 ), l_first ) );
+        assertTrue( l_grid.empty( 2, 3 ) );
+        assertEquals( 1, l_grid.allocated() );
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), l_second ) );
+    }
+
+    /**
+     * test of the hysteresis, an element which moves across a chunk border
+     * does not release the chunks and the number of empty chunks is bounded
+     */
+    @Test
+    public void testhysteresis()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 64, 64 * 4 * CChunkedOccupancyGrid.RETAINED );
+        final Object l_element = new Object();
+
+        IntStream.range( 0, 1000 ).forEach( i ->
+        {
+            assertTrue( l_grid.claim( l_grid.index( 0, 64 - i % 2 ), l_element ) );
+            assertTrue( l_grid.release( l_grid.index( 0, 63 + i % 2 ), l_element ) || ( i == 0 ) );
+            assertEquals( Math.min( 2, i + 1 ), l_grid.allocated() );
+        } );
+
+        IntStream.range( 0, 4 * CChunkedOccupancyGrid.RETAINED ).forEach( i ->
+        {
+            assertTrue( l_grid.claim( l_grid.index( 1, i * 64 ), l_element ) );
+            assertTrue( l_grid.release( l_grid.index( 1, i * 64 ), l_element ) );
+        } );
+        assertEquals( CChunkedOccupancyGrid.RETAINED + 1, l_grid.allocated() );
+    }
+
+    /**
+     * test of concurrent claims and releases across the chunk borders,
+     * each cell is claimed by exactly one element and at the end
+     * only the retained empty chunks are allocated
+     */
+    @Test
+    public void testconcurrentclaim()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 256, 256 );
+        final int[] l_cells = IntStream.of( 63, 64 ).flatMap( i -> IntStream.of( 63, 64, 127, 128 ).map( j -> l_grid.index( i, j ) ) ).toArray();
+        final AtomicInteger l_claims = new AtomicInteger();
+
+        IntStream.range( 0, 1000 ).parallel().forEach( i ->
+        {
+            final Object l_element = new Object();
+            IntStream.of( l_cells ).filter( j -> l_grid.claim( j, l_element ) ).forEach( j ->
+            {
+                l_claims.incrementAndGet();
+                assertTrue( l_grid.release( j, l_element ) );
+            } );
+        } );
+
+        assertTrue( l_claims.get() >= l_cells.length );
+        assertTrue( l_grid.allocated() <= CChunkedOccupancyGrid.RETAINED );
+        IntStream.of( l_cells ).forEach( i -> assertTrue( l_grid.empty( i / 256, i % 256 ) ) );
+    }
+
+    /**
+     * test of the snapshot, changes are
+     * visible after the next swap only
+     */
+    @Test
+    public void testswap()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 200, 200 );
+        final Object l_element = new Object();
+
+        l_grid.setQuick( 1, 1, l_element );
+        assertEquals( l_element, l_grid.snapshot( 1, 1 ) );
+
+        l_grid.swap();
+        l_grid.setQuick( 1, 1, null );
+        l_grid.setQuick( 150, 150, l_element );
+        assertEquals( l_element, l_grid.snapshot( 1, 1 ) );
+        assertNull( l_grid.snapshot( 150, 150 ) );
+
+        l_grid.swap();
+        assertNull( l_grid.snapshot( 1, 1 ) );
+        assertEquals( l_element, l_grid.snapshot( 150, 150 ) );
+
+        l_grid.setQuick( 1, 3, l_element );
+        l_grid.swap();
+        assertEquals( l_element, l_grid.snapshot( 1, 3 ) );
+        assertEquals( l_element, l_grid.snapshot( 150, 150 ) );
+    }
+
+    /**
+     * test of the range query against a scan of all cells
+     * of the square, also after cells are released
+     */
+    @Test
+    public void testwithin()
+    {
+        final CChunkedOccupancyGrid l_grid = new CChunkedOccupancyGrid( 300, 200 );
+        final Random l_random = new Random( 7 );
+        final Object l_element = new Object();
+        IntStream.range( 0, 500 ).forEach( i -> l_grid.claim( l_random.nextInt( 300 * 200 ), l_element ) );
+        IntStream.range( 0, 100 ).forEach( i -> l_grid.release( l_random.nextInt( 300 * 200 ), l_element ) );
+
+        IntStream.range( 0, 50 ).forEach( i ->
+        {
+            final int l_row = l_random.nextInt( 320 ) - 10;
+            final int l_column = l_random.nextInt( 220 ) - 10;
+            final int l_radius = l_random.nextInt( 80 );
+
+            assertEquals(
+                IntStream.range( 0, 300 * 200 )
+                         .filter( j -> ( Math.abs( j / 200 - l_row ) <= l_radius ) && ( Math.abs( j % 200 - l_column ) <= l_radius ) )
+                         .filter( j -> !l_grid.empty( j / 200, j % 200 ) )
+                         .boxed()
+                         .collect( Collectors.toSet() ),
+                l_grid.within( l_row, l_column, l_radius ).boxed().collect( Collectors.toSet() )
+            );
+        } );
+    }
+
+    /**
+     * test of the cell limit of the packed cell index
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testsize()
+    {
+        new CChunkedOccupancyGrid( 50000, 50000 );
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the density pyramid
+ */
+public final class TestCDensityPyramid
+{
+
+    /**
+     * test of the count against a scan of all cells of
+     * the rectangle, the size of the grid is not a multiple
+     * of the block size
+     */
+    @Test
+    public void testcount()
+    {
+        final int[] l_cells = new int[300 * 200];
+        final CDensityPyramid l_pyramid = new CDensityPyramid( 300, 200 );
+        final Random l_random = new Random( 11 );
+        IntStream.range( 0, 3000 ).forEach( i ->
+        {
+            final int l_cell = l_random.nextInt( l_cells.length );
+            final int l_delta = ( l_cells[l_cell] > 0 ) && l_random.nextBoolean() ? -1 : 1;
+            l_cells[l_cell] += l_delta;
+            l_pyramid.add( l_cell / 200, l_cell % 200, l_delta );
+        } );
+
+        IntStream.range( 0, 200 ).forEach( i ->
+        {
+            final int l_rowfrom = l_random.nextInt( 300 );
+            final int l_columnfrom = l_random.nextInt( 200 );
+            final int l_rowto = l_rowfrom + l_random.nextInt( 300 - l_rowfrom );
+            final int l_columnto = l_columnfrom + l_random.nextInt( 200 - l_columnfrom );
+
+            assertEquals(
+                IntStream.range( 0, l_cells.length )
+                         .filter( j -> ( j / 200 >= l_rowfrom ) && ( j / 200 <= l_rowto ) && ( j % 200 >= l_columnfrom ) && ( j % 200 <= l_columnto ) )
+                         .map( j -> l_cells[j] )
+                         .sum(),
+                l_pyramid.count( l_rowfrom, l_columnfrom, l_rowto, l_columnto )
+            );
+        } );
+
+        assertEquals( IntStream.of( l_cells ).sum(), l_pyramid.count( 0, 0, 299, 199 ) );
+    }
+
+    /**
+     * test of the density of the occupancy grids, the
+     * rectangle is clipped and obstacles are not counted
+     */
+    @Test
+    public void testgrid()
+    {
+        IntStream.range( 0, 2 ).mapToObj( i -> i == 0 ? new COccupancyGrid( 150, 150 ) : new CChunkedOccupancyGrid( 150, 150 ) ).forEach( i ->
+        {
+            final Object l_first = new Object();
+            final Object l_second = new Object();
+
+            i.claim( i.index( 10, 10 ), l_first );
+            i.claim( i.index( 100, 140 ), l_second );
+            i.setQuick( 64, 64, l_first );
+            assertEquals( 3, i.density( -10, -10, 500, 500 ) );
+            assertEquals( 2, i.density( 10, 10, 64, 64 ) );
+            assertEquals( 0, i.density( 200, 0, 300, 10 ) );
+
+            i.claim( i.index( 10, 10 ), l_second );
+            i.release( i.index( 10, 10 ), l_first );
+            i.setQuick( 64, 64, l_second );
+            i.setQuick( 100, 140, null );
+            assertEquals( 1, i.density( 0, 0, 149, 149 ) );
+            assertEquals( 1, i.density( 64, 64, 64, 64 ) );
+        } );
+    }
+
+}
@@ -0,0 +1,326 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.lightjason.examples.pokemon.simulation.IElement;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.ERoutingFactory;
+import org.lightjason.examples.pokemon.simulation.item.CStatic;
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the environment
+ */
+public final class TestCEnvironment
+{
+
+    /**
+     * test of the route requests, equal requests of a step share
+     * one route and the routes are calculated on the next execution
+     *
+     * @throws Exception on calculation error
+     */
+    @Test
+    public void testroutebatch() throws Exception
+    {
+        final CEnvironment l_environment = TestCEnvironment.environment( ERoutingFactory.JPSPLUS );
+        final IElement l_first = TestCEnvironment.element( 0, 0 );
+        final IElement l_second = TestCEnvironment.element( 0, 1 );
+
+        final CompletableFuture<List<DoubleMatrix1D>> l_firstroute = l_environment.routerequest( l_first, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 9 ) );
+        final CompletableFuture<List<DoubleMatrix1D>> l_secondroute = l_environment.routerequest( l_second, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 9 ) );
+        final CompletableFuture<List<DoubleMatrix1D>> l_otherroute = l_environment.routerequest( l_second, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 0 ) );
+
+        assertSame( l_firstroute, l_secondroute );
+        assertNotSame( l_firstroute, l_otherroute );
+        assertFalse( l_firstroute.isDone() );
+        assertFalse( l_otherroute.isDone() );
+
+        l_environment.call();
+        assertEquals( TestCEnvironment.cell( 9, 9 ), TestCEnvironment.last( l_firstroute ) );
+        assertEquals( TestCEnvironment.cell( 9, 0 ), TestCEnvironment.last( l_otherroute ) );
+
+        // requests of the next step are calculated again
+        assertNotSame( l_firstroute, l_environment.routerequest( l_first, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 9 ) ) );
+    }
+
+    /**
+     * test of the route requests of a cooperative routing, the
+     * route of each element reserves its own slots, so equal
+     * requests of different elements do not share a route
+     *
+     * @throws Exception on calculation error
+     */
+    @Test
+    public void testcooperativeroute() throws Exception
+    {
+        final CEnvironment l_environment = TestCEnvironment.environment( ERoutingFactory.WHCASTAR );
+        final IElement l_first = TestCEnvironment.element( 0, 0 );
+        final IElement l_second = TestCEnvironment.element( 0, 1 );
+
+        final CompletableFuture<List<DoubleMatrix1D>> l_firstroute = l_environment.routerequest( l_first, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 9 ) );
+        final CompletableFuture<List<DoubleMatrix1D>> l_secondroute = l_environment.routerequest( l_second, TestCEnvironment.cell( 0, 0 ), TestCEnvironment.cell( 9, 9 ) );
+        assertNotSame( l_firstroute, l_secondroute );
+
+        l_environment.call();
+        assertEquals( TestCEnvironment.cell( 9, 9 ), TestCEnvironment.last( l_firstroute ) );
+        assertEquals( TestCEnvironment.cell( 9, 9 ), TestCEnvironment.last( l_secondroute ) );
+    }
+
+    /**
+     * test of the moves along cooperative routes on the two-phase execution, the routes
+     * are delivered before the next step and each element moves one cell per step, so
+     * the reserved slots match the moves and no move fails
+     *
+     * @throws Exception on calculation error
+     */
+    @Test
+    public void testcooperativemove() throws Exception
+    {
+        final CEnvironment l_environment = TestCEnvironment.synchronous( ERoutingFactory.WHCASTAR );
+        assertTrue( l_environment.cooperative() );
+
+        final int[][] l_cells = {{0, 0, 9, 8}, {9, 9, 0, 1}, {0, 9, 9, 1}, {9, 0, 0, 8}, {0, 4, 9, 4}, {9, 5, 0, 5}, {4, 0, 4, 9}, {5, 9, 5, 0}};
+        final List<IElement> l_elements = Arrays.stream( l_cells ).map( i -> TestCEnvironment.place( l_environment, i[0], i[1] ) ).collect( Collectors.toList() );
+        l_environment.call();
+
+        final List<CompletableFuture<List<DoubleMatrix1D>>> l_requests = IntStream.range( 0, l_cells.length ).mapToObj( i -> l_environment.routerequest(
+            l_elements.get( i ), TestCEnvironment.cell( l_cells[i][0], l_cells[i][1] ), TestCEnvironment.cell( l_cells[i][2], l_cells[i][3] )
+        ) ).collect( Collectors.toList() );
+        l_environment.call();
+
+        l_requests.forEach( i -> assertTrue( i.isDone() ) );
+        final List<List<DoubleMatrix1D>> l_routes = l_requests.stream().map( CompletableFuture::join ).collect( Collectors.toList() );
+
+        int l_failed = 0;
+        for ( int i = 0; i < l_routes.stream().mapToInt( List::size ).max().orElse( 0 ); i++ )
+        {
+            final int l_tick = i;
+            IntStream.range( 0, l_elements.size() )
+                     .filter( j -> l_tick < l_routes.get( j ).size() )
+                     .forEach( j -> l_environment.move( l_elements.get( j ), l_routes.get( j ).get( l_tick ) ) );
+            l_environment.call();
+
+            l_failed += IntStream.range( 0, l_elements.size() )
+                                 .filter( j -> l_tick < l_routes.get( j ).size() )
+                                 .filter( j -> !l_routes.get( j ).get( l_tick ).equals( TestCEnvironment.cell( l_elements.get( j ) ) ) )
+                                 .count();
+        }
+
+        assertEquals( 0, l_failed );
+        IntStream.range( 0, l_cells.length ).forEach( i -> assertEquals( TestCEnvironment.cell( l_cells[i][2], l_cells[i][3] ), TestCEnvironment.cell( l_elements.get( i ) ) ) );
+    }
+
+    /**
+     * test of the conflict rule of the two-phase execution, on intents with the same
+     * target cell the element with the lowest current cell wins independent of the
+     * order of the intents, the other element keeps its cell
+     */
+    @Test
+    public void testconflict()
+    {
+        final CEnvironment l_environment = TestCEnvironment.synchronous( ERoutingFactory.JPSPLUS );
+        final IElement l_first = TestCEnvironment.place( l_environment, 2, 2 );
+        final IElement l_second = TestCEnvironment.place( l_environment, 2, 4 );
+        l_environment.call();
+
+        assertSame( l_second, l_environment.move( l_second, 2, 3 ) );
+        assertSame( l_first, l_environment.move( l_first, 2, 3 ) );
+        assertTrue( l_environment.empty( 2, 3 ) );
+
+        l_environment.call();
+        assertSame( l_first, l_environment.get( 2, 3 ) );
+        assertSame( l_second, l_environment.get( 2, 4 ) );
+        assertTrue( l_environment.empty( 2, 2 ) );
+
+        // an intent on a cell, which is used within the snapshot, is rejected
+        assertSame( l_first, l_environment.move( l_second, 2, 3 ) );
+    }
+
+    /**
+     * test of the determinism of the two-phase execution, random moves
+     * of many elements result in the same positions independent of the
+     * number of threads
+     *
+     * @throws Exception on execution error
+     */
+    @Test
+    public void testdeterminism() throws Exception
+    {
+        final List<DoubleMatrix1D> l_sequential = TestCEnvironment.randomwalk( 1 );
+        assertEquals( l_sequential, TestCEnvironment.randomwalk( 4 ) );
+        assertEquals( l_sequential, TestCEnvironment.randomwalk( 8 ) );
+    }
+
+    /**
+     * runs random moves of elements on an environment with two-phase execution
+     *
+     * @param p_threads number of threads
+     * @return positions of the elements
+     * @throws Exception on execution error
+     */
+    private static List<DoubleMatrix1D> randomwalk( final int p_threads ) throws Exception
+    {
+        final CEnvironment l_environment = TestCEnvironment.synchronous( ERoutingFactory.JPSPLUS );
+        final List<IElement> l_elements = IntStream.range( 0, 50 ).mapToObj( i -> TestCEnvironment.place( l_environment, i / 10 * 2, i % 10 ) ).collect( Collectors.toList() );
+        l_environment.call();
+
+        final ForkJoinPool l_pool = new ForkJoinPool( p_threads );
+        try
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                final int l_step = i;
+                l_pool.submit( () -> IntStream.range( 0, l_elements.size() ).parallel().forEach( j ->
+                {
+                    final Random l_random = new Random( l_step * 1000 + j );
+                    final IElement l_element = l_elements.get( j );
+                    l_environment.move(
+                        l_element,
+                        (int) l_element.position().getQuick( 0 ) + l_random.nextInt( 3 ) - 1,
+                        (int) l_element.position().getQuick( 1 ) + l_random.nextInt( 3 ) - 1
+                    );
+                } ) ).get();
+                l_environment.call();
+            }
+        }
+        finally
+        {
+            l_pool.shutdown();
+        }
+
+        l_elements.forEach( i -> assertSame( i, l_environment.get( i.position() ) ) );
+        return l_elements.stream().map( TestCEnvironment::cell ).collect( Collectors.toList() );
+    }
+
+    /**
+     * creates an empty environment with two-phase execution
+     *
+     * @param p_routing routing
+     * @return environment
+     */
+    private static CEnvironment synchronous( final ERoutingFactory p_routing )
+    {
+        final CEnvironment l_environment = new CEnvironment( 10, 10, 1, p_routing.get(), true, false, Collections.emptyList() );
+        l_environment.initialize();
+        return l_environment;
+    }
+
+    /**
+     * places a new element, on the two-phase
+     * execution the element is placed on the next step
+     *
+     * @param p_environment environment
+     * @param p_row row
+     * @param p_column column
+     * @return element
+     */
+    private static IElement place( final IEnvironment p_environment, final int p_row, final int p_column )
+    {
+        final IElement l_element = TestCEnvironment.element( p_row, p_column );
+        assertSame( l_element, p_environment.move( l_element, p_row, p_column ) );
+        return l_element;
+    }
+
+    /**
+     * creates an empty environment
+     *
+     * @param p_routing routing
+     * @return environment
+     */
+    private static CEnvironment environment( final ERoutingFactory p_routing )
+    {
+        final CEnvironment l_environment = new CEnvironment( 10, 10, 1, p_routing.get(), Collections.emptyList() );
+        l_environment.initialize();
+        return l_environment;
+    }
+
+    /**
+     * creates an element
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return element
+     */
+    private static IElement element( final int p_row, final int p_column )
+    {
+        return new CStatic( Arrays.asList( p_row, p_column ), Arrays.asList( p_row, p_column ), "ff0000ff" );
+    }
+
+    /**
+     * creates a cell position
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return position
+     */
+    private static DoubleMatrix1D cell( final int p_row, final int p_column )
+    {
+        return new DenseDoubleMatrix1D( new double[]{p_row, p_column} );
+    }
+
+    /**
+     * returns the cell position of an element
+     *
+     * @param p_element element
+     * @return position
+     */
+    private static DoubleMatrix1D cell( final IElement p_element )
+    {
+        return TestCEnvironment.cell( (int) p_element.position().getQuick( 0 ), (int) p_element.position().getQuick( 1 ) );
+    }
+
+    /**
+     * returns the last landmark of a requested route
+     *
+     * @param p_route future of the route
+     * @return last landmark
+     * @throws Exception on calculation error
+     */
+    private static DoubleMatrix1D last( final CompletableFuture<List<DoubleMatrix1D>> p_route ) throws Exception
+    {
+        final List<DoubleMatrix1D> l_route = p_route.get( 10, TimeUnit.SECONDS );
+        return l_route.get( l_route.size() - 1 );
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the obstacle index
+ */
+public final class TestCObstacleIndex
+{
+    /**
+     * number of rows and columns of the grid
+     */
+    private static final int SIZE = 200;
+
+    /**
+     * test of the point query against a scan
+     * of all obstacles, the last obstacle wins
+     */
+    @Test
+    public void testget()
+    {
+        final List<int[]> l_obstacles = TestCObstacleIndex.obstacles( 500 );
+        final CObstacleIndex<int[]> l_index = new CObstacleIndex<>( l_obstacles, Function.identity() );
+
+        IntStream.range( 0, SIZE * SIZE ).forEach( i ->
+        {
+            final int[] l_expected = l_obstacles.stream()
+                                                .filter( j -> ( j[0] <= i / SIZE ) && ( j[2] >= i / SIZE ) )
+                                                .filter( j -> ( j[1] <= i % SIZE ) && ( j[3] >= i % SIZE ) )
+                                                .reduce( ( j, k ) -> k )
+                                                .orElse( null );
+            assertSame( l_expected, l_index.get( i / SIZE, i % SIZE ) );
+        } );
+    }
+
+    /**
+     * test of the rectangle query against a scan of all
+     * obstacles, the rectangle is clipped to the grid
+     */
+    @Test
+    public void testcells()
+    {
+        final List<int[]> l_obstacles = TestCObstacleIndex.obstacles( 100 );
+        final CObstacleIndex<int[]> l_index = new CObstacleIndex<>( l_obstacles, Function.identity() );
+        final Random l_random = new Random( 11 );
+
+        IntStream.range( 0, 50 ).forEach( i ->
+        {
+            final int l_row = l_random.nextInt( SIZE );
+            final int l_column = l_random.nextInt( SIZE );
+            final int l_radius = l_random.nextInt( 30 );
+
+            assertEquals(
+                IntStream.range( 0, SIZE * SIZE )
+                         .filter( j -> ( Math.abs( j / SIZE - l_row ) <= l_radius ) && ( Math.abs( j % SIZE - l_column ) <= l_radius ) )
+                         .filter( j -> l_index.get( j / SIZE, j % SIZE ) != null )
+                         .boxed()
+                         .collect( Collectors.toList() ),
+                l_index.cells(
+                    Math.max( 0, l_row - l_radius ), Math.max( 0, l_column - l_radius ),
+                    Math.min( SIZE - 1, l_row + l_radius ), Math.min( SIZE - 1, l_column + l_radius ),
+                    SIZE
+                )
+                       .sorted()
+                       .boxed()
+                       .collect( Collectors.toList() )
+            );
+        } );
+    }
+
+    /**
+     * test of an empty index
+     */
+    @Test
+    public void testempty()
+    {
+        final CObstacleIndex<int[]> l_index = new CObstacleIndex<>( Collections.emptyList(), Function.identity() );
+
+        assertNull( l_index.get( 5, 5 ) );
+        assertEquals( 0, l_index.cells( 0, 0, SIZE - 1, SIZE - 1, SIZE ).count() );
+    }
+
+    /**
+     * creates random obstacles
+     *
+     * @param p_number number of obstacles
+     * @return list of cell rectangles
+     */
+    private static List<int[]> obstacles( final int p_number )
+    {
+        final Random l_random = new Random( p_number );
+        return IntStream.range( 0, p_number )
+                        .mapToObj( i ->
+                        {
+                            final int l_row = l_random.nextInt( SIZE );
+                            final int l_column = l_random.nextInt( SIZE );
+                            return new int[]{l_row, l_column, l_row + l_random.nextInt( 10 ), l_column + l_random.nextInt( 10 )};
+                        } )
+                        .collect( Collectors.toList() );
+    }
+
+}
@@ -0,0 +1,260 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.IOccupancyMatrix;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the dense occupancy grid
+ */
+public final class TestCOccupancyGrid
+{
+
+    /**
+     * test of setting and removing elements
+     */
+    @Test
+    public void testset()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 20 );
+        final Object l_element = new Object();
+
+        assertTrue( l_grid.empty( 3, 15 ) );
+        assertNull( l_grid.getQuick( 3, 15 ) );
+
+        l_grid.setQuick( 3, 15, l_element );
+        assertFalse( l_grid.empty( 3, 15 ) );
+        assertEquals( l_element, l_grid.getQuick( 3, 15 ) );
+        assertEquals( l_element, l_grid.view().getQuick( 3, 15 ) );
+
+        l_grid.setQuick( 3, 15, null );
+        l_grid.setQuick( 9, 19, l_element );
+        assertTrue( l_grid.empty( 3, 15 ) );
+        assertEquals( l_element, l_grid.getQuick( 9, 19 ) );
+    }
+
+    /**
+     * test of the registry with more elements than the initial size
+     */
+    @Test
+    public void testregistry()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 50, 50 );
+        final List<Object> l_elements = IntStream.range( 0, 2500 ).mapToObj( i -> new Object() ).collect( Collectors.toList() );
+
+        IntStream.range( 0, l_elements.size() ).forEach( i -> l_grid.setQuick( i / 50, i % 50, l_elements.get( i ) ) );
+        IntStream.range( 0, l_elements.size() ).forEach( i -> assertEquals( l_elements.get( i ), l_grid.getQuick( i / 50, i % 50 ) ) );
+    }
+
+    /**
+     * test of reusing the ids of removed elements, an id
+     * is reused after two recycling calls only
+     */
+    @Test
+    public void testrecycle()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 10 );
+        final Object l_first = new Object();
+
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), l_first ) );
+        assertTrue( l_grid.release( l_grid.index( 2, 3 ), l_first ) );
+        l_grid.unregister( l_first );
+
+        l_grid.recycle();
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), new Object() ) );
+        assertEquals( 2, l_grid.registry() );
+
+        l_grid.recycle();
+        assertTrue( l_grid.claim( l_grid.index( 4, 5 ), new Object() ) );
+        assertEquals( 2, l_grid.registry() );
+    }
+
+    /**
+     * test of a bounded registry, if each step
+     * removes elements and adds new elements
+     */
+    @Test
+    public void testboundedregistry()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 10 );
+        final List<Object> l_elements = IntStream.range( 0, 10 ).mapToObj( i -> new Object() ).collect( Collectors.toList() );
+        IntStream.range( 0, l_elements.size() ).forEach( i -> assertTrue( l_grid.claim( l_grid.index( i, 0 ), l_elements.get( i ) ) ) );
+
+        IntStream.range( 0, 1000 ).forEach( i ->
+        {
+            final int l_index = i % l_elements.size();
+            assertTrue( l_grid.release( l_grid.index( l_index, 0 ), l_elements.get( l_index ) ) );
+            l_grid.unregister( l_elements.get( l_index ) );
+
+            l_elements.set( l_index, new Object() );
+            assertTrue( l_grid.claim( l_grid.index( l_index, 0 ), l_elements.get( l_index ) ) );
+            l_grid.recycle();
+        } );
+
+        IntStream.range( 0, l_elements.size() ).forEach( i -> assertEquals( l_elements.get( i ), l_grid.getQuick( i, 0 ) ) );
+        assertTrue( l_grid.registry() <= l_elements.size() + 2 );
+    }
+
+    /**
+     * test of claiming and releasing cells
+     */
+    @Test
+    public void testclaim()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 10 );
+        final Object l_first = new Object();
+        final Object l_second = new Object();
+
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), l_first ) );
+        assertFalse( l_grid.claim( l_grid.index( 2, 3 ), l_second ) );
+        assertFalse( l_grid.release( l_grid.index( 2, 3 ), l_second ) );
+        assertEquals( l_first, l_grid.getQuick( 2, 3 ) );
+
+        assertTrue( l_grid.release( l_grid.index( 2, 3 ), l_first ) );
+        assertTrue( l_grid.empty( 2, 3 ) );
+        assertTrue( l_grid.claim( l_grid.index( 2, 3 ), l_second ) );
+    }
+
+    /**
+     * test of concurrent claims of the same cells,
+     * each cell is claimed by exactly one element
+     */
+    @Test
+    public void testconcurrentclaim()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 10 );
+        final AtomicInteger l_claims = new AtomicInteger();
+
+        IntStream.range( 0, 1000 ).parallel().forEach( i ->
+        {
+            final Object l_element = new Object();
+            IntStream.range( 0, 100 ).filter( j -> l_grid.claim( j, l_element ) ).forEach( j -> l_claims.incrementAndGet() );
+        } );
+
+        assertEquals( 100, l_claims.get() );
+        IntStream.range( 0, 100 ).forEach( i -> assertFalse( l_grid.empty( i / 10, i % 10 ) ) );
+    }
+
+    /**
+     * test of the double-buffered snapshot, changes
+     * are visible after the next swap only
+     */
+    @Test
+    public void testswap()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 10, 10 );
+        final Object l_element = new Object();
+
+        l_grid.setQuick( 1, 1, l_element );
+        assertEquals( l_element, l_grid.snapshot( 1, 1 ) );
+
+        l_grid.swap();
+        l_grid.setQuick( 1, 1, null );
+        l_grid.setQuick( 1, 2, l_element );
+        assertEquals( l_element, l_grid.snapshot( 1, 1 ) );
+        assertNull( l_grid.snapshot( 1, 2 ) );
+
+        l_grid.swap();
+        assertNull( l_grid.snapshot( 1, 1 ) );
+        assertEquals( l_element, l_grid.snapshot( 1, 2 ) );
+
+        l_grid.setQuick( 1, 3, l_element );
+        l_grid.swap();
+        assertEquals( l_element, l_grid.snapshot( 1, 3 ) );
+    }
+
+    /**
+     * test of the range query against a scan of all cells
+     * of the square, also after cells are released
+     */
+    @Test
+    public void testwithin()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 70, 50 );
+        final Random l_random = new Random( 7 );
+        final Object l_element = new Object();
+        IntStream.range( 0, 500 ).forEach( i -> l_grid.claim( l_random.nextInt( 70 * 50 ), l_element ) );
+        IntStream.range( 0, 100 ).forEach( i -> l_grid.release( l_random.nextInt( 70 * 50 ), l_element ) );
+
+        IntStream.range( 0, 50 ).forEach( i ->
+        {
+            final int l_row = l_random.nextInt( 80 ) - 5;
+            final int l_column = l_random.nextInt( 60 ) - 5;
+            final int l_radius = l_random.nextInt( 20 );
+
+            assertEquals(
+                IntStream.range( 0, 70 * 50 )
+                         .filter( j -> ( Math.abs( j / 50 - l_row ) <= l_radius ) && ( Math.abs( j % 50 - l_column ) <= l_radius ) )
+                         .filter( j -> !l_grid.empty( j / 50, j % 50 ) )
+                         .boxed()
+                         .collect( Collectors.toSet() ),
+                l_grid.within( l_row, l_column, l_radius ).boxed().collect( Collectors.toSet() )
+            );
+        } );
+    }
+
+    /**
+     * test of the primitive occupancy access of the view,
+     * which must match the objects of the cells
+     */
+    @Test
+    public void testoccupied()
+    {
+        final COccupancyGrid l_grid = new COccupancyGrid( 30, 40 );
+        final Random l_random = new Random( 11 );
+        final Object l_element = new Object();
+        IntStream.range( 0, 200 ).forEach( i -> l_grid.claim( l_random.nextInt( 30 * 40 ), l_element ) );
+        IntStream.range( 0, 50 ).forEach( i -> l_grid.release( l_random.nextInt( 30 * 40 ), l_element ) );
+
+        assertTrue( l_grid.view() instanceof IOccupancyMatrix );
+        IntStream.range( 0, 30 * 40 ).forEach( i -> assertEquals(
+            l_grid.view().getQuick( i / 40, i % 40 ) != null,
+            ( (IOccupancyMatrix) l_grid.view() ).occupied( i / 40, i % 40 )
+        ) );
+    }
+
+    /**
+     * test of the read-only view
+     */
+    @Test( expected = UnsupportedOperationException.class )
+    public void testview()
+    {
+        new COccupancyGrid( 10, 10 ).view().setQuick( 1, 1, new Object() );
+    }
+
+}
@@ -0,0 +1,302 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.lightjason.examples.pokemon.simulation.agent.IAgent;
+import org.lightjason.examples.pokemon.simulation.algorithm.routing.ERoutingFactory;
+import org.lightjason.examples.pokemon.simulation.environment.CEnvironment;
+
+import cern.colt.matrix.DoubleMatrix1D;
+import cern.colt.matrix.impl.DenseDoubleMatrix1D;
+
+
+/**
+ * test for the exchange of the ghosts and the migrated agents between two shards
+ */
+public final class TestCShard
+{
+    /**
+     * number of rows
+     */
+    private static final int ROWS = 20;
+    /**
+     * number of columns
+     */
+    private static final int COLUMNS = 10;
+
+    /**
+     * test of the ghosts of moving border agents, each
+     * ghost cell uses one ghost object over all steps
+     *
+     * @throws Exception on execution error
+     */
+    @Test
+    public void testghosts() throws Exception
+    {
+        final CEnvironment[] l_environments = TestCShard.environments();
+        final CShard[] l_shards = TestCShard.shards( l_environments );
+        final List<IAgent> l_agents = IntStream.of( 0, 3, 6 ).mapToObj( i -> TestCShard.agent( 9, i ) ).collect( Collectors.toList() );
+        l_agents.forEach( i -> l_shards[0].add( "agent", (IAgent) l_environments[0].move( i, 9, (int) i.position().getQuick( 1 ) ) ) );
+
+        final Set<Object> l_ghosts = Collections.newSetFromMap( new IdentityHashMap<>() );
+        for ( int i = 0; i < 100; i++ )
+        {
+            l_agents.forEach( j -> l_environments[0].move( j, 9, ( (int) j.position().getQuick( 1 ) + 1 ) % COLUMNS ) );
+            TestCShard.step( l_shards );
+
+            l_agents.forEach( j -> assertTrue( l_environments[1].get( j.position() ) instanceof CGhost ) );
+            IntStream.range( 0, COLUMNS ).mapToObj( j -> l_environments[1].get( 9, j ) ).filter( j -> j != null ).forEach( l_ghosts::add );
+        }
+
+        assertEquals( l_agents.size(), l_ghosts.size() );
+    }
+
+    /**
+     * test of the registry on many exchange steps, the agents move along the
+     * border and migrate between the shards, so ghosts and migrated agents are
+     * removed and placed on each step, but the registry does not grow
+     *
+     * @throws Exception on execution error
+     */
+    @Test
+    public void testregistry() throws Exception
+    {
+        final CEnvironment[] l_environments = TestCShard.environments();
+        final CShard[] l_shards = TestCShard.shards( l_environments );
+        IntStream.range( 0, COLUMNS ).forEach( i -> l_shards[0].add( "agent", (IAgent) l_environments[0].move( TestCShard.agent( 9, i ), 9, i ) ) );
+
+        for ( int i = 0; i < 500; i++ )
+        {
+            // the agents of the first shard move into the second shard and back on the next step
+            final int l_row = i % 2 == 0 ? 10 : 9;
+            final int l_shard = i % 2;
+            l_shards[l_shard].agents().forEach( j -> l_environments[l_shard].move( j, l_row, (int) j.position().getQuick( 1 ) ) );
+            TestCShard.step( l_shards );
+
+            assertEquals( COLUMNS, l_shards[0].agents().size() + l_shards[1].agents().size() );
+        }
+
+        assertTrue( l_environments[0].registry() <= 3 * COLUMNS );
+        assertTrue( l_environments[1].registry() <= 3 * COLUMNS );
+    }
+
+    /**
+     * test of a migrated agent, whose cell is occupied within the target shard,
+     * the agent is placed on the nearest empty cell of the target shard
+     *
+     * @throws Exception on execution error
+     */
+    @Test
+    public void testmigrant() throws Exception
+    {
+        final CEnvironment[] l_environments = TestCShard.environments();
+        final CShard[] l_shards = TestCShard.shards( l_environments );
+        final IAgent l_local = (IAgent) l_environments[1].move( TestCShard.agent( 10, 5 ), 10, 5 );
+        l_shards[1].add( "agent", l_local );
+        l_shards[0].add( "agent", (IAgent) l_environments[0].move( TestCShard.agent( 9, 5 ), 9, 5 ) );
+
+        // both agents move on the same cell within the same step
+        l_shards[0].agents().forEach( i -> l_environments[0].move( i, 10, 5 ) );
+        TestCShard.step( l_shards );
+
+        assertTrue( l_shards[0].agents().isEmpty() );
+        assertEquals( 2, l_shards[1].agents().size() );
+        assertSame( l_local, l_environments[1].get( 10, 5 ) );
+
+        final IAgent l_migrant = l_shards[1].agents().stream().filter( i -> i != l_local ).findFirst().get();
+        assertEquals( new DenseDoubleMatrix1D( new double[]{10, 4} ), l_migrant.position() );
+        assertSame( l_migrant, l_environments[1].get( 10, 4 ) );
+    }
+
+    /**
+     * test of a migrated agent, whose neighbour cells are occupied too,
+     * the agent is kept back until a cell is empty
+     *
+     * @throws Exception on execution error
+     */
+    @Test
+    public void testpendingmigrant() throws Exception
+    {
+        final CEnvironment[] l_environments = TestCShard.environments();
+        final CShard[] l_shards = TestCShard.shards( l_environments );
+        IntStream.rangeClosed( 4, 6 ).forEach( i -> IntStream.rangeClosed( 10, 11 ).forEach( j ->
+            l_shards[1].add( "agent", (IAgent) l_environments[1].move( TestCShard.agent( j, i ), j, i ) )
+        ) );
+        l_shards[0].add( "agent", (IAgent) l_environments[0].move( TestCShard.agent( 9, 5 ), 9, 5 ) );
+
+        l_shards[0].agents().forEach( i -> l_environments[0].move( i, 10, 5 ) );
+        TestCShard.step( l_shards );
+        assertEquals( 6, l_shards[1].agents().size() );
+        assertEquals( 7, l_shards[1].groups().get( "agent" ).size() );
+
+        l_environments[1].remove( l_environments[1].get( 11, 6 ) );
+        TestCShard.step( l_shards );
+        assertEquals( 7, l_shards[1].agents().size() );
+        assertEquals( 4, l_shards[1].agents().stream().filter( i -> i.position().getQuick( 0 ) == 11 ).count() );
+    }
+
+    /**
+     * creates the environments of the shards
+     *
+     * @return environments
+     */
+    private static CEnvironment[] environments()
+    {
+        return IntStream.range( 0, 2 )
+                        .mapToObj( i -> new CEnvironment( ROWS, COLUMNS, 1, ERoutingFactory.JPSPLUS.get(), Collections.emptyList() ) )
+                        .peek( CEnvironment::initialize )
+                        .toArray( CEnvironment[]::new );
+    }
+
+    /**
+     * creates two shards with one ghost row
+     *
+     * @param p_environments environments
+     * @return shards
+     */
+    private static CShard[] shards( final CEnvironment[] p_environments )
+    {
+        final List<ITransport> l_transports = CQueueTransport.from( 2 );
+        return IntStream.range( 0, 2 )
+                        .mapToObj( i -> new CShard( p_environments[i], new CStripe( ROWS, 2, i ), l_transports.get( i ), 1, TestCShard::restore ) )
+                        .toArray( CShard[]::new );
+    }
+
+    /**
+     * executes a step of all shards, the shards
+     * are executed concurrently like processes
+     *
+     * @param p_shards shards
+     * @throws Exception on execution error
+     */
+    private static void step( final CShard[] p_shards ) throws Exception
+    {
+        final ExecutorService l_executor = Executors.newFixedThreadPool( p_shards.length );
+        try
+        {
+            for ( final Future<CShard> i : l_executor.invokeAll( Arrays.asList( p_shards ) ) )
+                i.get();
+        }
+        finally
+        {
+            l_executor.shutdown();
+        }
+    }
+
+    /**
+     * restores a migrated agent
+     *
+     * @param p_name configuration name
+     * @param p_input checkpoint input
+     * @return agent
+     */
+    private static IAgent restore( final String p_name, final DataInput p_input )
+    {
+        try
+        {
+            return TestCShard.agent( p_input.readInt(), p_input.readInt() );
+        }
+        catch ( final IOException l_exception )
+        {
+            throw new UncheckedIOException( l_exception );
+        }
+    }
+
+    /**
+     * creates an agent, which stores its position only
+     *
+     * @param p_row row
+     * @param p_column column
+     * @return agent
+     */
+    private static IAgent agent( final int p_row, final int p_column )
+    {
+        final DoubleMatrix1D l_position = new DenseDoubleMatrix1D( new double[]{p_row, p_column} );
+        return (IAgent) Proxy.newProxyInstance( IAgent.class.getClassLoader(), new Class<?>[]{IAgent.class}, ( i, j, k ) ->
+        {
+            switch ( j.getName() )
+            {
+                case "position":
+                    return l_position;
+
+                case "checkpoint":
+                    ( (DataOutput) k[0] ).writeInt( (int) l_position.getQuick( 0 ) );
+                    ( (DataOutput) k[0] ).writeInt( (int) l_position.getQuick( 1 ) );
+                    return i;
+
+                case "hashCode":
+                    return System.identityHashCode( i );
+
+                case "equals":
+                    return i == k[0];
+
+                case "toString":
+                    return l_position.toString();
+
+                default:
+                    return null;
+            }
+        } );
+    }
+
+
+    /**
+     * it is recommand, that each test-class uses also
+     * a main-method, which calls the test-methods manually,
+     * because the Maven-test calls does not allow any debugging
+     * with the IDE, so this main-method allows to start the
+     * test through the IDE and run the IDE debugger
+     * @param p_args input arguments
+     * @throws Exception on execution error
+     **/
+    public static void main( final String[] p_args ) throws Exception
+    {
+        new TestCShard().testghosts();
+        new TestCShard().testregistry();
+        new TestCShard().testmigrant();
+        new TestCShard().testpendingmigrant();
+    }
+
+}
@@ -0,0 +1,114 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the row stripes of the shards
+ */
+public final class TestCStripe
+{
+
+    /**
+     * test that the stripes cover all rows
+     * without overlapping and the owner matches
+     */
+    @Test
+    public void testowner()
+    {
+        final CStripe[] l_stripes = IntStream.range( 0, 7 ).mapToObj( i -> new CStripe( 250, 7, i ) ).toArray( CStripe[]::new );
+
+        assertEquals( 0, l_stripes[0].rowfrom() );
+        assertEquals( 250, l_stripes[6].rowto() );
+        IntStream.range( 1, 7 ).forEach( i -> assertEquals( l_stripes[i - 1].rowto(), l_stripes[i].rowfrom() ) );
+        IntStream.range( 0, 250 ).forEach( i ->
+        {
+            final int l_owner = l_stripes[0].owner( i );
+            assertTrue( ( l_stripes[l_owner].rowfrom() <= i ) && ( i < l_stripes[l_owner].rowto() ) );
+            assertTrue( l_stripes[l_owner].inside( i ) );
+        } );
+    }
+
+    /**
+     * test of the neighbours and the direction of leaving elements
+     */
+    @Test
+    public void testnext()
+    {
+        final CStripe l_stripe = new CStripe( 100, 4, 1 );
+
+        assertArrayEquals( new int[]{0, 2}, l_stripe.neighbours().toArray() );
+        assertArrayEquals( new int[]{1}, new CStripe( 100, 4, 0 ).neighbours().toArray() );
+        assertEquals( 1, l_stripe.next( 30 ) );
+        assertEquals( 0, l_stripe.next( 24 ) );
+        assertEquals( 2, l_stripe.next( 50 ) );
+        assertEquals( 2, l_stripe.next( 99 ) );
+    }
+
+    /**
+     * test of the border rows
+     */
+    @Test
+    public void testborder()
+    {
+        final CStripe l_stripe = new CStripe( 100, 4, 1 );
+
+        assertTrue( l_stripe.border( 25, 0, 2 ) );
+        assertTrue( l_stripe.border( 26, 0, 2 ) );
+        assertFalse( l_stripe.border( 27, 0, 2 ) );
+        assertFalse( l_stripe.border( 24, 0, 2 ) );
+        assertTrue( l_stripe.border( 48, 2, 2 ) );
+        assertTrue( l_stripe.border( 49, 2, 2 ) );
+        assertFalse( l_stripe.border( 50, 2, 2 ) );
+        assertFalse( l_stripe.border( 26, 2, 2 ) );
+    }
+
+    /**
+     * test that the shares sum to the number of elements
+     */
+    @Test
+    public void testshare()
+    {
+        assertEquals( 150, IntStream.range( 0, 7 ).map( i -> new CStripe( 250, 7, i ).share( 150 ) ).sum() );
+        assertEquals( 150, new CStripe( 250, 1, 0 ).share( 150 ) );
+    }
+
+    /**
+     * test of the size check
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testsize()
+    {
+        new CStripe( 3, 4, 0 );
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # LGPL License                                                                       #
+ * #                                                                                    #
+ * # This file is part of the LightJason AgentSpeak(L)                                  #
+ * # Copyright (c) 2015-16, Philipp Kraus (philipp@lightjason.org)                      #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU Lesser General Public License as                     #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU Lesser General Public License for more details.                                #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU Lesser General Public License           #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package org.lightjason.examples.pokemon.simulation.shard;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * test for the shard transports
+ */
+public final class TestCTransport
+{
+    /**
+     * number of shards
+     */
+    private static final int SHARDS = 3;
+
+    /**
+     * test of the in-process queue transport
+     *
+     * @throws IOException on transport error
+     */
+    @Test
+    public void testqueue() throws IOException
+    {
+        TestCTransport.exchange( CQueueTransport.from( SHARDS ) );
+    }
+
+    /**
+     * test of the localhost socket transport, each shard
+     * is connected within its own thread like a process
+     *
+     * @throws IOException on transport error
+     */
+    @Test
+    public void testsocket() throws IOException
+    {
+        final int l_port = 17100 + (int) ( System.nanoTime() % 1000 ) * SHARDS;
+        final ExecutorService l_executor = Executors.newFixedThreadPool( SHARDS );
+        final List<ITransport> l_transports = IntStream.range( 0, SHARDS )
+                                                       .mapToObj( i -> CompletableFuture.supplyAsync( () -> TestCTransport.socket( i, l_port ), l_executor ) )
+                                                       .collect( Collectors.toList() )
+                                                       .stream()
+                                                       .map( CompletableFuture::join )
+                                                       .collect( Collectors.toList() );
+        l_executor.shutdown();
+        try
+        {
+            TestCTransport.exchange( l_transports );
+        }
+        finally
+        {
+            for ( final ITransport i : l_transports )
+                i.close();
+        }
+    }
+
+    /**
+     * each shard sends messages to all other shards before
+     * receiving, the messages must be received in order
+     *
+     * @param p_transports transports in shard order
+     * @throws IOException on transport error
+     */
+    private static void exchange( final List<ITransport> p_transports ) throws IOException
+    {
+        for ( final ITransport i : p_transports )
+        {
+            assertEquals( p_transports.indexOf( i ), i.shard() );
+            for ( int j = 0; j < SHARDS; j++ )
+                if ( j != i.shard() )
+                    i.send( j, new byte[]{(byte) i.shard(), (byte) j, 1} ).send( j, new byte[100000] );
+        }
+
+        for ( final ITransport i : p_transports )
+            for ( int j = 0; j < SHARDS; j++ )
+                if ( j != i.shard() )
+                {
+                    assertArrayEquals( new byte[]{(byte) j, (byte) i.shard(), 1}, i.receive( j ) );
+                    assertEquals( 100000, i.receive( j ).length );
+                }
+    }
+
+    /**
+     * creates a socket transport
+     *
+     * @param p_shard shard index
+     * @param p_port base port
+     * @return transport
+     */
+    private static ITransport socket( final int p_shard, final int p_port )
+    {
+        try
+        {
+            return new CSocketTransport( p_shard, SHARDS, p_port );
+        }
+        catch ( final IOException l_exception )
+        {
+            throw new UncheckedIOException( l_exception );
+        }
+    }
+
+}